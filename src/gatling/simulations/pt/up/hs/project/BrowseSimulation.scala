@@ -0,0 +1,123 @@
+package pt.up.hs.project
+
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+
+import scala.util.Random
+
+/**
+ * Load test of the read paths: listing (offset and keyset pagination),
+ * search and count of participants and tasks, labels, projects and project
+ * permissions.
+ */
+class BrowseSimulation extends Simulation {
+
+  import LoadTest._
+
+  private val searchFeeder = Iterator.continually(Map("term" -> s"${Random.nextInt(participants)}"))
+
+  val browse = exec(
+    http("List participants")
+      .get("/api/projects/${projectId}/participants")
+      .queryParam("page", "0")
+      .queryParam("size", "20")
+      .queryParam("sort", "name,asc")
+      .check(status.is(200))
+  ).exec(
+    http("List participants by keyset")
+      .get("/api/projects/${projectId}/participants")
+      .queryParam("cursor", "")
+      .queryParam("size", "20")
+      .queryParam("sort", "name,asc")
+      .check(status.is(200))
+      .check(header("X-Next-Cursor").optional.saveAs("participantsCursor"))
+  ).exec(
+    http("List participants by label")
+      .get("/api/projects/${projectId}/participants")
+      .queryParam("labels", "${labelIds.random()}")
+      .queryParam("size", "20")
+      .check(status.is(200))
+  ).exec(
+    http("Get participants basic info")
+      .get("/api/projects/${projectId}/participants/basic")
+      .check(status.is(200))
+  ).exec(
+    http("Count participants")
+      .get("/api/projects/${projectId}/participants/count")
+      .check(status.is(200))
+  )
+    .doIf("${participantsCursor.exists()}") {
+      exec(
+        http("List participants next page by keyset")
+          .get("/api/projects/${projectId}/participants")
+          .queryParam("cursor", "${participantsCursor}")
+          .queryParam("size", "20")
+          .check(status.is(200))
+      )
+    }
+    .feed(searchFeeder)
+    .exec(
+      http("Search participants")
+        .get("/api/projects/${projectId}/participants")
+        .queryParam("search", "${term}")
+        .queryParam("size", "20")
+        .check(status.is(200))
+    ).exec(
+      http("Count participants search")
+        .get("/api/projects/${projectId}/participants/count")
+        .queryParam("search", "${term}")
+        .check(status.is(200))
+    ).exec(
+      http("List tasks")
+        .get("/api/projects/${projectId}/tasks")
+        .queryParam("page", "0")
+        .queryParam("size", "20")
+        .queryParam("sort", "name,asc")
+        .check(status.is(200))
+    ).exec(
+      http("Search tasks")
+        .get("/api/projects/${projectId}/tasks")
+        .queryParam("search", "${term}")
+        .queryParam("size", "20")
+        .check(status.is(200))
+    ).exec(
+      http("Count tasks")
+        .get("/api/projects/${projectId}/tasks/count")
+        .check(status.is(200))
+    ).exec(
+      http("Get all labels")
+        .get("/api/projects/${projectId}/labels")
+        .check(status.is(200))
+    ).exec(
+      http("Count labels")
+        .get("/api/projects/${projectId}/labels/count")
+        .check(status.is(200))
+    ).exec(
+      http("Get project")
+        .get("/api/projects/${projectId}")
+        .check(status.is(200))
+    ).exec(
+      http("List projects")
+        .get("/api/projects")
+        .check(status.is(200))
+    ).exec(
+      http("Get project permissions")
+        .get("/api/projects/${projectId}/permissions")
+        .check(status.is(200))
+    ).exec(
+      http("Get user permissions")
+        .get("/api/permissions/${login}")
+        .check(status.is(200))
+    )
+
+  val scn = scenario("Browse a project")
+    .feed(userFeeder)
+    .exec(setupProject)
+    .during(duration) {
+      exec(browse).pause(1)
+    }
+
+  setUp(scn.inject(rampUsers(users) during rampUp))
+    .protocols(httpProtocol)
+    .assertions(global.failedRequests.percent.lte(1))
+}
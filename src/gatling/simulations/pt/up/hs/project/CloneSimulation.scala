@@ -0,0 +1,54 @@
+package pt.up.hs.project
+
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+
+import scala.concurrent.duration._
+
+/**
+ * Load test of project cloning: each user copies its project and polls
+ * the clone job until it ends. The time until the copy is complete is
+ * measured by the "Clone project until completed" group.
+ */
+class CloneSimulation extends Simulation {
+
+  import LoadTest._
+
+  private val endedStatuses = Set("COMPLETED", "FAILED", "STOPPED", "ABANDONED")
+
+  val clone = group("Clone project until completed") {
+    exec(
+      http("Copy project")
+        .post("/api/projects/${projectId}/copy")
+        .body(StringBody("""{"copyPermissions":true,"move":false}""")).asJson
+        .check(status.is(201))
+        .check(jsonPath("$.id").saveAs("newProjectId"))
+    )
+      .exec(session => session.remove("cloneStatus"))
+      .asLongAs(session => !session("cloneStatus").asOption[String].exists(endedStatuses.contains)) {
+        pause(500.milliseconds)
+          .exec(
+            http("Get clone job")
+              .get("/api/projects/${newProjectId}/clone-job")
+              .check(status.in(200, 404))
+              .check(jsonPath("$.status").optional.saveAs("cloneStatus"))
+          )
+      }
+  }
+    .exec(
+      http("Count cloned participants")
+        .get("/api/projects/${newProjectId}/participants/count")
+        .check(status.is(200))
+    )
+
+  val scn = scenario("Clone a project")
+    .feed(userFeeder)
+    .exec(setupProject)
+    .during(duration) {
+      exec(clone).pause(1)
+    }
+
+  setUp(scn.inject(rampUsers(users) during rampUp))
+    .protocols(httpProtocol)
+    .assertions(global.failedRequests.percent.lte(1))
+}
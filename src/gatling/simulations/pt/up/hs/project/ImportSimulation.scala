@@ -0,0 +1,30 @@
+package pt.up.hs.project
+
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+
+/**
+ * Load test of the CSV imports of participants and tasks, repeated into
+ * the project of each user.
+ */
+class ImportSimulation extends Simulation {
+
+  import LoadTest._
+
+  val scn = scenario("Import participants and tasks")
+    .feed(userFeeder)
+    .exec(createProject)
+    .during(duration) {
+      exec(importParticipants, importTasks)
+        .exec(
+          http("Count participants")
+            .get("/api/projects/${projectId}/participants/count")
+            .check(status.is(200))
+        )
+        .pause(1)
+    }
+
+  setUp(scn.inject(rampUsers(users) during rampUp))
+    .protocols(httpProtocol)
+    .assertions(global.failedRequests.percent.lte(1))
+}
@@ -0,0 +1,92 @@
+package pt.up.hs.project
+
+import io.gatling.commons.validation._
+import io.gatling.core.Predef._
+import io.gatling.core.structure.ChainBuilder
+import io.gatling.http.Predef._
+import io.gatling.http.protocol.HttpProtocolBuilder
+
+import scala.concurrent.duration._
+
+/**
+ * Settings and chains shared by the load-test simulations, which run
+ * against the load-test server (see LoadTestServer).
+ *
+ * Each virtual user is a distinct user of the application, authenticated
+ * with a load-test token, who creates a project of its own and imports its
+ * participants and tasks from CSV before the measured scenario.
+ */
+object LoadTest {
+
+  val baseURL: String = System.getProperty("baseURL", "http://localhost:8081")
+  val users: Int = Integer.getInteger("users", 10)
+  val rampUp: FiniteDuration = Integer.getInteger("rampUp", 30).intValue.seconds
+  val duration: FiniteDuration = Integer.getInteger("duration", 120).intValue.seconds
+  val participants: Int = Integer.getInteger("participants", 1000)
+  val tasks: Int = Integer.getInteger("tasks", 100)
+
+  val httpProtocol: HttpProtocolBuilder = http
+    .baseUrl(baseURL)
+    .acceptHeader("application/json")
+    .acceptEncodingHeader("gzip, deflate")
+    .userAgentHeader("Gatling")
+    .header("Authorization", "Bearer loadtest-${login}")
+
+  private val runId = System.currentTimeMillis
+
+  /** Logins of the virtual users, unique across runs against the same server. */
+  val userFeeder: Iterator[Map[String, String]] =
+    Iterator.from(1).map(i => Map("login" -> s"user-$runId-$i"))
+
+  private val labelNames = (0 until 10).map(i => s"label-$i")
+
+  private def labelsOf(i: Int): String =
+    s"${labelNames(i % labelNames.size)}; ${labelNames((i + 3) % labelNames.size)}"
+
+  lazy val participantsCsv: String = (0 until participants)
+    .map(i =>
+      s"Participant $i,${if (i % 2 == 0) "MALE" else "FEMALE"},2020-02-${10 + i % 19},RIGHT HAND," +
+        s"additional info of participant $i,${labelsOf(i)}"
+    )
+    .mkString("name,gender,birthdate,handedness,additional info,labels\n", "\n", "\n")
+
+  lazy val tasksCsv: String = (0 until tasks)
+    .map(i => s"Task $i,description of task $i,2020-02-${10 + i % 19},2020-03-${10 + i % 19},${labelsOf(i)}")
+    .mkString("name,description,start date,end date,labels\n", "\n", "\n")
+
+  val createProject: ChainBuilder = exec(
+    http("Create project")
+      .post("/api/projects")
+      .body(StringBody("""{"name":"Load test ${login}","status":"OPEN","color":"#336699"}""")).asJson
+      .check(status.is(201))
+      .check(jsonPath("$.id").saveAs("projectId"))
+  )
+
+  val importParticipants: ChainBuilder = exec(
+    http("Import participants")
+      .post("/api/projects/${projectId}/participants/import")
+      .queryParam("include-data", "false")
+      .header("Content-Type", "text/csv")
+      .body(StringBody(_ => participantsCsv.success))
+      .check(status.is(200))
+  )
+
+  val importTasks: ChainBuilder = exec(
+    http("Import tasks")
+      .post("/api/projects/${projectId}/tasks/import")
+      .queryParam("include-data", "false")
+      .header("Content-Type", "text/csv")
+      .body(StringBody(_ => tasksCsv.success))
+      .check(status.is(200))
+  )
+
+  val getLabels: ChainBuilder = exec(
+    http("Get all labels")
+      .get("/api/projects/${projectId}/labels")
+      .check(status.is(200))
+      .check(jsonPath("$[*].id").findAll.saveAs("labelIds"))
+  )
+
+  /** Project of the user, with its participants, tasks and labels. */
+  val setupProject: ChainBuilder = exec(createProject, importParticipants, importTasks, getLabels)
+}
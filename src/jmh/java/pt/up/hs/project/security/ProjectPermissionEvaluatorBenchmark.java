@@ -0,0 +1,153 @@
+package pt.up.hs.project.security;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import pt.up.hs.project.domain.Project;
+import pt.up.hs.project.repository.ProjectPermissionGrant;
+import pt.up.hs.project.repository.ProjectPermissionRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link ProjectPermissionEvaluator#hasPermission}, as run by
+ * {@code @PreAuthorize} on every request, for a user granted permissions in
+ * a given number of projects.
+ * <p>
+ * The permission cache runs on a standalone Hazelcast member, with the near
+ * cache of {@code CacheConfiguration}, and loads the grants from an
+ * in-memory repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectPermissionEvaluatorBenchmark {
+
+    private static final String USER = "user";
+    private static final String TARGET_TYPE = Project.class.getCanonicalName();
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private HazelcastInstance hazelcastInstance;
+    private ProjectPermissionCache projectPermissionCache;
+    private ProjectPermissionEvaluator evaluator;
+    private Authentication authentication;
+
+    private long grantedProjectId;
+    private long otherProjectId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Config config = new Config();
+        config.setInstanceName("permission-benchmark");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getTcpIpConfig().setEnabled(false);
+        NearCacheConfig nearCacheConfig = new NearCacheConfig();
+        nearCacheConfig.setInMemoryFormat(InMemoryFormat.OBJECT);
+        nearCacheConfig.setInvalidateOnChange(true);
+        nearCacheConfig.setCacheLocalEntries(true);
+        config.getMapConfigs().put(ProjectPermissionCache.MAP_NAME, new MapConfig().setNearCacheConfig(nearCacheConfig));
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+
+        List<ProjectPermissionGrant> grants = new ArrayList<>(2 * size);
+        for (long projectId = 1; projectId <= size; projectId++) {
+            grants.add(new Grant(USER, projectId, PermissionsConstants.READ));
+            grants.add(new Grant(USER, projectId, PermissionsConstants.WRITE));
+        }
+        ProjectPermissionRepository repository = (ProjectPermissionRepository) Proxy.newProxyInstance(
+            ProjectPermissionRepository.class.getClassLoader(),
+            new Class<?>[] { ProjectPermissionRepository.class },
+            (proxy, method, args) -> {
+                if ("findGrantsByUser".equals(method.getName())) {
+                    return USER.equals(args[0]) ? grants : Collections.emptyList();
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        );
+
+        projectPermissionCache = new ProjectPermissionCache(
+            hazelcastInstance, new SimpleMeterRegistry(), new PermissionVersions(hazelcastInstance), repository
+        );
+        evaluator = new ProjectPermissionEvaluator(projectPermissionCache);
+
+        authentication = new UsernamePasswordAuthenticationToken(
+            USER, "", Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        grantedProjectId = (size + 1) / 2;
+        otherProjectId = size + 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        hazelcastInstance.shutdown();
+    }
+
+    @Benchmark
+    public boolean hasPermissionGranted() {
+        return evaluator.hasPermission(authentication, grantedProjectId, TARGET_TYPE, PermissionsConstants.READ);
+    }
+
+    @Benchmark
+    public boolean hasPermissionDenied() {
+        return evaluator.hasPermission(authentication, otherProjectId, TARGET_TYPE, PermissionsConstants.READ);
+    }
+
+    /**
+     * Check after the permissions of the user have been evicted, i.e.,
+     * including loading them.
+     */
+    @Benchmark
+    public boolean hasPermissionAfterEviction() {
+        projectPermissionCache.evict(USER);
+        return evaluator.hasPermission(authentication, grantedProjectId, TARGET_TYPE, PermissionsConstants.READ);
+    }
+
+    private static final class Grant implements ProjectPermissionGrant {
+
+        private final String user;
+        private final Long projectId;
+        private final String permissionName;
+
+        Grant(String user, Long projectId, String permissionName) {
+            this.user = user;
+            this.projectId = projectId;
+            this.permissionName = permissionName;
+        }
+
+        @Override
+        public String getUser() {
+            return user;
+        }
+
+        @Override
+        public Long getProjectId() {
+            return projectId;
+        }
+
+        @Override
+        public String getPermissionName() {
+            return permissionName;
+        }
+    }
+}
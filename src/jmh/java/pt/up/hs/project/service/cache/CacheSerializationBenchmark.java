@@ -0,0 +1,197 @@
+package pt.up.hs.project.service.cache;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import org.openjdk.jmh.annotations.*;
+import pt.up.hs.project.domain.enumeration.ProjectStatus;
+import pt.up.hs.project.security.PermissionsConstants;
+import pt.up.hs.project.service.dto.LabelDTO;
+import pt.up.hs.project.service.dto.LabelUsageDTO;
+import pt.up.hs.project.service.dto.ParticipantBasicDTO;
+import pt.up.hs.project.service.dto.ProjectCountsDTO;
+import pt.up.hs.project.service.dto.ProjectDTO;
+import pt.up.hs.project.service.dto.ProjectPermissionDTO;
+import pt.up.hs.project.service.dto.TaskBasicDTO;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the serialization of the values of the read caches and of
+ * the project counts, as stored in Hazelcast, with default Java
+ * serialization ({@code java}) and with {@link CacheSerializers}
+ * ({@code binary}). Each value is a project with the given number of
+ * permissions, or the list of the given number of labels, participants or
+ * tasks of a project, or the counts of a project with the given number of
+ * labels.
+ * <p>
+ * The size of each serialized value, in bytes per entry, is printed when
+ * each trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializationBenchmark {
+
+    private static final long PROJECT_ID = 1L;
+    private static final int LABEL_COUNT = 20;
+    private static final int LABELS_PER_ENTITY = 3;
+
+    @Param({"java", "binary"})
+    private String codec;
+
+    @Param({"project", "labels", "participants", "tasks", "counts"})
+    private String value;
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private InternalSerializationService serializationService;
+
+    private Object object;
+    private Data data;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SerializationConfig serializationConfig = new SerializationConfig();
+        if ("binary".equals(codec)) {
+            CacheSerializers.register(serializationConfig);
+        }
+        serializationService = new DefaultSerializationServiceBuilder()
+            .setConfig(serializationConfig)
+            .build();
+
+        object = createValue();
+        data = serializationService.toData(object);
+        System.out.printf(
+            "%n%s %s (%d): %d bytes, %d bytes per entry%n",
+            codec, value, size, data.totalSize(), data.totalSize() / size
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        serializationService.dispose();
+    }
+
+    @Benchmark
+    public Data encode() {
+        return serializationService.toData(object);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializationService.toObject(data);
+    }
+
+    private Object createValue() {
+        switch (value) {
+            case "project":
+                return project();
+            case "labels":
+                return labels();
+            case "participants":
+                return participants();
+            case "tasks":
+                return tasks();
+            case "counts":
+                return counts();
+            default:
+                throw new IllegalArgumentException(value);
+        }
+    }
+
+    private ProjectDTO project() {
+        ProjectDTO project = new ProjectDTO();
+        project.setId(PROJECT_ID);
+        project.setName("Project");
+        project.setDescription("description of the project");
+        project.setStatus(ProjectStatus.OPEN);
+        project.setColor("#000000");
+        project.setOwner("owner");
+        project.setCreatedBy("owner");
+        project.setLastModifiedBy("owner");
+        Set<ProjectPermissionDTO> permissions = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            ProjectPermissionDTO permission = new ProjectPermissionDTO();
+            permission.setUser("user-" + i);
+            permission.setProjectId(PROJECT_ID);
+            permission.setPermissionName(PermissionsConstants.READ);
+            permissions.add(permission);
+        }
+        project.setPermissions(permissions);
+        return project;
+    }
+
+    private ArrayList<LabelDTO> labels() {
+        ArrayList<LabelDTO> labels = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            LabelDTO label = new LabelDTO();
+            label.setId((long) i + 1);
+            label.setName("label-" + i);
+            label.setColor("#00000" + (i % 10));
+            label.setProjectId(PROJECT_ID);
+            labels.add(label);
+        }
+        return labels;
+    }
+
+    private ArrayList<ParticipantBasicDTO> participants() {
+        ArrayList<ParticipantBasicDTO> participants = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ParticipantBasicDTO participant = new ParticipantBasicDTO();
+            participant.setId((long) i + 1);
+            participant.setName("Participant " + i);
+            participant.setProjectId(PROJECT_ID);
+            participant.setImageHash(Integer.toHexString(i));
+            participant.setCreatedBy("owner");
+            participant.setLastModifiedBy("owner");
+            participant.setLabelIds(labelIdsOf(i));
+            participants.add(participant);
+        }
+        return participants;
+    }
+
+    private ArrayList<TaskBasicDTO> tasks() {
+        ArrayList<TaskBasicDTO> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TaskBasicDTO task = new TaskBasicDTO();
+            task.setId((long) i + 1);
+            task.setName("Task " + i);
+            task.setProjectId(PROJECT_ID);
+            task.setLabelIds(labelIdsOf(i));
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private ProjectCountsDTO counts() {
+        ProjectCountsDTO counts = new ProjectCountsDTO();
+        counts.setProjectId(PROJECT_ID);
+        counts.setParticipants(size * 10L);
+        counts.setTasks(size * 10L);
+        counts.setLabels(size);
+        List<LabelUsageDTO> labelUsage = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            labelUsage.add(new LabelUsageDTO((long) i + 1, i, i));
+        }
+        counts.setLabelUsage(labelUsage);
+        return counts;
+    }
+
+    private static Set<Long> labelIdsOf(int i) {
+        Set<Long> labelIds = new HashSet<>();
+        for (int j = 0; j < LABELS_PER_ENTITY; j++) {
+            labelIds.add((long) (i + j) % LABEL_COUNT + 1);
+        }
+        return labelIds;
+    }
+}
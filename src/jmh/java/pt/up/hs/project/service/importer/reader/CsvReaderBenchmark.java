@@ -0,0 +1,84 @@
+package pt.up.hs.project.service.importer.reader;
+
+import org.openjdk.jmh.annotations.*;
+import pt.up.hs.project.service.importer.dto.ParticipantCsvDTO;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Benchmark of the parsing of participant CSV files by {@link CsvReader},
+ * on the reading thread and on a worker pool (as configured by
+ * {@code CsvReaderFactory}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvReaderBenchmark {
+
+    private static final int BLOCK_SIZE = 250;
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private byte[] csv;
+    private int concurrency;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StringBuilder builder = new StringBuilder("name,gender,birthdate,handedness,additional info,labels\n");
+        for (int i = 0; i < size; i++) {
+            builder.append("Participant ").append(i).append(',')
+                .append(i % 2 == 0 ? "MALE" : "FEMALE").append(',')
+                .append("2020-02-").append(10 + i % 19).append(',')
+                .append("RIGHT_HAND").append(',')
+                .append("\"additional info, of participant ").append(i).append('"').append(',')
+                .append("label-").append(i % 20).append("; label-").append((i + 7) % 20).append('\n');
+        }
+        csv = builder.toString().getBytes(StandardCharsets.UTF_8);
+        concurrency = Runtime.getRuntime().availableProcessors();
+        executor = Executors.newFixedThreadPool(concurrency);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int readOnReadingThread() throws Exception {
+        try (CsvReader<ParticipantCsvDTO> reader = CsvReader.fromInputStream(
+            ParticipantCsvDTO.class, new ByteArrayInputStream(csv), ",", true
+        )) {
+            return count(reader);
+        }
+    }
+
+    @Benchmark
+    public int readOnWorkerPool() throws Exception {
+        try (CsvReader<ParticipantCsvDTO> reader = CsvReader.fromInputStream(
+            ParticipantCsvDTO.class, new ByteArrayInputStream(csv), ",", true,
+            Function.identity(), executor, BLOCK_SIZE, 2 * concurrency
+        )) {
+            return count(reader);
+        }
+    }
+
+    private static int count(CsvReader<ParticipantCsvDTO> reader) {
+        int count = 0;
+        for (ParticipantCsvDTO participantCsvDTO : reader) {
+            if (participantCsvDTO.getName() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
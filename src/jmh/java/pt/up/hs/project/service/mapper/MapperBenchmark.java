@@ -0,0 +1,146 @@
+package pt.up.hs.project.service.mapper;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import pt.up.hs.project.domain.*;
+import pt.up.hs.project.domain.enumeration.Gender;
+import pt.up.hs.project.domain.enumeration.HandwritingMean;
+import pt.up.hs.project.security.PermissionsConstants;
+import pt.up.hs.project.service.dto.ParticipantDTO;
+import pt.up.hs.project.service.dto.ProjectPermissionDTO;
+import pt.up.hs.project.service.dto.TaskDTO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the MapStruct mappers of participants, tasks and project
+ * permissions, mapping lists of entities (each with a few labels) to DTOs
+ * and back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final long PROJECT_ID = 1L;
+    private static final int LABEL_COUNT = 20;
+    private static final int LABELS_PER_ENTITY = 3;
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private AnnotationConfigApplicationContext context;
+
+    private ParticipantMapper participantMapper;
+    private TaskMapper taskMapper;
+    private ProjectPermissionMapper projectPermissionMapper;
+
+    private List<Participant> participants;
+    private List<ParticipantDTO> participantDTOs;
+    private List<Task> tasks;
+    private List<TaskDTO> taskDTOs;
+    private List<ProjectPermission> projectPermissions;
+    private List<ProjectPermissionDTO> projectPermissionDTOs;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new AnnotationConfigApplicationContext(MapperBenchmark.class.getPackage().getName());
+        participantMapper = context.getBean(ParticipantMapper.class);
+        taskMapper = context.getBean(TaskMapper.class);
+        projectPermissionMapper = context.getBean(ProjectPermissionMapper.class);
+
+        List<Label> labels = new ArrayList<>(LABEL_COUNT);
+        for (int i = 0; i < LABEL_COUNT; i++) {
+            Label label = new Label().name("label-" + i).color("#00000" + (i % 10)).projectId(PROJECT_ID);
+            label.setId((long) i + 1);
+            labels.add(label);
+        }
+
+        participants = new ArrayList<>(size);
+        tasks = new ArrayList<>(size);
+        projectPermissions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Participant participant = new Participant()
+                .name("Participant " + i)
+                .gender(i % 2 == 0 ? Gender.MALE : Gender.FEMALE)
+                .handedness(HandwritingMean.RIGHT_HAND)
+                .birthdate(LocalDate.ofEpochDay(i % 20000))
+                .additionalInfo("additional info of participant " + i)
+                .projectId(PROJECT_ID)
+                .labels(labelsOf(labels, i));
+            participant.setId((long) i + 1);
+            participants.add(participant);
+
+            Task task = new Task()
+                .name("Task " + i)
+                .description("description of task " + i)
+                .startDate(LocalDate.ofEpochDay(i % 20000))
+                .endDate(LocalDate.ofEpochDay(i % 20000 + 1))
+                .projectId(PROJECT_ID)
+                .labels(labelsOf(labels, i));
+            task.setId((long) i + 1);
+            tasks.add(task);
+
+            Project project = new Project();
+            project.setId((long) i + 1);
+            projectPermissions.add(new ProjectPermission().id(new ProjectPermissionId(
+                "user", project, new Permission().name(PermissionsConstants.ALL[i % PermissionsConstants.ALL.length])
+            )));
+        }
+
+        participantDTOs = participantMapper.toDto(participants);
+        taskDTOs = taskMapper.toDto(tasks);
+        projectPermissionDTOs = projectPermissionMapper.toDto(projectPermissions);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ParticipantDTO> participantsToDto() {
+        return participantMapper.toDto(participants);
+    }
+
+    @Benchmark
+    public List<Participant> participantsToEntity() {
+        return participantMapper.toEntity(participantDTOs);
+    }
+
+    @Benchmark
+    public List<TaskDTO> tasksToDto() {
+        return taskMapper.toDto(tasks);
+    }
+
+    @Benchmark
+    public List<Task> tasksToEntity() {
+        return taskMapper.toEntity(taskDTOs);
+    }
+
+    @Benchmark
+    public List<ProjectPermissionDTO> projectPermissionsToDto() {
+        return projectPermissionMapper.toDto(projectPermissions);
+    }
+
+    @Benchmark
+    public List<ProjectPermission> projectPermissionsToEntity() {
+        return projectPermissionMapper.toEntity(projectPermissionDTOs);
+    }
+
+    private static Set<Label> labelsOf(List<Label> labels, int i) {
+        Set<Label> set = new HashSet<>(LABELS_PER_ENTITY);
+        for (int j = 0; j < LABELS_PER_ENTITY; j++) {
+            set.add(labels.get((i + j * 7) % labels.size()));
+        }
+        return set;
+    }
+}
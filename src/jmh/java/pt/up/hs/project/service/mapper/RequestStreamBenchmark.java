@@ -0,0 +1,87 @@
+package pt.up.hs.project.service.mapper;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import pt.up.hs.project.domain.Label;
+import pt.up.hs.project.service.dto.LabelDTO;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark of the per-request collection processing of the services and
+ * mappers (e.g., labels of a participant, labels or permissions of a
+ * project) under 200 concurrent clients, sequentially as done now and with
+ * {@code parallelStream()}, as done before. The sampled latencies include
+ * the 99th percentile of each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(200)
+@Fork(1)
+public class RequestStreamBenchmark {
+
+    @Param({"5", "20", "100"})
+    private int size;
+
+    private AnnotationConfigApplicationContext context;
+
+    private LabelMapper labelMapper;
+    private ParticipantBasicMapper participantBasicMapper;
+
+    private Set<Label> labels;
+    private List<Label> labelList;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new AnnotationConfigApplicationContext(RequestStreamBenchmark.class.getPackage().getName());
+        labelMapper = context.getBean(LabelMapper.class);
+        participantBasicMapper = context.getBean(ParticipantBasicMapper.class);
+
+        labels = new HashSet<>(size);
+        for (int i = 0; i < size; i++) {
+            Label label = new Label().name("label-" + i).color("#000000").projectId(1L);
+            label.setId((long) i + 1);
+            labels.add(label);
+        }
+        labelList = new ArrayList<>(labels);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Set<Long> labelsToIdsSequential() {
+        return participantBasicMapper.labelsToIds(labels);
+    }
+
+    @Benchmark
+    public Set<Long> labelsToIdsParallel() {
+        return labels.parallelStream()
+            .map(Label::getId)
+            .collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public List<LabelDTO> labelsToDtoSequential() {
+        return labelList.stream()
+            .map(labelMapper::toDto)
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<LabelDTO> labelsToDtoParallel() {
+        return labelList.parallelStream()
+            .map(labelMapper::toDto)
+            .collect(Collectors.toList());
+    }
+}
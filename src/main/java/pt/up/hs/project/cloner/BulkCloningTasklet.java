@@ -0,0 +1,93 @@
+package pt.up.hs.project.cloner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import pt.up.hs.project.config.Constants;
+import pt.up.hs.project.repository.BulkCloneRepository;
+import pt.up.hs.project.security.SecurityUtils;
+import pt.up.hs.project.service.ProjectCounterService;
+import pt.up.hs.project.service.cache.ProjectReadCaches;
+
+import javax.annotation.Nonnull;
+
+import static pt.up.hs.project.cloner.ClonerConstants.*;
+
+/**
+ * Tasklet that copies labels, participants, tasks and their label
+ * associations with set-based statements. The old-to-new id pairs are left
+ * in the id mapping of the job (see {@link IdMappingStore}) for the
+ * following steps.
+ */
+@Component
+@StepScope
+public class BulkCloningTasklet implements Tasklet {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkCloningTasklet.class);
+
+    private final BulkCloneRepository bulkCloneRepository;
+    private final ProjectCounterService projectCounterService;
+    private final ProjectReadCaches projectReadCaches;
+
+    private final Long projectId;
+    private final Long newProjectId;
+    private final boolean move;
+    private final Long idMapping;
+
+    public BulkCloningTasklet(
+        final BulkCloneRepository bulkCloneRepository,
+        final ProjectCounterService projectCounterService,
+        final ProjectReadCaches projectReadCaches,
+        @Value("#{jobParameters[" + PROJECT_ID_PARAMETER + "]}") final Long projectId,
+        @Value("#{jobParameters[" + NEW_PROJECT_ID_PARAMETER + "]}") final Long newProjectId,
+        @Value("#{jobParameters[" + MOVE_PARAMETER + "]}") final boolean move,
+        @Value("#{jobExecutionContext[" + ID_MAPPING_PARAMETER + "]}") final Long idMapping
+    ) {
+        this.bulkCloneRepository = bulkCloneRepository;
+        this.projectCounterService = projectCounterService;
+        this.projectReadCaches = projectReadCaches;
+        this.projectId = projectId;
+        this.newProjectId = newProjectId;
+        this.move = move;
+        this.idMapping = idMapping;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public RepeatStatus execute(
+        @Nonnull StepContribution contribution,
+        @Nonnull ChunkContext chunkContext
+    ) {
+        String auditor = SecurityUtils.getCurrentUserLogin().orElse(Constants.SYSTEM_ACCOUNT);
+
+        int labelCount = bulkCloneRepository.copyLabels(idMapping, projectId, newProjectId);
+        int participantCount = bulkCloneRepository
+            .copyParticipants(idMapping, projectId, newProjectId, auditor);
+        int taskCount = bulkCloneRepository.copyTasks(idMapping, projectId, newProjectId, auditor);
+        contribution.incrementWriteCount(labelCount + participantCount + taskCount);
+
+        if (move) {
+            bulkCloneRepository.deleteProjectContents(projectId);
+            projectCounterService.refresh(projectId);
+            projectReadCaches.evictContents(projectId);
+        }
+        // set-based statements, so recount rather than count each copy
+        projectCounterService.refresh(newProjectId);
+        projectReadCaches.evictContents(newProjectId);
+
+        LOG.debug(
+            "Cloned {} labels, {} participants and {} tasks from project {} to project {}",
+            labelCount, participantCount, taskCount, projectId, newProjectId
+        );
+
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,128 @@
+package pt.up.hs.project.cloner;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.stereotype.Component;
+import pt.up.hs.project.repository.LabelRepository;
+import pt.up.hs.project.repository.ParticipantRepository;
+import pt.up.hs.project.repository.TaskRepository;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+
+import static pt.up.hs.project.cloner.ClonerConstants.*;
+
+/**
+ * Listener that records the number of entities to clone when a cloning job
+ * starts (to estimate its progress), and times steps and chunks with
+ * Micrometer.
+ */
+@Component
+public class CloneProgressListener implements JobExecutionListener, StepExecutionListener, ChunkListener {
+
+    private static final String STEP_TIMER = "cloner.step";
+    private static final String CHUNK_TIMER = "cloner.chunk";
+    private static final String CHUNK_SAMPLE_KEY = "cloner.chunk.sample";
+
+    private final MeterRegistry meterRegistry;
+    private final LabelRepository labelRepository;
+    private final ParticipantRepository participantRepository;
+    private final TaskRepository taskRepository;
+
+    public CloneProgressListener(
+        MeterRegistry meterRegistry,
+        LabelRepository labelRepository,
+        ParticipantRepository participantRepository,
+        TaskRepository taskRepository
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.labelRepository = labelRepository;
+        this.participantRepository = participantRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    @Override
+    public void beforeJob(@Nonnull JobExecution jobExecution) {
+        ExecutionContext executionContext = jobExecution.getExecutionContext();
+        if (executionContext.containsKey(LABEL_TOTAL_PARAMETER)) {
+            return; // restarted
+        }
+        Long projectId = jobExecution.getJobParameters().getLong(PROJECT_ID_PARAMETER);
+        long labels = labelRepository.countByProjectId(projectId);
+        long participants = participantRepository.countByProjectId(projectId);
+        long tasks = taskRepository.countByProjectId(projectId);
+        executionContext.putLong(LABEL_TOTAL_PARAMETER, labels);
+        executionContext.putLong(PARTICIPANT_TOTAL_PARAMETER, participants);
+        executionContext.putLong(TASK_TOTAL_PARAMETER, tasks);
+    }
+
+    @Override
+    public void afterJob(@Nonnull JobExecution jobExecution) {
+    }
+
+    @Override
+    public void beforeStep(@Nonnull StepExecution stepExecution) {
+    }
+
+    @Override
+    public ExitStatus afterStep(@Nonnull StepExecution stepExecution) {
+        if (stepExecution.getStartTime() != null) {
+            long duration = System.currentTimeMillis() - stepExecution.getStartTime().getTime();
+            Timer.builder(STEP_TIMER)
+                .description("Duration of project cloning steps")
+                .tag("step", stepName(stepExecution.getStepName()))
+                .tag("status", stepExecution.getStatus().name())
+                .register(meterRegistry)
+                .record(duration, TimeUnit.MILLISECONDS);
+        }
+        return stepExecution.getExitStatus();
+    }
+
+    @Override
+    public void beforeChunk(@Nonnull ChunkContext context) {
+        context.setAttribute(CHUNK_SAMPLE_KEY, Timer.start(meterRegistry));
+    }
+
+    @Override
+    public void afterChunk(@Nonnull ChunkContext context) {
+        stopChunkTimer(context, "COMPLETED");
+    }
+
+    @Override
+    public void afterChunkError(@Nonnull ChunkContext context) {
+        stopChunkTimer(context, "FAILED");
+    }
+
+    private void stopChunkTimer(ChunkContext context, String status) {
+        Timer.Sample sample = (Timer.Sample) context.removeAttribute(CHUNK_SAMPLE_KEY);
+        if (sample == null) {
+            return;
+        }
+        sample.stop(
+            Timer.builder(CHUNK_TIMER)
+                .description("Duration of project cloning chunks")
+                .tag("step", stepName(context.getStepContext().getStepName()))
+                .tag("status", status)
+                .register(meterRegistry)
+        );
+    }
+
+    /**
+     * Name of a step without the partition suffix, to keep tags bounded.
+     *
+     * @param stepName name of the step execution.
+     * @return name of the step.
+     */
+    static String stepName(String stepName) {
+        int separator = stepName.indexOf(':');
+        return separator < 0 ? stepName : stepName.substring(0, separator);
+    }
+}
@@ -9,7 +9,24 @@ public class ClonerConstants {
     public static final String MOVE_PARAMETER = "move";
     public static final String COPY_PERMISSIONS_PARAMETER = "copyPermissions";
 
-    public static final String LABEL_MAPPING_PARAMETER = "labels";
-    public static final String TASK_MAPPING_PARAMETER = "tasks";
-    public static final String PARTICIPANT_MAPPING_PARAMETER = "participants";
+    public static final String ID_MAPPING_PARAMETER = "idMapping";
+
+    public static final String LABEL_TOTAL_PARAMETER = "labelTotal";
+    public static final String PARTICIPANT_TOTAL_PARAMETER = "participantTotal";
+    public static final String TASK_TOTAL_PARAMETER = "taskTotal";
+
+    public static final String MIN_ID_PARAMETER = "minId";
+    public static final String MAX_ID_PARAMETER = "maxId";
+
+    public static final String PROJECT_CLONING_JOB = "projectCloningJob";
+
+    public static final String BULK_CLONING_STEP = "bulkCloningStep";
+    public static final String LABEL_CLONING_STEP = "labelCloningStep";
+    public static final String PARTICIPANT_CLONING_STEP = "participantCloningStep";
+    public static final String TASK_CLONING_STEP = "taskCloningStep";
+    public static final String PERMISSION_CLONING_STEP = "permissionCloningStep";
+    public static final String PROTOCOL_CLONING_STEP = "protocolCloningStep";
+    public static final String TEXT_CLONING_STEP = "textCloningStep";
+    public static final String PROJECT_REMOVAL_STEP = "projectRemovalStep";
+    public static final String WORKER_STEP_SUFFIX = "Worker";
 }
@@ -1,7 +1,10 @@
 package pt.up.hs.project.cloner;
 
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecutionListener;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
@@ -10,8 +13,16 @@ import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import pt.up.hs.project.config.ApplicationProperties;
 import pt.up.hs.project.service.dto.BulkProjectPermissionDTO;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static pt.up.hs.project.cloner.ClonerConstants.*;
+
 @EnableBatchProcessing
 @Configuration
 public class ClonerJobConfig {
@@ -19,58 +30,91 @@ public class ClonerJobConfig {
     private final JobBuilderFactory jobBuilders;
     private final StepBuilderFactory stepBuilders;
 
+    private final ApplicationProperties applicationProperties;
+
     private final PermissionItemReader permissionItemReader;
     private final PermissionItemWriter permissionItemWriter;
+    private final LabelIdRangePartitioner labelIdRangePartitioner;
     private final LabelItemReader labelItemReader;
     private final LabelItemWriter labelItemWriter;
+    private final TaskIdRangePartitioner taskIdRangePartitioner;
     private final TaskItemReader taskItemReader;
     private final TaskItemWriter taskItemWriter;
+    private final ParticipantIdRangePartitioner participantIdRangePartitioner;
     private final ParticipantItemReader participantItemReader;
     private final ParticipantItemWriter participantItemWriter;
     private final ProtocolCloningTasklet protocolCloningTasklet;
     private final TextCloningTasklet textCloningTasklet;
     private final ProjectRemovalTasklet projectRemovalTasklet;
+    private final BulkCloningTasklet bulkCloningTasklet;
+    private final IdMappingJobListener idMappingJobListener;
+    private final CloneProgressListener cloneProgressListener;
 
     @Autowired
     public ClonerJobConfig(
         JobBuilderFactory jobBuilders,
         StepBuilderFactory stepBuilders,
+        ApplicationProperties applicationProperties,
         PermissionItemReader permissionItemReader,
         PermissionItemWriter permissionItemWriter,
+        LabelIdRangePartitioner labelIdRangePartitioner,
         LabelItemReader labelItemReader,
         LabelItemWriter labelItemWriter,
+        TaskIdRangePartitioner taskIdRangePartitioner,
         TaskItemReader taskItemReader,
         TaskItemWriter taskItemWriter,
+        ParticipantIdRangePartitioner participantIdRangePartitioner,
         ParticipantItemReader participantItemReader,
         ParticipantItemWriter participantItemWriter,
         ProtocolCloningTasklet protocolCloningTasklet,
         TextCloningTasklet textCloningTasklet,
-        ProjectRemovalTasklet projectRemovalTasklet
+        ProjectRemovalTasklet projectRemovalTasklet,
+        BulkCloningTasklet bulkCloningTasklet,
+        IdMappingJobListener idMappingJobListener,
+        CloneProgressListener cloneProgressListener
     ) {
         this.jobBuilders = jobBuilders;
         this.stepBuilders = stepBuilders;
+        this.applicationProperties = applicationProperties;
         this.permissionItemReader = permissionItemReader;
         this.permissionItemWriter = permissionItemWriter;
+        this.labelIdRangePartitioner = labelIdRangePartitioner;
         this.labelItemReader = labelItemReader;
         this.labelItemWriter = labelItemWriter;
+        this.taskIdRangePartitioner = taskIdRangePartitioner;
         this.taskItemReader = taskItemReader;
         this.taskItemWriter = taskItemWriter;
+        this.participantIdRangePartitioner = participantIdRangePartitioner;
         this.participantItemReader = participantItemReader;
         this.participantItemWriter = participantItemWriter;
         this.protocolCloningTasklet = protocolCloningTasklet;
         this.textCloningTasklet = textCloningTasklet;
         this.projectRemovalTasklet = projectRemovalTasklet;
+        this.bulkCloningTasklet = bulkCloningTasklet;
+        this.idMappingJobListener = idMappingJobListener;
+        this.cloneProgressListener = cloneProgressListener;
     }
 
     public Job projectCloningJob(
         final boolean copyPermissions,
         final boolean move
     ) {
-        SimpleJobBuilder jb = jobBuilders.get("projectCloningJob")
-            .incrementer(new RunIdIncrementer())
-            .start(labelCloningStep())
-            .next(participantCloningStep())
-            .next(taskCloningStep());
+        SimpleJobBuilder jb;
+        if (applicationProperties.getCloner().isBulk()) {
+            jb = jobBuilders.get(PROJECT_CLONING_JOB)
+                .incrementer(new RunIdIncrementer())
+                .listener(idMappingJobListener)
+                .listener((JobExecutionListener) cloneProgressListener)
+                .start(bulkCloningStep());
+        } else {
+            jb = jobBuilders.get(PROJECT_CLONING_JOB)
+                .incrementer(new RunIdIncrementer())
+                .listener(idMappingJobListener)
+                .listener((JobExecutionListener) cloneProgressListener)
+                .start(labelCloningStep())
+                .next(participantCloningStep())
+                .next(taskCloningStep());
+        }
         if (copyPermissions) {
             jb.next(permissionCloningStep());
         }
@@ -80,65 +124,156 @@ public class ClonerJobConfig {
         if (move) {
             jb.next(projectRemovalStep());
         }
-        return jb
-            .preventRestart()
-            .build();
+        return jb.build();
     }
 
     @Bean
     public Step permissionCloningStep() {
-        return stepBuilders.get("permissionCloningStep")
-            .<BulkProjectPermissionDTO, BulkProjectPermissionDTO>chunk(10)
+        return stepBuilders.get(PERMISSION_CLONING_STEP)
+            .listener((StepExecutionListener) cloneProgressListener)
+            .<BulkProjectPermissionDTO, BulkProjectPermissionDTO>chunk(applicationProperties.getCloner().getChunkSize())
             .reader(permissionItemReader)
             .writer(permissionItemWriter)
+            .listener((ChunkListener) cloneProgressListener)
             .build();
     }
 
     @Bean
     public Step labelCloningStep() {
-        return stepBuilders.get("labelCloningStep")
-            .<Long, Long>chunk(10)
+        return stepBuilders.get(LABEL_CLONING_STEP)
+            .listener((StepExecutionListener) cloneProgressListener)
+            .partitioner(LABEL_CLONING_STEP + WORKER_STEP_SUFFIX, labelIdRangePartitioner)
+            .step(labelCloningWorkerStep())
+            .gridSize(applicationProperties.getCloner().getGridSize())
+            .taskExecutor(clonerTaskExecutor())
+            .build();
+    }
+
+    @Bean
+    public Step labelCloningWorkerStep() {
+        return stepBuilders.get(LABEL_CLONING_STEP + WORKER_STEP_SUFFIX)
+            .listener((StepExecutionListener) cloneProgressListener)
+            .<Long, Long>chunk(applicationProperties.getCloner().getChunkSize())
             .reader(labelItemReader)
             .writer(labelItemWriter)
+            .listener((ChunkListener) cloneProgressListener)
             .build();
     }
 
     @Bean
     public Step taskCloningStep() {
-        return stepBuilders.get("taskCloningStep")
-            .<Long, Long>chunk(10)
+        return stepBuilders.get(TASK_CLONING_STEP)
+            .listener((StepExecutionListener) cloneProgressListener)
+            .partitioner(TASK_CLONING_STEP + WORKER_STEP_SUFFIX, taskIdRangePartitioner)
+            .step(taskCloningWorkerStep())
+            .gridSize(applicationProperties.getCloner().getGridSize())
+            .taskExecutor(clonerTaskExecutor())
+            .build();
+    }
+
+    @Bean
+    public Step taskCloningWorkerStep() {
+        return stepBuilders.get(TASK_CLONING_STEP + WORKER_STEP_SUFFIX)
+            .listener((StepExecutionListener) cloneProgressListener)
+            .<Long, Long>chunk(applicationProperties.getCloner().getChunkSize())
             .reader(taskItemReader)
             .writer(taskItemWriter)
+            .listener((ChunkListener) cloneProgressListener)
             .build();
     }
 
     @Bean
     public Step participantCloningStep() {
-        return stepBuilders.get("participantCloningStep")
-            .<Long, Long>chunk(10)
+        return stepBuilders.get(PARTICIPANT_CLONING_STEP)
+            .listener((StepExecutionListener) cloneProgressListener)
+            .partitioner(PARTICIPANT_CLONING_STEP + WORKER_STEP_SUFFIX, participantIdRangePartitioner)
+            .step(participantCloningWorkerStep())
+            .gridSize(applicationProperties.getCloner().getGridSize())
+            .taskExecutor(clonerTaskExecutor())
+            .build();
+    }
+
+    @Bean
+    public Step participantCloningWorkerStep() {
+        return stepBuilders.get(PARTICIPANT_CLONING_STEP + WORKER_STEP_SUFFIX)
+            .listener((StepExecutionListener) cloneProgressListener)
+            .<Long, Long>chunk(applicationProperties.getCloner().getChunkSize())
             .reader(participantItemReader)
             .writer(participantItemWriter)
+            .listener((ChunkListener) cloneProgressListener)
+            .build();
+    }
+
+    @Bean
+    public Step bulkCloningStep() {
+        return stepBuilders.get(BULK_CLONING_STEP)
+            .listener((StepExecutionListener) cloneProgressListener)
+            .tasklet(bulkCloningTasklet)
+            .listener((ChunkListener) cloneProgressListener)
             .build();
     }
 
     @Bean
     public Step protocolCloningStep() {
-        return stepBuilders.get("protocolCloningStep")
+        return stepBuilders.get(PROTOCOL_CLONING_STEP)
+            .listener((StepExecutionListener) cloneProgressListener)
             .tasklet(protocolCloningTasklet)
+            .listener((ChunkListener) cloneProgressListener)
             .build();
     }
 
     @Bean
     public Step textCloningStep() {
-        return stepBuilders.get("textCloningStep")
+        return stepBuilders.get(TEXT_CLONING_STEP)
+            .listener((StepExecutionListener) cloneProgressListener)
             .tasklet(textCloningTasklet)
+            .listener((ChunkListener) cloneProgressListener)
             .build();
     }
 
     @Bean
     public Step projectRemovalStep() {
-        return stepBuilders.get("projectRemovalStep")
+        return stepBuilders.get(PROJECT_REMOVAL_STEP)
+            .listener((StepExecutionListener) cloneProgressListener)
             .tasklet(projectRemovalTasklet)
+            .listener((ChunkListener) cloneProgressListener)
             .build();
     }
+
+    /**
+     * Bounded executor shared by the partitions of all cloning jobs. When it
+     * is saturated, the job thread runs the partition itself.
+     *
+     * @return the executor of cloning partitions.
+     */
+    @Bean(name = "clonerTaskExecutor")
+    public TaskExecutor clonerTaskExecutor() {
+        ApplicationProperties.Cloner cloner = applicationProperties.getCloner();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cloner.getConcurrency());
+        executor.setMaxPoolSize(cloner.getConcurrency());
+        executor.setQueueCapacity(cloner.getQueueCapacity());
+        executor.setThreadNamePrefix("cloner-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Bounded executor for the copy requests sent to the sampling service by
+     * running cloning jobs.
+     *
+     * @return the executor of copy requests.
+     */
+    @Bean(name = "clonerCopyTaskExecutor")
+    public AsyncTaskExecutor clonerCopyTaskExecutor() {
+        ApplicationProperties.Cloner cloner = applicationProperties.getCloner();
+        int poolSize = cloner.getCopyConcurrency() * cloner.getJobConcurrency();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize);
+        executor.setThreadNamePrefix("cloner-copy-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
 }
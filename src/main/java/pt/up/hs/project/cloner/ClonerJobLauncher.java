@@ -3,15 +3,19 @@ package pt.up.hs.project.cloner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.explore.JobExplorer;
 import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import pt.up.hs.project.config.ApplicationProperties;
 
 import javax.annotation.Nonnull;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import static pt.up.hs.project.cloner.ClonerConstants.*;
@@ -21,17 +25,32 @@ public class ClonerJobLauncher {
 
     private static final long EXECUTION_DELAY = 500;
 
-    private static final ScheduledExecutorService executorService =
-        Executors.newSingleThreadScheduledExecutor();
-
     private final Logger log = LoggerFactory.getLogger(ClonerJobLauncher.class);
 
     private final JobLauncher jobLauncher;
+    private final JobExplorer jobExplorer;
     private final ClonerJobConfig config;
 
-    public ClonerJobLauncher(JobLauncher jobLauncher, ClonerJobConfig config) {
+    private final ScheduledThreadPoolExecutor executorService;
+
+    public ClonerJobLauncher(
+        JobLauncher jobLauncher,
+        JobExplorer jobExplorer,
+        ClonerJobConfig config,
+        ApplicationProperties applicationProperties
+    ) {
         this.jobLauncher = jobLauncher;
+        this.jobExplorer = jobExplorer;
         this.config = config;
+        this.executorService = new ScheduledThreadPoolExecutor(
+            applicationProperties.getCloner().getJobConcurrency(),
+            new CustomizableThreadFactory("cloner-job-")
+        );
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executorService.shutdown();
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
@@ -46,13 +65,39 @@ public class ClonerJobLauncher {
             .addLong(UNIQUENESS_PARAMETER, System.nanoTime())
             .addLong(PROJECT_ID_PARAMETER, projectId)
             .addLong(NEW_PROJECT_ID_PARAMETER, newProjectId)
-            .addString(MOVE_PARAMETER, Boolean.toString(move));
+            .addString(MOVE_PARAMETER, Boolean.toString(move))
+            .addString(COPY_PERMISSIONS_PARAMETER, Boolean.toString(copyPermissions));
+
+        schedule(jobParametersBuilder.toJobParameters());
+    }
+
+    /**
+     * Restart a failed cloning job execution (see
+     * {@link pt.up.hs.project.service.CloneJobService#restartLatestByNewProjectId(Long)}).
+     * Completed steps are skipped, and the step which failed resumes from
+     * its last saved progress. Labels, participants and tasks copied by
+     * chunks committed before the failure have a pair in the id mapping of
+     * the job, hence their writers do not copy them again.
+     *
+     * @param jobExecutionId ID of the failed job execution.
+     */
+    public void restart(@Nonnull Long jobExecutionId) {
+        JobExecution failedExecution = jobExplorer.getJobExecution(jobExecutionId);
+        if (failedExecution == null) {
+            log.error("Could not restart job: execution {} not found", jobExecutionId);
+            return;
+        }
+        schedule(failedExecution.getJobParameters());
+    }
 
+    private void schedule(JobParameters jobParameters) {
+        boolean copyPermissions = Boolean.parseBoolean(jobParameters.getString(COPY_PERMISSIONS_PARAMETER));
+        boolean move = Boolean.parseBoolean(jobParameters.getString(MOVE_PARAMETER));
         executorService.schedule(() -> {
             try {
                 JobExecution jobExecution = jobLauncher.run(
                     config.projectCloningJob(copyPermissions, move),
-                    jobParametersBuilder.toJobParameters()
+                    jobParameters
                 );
                 log.info("Launched job: " + jobExecution.toString());
             } catch (Exception e) {
@@ -0,0 +1,43 @@
+package pt.up.hs.project.cloner;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Nonnull;
+
+import static pt.up.hs.project.cloner.ClonerConstants.ID_MAPPING_PARAMETER;
+
+/**
+ * Listener that records the reference to the id mapping of a cloning job
+ * in its execution context, and releases the mapping once the job
+ * completes. Mappings of failed or stopped jobs are kept, so that a restart
+ * resumes with them, until {@link IdMappingStore#purgeExpired()} discards
+ * them (e.g., once the job is abandoned).
+ */
+@Component
+public class IdMappingJobListener implements JobExecutionListener {
+
+    private final IdMappingStore idMappingStore;
+
+    public IdMappingJobListener(IdMappingStore idMappingStore) {
+        this.idMappingStore = idMappingStore;
+    }
+
+    @Override
+    public void beforeJob(@Nonnull JobExecution jobExecution) {
+        ExecutionContext executionContext = jobExecution.getExecutionContext();
+        if (!executionContext.containsKey(ID_MAPPING_PARAMETER)) {
+            executionContext.putLong(ID_MAPPING_PARAMETER, jobExecution.getId());
+        }
+    }
+
+    @Override
+    public void afterJob(@Nonnull JobExecution jobExecution) {
+        if (jobExecution.getStatus() == BatchStatus.COMPLETED) {
+            idMappingStore.release(jobExecution.getExecutionContext().getLong(ID_MAPPING_PARAMETER));
+        }
+    }
+}
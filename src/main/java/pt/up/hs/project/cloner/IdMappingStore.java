@@ -0,0 +1,257 @@
+package pt.up.hs.project.cloner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pt.up.hs.project.config.ApplicationProperties;
+import pt.up.hs.project.repository.CloneIdMappingRepository;
+import pt.up.hs.project.utils.LongLongMap;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Store of the old-to-new id mappings generated by project cloning jobs.
+ * <p>
+ * Mappings are identified by the id of the job execution which generated
+ * them (the job execution context holds only this reference, under
+ * {@link ClonerConstants#ID_MAPPING_PARAMETER}). Pairs are buffered in
+ * primitive maps bound to the transaction which wrote the new entities,
+ * and written to {@code clone_id_mapping} in that transaction when the
+ * buffer grows beyond a threshold or before it commits, so the pairs of a
+ * chunk which rolls back are never stored.
+ * <p>
+ * Mappings of completed jobs are released at once, while those of jobs
+ * which did not complete are kept for a restart, and purged once the last
+ * execution of the job ended longer ago than their time to live.
+ */
+@Component
+public class IdMappingStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IdMappingStore.class);
+
+    private static final long PURGE_INTERVAL = 3600000;
+
+    private final CloneIdMappingRepository cloneIdMappingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int spillThreshold;
+    private final int timeToLiveSeconds;
+
+    public IdMappingStore(
+        CloneIdMappingRepository cloneIdMappingRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.cloneIdMappingRepository = cloneIdMappingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.spillThreshold = applicationProperties.getCloner().getMappingSpillThreshold();
+        this.timeToLiveSeconds = applicationProperties.getCloner().getMappingTimeToLiveSeconds();
+    }
+
+    /**
+     * Add id pairs of an entity to a mapping. Outside a transaction, they
+     * are written at once.
+     *
+     * @param mappingId ID of the mapping.
+     * @param entity    name of the entity.
+     * @param entries   old-to-new id pairs.
+     */
+    public void putAll(long mappingId, String entity, LongLongMap entries) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cloneIdMappingRepository.saveAll(mappingId, entity, entries);
+            return;
+        }
+        Buffer buffer = transactionBuffers().computeIfAbsent(mappingId, k -> new Buffer());
+        buffer.get(entity).putAll(entries);
+        buffer.size += entries.size();
+        if (buffer.size >= spillThreshold) {
+            spill(mappingId, buffer);
+        }
+    }
+
+    /**
+     * Write the id pairs of a mapping buffered in the current transaction
+     * to the table.
+     *
+     * @param mappingId ID of the mapping.
+     */
+    public void flush(long mappingId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, Buffer> buffers = (Map<Long, Buffer>) TransactionSynchronizationManager.getResource(this);
+        if (buffers != null && buffers.containsKey(mappingId)) {
+            spill(mappingId, buffers.get(mappingId));
+        }
+    }
+    /**
+     * Stream the id pairs of an entity in a mapping.
+     *
+     * @param mappingId ID of the mapping.
+     * @param entity    name of the entity.
+     * @param consumer  consumer of the id pairs.
+     */
+    public void forEach(long mappingId, String entity, LongLongMap.EntryConsumer consumer) {
+        flush(mappingId);
+        cloneIdMappingRepository.forEach(mappingId, entity, consumer);
+    }
+
+    /**
+     * Get a page of the id pairs of an entity in a mapping, in ascending
+     * order of old id.
+     *
+     * @param mappingId  ID of the mapping.
+     * @param entity     name of the entity.
+     * @param afterOldId only pairs with an old id greater than this are returned.
+     * @param size       maximum number of pairs to return.
+     * @return the page of id pairs.
+     */
+    public LongLongMap page(long mappingId, String entity, long afterOldId, int size) {
+        flush(mappingId);
+        return cloneIdMappingRepository.findPage(mappingId, entity, afterOldId, size);
+    }
+
+    /**
+     * Load the id pairs of an entity in a mapping into memory, for lookups.
+     *
+     * @param mappingId ID of the mapping.
+     * @param entity    name of the entity.
+     * @return the old-to-new id pairs of the entity.
+     */
+    public LongLongMap load(long mappingId, String entity) {
+        flush(mappingId);
+        long count = cloneIdMappingRepository.count(mappingId, entity);
+        LongLongMap entries = new LongLongMap((int) Math.min(Integer.MAX_VALUE / 2, count));
+        cloneIdMappingRepository.forEach(mappingId, entity, entries::put);
+        return entries;
+    }
+
+    /**
+     * Get the old ids of an entity which have no pair in a mapping yet,
+     * i.e., which were not copied by a previous execution of a restarted
+     * job.
+     *
+     * @param mappingId ID of the mapping.
+     * @param entity    name of the entity.
+     * @param oldIds    old ids to look for.
+     * @return the old ids without a pair, in the given order.
+     */
+    public List<Long> unmapped(long mappingId, String entity, Collection<? extends Long> oldIds) {
+        flush(mappingId);
+        List<Long> ids = oldIds.stream().map(Long.class::cast).collect(Collectors.toCollection(ArrayList::new));
+        Set<Long> mapped = cloneIdMappingRepository.findOldIds(mappingId, entity, ids);
+        ids.removeIf(mapped::contains);
+        return ids;
+    }
+
+    /**
+     * Count the id pairs of an entity in a mapping.
+     *
+     * @param mappingId ID of the mapping.
+     * @param entity    name of the entity.
+     * @return the number of id pairs of the entity.
+     */
+    public long count(long mappingId, String entity) {
+        flush(mappingId);
+        return cloneIdMappingRepository.count(mappingId, entity);
+    }
+
+    /**
+     * Discard a mapping.
+     *
+     * @param mappingId ID of the mapping.
+     */
+    public void release(long mappingId) {
+        transactionTemplate.execute(status -> {
+            cloneIdMappingRepository.deleteAll(mappingId);
+            return null;
+        });
+    }
+
+    /**
+     * Discard the mappings of the jobs which did not complete and whose
+     * last execution ended longer ago than the time to live, hence are
+     * not expected to be restarted.
+     */
+    @Scheduled(fixedDelay = PURGE_INTERVAL)
+    public void purgeExpired() {
+        Instant endedBefore = Instant.now().minusSeconds(timeToLiveSeconds);
+        Integer deleted = transactionTemplate.execute(status ->
+            cloneIdMappingRepository.deleteAllEndedBefore(endedBefore)
+        );
+        if (deleted != null && deleted > 0) {
+            LOG.info("Purged {} id pairs of cloning jobs which ended before {}", deleted, endedBefore);
+        }
+    }
+
+    private Map<Long, Buffer> transactionBuffers() {
+        @SuppressWarnings("unchecked")
+        Map<Long, Buffer> buffers = (Map<Long, Buffer>) TransactionSynchronizationManager.getResource(this);
+        if (buffers == null) {
+            Map<Long, Buffer> newBuffers = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, newBuffers);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResource(IdMappingStore.this);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(IdMappingStore.this, newBuffers);
+                }
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    newBuffers.forEach(IdMappingStore.this::spill);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(IdMappingStore.this);
+                }
+            });
+            buffers = newBuffers;
+        }
+        return buffers;
+    }
+
+    private void spill(long mappingId, Buffer buffer) {
+        if (buffer.size == 0) {
+            return;
+        }
+        LOG.debug("Spilling {} id pairs of mapping {}", buffer.size, mappingId);
+        // in the transaction which wrote the entities, so that the pairs
+        // are stored if and only if the entities are
+        buffer.entities.forEach((entity, entries) ->
+            cloneIdMappingRepository.saveAll(mappingId, entity, entries)
+        );
+        buffer.entities.clear();
+        buffer.size = 0;
+    }
+
+    private static class Buffer {
+
+        private final Map<String, LongLongMap> entities = new HashMap<>();
+        private int size = 0;
+
+        private LongLongMap get(String entity) {
+            return entities.computeIfAbsent(entity, k -> new LongLongMap());
+        }
+    }
+}
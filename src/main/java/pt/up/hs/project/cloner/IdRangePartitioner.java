@@ -0,0 +1,60 @@
+package pt.up.hs.project.cloner;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import pt.up.hs.project.repository.IdRange;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Map;
+
+import static pt.up.hs.project.cloner.ClonerConstants.MAX_ID_PARAMETER;
+import static pt.up.hs.project.cloner.ClonerConstants.MIN_ID_PARAMETER;
+
+/**
+ * Partitioner that splits the ids of the entities of a project into
+ * contiguous ranges, one per partition.
+ */
+public abstract class IdRangePartitioner implements Partitioner {
+
+    private static final String PARTITION_PREFIX = "partition";
+
+    @Nonnull
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+
+        IdRange range = findIdRange();
+        if (range == null || range.getMinId() == null || range.getMaxId() == null) {
+            // an empty range, so that the step still completes
+            partitions.put(PARTITION_PREFIX + 0, rangeContext(0L, -1L));
+            return partitions;
+        }
+
+        long min = range.getMinId();
+        long max = range.getMaxId();
+        long size = Math.max(1, (max - min) / Math.max(1, gridSize) + 1);
+
+        int number = 0;
+        for (long start = min; start <= max; start += size) {
+            long end = Math.min(max, start + size - 1);
+            partitions.put(PARTITION_PREFIX + number++, rangeContext(start, end));
+        }
+
+        return partitions;
+    }
+
+    /**
+     * Find the lowest and highest id to partition.
+     *
+     * @return the lowest and highest id to partition.
+     */
+    protected abstract IdRange findIdRange();
+
+    private static ExecutionContext rangeContext(long minId, long maxId) {
+        ExecutionContext context = new ExecutionContext();
+        context.putLong(MIN_ID_PARAMETER, minId);
+        context.putLong(MAX_ID_PARAMETER, maxId);
+        return context;
+    }
+}
@@ -0,0 +1,30 @@
+package pt.up.hs.project.cloner;
+
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pt.up.hs.project.repository.IdRange;
+import pt.up.hs.project.repository.LabelRepository;
+
+import static pt.up.hs.project.cloner.ClonerConstants.PROJECT_ID_PARAMETER;
+
+@Component
+@StepScope
+public class LabelIdRangePartitioner extends IdRangePartitioner {
+
+    private final LabelRepository labelRepository;
+    private final Long projectId;
+
+    public LabelIdRangePartitioner(
+        final LabelRepository labelRepository,
+        @Value("#{jobParameters[" + PROJECT_ID_PARAMETER + "]}") final Long projectId
+    ) {
+        this.labelRepository = labelRepository;
+        this.projectId = projectId;
+    }
+
+    @Override
+    protected IdRange findIdRange() {
+        return labelRepository.findIdRangeByProjectId(projectId);
+    }
+}
@@ -5,29 +5,33 @@ import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.support.IteratorItemReader;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import pt.up.hs.project.service.LabelService;
-import pt.up.hs.project.service.dto.LabelDTO;
+import pt.up.hs.project.repository.LabelRepository;
 
 import java.util.Iterator;
-import java.util.List;
 
-import static pt.up.hs.project.cloner.ClonerConstants.PROJECT_ID_PARAMETER;
+import static pt.up.hs.project.cloner.ClonerConstants.*;
 
 @Component
 @StepScope
 public class LabelItemReader implements ItemReader<Long> {
 
-    private final LabelService labelService;
+    private final LabelRepository labelRepository;
     private final Long projectId;
+    private final Long minId;
+    private final Long maxId;
 
     private ItemReader<Long> delegate = null;
 
     public LabelItemReader(
-        final LabelService labelService,
-        @Value("#{jobParameters[" + PROJECT_ID_PARAMETER + "]}") final Long projectId
+        final LabelRepository labelRepository,
+        @Value("#{jobParameters[" + PROJECT_ID_PARAMETER + "]}") final Long projectId,
+        @Value("#{stepExecutionContext[" + MIN_ID_PARAMETER + "]}") final Long minId,
+        @Value("#{stepExecutionContext[" + MAX_ID_PARAMETER + "]}") final Long maxId
     ) {
-        this.labelService = labelService;
+        this.labelRepository = labelRepository;
         this.projectId = projectId;
+        this.minId = minId;
+        this.maxId = maxId;
     }
 
     @Override
@@ -39,9 +43,8 @@ public class LabelItemReader implements ItemReader<Long> {
     }
 
     public Iterator<Long> labelIdsIterator() {
-        return labelService.findAll(projectId)
-            .parallelStream()
-            .map(LabelDTO::getId)
+        return labelRepository
+            .findIdsByProjectIdAndIdBetween(projectId, minId, maxId)
             .iterator();
     }
 }
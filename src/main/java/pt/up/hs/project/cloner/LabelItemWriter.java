@@ -1,21 +1,18 @@
 package pt.up.hs.project.cloner;
 
-import org.springframework.batch.core.StepExecution;
-import org.springframework.batch.core.annotation.BeforeStep;
 import org.springframework.batch.core.configuration.annotation.StepScope;
-import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import pt.up.hs.project.repository.CloneIdMappingRepository;
 import pt.up.hs.project.service.LabelService;
 import pt.up.hs.project.service.dto.LabelDTO;
+import pt.up.hs.project.utils.LongLongMap;
 
 import javax.annotation.Nonnull;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import static pt.up.hs.project.cloner.ClonerConstants.*;
 
@@ -24,43 +21,36 @@ import static pt.up.hs.project.cloner.ClonerConstants.*;
 public class LabelItemWriter implements ItemWriter<Long> {
 
     private final LabelService labelService;
+    private final IdMappingStore idMappingStore;
 
     private final Long projectId;
     private final Long newProjectId;
     private final boolean move;
-
-    private StepExecution stepExecution;
+    private final Long idMapping;
 
     public LabelItemWriter(
         final LabelService labelService,
+        final IdMappingStore idMappingStore,
         @Value("#{jobParameters[" + PROJECT_ID_PARAMETER + "]}") final Long projectId,
         @Value("#{jobParameters[" + NEW_PROJECT_ID_PARAMETER + "]}") final Long newProjectId,
-        @Value("#{jobParameters[" + MOVE_PARAMETER + "]}") final boolean move
+        @Value("#{jobParameters[" + MOVE_PARAMETER + "]}") final boolean move,
+        @Value("#{jobExecutionContext[" + ID_MAPPING_PARAMETER + "]}") final Long idMapping
     ) {
         this.labelService = labelService;
+        this.idMappingStore = idMappingStore;
         this.projectId = projectId;
         this.newProjectId = newProjectId;
         this.move = move;
-    }
-
-    @BeforeStep
-    public void beforeStep(final StepExecution stepExecution) {
-        this.stepExecution = stepExecution;
+        this.idMapping = idMapping;
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     @Override
     public void write(@Nonnull List<? extends Long> items) throws Exception {
-        ExecutionContext executionContext = stepExecution.getJobExecution().getExecutionContext();
-
-        Map<Long, Long> labels;
-        if (executionContext.containsKey(LABEL_MAPPING_PARAMETER)) {
-            labels = (Map<Long, Long>) executionContext.get(LABEL_MAPPING_PARAMETER);
-        } else {
-            labels = new HashMap<>();
-        }
-
-        for (Long labelId: items) {
+        LongLongMap labels = new LongLongMap(items.size());
+        // items copied before a restart of the job are not copied again
+        List<Long> pending = idMappingStore.unmapped(idMapping, CloneIdMappingRepository.LABEL, items);
+        for (Long labelId: pending) {
             LabelDTO savedLabel = labelService.copy(
                 projectId,
                 labelId,
@@ -69,6 +59,6 @@ public class LabelItemWriter implements ItemWriter<Long> {
             );
             labels.put(labelId, savedLabel.getId());
         }
-        executionContext.put(LABEL_MAPPING_PARAMETER, labels);
+        idMappingStore.putAll(idMapping, CloneIdMappingRepository.LABEL, labels);
     }
 }
@@ -0,0 +1,30 @@
+package pt.up.hs.project.cloner;
+
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pt.up.hs.project.repository.IdRange;
+import pt.up.hs.project.repository.ParticipantRepository;
+
+import static pt.up.hs.project.cloner.ClonerConstants.PROJECT_ID_PARAMETER;
+
+@Component
+@StepScope
+public class ParticipantIdRangePartitioner extends IdRangePartitioner {
+
+    private final ParticipantRepository participantRepository;
+    private final Long projectId;
+
+    public ParticipantIdRangePartitioner(
+        final ParticipantRepository participantRepository,
+        @Value("#{jobParameters[" + PROJECT_ID_PARAMETER + "]}") final Long projectId
+    ) {
+        this.participantRepository = participantRepository;
+        this.projectId = projectId;
+    }
+
+    @Override
+    protected IdRange findIdRange() {
+        return participantRepository.findIdRangeByProjectId(projectId);
+    }
+}
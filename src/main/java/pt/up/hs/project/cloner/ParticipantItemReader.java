@@ -5,30 +5,33 @@ import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.support.IteratorItemReader;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import pt.up.hs.project.service.ParticipantService;
-import pt.up.hs.project.service.TaskService;
-import pt.up.hs.project.service.dto.ParticipantBasicDTO;
-import pt.up.hs.project.service.dto.TaskBasicDTO;
+import pt.up.hs.project.repository.ParticipantRepository;
 
 import java.util.Iterator;
 
-import static pt.up.hs.project.cloner.ClonerConstants.PROJECT_ID_PARAMETER;
+import static pt.up.hs.project.cloner.ClonerConstants.*;
 
 @Component
 @StepScope
 public class ParticipantItemReader implements ItemReader<Long> {
 
-    private final ParticipantService participantService;
+    private final ParticipantRepository participantRepository;
     private final Long projectId;
+    private final Long minId;
+    private final Long maxId;
 
     private ItemReader<Long> delegate = null;
 
     public ParticipantItemReader(
-        final ParticipantService participantService,
-        @Value("#{jobParameters[" + PROJECT_ID_PARAMETER + "]}") final Long projectId
+        final ParticipantRepository participantRepository,
+        @Value("#{jobParameters[" + PROJECT_ID_PARAMETER + "]}") final Long projectId,
+        @Value("#{stepExecutionContext[" + MIN_ID_PARAMETER + "]}") final Long minId,
+        @Value("#{stepExecutionContext[" + MAX_ID_PARAMETER + "]}") final Long maxId
     ) {
-        this.participantService = participantService;
+        this.participantRepository = participantRepository;
         this.projectId = projectId;
+        this.minId = minId;
+        this.maxId = maxId;
     }
 
     @Override
@@ -40,9 +43,8 @@ public class ParticipantItemReader implements ItemReader<Long> {
     }
 
     public Iterator<Long> participantIdsIterator() {
-        return participantService.findAllBasic(projectId)
-            .parallelStream()
-            .map(ParticipantBasicDTO::getId)
+        return participantRepository
+            .findIdsByProjectIdAndIdBetween(projectId, minId, maxId)
             .iterator();
     }
 }
@@ -1,19 +1,17 @@
 package pt.up.hs.project.cloner;
 
-import org.springframework.batch.core.StepExecution;
-import org.springframework.batch.core.annotation.BeforeStep;
 import org.springframework.batch.core.configuration.annotation.StepScope;
-import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import pt.up.hs.project.repository.CloneIdMappingRepository;
 import pt.up.hs.project.service.ParticipantService;
 import pt.up.hs.project.service.dto.ParticipantDTO;
+import pt.up.hs.project.utils.LongLongMap;
 
 import javax.annotation.Nonnull;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,50 +22,43 @@ import static pt.up.hs.project.cloner.ClonerConstants.*;
 public class ParticipantItemWriter implements ItemWriter<Long> {
 
     private final ParticipantService participantService;
+    private final IdMappingStore idMappingStore;
 
     private final Long projectId;
     private final Long newProjectId;
     private final boolean move;
+    private final Long idMapping;
 
-    private StepExecution stepExecution;
+    private Map<Long, Long> labels = null;
 
     public ParticipantItemWriter(
         final ParticipantService participantService,
+        final IdMappingStore idMappingStore,
         @Value("#{jobParameters[" + PROJECT_ID_PARAMETER + "]}") final Long projectId,
         @Value("#{jobParameters[" + NEW_PROJECT_ID_PARAMETER + "]}") final Long newProjectId,
-        @Value("#{jobParameters[" + MOVE_PARAMETER + "]}") final boolean move
+        @Value("#{jobParameters[" + MOVE_PARAMETER + "]}") final boolean move,
+        @Value("#{jobExecutionContext[" + ID_MAPPING_PARAMETER + "]}") final Long idMapping
     ) {
         this.participantService = participantService;
+        this.idMappingStore = idMappingStore;
         this.projectId = projectId;
         this.newProjectId = newProjectId;
         this.move = move;
-    }
-
-    @BeforeStep
-    public void beforeStep(final StepExecution stepExecution) {
-        this.stepExecution = stepExecution;
+        this.idMapping = idMapping;
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     @Override
     public void write(@Nonnull List<? extends Long> items) throws Exception {
-        ExecutionContext executionContext = stepExecution.getJobExecution().getExecutionContext();
-
-        Map<Long, Long> labels;
-        if (executionContext.containsKey(LABEL_MAPPING_PARAMETER)) {
-            labels = (Map<Long, Long>) executionContext.get(LABEL_MAPPING_PARAMETER);
-        } else {
-            labels = new HashMap<>();
-        }
-
-        Map<Long, Long> participants;
-        if (executionContext.containsKey(PARTICIPANT_MAPPING_PARAMETER)) {
-            participants = (Map<Long, Long>) executionContext.get(PARTICIPANT_MAPPING_PARAMETER);
-        } else {
-            participants = new HashMap<>();
+        if (labels == null) {
+            // labels are few and complete at this point, load them once per partition
+            labels = idMappingStore.load(idMapping, CloneIdMappingRepository.LABEL).toMap();
         }
 
-        for (Long participantId: items) {
+        LongLongMap participants = new LongLongMap(items.size());
+        // items copied before a restart of the job are not copied again
+        List<Long> pending = idMappingStore.unmapped(idMapping, CloneIdMappingRepository.PARTICIPANT, items);
+        for (Long participantId: pending) {
             ParticipantDTO savedParticipant = participantService.copy(
                 projectId,
                 participantId,
@@ -77,6 +68,6 @@ public class ParticipantItemWriter implements ItemWriter<Long> {
             );
             participants.put(participantId, savedParticipant.getId());
         }
-        executionContext.put(PARTICIPANT_MAPPING_PARAMETER, participants);
+        idMappingStore.putAll(idMapping, CloneIdMappingRepository.PARTICIPANT, participants);
     }
 }
@@ -51,7 +51,7 @@ public class PermissionItemReader implements ItemReader<BulkProjectPermissionDTO
         ProjectDTO projectDTO = projectService.findOne(newProjectId).orElse(null);
         List<BulkProjectPermissionDTO> permissionDTOs = projectPermissionService.findAll(projectId);
         return permissionDTOs
-            .parallelStream()
+            .stream()
             .filter(permissionDTO -> projectDTO != null && !permissionDTO.getUser().equals(projectDTO.getOwner()))
             .iterator();
     }
@@ -0,0 +1,287 @@
+package pt.up.hs.project.cloner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.retry.backoff.ExponentialBackOffPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+import pt.up.hs.project.client.sampling.SamplingMicroService;
+import pt.up.hs.project.config.ApplicationProperties;
+import pt.up.hs.project.repository.CloneIdMappingRepository;
+import pt.up.hs.project.utils.LongLongMap;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static pt.up.hs.project.cloner.ClonerConstants.*;
+
+/**
+ * Base tasklet for copies delegated to the sampling service. The
+ * participant id pairs are sent in pages, in ascending order of old id,
+ * together with all task id pairs.
+ * <p>
+ * Each call of {@link #execute(StepContribution, ChunkContext)} sends a
+ * window of pages concurrently (each retried on its own) and waits for
+ * them, hence the number of requests in flight is bounded. The old id of
+ * the last participant of the contiguous run of acknowledged pages is saved
+ * in the step execution context when the window ends, so that a restarted
+ * step resumes after it. Copies are not idempotent, hence pages acknowledged
+ * after a failed one are saved as well (as ranges of old ids), and their
+ * participants are not sent again.
+ */
+public abstract class SamplingCopyTasklet implements Tasklet {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SamplingCopyTasklet.class);
+
+    static final String LAST_ACKNOWLEDGED_ID_KEY = "lastAcknowledgedId";
+    static final String ACKNOWLEDGED_RANGES_KEY = "acknowledgedRanges";
+
+    private SamplingMicroService samplingMicroService;
+    private IdMappingStore idMappingStore;
+    private AsyncTaskExecutor clonerCopyTaskExecutor;
+    private ApplicationProperties applicationProperties;
+
+    @Value("#{jobParameters[" + PROJECT_ID_PARAMETER + "]}")
+    Long projectId;
+
+    @Value("#{jobParameters[" + NEW_PROJECT_ID_PARAMETER + "]}")
+    Long newProjectId;
+
+    @Value("#{jobParameters[" + MOVE_PARAMETER + "]}")
+    String move;
+
+    @Value("#{jobExecutionContext[" + ID_MAPPING_PARAMETER + "]}")
+    Long idMapping;
+
+    private Map<Long, Long> tasks = null;
+    private RetryTemplate retryTemplate = null;
+    private Exception failure = null;
+
+    public SamplingMicroService getSamplingMicroService() {
+        return samplingMicroService;
+    }
+
+    @Autowired
+    public void setSamplingMicroService(SamplingMicroService samplingMicroService) {
+        this.samplingMicroService = samplingMicroService;
+    }
+
+    public IdMappingStore getIdMappingStore() {
+        return idMappingStore;
+    }
+
+    @Autowired
+    public void setIdMappingStore(IdMappingStore idMappingStore) {
+        this.idMappingStore = idMappingStore;
+    }
+
+    public AsyncTaskExecutor getClonerCopyTaskExecutor() {
+        return clonerCopyTaskExecutor;
+    }
+
+    @Autowired
+    public void setClonerCopyTaskExecutor(
+        @Qualifier("clonerCopyTaskExecutor") AsyncTaskExecutor clonerCopyTaskExecutor
+    ) {
+        this.clonerCopyTaskExecutor = clonerCopyTaskExecutor;
+    }
+
+    public ApplicationProperties getApplicationProperties() {
+        return applicationProperties;
+    }
+
+    @Autowired
+    public void setApplicationProperties(ApplicationProperties applicationProperties) {
+        this.applicationProperties = applicationProperties;
+    }
+
+    @Override
+    public RepeatStatus execute(
+        @Nonnull StepContribution contribution,
+        @Nonnull ChunkContext chunkContext
+    ) throws Exception {
+        if (failure != null) {
+            // the window which failed has been committed with its progress
+            throw failure;
+        }
+
+        ApplicationProperties.Cloner cloner = applicationProperties.getCloner();
+        ExecutionContext stepContext = chunkContext.getStepContext()
+            .getStepExecution()
+            .getExecutionContext();
+
+        if (tasks == null) {
+            tasks = new HashMap<>();
+            idMappingStore.forEach(idMapping, CloneIdMappingRepository.TASK, tasks::put);
+            retryTemplate = buildRetryTemplate(cloner.getCopyMaxAttempts());
+        }
+
+        // read the pages of this window
+        long acknowledgedId = stepContext.getLong(LAST_ACKNOWLEDGED_ID_KEY, 0L);
+        AcknowledgedRanges acknowledgedRanges = AcknowledgedRanges.parse(
+            stepContext.getString(ACKNOWLEDGED_RANGES_KEY, "")
+        );
+        long lastId = acknowledgedId;
+        List<Map<Long, Long>> pages = new ArrayList<>();
+        List<long[]> pageRanges = new ArrayList<>();
+        boolean finished = false;
+        while (pages.size() < cloner.getCopyConcurrency()) {
+            LongLongMap page = idMappingStore.page(
+                idMapping, CloneIdMappingRepository.PARTICIPANT, lastId, cloner.getCopyBatchSize()
+            );
+            if (page.isEmpty()) {
+                finished = true;
+                break;
+            }
+            long[] max = { lastId };
+            page.forEach((oldId, newId) -> max[0] = Math.max(max[0], oldId));
+            Map<Long, Long> participants = page.toMap();
+            // participants already copied by a previous execution
+            participants.keySet().removeIf(acknowledgedRanges::contains);
+            pages.add(participants);
+            pageRanges.add(new long[] { lastId, max[0] });
+            lastId = max[0];
+            if (page.size() < cloner.getCopyBatchSize()) {
+                finished = true;
+                break;
+            }
+        }
+
+        if (pages.isEmpty() && acknowledgedId == 0L) {
+            // nothing was ever sent (e.g., project without participants)
+            copyPage(tasks, new HashMap<>());
+            return RepeatStatus.FINISHED;
+        }
+
+        // send them concurrently, each with its own retries
+        List<Future<?>> futures = new ArrayList<>(pages.size());
+        for (Map<Long, Long> page: pages) {
+            if (page.isEmpty()) {
+                futures.add(null);
+                continue;
+            }
+            futures.add(clonerCopyTaskExecutor.submit(() ->
+                retryTemplate.execute(context -> {
+                    copyPage(tasks, page);
+                    return null;
+                })
+            ));
+        }
+
+        // acknowledge the contiguous run of pages up to the first which
+        // failed, and record the ranges of those acknowledged after it
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                if (futures.get(i) != null) {
+                    futures.get(i).get();
+                }
+                if (failure == null) {
+                    acknowledgedId = pageRanges.get(i)[1];
+                } else {
+                    acknowledgedRanges.add(pageRanges.get(i)[0], pageRanges.get(i)[1]);
+                }
+                contribution.incrementWriteCount(pages.get(i).size());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+        }
+        acknowledgedRanges.removeUpTo(acknowledgedId);
+        stepContext.putLong(LAST_ACKNOWLEDGED_ID_KEY, acknowledgedId);
+        stepContext.putString(ACKNOWLEDGED_RANGES_KEY, acknowledgedRanges.toString());
+        if (failure != null) {
+            // a failed chunk rolls back its execution context, hence the
+            // progress of this window is committed first and the failure
+            // is thrown by the next call
+            LOG.warn("Copy failed after participant {} of project {}", acknowledgedId, projectId);
+            return RepeatStatus.CONTINUABLE;
+        }
+
+        return finished ? RepeatStatus.FINISHED : RepeatStatus.CONTINUABLE;
+    }
+
+    /**
+     * Copy the entities of a page of participants.
+     *
+     * @param tasks        old-to-new id pairs of all tasks.
+     * @param participants old-to-new id pairs of the participants of the page.
+     */
+    protected abstract void copyPage(Map<Long, Long> tasks, Map<Long, Long> participants);
+
+    /**
+     * Ranges of old ids, each as (exclusive start, inclusive end], of the
+     * pages acknowledged after a failed one.
+     */
+    static final class AcknowledgedRanges {
+
+        private final List<long[]> ranges = new ArrayList<>();
+
+        static AcknowledgedRanges parse(String value) {
+            AcknowledgedRanges result = new AcknowledgedRanges();
+            for (String range: value.split(",")) {
+                if (!range.isEmpty()) {
+                    int separator = range.indexOf(':');
+                    result.add(
+                        Long.parseLong(range.substring(0, separator)),
+                        Long.parseLong(range.substring(separator + 1))
+                    );
+                }
+            }
+            return result;
+        }
+
+        void add(long after, long last) {
+            ranges.add(new long[] { after, last });
+        }
+
+        boolean contains(long id) {
+            for (long[] range: ranges) {
+                if (id > range[0] && id <= range[1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void removeUpTo(long id) {
+            ranges.removeIf(range -> range[1] <= id);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (long[] range: ranges) {
+                if (sb.length() > 0) {
+                    sb.append(',');
+                }
+                sb.append(range[0]).append(':').append(range[1]);
+            }
+            return sb.toString();
+        }
+    }
+
+    private static RetryTemplate buildRetryTemplate(int maxAttempts) {
+        RetryTemplate retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(new SimpleRetryPolicy(maxAttempts));
+        ExponentialBackOffPolicy backOffPolicy = new ExponentialBackOffPolicy();
+        backOffPolicy.setInitialInterval(500);
+        backOffPolicy.setMaxInterval(10000);
+        retryTemplate.setBackOffPolicy(backOffPolicy);
+        return retryTemplate;
+    }
+}
@@ -0,0 +1,30 @@
+package pt.up.hs.project.cloner;
+
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pt.up.hs.project.repository.IdRange;
+import pt.up.hs.project.repository.TaskRepository;
+
+import static pt.up.hs.project.cloner.ClonerConstants.PROJECT_ID_PARAMETER;
+
+@Component
+@StepScope
+public class TaskIdRangePartitioner extends IdRangePartitioner {
+
+    private final TaskRepository taskRepository;
+    private final Long projectId;
+
+    public TaskIdRangePartitioner(
+        final TaskRepository taskRepository,
+        @Value("#{jobParameters[" + PROJECT_ID_PARAMETER + "]}") final Long projectId
+    ) {
+        this.taskRepository = taskRepository;
+        this.projectId = projectId;
+    }
+
+    @Override
+    protected IdRange findIdRange() {
+        return taskRepository.findIdRangeByProjectId(projectId);
+    }
+}
@@ -5,31 +5,33 @@ import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.support.IteratorItemReader;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import pt.up.hs.project.service.LabelService;
-import pt.up.hs.project.service.TaskService;
-import pt.up.hs.project.service.dto.LabelDTO;
-import pt.up.hs.project.service.dto.TaskBasicDTO;
-import pt.up.hs.project.service.dto.TaskDTO;
+import pt.up.hs.project.repository.TaskRepository;
 
 import java.util.Iterator;
 
-import static pt.up.hs.project.cloner.ClonerConstants.PROJECT_ID_PARAMETER;
+import static pt.up.hs.project.cloner.ClonerConstants.*;
 
 @Component
 @StepScope
 public class TaskItemReader implements ItemReader<Long> {
 
-    private final TaskService taskService;
+    private final TaskRepository taskRepository;
     private final Long projectId;
+    private final Long minId;
+    private final Long maxId;
 
     private ItemReader<Long> delegate = null;
 
     public TaskItemReader(
-        final TaskService taskService,
-        @Value("#{jobParameters[" + PROJECT_ID_PARAMETER + "]}") final Long projectId
+        final TaskRepository taskRepository,
+        @Value("#{jobParameters[" + PROJECT_ID_PARAMETER + "]}") final Long projectId,
+        @Value("#{stepExecutionContext[" + MIN_ID_PARAMETER + "]}") final Long minId,
+        @Value("#{stepExecutionContext[" + MAX_ID_PARAMETER + "]}") final Long maxId
     ) {
-        this.taskService = taskService;
+        this.taskRepository = taskRepository;
         this.projectId = projectId;
+        this.minId = minId;
+        this.maxId = maxId;
     }
 
     @Override
@@ -41,9 +43,8 @@ public class TaskItemReader implements ItemReader<Long> {
     }
 
     public Iterator<Long> taskIdsIterator() {
-        return taskService.findAllBasic(projectId)
-            .parallelStream()
-            .map(TaskBasicDTO::getId)
+        return taskRepository
+            .findIdsByProjectIdAndIdBetween(projectId, minId, maxId)
             .iterator();
     }
 }
@@ -1,21 +1,17 @@
 package pt.up.hs.project.cloner;
 
-import org.springframework.batch.core.StepExecution;
-import org.springframework.batch.core.annotation.BeforeStep;
 import org.springframework.batch.core.configuration.annotation.StepScope;
-import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import pt.up.hs.project.service.LabelService;
+import pt.up.hs.project.repository.CloneIdMappingRepository;
 import pt.up.hs.project.service.TaskService;
-import pt.up.hs.project.service.dto.LabelDTO;
 import pt.up.hs.project.service.dto.TaskDTO;
+import pt.up.hs.project.utils.LongLongMap;
 
 import javax.annotation.Nonnull;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,50 +22,43 @@ import static pt.up.hs.project.cloner.ClonerConstants.*;
 public class TaskItemWriter implements ItemWriter<Long> {
 
     private final TaskService taskService;
+    private final IdMappingStore idMappingStore;
 
     private final Long projectId;
     private final Long newProjectId;
     private final boolean move;
+    private final Long idMapping;
 
-    private StepExecution stepExecution;
+    private Map<Long, Long> labels = null;
 
     public TaskItemWriter(
         final TaskService taskService,
+        final IdMappingStore idMappingStore,
         @Value("#{jobParameters[" + PROJECT_ID_PARAMETER + "]}") final Long projectId,
         @Value("#{jobParameters[" + NEW_PROJECT_ID_PARAMETER + "]}") final Long newProjectId,
-        @Value("#{jobParameters[" + MOVE_PARAMETER + "]}") final boolean move
+        @Value("#{jobParameters[" + MOVE_PARAMETER + "]}") final boolean move,
+        @Value("#{jobExecutionContext[" + ID_MAPPING_PARAMETER + "]}") final Long idMapping
     ) {
         this.taskService = taskService;
+        this.idMappingStore = idMappingStore;
         this.projectId = projectId;
         this.newProjectId = newProjectId;
         this.move = move;
-    }
-
-    @BeforeStep
-    public void beforeStep(final StepExecution stepExecution) {
-        this.stepExecution = stepExecution;
+        this.idMapping = idMapping;
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     @Override
     public void write(@Nonnull List<? extends Long> items) throws Exception {
-        ExecutionContext executionContext = stepExecution.getJobExecution().getExecutionContext();
-
-        Map<Long, Long> labels;
-        if (executionContext.containsKey(LABEL_MAPPING_PARAMETER)) {
-            labels = (Map<Long, Long>) executionContext.get(LABEL_MAPPING_PARAMETER);
-        } else {
-            labels = new HashMap<>();
-        }
-
-        Map<Long, Long> tasks;
-        if (executionContext.containsKey(TASK_MAPPING_PARAMETER)) {
-            tasks = (Map<Long, Long>) executionContext.get(TASK_MAPPING_PARAMETER);
-        } else {
-            tasks = new HashMap<>();
+        if (labels == null) {
+            // labels are few and complete at this point, load them once per partition
+            labels = idMappingStore.load(idMapping, CloneIdMappingRepository.LABEL).toMap();
         }
 
-        for (Long taskId: items) {
+        LongLongMap tasks = new LongLongMap(items.size());
+        // items copied before a restart of the job are not copied again
+        List<Long> pending = idMappingStore.unmapped(idMapping, CloneIdMappingRepository.TASK, items);
+        for (Long taskId: pending) {
             TaskDTO savedTask = taskService.copy(
                 projectId,
                 taskId,
@@ -79,6 +68,6 @@ public class TaskItemWriter implements ItemWriter<Long> {
             );
             tasks.put(taskId, savedTask.getId());
         }
-        executionContext.put(TASK_MAPPING_PARAMETER, tasks);
+        idMappingStore.putAll(idMapping, CloneIdMappingRepository.TASK, tasks);
     }
 }
@@ -10,4 +10,589 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Cloner cloner = new Cloner();
+    private final PermissionCache permissionCache = new PermissionCache();
+    private final Importer importer = new Importer();
+    private final ReadCache readCache = new ReadCache();
+    private final EntityCache entityCache = new EntityCache();
+
+    public Cloner getCloner() {
+        return cloner;
+    }
+
+    public PermissionCache getPermissionCache() {
+        return permissionCache;
+    }
+
+    public Importer getImporter() {
+        return importer;
+    }
+
+    public ReadCache getReadCache() {
+        return readCache;
+    }
+
+    public EntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    /**
+     * Properties of the project cloning job.
+     */
+    public static class Cloner {
+
+        /**
+         * Copy labels, participants and tasks with set-based statements
+         * instead of one service call per entity.
+         */
+        private boolean bulk = true;
+
+        /**
+         * Number of entities copied per chunk (transaction).
+         */
+        private int chunkSize = 50;
+
+        /**
+         * Number of id-range partitions in which each cloning step is split.
+         */
+        private int gridSize = 8;
+
+        /**
+         * Number of threads shared by the partitions of all cloning jobs.
+         */
+        private int concurrency = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Number of partitions waiting for a thread before the submitting
+         * job runs them itself.
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * Number of cloning jobs that may run at the same time.
+         */
+        private int jobConcurrency = 2;
+
+        /**
+         * Number of id pairs a cloning job buffers in memory before writing
+         * them to the id mapping table.
+         */
+        private int mappingSpillThreshold = 100000;
+
+        /**
+         * Time, since the last execution of a job which did not complete
+         * ended, after which its id mapping is discarded and it can no
+         * longer be restarted.
+         */
+        private int mappingTimeToLiveSeconds = 604800;
+
+        /**
+         * Number of participant id pairs sent to the sampling service per
+         * protocol or text copy request.
+         */
+        private int copyBatchSize = 1000;
+
+        /**
+         * Number of copy requests of a job in flight at the same time.
+         */
+        private int copyConcurrency = 4;
+
+        /**
+         * Number of attempts of each copy request before the step fails.
+         */
+        private int copyMaxAttempts = 3;
+
+        public boolean isBulk() {
+            return bulk;
+        }
+
+        public void setBulk(boolean bulk) {
+            this.bulk = bulk;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getGridSize() {
+            return gridSize;
+        }
+
+        public void setGridSize(int gridSize) {
+            this.gridSize = gridSize;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getJobConcurrency() {
+            return jobConcurrency;
+        }
+
+        public void setJobConcurrency(int jobConcurrency) {
+            this.jobConcurrency = jobConcurrency;
+        }
+
+        public int getMappingSpillThreshold() {
+            return mappingSpillThreshold;
+        }
+
+        public void setMappingSpillThreshold(int mappingSpillThreshold) {
+            this.mappingSpillThreshold = mappingSpillThreshold;
+        }
+
+        public int getMappingTimeToLiveSeconds() {
+            return mappingTimeToLiveSeconds;
+        }
+
+        public void setMappingTimeToLiveSeconds(int mappingTimeToLiveSeconds) {
+            this.mappingTimeToLiveSeconds = mappingTimeToLiveSeconds;
+        }
+
+        public int getCopyBatchSize() {
+            return copyBatchSize;
+        }
+
+        public void setCopyBatchSize(int copyBatchSize) {
+            this.copyBatchSize = copyBatchSize;
+        }
+
+        public int getCopyConcurrency() {
+            return copyConcurrency;
+        }
+
+        public void setCopyConcurrency(int copyConcurrency) {
+            this.copyConcurrency = copyConcurrency;
+        }
+
+        public int getCopyMaxAttempts() {
+            return copyMaxAttempts;
+        }
+
+        public void setCopyMaxAttempts(int copyMaxAttempts) {
+            this.copyMaxAttempts = copyMaxAttempts;
+        }
+    }
+
+    /**
+     * Properties of the cache of project permissions of each user.
+     */
+    public static class PermissionCache {
+
+        /**
+         * Seconds a user's permissions stay in the cluster cache.
+         */
+        private int timeToLiveSeconds = 3600;
+
+        /**
+         * Maximum number of users whose permissions are cached in a node.
+         */
+        private int maxSize = 10000;
+
+        /**
+         * Seconds a user's permissions stay in the near cache of a node,
+         * i.e., the maximum staleness if an invalidation is lost.
+         */
+        private int nearCacheTimeToLiveSeconds = 60;
+
+        /**
+         * Maximum number of users in the near cache of a node.
+         */
+        private int nearCacheSize = 10000;
+
+        /**
+         * Cache the collaborator graph (the users who share a project with
+         * each user), instead of querying it on each request.
+         */
+        private boolean connections = false;
+
+        /**
+         * Maximum number of users whose connections are cached in a node.
+         */
+        private int connectionsMaxSize = 10000;
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getNearCacheTimeToLiveSeconds() {
+            return nearCacheTimeToLiveSeconds;
+        }
+
+        public void setNearCacheTimeToLiveSeconds(int nearCacheTimeToLiveSeconds) {
+            this.nearCacheTimeToLiveSeconds = nearCacheTimeToLiveSeconds;
+        }
+
+        public int getNearCacheSize() {
+            return nearCacheSize;
+        }
+
+        public void setNearCacheSize(int nearCacheSize) {
+            this.nearCacheSize = nearCacheSize;
+        }
+
+        public boolean isConnections() {
+            return connections;
+        }
+
+        public void setConnections(boolean connections) {
+            this.connections = connections;
+        }
+
+        public int getConnectionsMaxSize() {
+            return connectionsMaxSize;
+        }
+
+        public void setConnectionsMaxSize(int connectionsMaxSize) {
+            this.connectionsMaxSize = connectionsMaxSize;
+        }
+    }
+
+    /**
+     * Properties of the CSV importers.
+     */
+    public static class Importer {
+
+        /**
+         * Number of rows saved per transaction, after which the persistence
+         * context is flushed and cleared.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Directory where the files of asynchronous imports are spooled
+         * until their job ends.
+         */
+        private String spoolDirectory = System.getProperty("java.io.tmpdir") + "/project-imports";
+
+        /**
+         * Number of asynchronous import jobs that may run at the same time.
+         */
+        private int jobConcurrency = 2;
+
+        /**
+         * Number of asynchronous import jobs waiting for a thread, beyond
+         * which new imports are rejected until others end.
+         */
+        private int jobQueueCapacity = 20;
+
+        /**
+         * Maximum number of line numbers of rejected rows recorded per
+         * asynchronous import job (all rejected rows are counted).
+         */
+        private int maxRejectedLines = 1000;
+
+        /**
+         * Number of threads which parse and validate blocks of CSV rows,
+         * shared by all imports ({@code 0} for the number of available
+         * processors).
+         */
+        private int parseConcurrency = 0;
+
+        /**
+         * Number of CSV rows per block parsed and validated by a thread.
+         */
+        private int parseBlockSize = 250;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public String getSpoolDirectory() {
+            return spoolDirectory;
+        }
+
+        public void setSpoolDirectory(String spoolDirectory) {
+            this.spoolDirectory = spoolDirectory;
+        }
+
+        public int getJobConcurrency() {
+            return jobConcurrency;
+        }
+
+        public void setJobConcurrency(int jobConcurrency) {
+            this.jobConcurrency = jobConcurrency;
+        }
+
+        public int getJobQueueCapacity() {
+            return jobQueueCapacity;
+        }
+
+        public void setJobQueueCapacity(int jobQueueCapacity) {
+            this.jobQueueCapacity = jobQueueCapacity;
+        }
+
+        public int getMaxRejectedLines() {
+            return maxRejectedLines;
+        }
+
+        public void setMaxRejectedLines(int maxRejectedLines) {
+            this.maxRejectedLines = maxRejectedLines;
+        }
+
+        public int getParseConcurrency() {
+            return parseConcurrency;
+        }
+
+        public void setParseConcurrency(int parseConcurrency) {
+            this.parseConcurrency = parseConcurrency;
+        }
+
+        public int getParseBlockSize() {
+            return parseBlockSize;
+        }
+
+        public void setParseBlockSize(int parseBlockSize) {
+            this.parseBlockSize = parseBlockSize;
+        }
+    }
+
+    /**
+     * Properties of the read-through caches of the hot reads of projects
+     * (see {@code ProjectReadCaches}), one region each.
+     */
+    public static class ReadCache {
+
+        /**
+         * Projects, by ID.
+         */
+        private final Region projects = new Region(3600, 10000);
+
+        /**
+         * Labels of each project.
+         */
+        private final Region labels = new Region(3600, 10000);
+
+        /**
+         * Basic info of the participants of each project.
+         */
+        private final Region participants = new Region(600, 1000);
+
+        /**
+         * Basic info of the tasks of each project.
+         */
+        private final Region tasks = new Region(600, 1000);
+
+        /**
+         * Counts of each project (see {@code ProjectCounterService}).
+         */
+        private final Region counts = new Region(3600, 10000);
+
+        /**
+         * Versions of each project (see {@code ProjectVersions}). A lost
+         * version only makes clients read the project once more.
+         */
+        private final Region versions = new Region(86400, 100000);
+
+        public Region getProjects() {
+            return projects;
+        }
+
+        public Region getLabels() {
+            return labels;
+        }
+
+        public Region getParticipants() {
+            return participants;
+        }
+
+        public Region getTasks() {
+            return tasks;
+        }
+
+        public Region getCounts() {
+            return counts;
+        }
+
+        public Region getVersions() {
+            return versions;
+        }
+
+        /**
+         * Bounds of a region.
+         */
+        public static class Region {
+
+            /**
+             * Seconds an entry stays in the region, i.e., the maximum
+             * staleness if an eviction is lost.
+             */
+            private int timeToLiveSeconds;
+
+            /**
+             * Maximum number of entries of the region per node, after which
+             * the least recently used are evicted.
+             */
+            private int maxSize;
+
+            public Region() {
+            }
+
+            public Region(int timeToLiveSeconds, int maxSize) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+                this.maxSize = maxSize;
+            }
+
+            public int getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+        }
+    }
+
+    /**
+     * Properties of the second-level cache regions of the entities, each
+     * with a near cache on every node.
+     */
+    public static class EntityCache {
+
+        /**
+         * Seconds an entity stays in the near cache of a node, i.e., the
+         * maximum staleness if an invalidation is lost.
+         */
+        private int nearCacheTimeToLiveSeconds = 60;
+
+        private final Region project = new Region(3600, 10000, 1000);
+        private final Region participant = new Region(3600, 100000, 10000);
+        private final Region task = new Region(3600, 50000, 5000);
+        private final Region label = new Region(3600, 50000, 5000);
+        private final Region projectPermission = new Region(3600, 50000, 5000);
+
+        /**
+         * Collections of the entities, and the other entities.
+         */
+        private final Region other = new Region(3600, 100000, 10000);
+
+        public int getNearCacheTimeToLiveSeconds() {
+            return nearCacheTimeToLiveSeconds;
+        }
+
+        public void setNearCacheTimeToLiveSeconds(int nearCacheTimeToLiveSeconds) {
+            this.nearCacheTimeToLiveSeconds = nearCacheTimeToLiveSeconds;
+        }
+
+        public Region getProject() {
+            return project;
+        }
+
+        public Region getParticipant() {
+            return participant;
+        }
+
+        public Region getTask() {
+            return task;
+        }
+
+        public Region getLabel() {
+            return label;
+        }
+
+        public Region getProjectPermission() {
+            return projectPermission;
+        }
+
+        public Region getOther() {
+            return other;
+        }
+
+        /**
+         * Bounds of an entity region.
+         */
+        public static class Region {
+
+            /**
+             * Seconds an entry stays in the region.
+             */
+            private int timeToLiveSeconds;
+
+            /**
+             * Maximum number of entries of the region per node, after which
+             * the least recently used are evicted.
+             */
+            private int maxSize;
+
+            /**
+             * Maximum number of entries in the near cache of a node.
+             */
+            private int nearCacheSize;
+
+            public Region() {
+            }
+
+            public Region(int timeToLiveSeconds, int maxSize, int nearCacheSize) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+                this.maxSize = maxSize;
+                this.nearCacheSize = nearCacheSize;
+            }
+
+            public int getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public int getNearCacheSize() {
+                return nearCacheSize;
+            }
+
+            public void setNearCacheSize(int nearCacheSize) {
+                this.nearCacheSize = nearCacheSize;
+            }
+        }
+    }
 }
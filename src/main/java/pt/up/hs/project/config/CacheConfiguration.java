@@ -20,6 +20,18 @@ import org.springframework.cloud.client.serviceregistry.Registration;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import pt.up.hs.project.domain.Label;
+import pt.up.hs.project.domain.Participant;
+import pt.up.hs.project.domain.Project;
+import pt.up.hs.project.domain.ProjectPermission;
+import pt.up.hs.project.domain.Task;
+import pt.up.hs.project.security.PermissionVersions;
+import pt.up.hs.project.security.ProjectConnectionCache;
+import pt.up.hs.project.security.ProjectPermissionCache;
+import pt.up.hs.project.service.cache.CacheSerializers;
+import pt.up.hs.project.service.cache.ProjectReadCaches;
+import pt.up.hs.project.service.cache.ProjectVersions;
+import pt.up.hs.project.service.impl.ProjectCounterServiceImpl;
 
 import javax.annotation.PreDestroy;
 
@@ -61,7 +73,10 @@ public class CacheConfiguration {
     }
 
     @Bean
-    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties) {
+    public HazelcastInstance hazelcastInstance(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties
+    ) {
         log.debug("Configuring Hazelcast");
         HazelcastInstance hazelCastInstance = Hazelcast.getHazelcastInstanceByName("project");
         if (hazelCastInstance != null) {
@@ -101,11 +116,58 @@ public class CacheConfiguration {
                 }
             }
         }
-        config.getMapConfigs().put("default", initializeDefaultMapConfig(jHipsterProperties));
+        ApplicationProperties.EntityCache entityCache = applicationProperties.getEntityCache();
+        // binary serializers of the values cached by this service
+        CacheSerializers.register(config.getSerializationConfig());
+
+        config.getMapConfigs().put("default", initializeDefaultMapConfig(jHipsterProperties, entityCache.getOther()));
 
         // Full reference is available at: http://docs.hazelcast.org/docs/management-center/3.9/manual/html/Deploying_and_Starting.html
         config.setManagementCenterConfig(initializeDefaultManagementCenterConfig(jHipsterProperties));
-        config.getMapConfigs().put("pt.up.hs.project.domain.*", initializeDomainMapConfig(jHipsterProperties));
+        config.getMapConfigs().put(
+            "pt.up.hs.project.domain.*",
+            initializeEntityMapConfig(entityCache.getOther(), entityCache.getNearCacheTimeToLiveSeconds())
+        );
+        config.getMapConfigs().put(
+            Project.class.getName(),
+            initializeEntityMapConfig(entityCache.getProject(), entityCache.getNearCacheTimeToLiveSeconds())
+        );
+        config.getMapConfigs().put(
+            Participant.class.getName(),
+            initializeEntityMapConfig(entityCache.getParticipant(), entityCache.getNearCacheTimeToLiveSeconds())
+        );
+        config.getMapConfigs().put(
+            Task.class.getName(),
+            initializeEntityMapConfig(entityCache.getTask(), entityCache.getNearCacheTimeToLiveSeconds())
+        );
+        config.getMapConfigs().put(
+            Label.class.getName(),
+            initializeEntityMapConfig(entityCache.getLabel(), entityCache.getNearCacheTimeToLiveSeconds())
+        );
+        config.getMapConfigs().put(
+            ProjectPermission.class.getName(),
+            initializeEntityMapConfig(entityCache.getProjectPermission(), entityCache.getNearCacheTimeToLiveSeconds())
+        );
+        config.getMapConfigs().put(
+            ProjectPermissionCache.MAP_NAME,
+            initializePermissionMapConfig(applicationProperties.getPermissionCache())
+        );
+        config.getMapConfigs().put(
+            ProjectConnectionCache.MAP_NAME,
+            initializeConnectionMapConfig(applicationProperties.getPermissionCache())
+        );
+        config.getMapConfigs().put(
+            PermissionVersions.MAP_NAME,
+            initializePermissionVersionMapConfig(applicationProperties.getPermissionCache())
+        );
+
+        ApplicationProperties.ReadCache readCache = applicationProperties.getReadCache();
+        config.getMapConfigs().put(ProjectCounterServiceImpl.MAP_NAME, initializeReadCacheMapConfig(readCache.getCounts()));
+        config.getMapConfigs().put(ProjectReadCaches.PROJECTS, initializeReadCacheMapConfig(readCache.getProjects()));
+        config.getMapConfigs().put(ProjectReadCaches.LABELS, initializeReadCacheMapConfig(readCache.getLabels()));
+        config.getMapConfigs().put(ProjectReadCaches.PARTICIPANTS, initializeReadCacheMapConfig(readCache.getParticipants()));
+        config.getMapConfigs().put(ProjectReadCaches.TASKS, initializeReadCacheMapConfig(readCache.getTasks()));
+        config.getMapConfigs().put(ProjectVersions.MAP_NAME, initializeReadCacheMapConfig(readCache.getVersions()));
         return Hazelcast.newHazelcastInstance(config);
     }
 
@@ -117,7 +179,10 @@ public class CacheConfiguration {
         return managementCenterConfig;
     }
 
-    private MapConfig initializeDefaultMapConfig(JHipsterProperties jHipsterProperties) {
+    private MapConfig initializeDefaultMapConfig(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties.EntityCache.Region region
+    ) {
         MapConfig mapConfig = new MapConfig();
 
         /*
@@ -140,16 +205,96 @@ public class CacheConfiguration {
         Maximum size of the map. When max size is reached,
         map is evicted based on the policy defined.
         Any integer between 0 and Integer.MAX_VALUE. 0 means
-        Integer.MAX_VALUE. Default is 0.
+        Integer.MAX_VALUE. Default is 0, which would let maps without
+        a configuration of their own grow without bound, hence they are
+        bounded as the other entity regions.
+        */
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(region.getMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+
+        return mapConfig;
+    }
+
+    private MapConfig initializeEntityMapConfig(ApplicationProperties.EntityCache.Region region, int nearCacheTimeToLiveSeconds) {
+        MapConfig mapConfig = new MapConfig();
+        mapConfig.setTimeToLiveSeconds(region.getTimeToLiveSeconds());
+        mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(region.getMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+
+        /*
+        Hibernate stores the disassembled state of each entity, which is
+        copied on every read anyway, hence entries are kept serialized in
+        the map and in the near cache of each node. In a cluster, most
+        entries are owned by another node, so without a near cache most
+        second-level cache hits would be remote calls. Entries are
+        invalidated when changed on any node, and
+        expire anyway after a short time to bound the staleness if an
+        invalidation event is lost.
         */
-        mapConfig.setMaxSizeConfig(new MaxSizeConfig(0, MaxSizeConfig.MaxSizePolicy.USED_HEAP_SIZE));
+        mapConfig.setInMemoryFormat(InMemoryFormat.BINARY);
+        NearCacheConfig nearCacheConfig = new NearCacheConfig();
+        nearCacheConfig.setInMemoryFormat(InMemoryFormat.BINARY);
+        nearCacheConfig.setInvalidateOnChange(true);
+        nearCacheConfig.setCacheLocalEntries(true);
+        nearCacheConfig.setTimeToLiveSeconds(nearCacheTimeToLiveSeconds);
+        nearCacheConfig.setEvictionConfig(new EvictionConfig()
+            .setEvictionPolicy(EvictionPolicy.LRU)
+            .setMaximumSizePolicy(EvictionConfig.MaxSizePolicy.ENTRY_COUNT)
+            .setSize(region.getNearCacheSize()));
+        mapConfig.setNearCacheConfig(nearCacheConfig);
 
         return mapConfig;
     }
 
-    private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties) {
+    private MapConfig initializePermissionMapConfig(ApplicationProperties.PermissionCache permissionCache) {
         MapConfig mapConfig = new MapConfig();
-        mapConfig.setTimeToLiveSeconds(jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds());
+        mapConfig.setTimeToLiveSeconds(permissionCache.getTimeToLiveSeconds());
+        mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(permissionCache.getMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+
+        /*
+        Permission checks run on every request, hence each node keeps a
+        near cache of the users it serves. Entries are invalidated when
+        changed on any node, and expire anyway after a short time to bound
+        the staleness if an invalidation event is lost.
+        */
+        NearCacheConfig nearCacheConfig = new NearCacheConfig();
+        nearCacheConfig.setInMemoryFormat(InMemoryFormat.OBJECT);
+        nearCacheConfig.setInvalidateOnChange(true);
+        nearCacheConfig.setCacheLocalEntries(true);
+        nearCacheConfig.setTimeToLiveSeconds(permissionCache.getNearCacheTimeToLiveSeconds());
+        nearCacheConfig.setEvictionConfig(new EvictionConfig()
+            .setEvictionPolicy(EvictionPolicy.LRU)
+            .setMaximumSizePolicy(EvictionConfig.MaxSizePolicy.ENTRY_COUNT)
+            .setSize(permissionCache.getNearCacheSize()));
+        mapConfig.setNearCacheConfig(nearCacheConfig);
+
+        return mapConfig;
+    }
+
+    private MapConfig initializeConnectionMapConfig(ApplicationProperties.PermissionCache permissionCache) {
+        MapConfig mapConfig = new MapConfig();
+        mapConfig.setTimeToLiveSeconds(permissionCache.getTimeToLiveSeconds());
+        mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(permissionCache.getConnectionsMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+        return mapConfig;
+    }
+
+    private MapConfig initializePermissionVersionMapConfig(ApplicationProperties.PermissionCache permissionCache) {
+        MapConfig mapConfig = new MapConfig();
+        // a version lost (expired or evicted) only drops the values loaded meanwhile
+        mapConfig.setTimeToLiveSeconds(permissionCache.getTimeToLiveSeconds());
+        mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(permissionCache.getMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+        return mapConfig;
+    }
+
+    private MapConfig initializeReadCacheMapConfig(ApplicationProperties.ReadCache.Region region) {
+        MapConfig mapConfig = new MapConfig();
+        mapConfig.setTimeToLiveSeconds(region.getTimeToLiveSeconds());
+        mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(region.getMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+        // the local statistics feed the size gauge of each region (see ReadCache)
+        mapConfig.setStatisticsEnabled(true);
         return mapConfig;
     }
 
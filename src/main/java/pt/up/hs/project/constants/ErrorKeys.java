@@ -7,6 +7,9 @@ public final class ErrorKeys {
     public static final String ERR_ID_NULL = "error.idnull";
     public static final String ERR_RELATED_ENTITY_NOT_FOUND = "error.relatednotfound";
     public static final String ERR_READ_IMPORT = "error.readImport";
+    public static final String ERR_IMPORT_BUSY = "error.importBusy";
     public static final String ERR_UNMODIFIABLE_OWNER_PERMISSION = "error.unmodifiableownerpermission";
     public static final String ERR_NOT_FOUND = "error.notfound";
+    public static final String ERR_INVALID_CURSOR = "error.invalidcursor";
+    public static final String ERR_NOT_RESTARTABLE = "error.notrestartable";
 }
@@ -5,6 +5,9 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.*;
@@ -26,8 +29,17 @@ public class Label implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bulkSequenceGenerator")
+    @GenericGenerator(
+        name = "bulkSequenceGenerator",
+        strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+        parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "bulk_sequence_generator"),
+            @Parameter(name = SequenceStyleGenerator.INITIAL_PARAM, value = "1050"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "1000"),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+        }
+    )
     private Long id;
 
     /**
@@ -1,8 +1,12 @@
 package pt.up.hs.project.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.*;
@@ -28,8 +32,17 @@ public class Participant extends AbstractAuditingEntity {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bulkSequenceGenerator")
+    @GenericGenerator(
+        name = "bulkSequenceGenerator",
+        strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+        parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "bulk_sequence_generator"),
+            @Parameter(name = SequenceStyleGenerator.INITIAL_PARAM, value = "1050"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "1000"),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+        }
+    )
     private Long id;
 
     /**
@@ -65,16 +78,17 @@ public class Participant extends AbstractAuditingEntity {
     @Column(name = "additional_info")
     private String additionalInfo;
 
-    /**
-     * Image of the participant for visual identification
-     */
-    @Lob
-    @Column(name = "image")
-    private byte[] image;
-
     @Column(name = "image_content_type")
     private String imageContentType;
 
+    /**
+     * Hash of the image of the participant (see {@link ParticipantImage}),
+     * or {@code null} if it has none.
+     */
+    @Size(max = 64)
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
     /**
      * A participant belongs to a project.
      */
@@ -87,9 +101,8 @@ public class Participant extends AbstractAuditingEntity {
     @NotNull
     private Long projectId;
 
-    @ManyToMany(
-        fetch = FetchType.EAGER
-    )
+    @ManyToMany
+    @BatchSize(size = 100)
     @JoinTable(
         name = "participant_labels",
         joinColumns = @JoinColumn(name = "participant_id"),
@@ -172,30 +185,30 @@ public class Participant extends AbstractAuditingEntity {
         this.additionalInfo = additionalInfo;
     }
 
-    public byte[] getImage() {
-        return image;
+    public String getImageContentType() {
+        return imageContentType;
     }
 
-    public Participant image(byte[] image) {
-        this.image = image;
+    public Participant imageContentType(String imageContentType) {
+        this.imageContentType = imageContentType;
         return this;
     }
 
-    public void setImage(byte[] image) {
-        this.image = image;
+    public void setImageContentType(String imageContentType) {
+        this.imageContentType = imageContentType;
     }
 
-    public String getImageContentType() {
-        return imageContentType;
+    public String getImageHash() {
+        return imageHash;
     }
 
-    public Participant imageContentType(String imageContentType) {
-        this.imageContentType = imageContentType;
+    public Participant imageHash(String imageHash) {
+        this.imageHash = imageHash;
         return this;
     }
 
-    public void setImageContentType(String imageContentType) {
-        this.imageContentType = imageContentType;
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
     }
 
     public Project getProject() {
@@ -271,8 +284,8 @@ public class Participant extends AbstractAuditingEntity {
             ", birthdate='" + getBirthdate() + "'" +
             ", handwritingMean='" + getHandedness() + "'" +
             ", additionalInfo='" + getAdditionalInfo() + "'" +
-            ", image='" + getImage() + "'" +
             ", imageContentType='" + getImageContentType() + "'" +
+            ", imageHash='" + getImageHash() + "'" +
             "}";
     }
 }
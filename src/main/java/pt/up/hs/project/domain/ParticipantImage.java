@@ -0,0 +1,136 @@
+package pt.up.hs.project.domain;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+
+/**
+ * Image of a participant for visual identification. Images are kept apart
+ * from the {@link Participant} (and out of the second-level cache), and
+ * only loaded when streamed. Participants keep the hash of their image,
+ * which identifies its version.
+ *
+ * @author José Carlos Paiva
+ */
+@Entity
+@Table(name = "participant_image")
+public class ParticipantImage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "participant_id")
+    private Long participantId;
+
+    @Lob
+    @NotNull
+    @Column(name = "content", nullable = false)
+    private byte[] content;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @NotNull
+    @Column(name = "content_length", nullable = false)
+    private Long contentLength;
+
+    /**
+     * SHA-256 of the content, in hexadecimal.
+     */
+    @NotNull
+    @Size(max = 64)
+    @Column(name = "hash", length = 64, nullable = false)
+    private String hash;
+
+    public Long getParticipantId() {
+        return participantId;
+    }
+
+    public ParticipantImage participantId(Long participantId) {
+        this.participantId = participantId;
+        return this;
+    }
+
+    public void setParticipantId(Long participantId) {
+        this.participantId = participantId;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public ParticipantImage content(byte[] content) {
+        this.content = content;
+        return this;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public ParticipantImage contentType(String contentType) {
+        this.contentType = contentType;
+        return this;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getContentLength() {
+        return contentLength;
+    }
+
+    public ParticipantImage contentLength(Long contentLength) {
+        this.contentLength = contentLength;
+        return this;
+    }
+
+    public void setContentLength(Long contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public ParticipantImage hash(String hash) {
+        this.hash = hash;
+        return this;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ParticipantImage)) {
+            return false;
+        }
+        return participantId != null && participantId.equals(((ParticipantImage) o).participantId);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    @Override
+    public String toString() {
+        return "ParticipantImage{" +
+            "participantId=" + getParticipantId() +
+            ", contentType='" + getContentType() + "'" +
+            ", contentLength=" + getContentLength() +
+            ", hash='" + getHash() + "'" +
+            "}";
+    }
+}
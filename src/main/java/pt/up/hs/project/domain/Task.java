@@ -2,8 +2,12 @@ package pt.up.hs.project.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -25,8 +29,17 @@ public class Task extends AbstractAuditingEntity {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bulkSequenceGenerator")
+    @GenericGenerator(
+        name = "bulkSequenceGenerator",
+        strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+        parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "bulk_sequence_generator"),
+            @Parameter(name = SequenceStyleGenerator.INITIAL_PARAM, value = "1050"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "1000"),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+        }
+    )
     private Long id;
 
     /**
@@ -67,9 +80,8 @@ public class Task extends AbstractAuditingEntity {
     @NotNull
     private Long projectId;
 
-    @ManyToMany(
-        fetch = FetchType.EAGER
-    )
+    @ManyToMany
+    @BatchSize(size = 100)
     @JoinTable(
         name = "task_labels",
         joinColumns = @JoinColumn(name = "task_id"),
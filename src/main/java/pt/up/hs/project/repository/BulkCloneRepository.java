@@ -0,0 +1,245 @@
+package pt.up.hs.project.repository;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+import pt.up.hs.project.domain.Label;
+import pt.up.hs.project.domain.Participant;
+import pt.up.hs.project.domain.ParticipantImage;
+import pt.up.hs.project.domain.Task;
+import pt.up.hs.project.utils.LongLongMap;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static pt.up.hs.project.repository.CloneIdMappingRepository.*;
+
+/**
+ * Repository with set-based statements to clone the contents of a project
+ * (labels, participants, tasks and their label associations).
+ * <p>
+ * New ids are drawn from {@code bulk_sequence_generator} and recorded in
+ * {@code clone_id_mapping} (see {@link CloneIdMappingRepository}), keyed by
+ * job execution, so that rows and their associations can be copied with
+ * {@code INSERT ... SELECT} joins instead of one round-trip per entity.
+ * <p>
+ * As with the pooled-lo optimizer used by Hibernate, each {@code nextval}
+ * reserves a whole block of {@link #BLOCK_SIZE} ids starting at the
+ * returned value, and every id of the block is assigned, so ids never
+ * collide with those assigned by the persistence context and the sequence
+ * is called once per block rather than once per row.
+ */
+@Repository
+public class BulkCloneRepository {
+
+    private static final String SEQUENCE_NAME = "bulk_sequence_generator";
+    private static final String MAPPING_TABLE = "clone_id_mapping";
+
+    /**
+     * Number of ids reserved by each call of the sequence, which must be
+     * its increment.
+     */
+    static final int BLOCK_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final CloneIdMappingRepository cloneIdMappingRepository;
+
+    public BulkCloneRepository(CloneIdMappingRepository cloneIdMappingRepository) {
+        this.cloneIdMappingRepository = cloneIdMappingRepository;
+    }
+
+    /**
+     * Copy all labels of a project into another project.
+     *
+     * @param jobExecutionId ID of the job execution.
+     * @param projectId      ID of the project to copy from.
+     * @param newProjectId   ID of the project to copy to.
+     * @return number of copied labels.
+     */
+    public int copyLabels(Long jobExecutionId, Long projectId, Long newProjectId) {
+        generateIds(jobExecutionId, LABEL, projectId);
+        return nativeQuery(
+            "insert into label (id, name, color, project_id) " +
+                "select m.new_id, l.name, l.color, :newProjectId " +
+                "from label l join clone_id_mapping m on m.old_id = l.id " +
+                "where m.job_execution_id = :jobExecutionId and m.entity = :entity",
+            Label.class
+        )
+            .setParameter("newProjectId", newProjectId)
+            .setParameter("jobExecutionId", jobExecutionId)
+            .setParameter("entity", LABEL)
+            .executeUpdate();
+    }
+
+    /**
+     * Copy all participants of a project into another project, including
+     * their images and label associations. Labels must have been copied before.
+     *
+     * @param jobExecutionId ID of the job execution.
+     * @param projectId      ID of the project to copy from.
+     * @param newProjectId   ID of the project to copy to.
+     * @param auditor        login of the user performing the copy.
+     * @return number of copied participants.
+     */
+    public int copyParticipants(Long jobExecutionId, Long projectId, Long newProjectId, String auditor) {
+        generateIds(jobExecutionId, PARTICIPANT, projectId);
+        int count = nativeQuery(
+            "insert into participant (id, name, gender, birthdate, handedness, additional_info, " +
+                "image_hash, image_content_type, project_id, created_by, created_date) " +
+                "select m.new_id, p.name, p.gender, p.birthdate, p.handedness, p.additional_info, " +
+                "p.image_hash, p.image_content_type, :newProjectId, :auditor, :now " +
+                "from participant p join clone_id_mapping m on m.old_id = p.id " +
+                "where m.job_execution_id = :jobExecutionId and m.entity = :entity",
+            Participant.class
+        )
+            .setParameter("newProjectId", newProjectId)
+            .setParameter("auditor", auditor)
+            .setParameter("now", Timestamp.from(Instant.now()))
+            .setParameter("jobExecutionId", jobExecutionId)
+            .setParameter("entity", PARTICIPANT)
+            .executeUpdate();
+        nativeQuery(
+            "insert into participant_image (participant_id, content, content_type, content_length, hash) " +
+                "select m.new_id, i.content, i.content_type, i.content_length, i.hash " +
+                "from participant_image i join clone_id_mapping m on m.old_id = i.participant_id " +
+                "where m.job_execution_id = :jobExecutionId and m.entity = :entity",
+            ParticipantImage.class
+        )
+            .setParameter("jobExecutionId", jobExecutionId)
+            .setParameter("entity", PARTICIPANT)
+            .executeUpdate();
+        copyLabelAssociations(jobExecutionId, "participant_labels", "participant_id", PARTICIPANT, Participant.class);
+        return count;
+    }
+
+    /**
+     * Copy all tasks of a project into another project, including their
+     * label associations. Labels must have been copied before.
+     *
+     * @param jobExecutionId ID of the job execution.
+     * @param projectId      ID of the project to copy from.
+     * @param newProjectId   ID of the project to copy to.
+     * @param auditor        login of the user performing the copy.
+     * @return number of copied tasks.
+     */
+    public int copyTasks(Long jobExecutionId, Long projectId, Long newProjectId, String auditor) {
+        generateIds(jobExecutionId, TASK, projectId);
+        int count = nativeQuery(
+            "insert into task (id, name, description, start_date, end_date, project_id, " +
+                "created_by, created_date) " +
+                "select m.new_id, t.name, t.description, t.start_date, t.end_date, :newProjectId, " +
+                ":auditor, :now " +
+                "from task t join clone_id_mapping m on m.old_id = t.id " +
+                "where m.job_execution_id = :jobExecutionId and m.entity = :entity",
+            Task.class
+        )
+            .setParameter("newProjectId", newProjectId)
+            .setParameter("auditor", auditor)
+            .setParameter("now", Timestamp.from(Instant.now()))
+            .setParameter("jobExecutionId", jobExecutionId)
+            .setParameter("entity", TASK)
+            .executeUpdate();
+        copyLabelAssociations(jobExecutionId, "task_labels", "task_id", TASK, Task.class);
+        return count;
+    }
+
+    /**
+     * Delete labels, participants, tasks and their label associations from
+     * a project.
+     *
+     * @param projectId ID of the project.
+     */
+    public void deleteProjectContents(Long projectId) {
+        nativeQuery(
+            "delete from participant_labels where participant_id in " +
+                "(select p.id from participant p where p.project_id = :projectId)",
+            Participant.class, Label.class
+        ).setParameter("projectId", projectId).executeUpdate();
+        nativeQuery(
+            "delete from task_labels where task_id in " +
+                "(select t.id from task t where t.project_id = :projectId)",
+            Task.class, Label.class
+        ).setParameter("projectId", projectId).executeUpdate();
+        nativeQuery(
+            "delete from participant_image where participant_id in " +
+                "(select p.id from participant p where p.project_id = :projectId)",
+            ParticipantImage.class
+        ).setParameter("projectId", projectId).executeUpdate();
+        nativeQuery("delete from participant where project_id = :projectId", Participant.class)
+            .setParameter("projectId", projectId).executeUpdate();
+        nativeQuery("delete from task where project_id = :projectId", Task.class)
+            .setParameter("projectId", projectId).executeUpdate();
+        nativeQuery("delete from label where project_id = :projectId", Label.class)
+            .setParameter("projectId", projectId).executeUpdate();
+    }
+
+    private void generateIds(Long jobExecutionId, String entity, Long projectId) {
+        List<?> oldIds = entityManager
+            .createNativeQuery("select e.id from " + entity + " e where e.project_id = :projectId order by e.id")
+            .setParameter("projectId", projectId)
+            .getResultList();
+        LongLongMap entries = new LongLongMap(oldIds.size());
+        long blockStart = 0;
+        for (int i = 0; i < oldIds.size(); i++) {
+            if (i % BLOCK_SIZE == 0) {
+                blockStart = nextBlockStart();
+            }
+            entries.put(((Number) oldIds.get(i)).longValue(), blockStart + i % BLOCK_SIZE);
+        }
+        if (!entries.isEmpty()) {
+            cloneIdMappingRepository.saveAll(jobExecutionId, entity, entries);
+        }
+    }
+
+    private void copyLabelAssociations(
+        Long jobExecutionId, String joinTable, String ownerColumn, String ownerEntity, Class<?> ownerClass
+    ) {
+        nativeQuery(
+            "insert into " + joinTable + " (" + ownerColumn + ", labels_id) " +
+                "select om.new_id, lm.new_id from " + joinTable + " j " +
+                "join clone_id_mapping om on om.old_id = j." + ownerColumn + " " +
+                "and om.job_execution_id = :jobExecutionId and om.entity = :ownerEntity " +
+                "join clone_id_mapping lm on lm.old_id = j.labels_id " +
+                "and lm.job_execution_id = :jobExecutionId and lm.entity = :labelEntity",
+            ownerClass, Label.class
+        )
+            .setParameter("jobExecutionId", jobExecutionId)
+            .setParameter("ownerEntity", ownerEntity)
+            .setParameter("labelEntity", LABEL)
+            .executeUpdate();
+    }
+
+    /**
+     * Create a native query which only invalidates the second-level cache
+     * regions of the given entities (or none at all).
+     */
+    private Query nativeQuery(String sql, Class<?>... synchronizedEntities) {
+        Query query = entityManager.createNativeQuery(sql);
+        NativeQuery<?> nativeQuery = query.unwrap(NativeQuery.class);
+        if (synchronizedEntities.length == 0) {
+            nativeQuery.addSynchronizedQuerySpace(MAPPING_TABLE);
+        }
+        for (Class<?> entityClass: synchronizedEntities) {
+            nativeQuery.addSynchronizedEntityClass(entityClass);
+        }
+        return query;
+    }
+
+    private long nextBlockStart() {
+        Dialect dialect = entityManager.getEntityManagerFactory()
+            .unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices()
+            .getDialect();
+        Number value = (Number) entityManager
+            .createNativeQuery(dialect.getSequenceNextValString(SEQUENCE_NAME))
+            .getSingleResult();
+        return value.longValue();
+    }
+}
@@ -0,0 +1,181 @@
+package pt.up.hs.project.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import pt.up.hs.project.utils.LongLongMap;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Repository for the old-to-new id pairs generated by project cloning jobs,
+ * stored in {@code clone_id_mapping} as rows of four numeric columns.
+ */
+@Repository
+public class CloneIdMappingRepository {
+
+    public static final String LABEL = "label";
+    public static final String PARTICIPANT = "participant";
+    public static final String TASK = "task";
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CloneIdMappingRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    /**
+     * Save id pairs of an entity.
+     *
+     * @param mappingId ID of the mapping (job execution that generated it).
+     * @param entity    name of the entity.
+     * @param entries   old-to-new id pairs.
+     */
+    public void saveAll(long mappingId, String entity, LongLongMap entries) {
+        long[] oldIds = new long[entries.size()];
+        long[] newIds = new long[entries.size()];
+        int[] i = { 0 };
+        entries.forEach((oldId, newId) -> {
+            oldIds[i[0]] = oldId;
+            newIds[i[0]++] = newId;
+        });
+        jdbcTemplate.batchUpdate(
+            "insert into clone_id_mapping (job_execution_id, entity, old_id, new_id) values (?, ?, ?, ?)",
+            new BatchPreparedStatementSetter() {
+
+                @Override
+                public void setValues(PreparedStatement ps, int index) throws SQLException {
+                    ps.setLong(1, mappingId);
+                    ps.setString(2, entity);
+                    ps.setLong(3, oldIds[index]);
+                    ps.setLong(4, newIds[index]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return oldIds.length;
+                }
+            }
+        );
+    }
+
+    /**
+     * Stream the id pairs of an entity, in ascending order of old id.
+     *
+     * @param mappingId ID of the mapping (job execution that generated it).
+     * @param entity    name of the entity.
+     * @param consumer  consumer of the id pairs.
+     */
+    public void forEach(long mappingId, String entity, LongLongMap.EntryConsumer consumer) {
+        jdbcTemplate.query(
+            "select old_id, new_id from clone_id_mapping " +
+                "where job_execution_id = ? and entity = ? order by old_id",
+            (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getLong(2)),
+            mappingId, entity
+        );
+    }
+
+    /**
+     * Get a page of the id pairs of an entity, in ascending order of old id.
+     *
+     * @param mappingId  ID of the mapping (job execution that generated it).
+     * @param entity     name of the entity.
+     * @param afterOldId only pairs with an old id greater than this are returned.
+     * @param size       maximum number of pairs to return.
+     * @return the page of id pairs.
+     */
+    public LongLongMap findPage(long mappingId, String entity, long afterOldId, int size) {
+        LongLongMap page = new LongLongMap(size);
+        jdbcTemplate.query(
+            "select old_id, new_id from clone_id_mapping " +
+                "where job_execution_id = ? and entity = ? and old_id > ? order by old_id limit ?",
+            (RowCallbackHandler) rs -> page.put(rs.getLong(1), rs.getLong(2)),
+            mappingId, entity, afterOldId, size
+        );
+        return page;
+    }
+
+    /**
+     * Find which of the given old ids of an entity have a pair.
+     *
+     * @param mappingId ID of the mapping (job execution that generated it).
+     * @param entity    name of the entity.
+     * @param oldIds    old ids to look for.
+     * @return the old ids which have a pair.
+     */
+    public Set<Long> findOldIds(long mappingId, String entity, Collection<Long> oldIds) {
+        Set<Long> found = new HashSet<>();
+        if (oldIds.isEmpty()) {
+            return found;
+        }
+        Object[] args = new Object[oldIds.size() + 2];
+        args[0] = mappingId;
+        args[1] = entity;
+        int i = 2;
+        for (Long oldId: oldIds) {
+            args[i++] = oldId;
+        }
+        jdbcTemplate.query(
+            "select old_id from clone_id_mapping where job_execution_id = ? and entity = ? and old_id in (" +
+                oldIds.stream().map(oldId -> "?").collect(Collectors.joining(", ")) + ")",
+            (RowCallbackHandler) rs -> found.add(rs.getLong(1)),
+            args
+        );
+        return found;
+    }
+
+    /**
+     * Count the id pairs of an entity.
+     *
+     * @param mappingId ID of the mapping (job execution that generated it).
+     * @param entity    name of the entity.
+     * @return the number of id pairs.
+     */
+    public long count(long mappingId, String entity) {
+        Long count = jdbcTemplate.queryForObject(
+            "select count(*) from clone_id_mapping where job_execution_id = ? and entity = ?",
+            Long.class,
+            mappingId, entity
+        );
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Delete all id pairs of a mapping.
+     *
+     * @param mappingId ID of the mapping (job execution that generated it).
+     */
+    public void deleteAll(long mappingId) {
+        jdbcTemplate.update("delete from clone_id_mapping where job_execution_id = ?", mappingId);
+    }
+
+    /**
+     * Delete all id pairs of the mappings of the jobs whose executions all
+     * ended before an instant, i.e., which are neither running nor were
+     * restarted since.
+     *
+     * @param endedBefore instant before which the executions ended.
+     * @return the number of id pairs deleted.
+     */
+    public int deleteAllEndedBefore(Instant endedBefore) {
+        return jdbcTemplate.update(
+            "delete from clone_id_mapping where job_execution_id in (" +
+                "select e.job_execution_id from batch_job_execution e where not exists (" +
+                "select 1 from batch_job_execution o where o.job_instance_id = e.job_instance_id " +
+                "and (o.end_time is null or o.end_time >= ?)))",
+            Timestamp.from(endedBefore)
+        );
+    }
+}
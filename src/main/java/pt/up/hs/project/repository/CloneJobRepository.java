@@ -0,0 +1,37 @@
+package pt.up.hs.project.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for looking up project cloning job executions in the Spring
+ * Batch metadata tables.
+ */
+@Repository
+public class CloneJobRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CloneJobRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Find the latest execution of the cloning job which creates a project.
+     *
+     * @param newProjectIdParameter name of the job parameter with the ID of the project to create.
+     * @param newProjectId          ID of the project to create.
+     * @return the ID of the latest job execution, if any.
+     */
+    public Optional<Long> findLatestExecutionId(String newProjectIdParameter, Long newProjectId) {
+        Long executionId = jdbcTemplate.queryForObject(
+            "select max(p.job_execution_id) from batch_job_execution_params p " +
+                "where p.key_name = ? and p.long_val = ?",
+            Long.class,
+            newProjectIdParameter, newProjectId
+        );
+        return Optional.ofNullable(executionId);
+    }
+}
@@ -0,0 +1,11 @@
+package pt.up.hs.project.repository;
+
+/**
+ * Projection with the lowest and highest id of a set of entities.
+ */
+public interface IdRange {
+
+    Long getMinId();
+
+    Long getMaxId();
+}
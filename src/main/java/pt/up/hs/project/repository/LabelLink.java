@@ -0,0 +1,12 @@
+package pt.up.hs.project.repository;
+
+/**
+ * Projection with a row of a label join table: the id of the labelled
+ * entity and the id of the label.
+ */
+public interface LabelLink {
+
+    Long getOwnerId();
+
+    Long getLabelId();
+}
@@ -3,10 +3,12 @@ package pt.up.hs.project.repository;
 import pt.up.hs.project.domain.Label;
 
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,8 +23,23 @@ public interface LabelRepository extends CustomRepository<Label, Long> {
 
     List<Label> findAllByProjectId(@NotNull Long projectId);
 
+    List<Label> findAllByProjectIdAndNameIn(@NotNull Long projectId, @NotNull Collection<String> names);
+
     long countByProjectId(@NotNull Long projectId);
 
+    @Query("select min(label.id) as minId, max(label.id) as maxId from Label label where label.projectId = :projectId")
+    IdRange findIdRangeByProjectId(@Param("projectId") @NotNull Long projectId);
+
+    @Query(
+        "select label.id from Label label " +
+            "where label.projectId = :projectId and label.id between :minId and :maxId order by label.id"
+    )
+    List<Long> findIdsByProjectIdAndIdBetween(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("minId") @NotNull Long minId,
+        @Param("maxId") @NotNull Long maxId
+    );
+
     Optional<Label> findByProjectIdAndId(@NotNull Long projectId, @NotNull Long id);
 
     void deleteByProjectIdAndId(@NotNull Long projectId, @NotNull Long id);
@@ -0,0 +1,26 @@
+package pt.up.hs.project.repository;
+
+import java.time.Instant;
+
+/**
+ * Projection with the basic info of a participant (see
+ * {@link pt.up.hs.project.service.dto.ParticipantBasicDTO}).
+ */
+public interface ParticipantBasicView {
+
+    Long getId();
+
+    String getName();
+
+    Long getProjectId();
+
+    String getImageHash();
+
+    String getCreatedBy();
+
+    Instant getCreatedDate();
+
+    String getLastModifiedBy();
+
+    Instant getLastModifiedDate();
+}
@@ -0,0 +1,14 @@
+package pt.up.hs.project.repository;
+
+/**
+ * Projection with the metadata of a participant image, without its
+ * content.
+ */
+public interface ParticipantImageInfo {
+
+    String getContentType();
+
+    Long getContentLength();
+
+    String getHash();
+}
@@ -0,0 +1,36 @@
+package pt.up.hs.project.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pt.up.hs.project.domain.ParticipantImage;
+
+import javax.validation.constraints.NotNull;
+import java.util.Optional;
+
+/**
+ * Spring Data repository for the ParticipantImage entity.
+ */
+@Repository
+public interface ParticipantImageRepository extends JpaRepository<ParticipantImage, Long> {
+
+    String WHERE_PROJECT_ID_PARTICIPANT_ID =
+        "where image.participantId = :participantId and exists (select participant.id from Participant participant " +
+            "where participant.id = image.participantId and participant.projectId = :projectId)";
+
+    @Query("select image from ParticipantImage image " + WHERE_PROJECT_ID_PARTICIPANT_ID)
+    Optional<ParticipantImage> findByProjectIdAndParticipantId(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("participantId") @NotNull Long participantId
+    );
+
+    @Query(
+        "select image.contentType as contentType, image.contentLength as contentLength, image.hash as hash " +
+            "from ParticipantImage image " + WHERE_PROJECT_ID_PARTICIPANT_ID
+    )
+    Optional<ParticipantImageInfo> findInfoByProjectIdAndParticipantId(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("participantId") @NotNull Long participantId
+    );
+}
@@ -19,64 +19,216 @@ import java.util.Optional;
 @Repository
 public interface ParticipantRepository extends CustomRepository<Participant, Long> {
 
-    String SELECT_BY_PROJECT_ID_SEARCH_LABELS =
-        "select distinct participant.id from Participant participant left join participant.labels label " +
-        "where participant.projectId = :projectId and ((:search is null or :search = '')" +
-            " or (lower(participant.name) like ('%' || lower(:search) || '%'))" +
-            " or (lower(participant.additionalInfo) like ('%' || lower(:search) || '%')))" +
-            " and (coalesce(:labelIds) is null or label.id in (:labelIds))";
-
-    String COUNT_BY_PROJECT_ID_SEARCH_LABELS =
-        "select count(distinct participant.id) from Participant participant left join participant.labels label " +
-            "where participant.projectId = :projectId and ((:search is null or :search = '')" +
-            " or (lower(participant.name) like ('%' || lower(:search) || '%'))" +
-            " or (lower(participant.additionalInfo) like ('%' || lower(:search) || '%')))" +
-            " and (coalesce(:labelIds) is null or label.id in (:labelIds))";
+    String WHERE_PROJECT_ID_LABELS =
+        "where participant.projectId = :projectId " +
+            "and (coalesce(:labelIds) is null or exists (select label.id from Participant labelled join labelled.labels label " +
+            "where labelled.id = participant.id and label.id in (:labelIds)))";
+
+    /**
+     * Search predicate. Matches {@code lower(column) like '%term%'}, which
+     * is served by the trigram indexes of these columns.
+     */
+    String AND_SEARCH =
+        " and (lower(participant.name) like :pattern or lower(participant.additionalInfo) like :pattern)";
+
+    /**
+     * Relevance of a search match: exact name, name prefix, name
+     * substring and then any other match.
+     */
+    String ORDER_BY_RELEVANCE =
+        " order by case when lower(participant.name) = :term then 0" +
+            " when lower(participant.name) like concat(:term, '%') then 1" +
+            " when lower(participant.name) like :pattern then 2 else 3 end";
 
     @Query(
         value = "select distinct participant from Participant participant join fetch participant.labels label " +
-            "where participant.id in (" + SELECT_BY_PROJECT_ID_SEARCH_LABELS + ")",
-        countQuery = COUNT_BY_PROJECT_ID_SEARCH_LABELS
+            "where participant.id in (select participant.id from Participant participant " + WHERE_PROJECT_ID_LABELS + AND_SEARCH + ")",
+        countQuery = "select count(participant) from Participant participant " + WHERE_PROJECT_ID_LABELS + AND_SEARCH
     )
     Page<Participant> findAllWithEagerRelationships(
         @Param("projectId") @NotNull Long projectId,
-        @Param("search") String search,
+        @Param("pattern") @NotNull String pattern,
         @Param("labelIds") List<Long> labels,
         Pageable pageable
     );
 
     @Query(
-        value = "select distinct participant from Participant participant left join participant.labels label " +
-            "where participant.projectId = :projectId " +
-            "and ((:search is null or :search = '') or (lower(participant.name) like ('%' || lower(:search) || '%')) or (lower(participant.additionalInfo) like ('%' || lower(:search) || '%'))) " +
-            "and (coalesce(:labelIds) is null or label.id in (:labelIds))",
-        countProjection = "distinct participant.id"
+        value = "select participant from Participant participant " + WHERE_PROJECT_ID_LABELS,
+        countQuery = "select count(participant) from Participant participant " + WHERE_PROJECT_ID_LABELS
     )
     Page<Participant> findAllByProjectId(
         @Param("projectId") @NotNull Long projectId,
-        @Param("search") String search,
         @Param("labelIds") List<Long> labels,
         Pageable pageable
     );
 
-    @Query(COUNT_BY_PROJECT_ID_SEARCH_LABELS)
+    @Query(
+        value = "select participant from Participant participant " + WHERE_PROJECT_ID_LABELS + AND_SEARCH + ORDER_BY_RELEVANCE,
+        countQuery = "select count(participant) from Participant participant " + WHERE_PROJECT_ID_LABELS + AND_SEARCH
+    )
+    Page<Participant> searchAllByProjectId(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("term") @NotNull String term,
+        @Param("pattern") @NotNull String pattern,
+        @Param("labelIds") List<Long> labels,
+        Pageable pageable
+    );
+
+    /**
+     * Keys (id and sort value) of the first page of a keyset-paginated
+     * listing sorted by id. The pageable must only set the limit and the
+     * order (by id).
+     */
+    @Query("select participant.id, participant.id from Participant participant " + WHERE_PROJECT_ID_LABELS + AND_SEARCH)
+    List<Object[]> findFirstKeysById(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("pattern") @NotNull String pattern,
+        @Param("labelIds") List<Long> labels,
+        Pageable pageable
+    );
+
+    /**
+     * Keys (id and sort value) of the first page of a keyset-paginated
+     * listing sorted by name. The pageable must only set the limit and the
+     * order (by name and then by id, in the same direction).
+     */
+    @Query("select participant.id, participant.name from Participant participant " + WHERE_PROJECT_ID_LABELS + AND_SEARCH)
+    List<Object[]> findFirstKeysByName(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("pattern") @NotNull String pattern,
+        @Param("labelIds") List<Long> labels,
+        Pageable pageable
+    );
+
+    /**
+     * Keys (id and sort value) of the page of a keyset-paginated listing
+     * which starts after the row with the given id. The pageable must only
+     * set the limit and the order (by id, ascending).
+     */
+    @Query(
+        "select participant.id, participant.id from Participant participant " + WHERE_PROJECT_ID_LABELS + AND_SEARCH +
+            " and participant.id > :lastId"
+    )
+    List<Object[]> findKeysByIdAfter(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("pattern") @NotNull String pattern,
+        @Param("labelIds") List<Long> labels,
+        @Param("lastId") @NotNull Long lastId,
+        Pageable pageable
+    );
+
+    @Query(
+        "select participant.id, participant.id from Participant participant " + WHERE_PROJECT_ID_LABELS + AND_SEARCH +
+            " and participant.id < :lastId"
+    )
+    List<Object[]> findKeysByIdBefore(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("pattern") @NotNull String pattern,
+        @Param("labelIds") List<Long> labels,
+        @Param("lastId") @NotNull Long lastId,
+        Pageable pageable
+    );
+
+    /**
+     * Keys (id and sort value) of the page of a keyset-paginated listing
+     * which starts after the row with the given name and id. The pageable
+     * must only set the limit and the order (by name and then by id,
+     * ascending). The first condition bounds the index scan on the name,
+     * and the second skips the rows of the same name already seen.
+     */
+    @Query(
+        "select participant.id, participant.name from Participant participant " + WHERE_PROJECT_ID_LABELS + AND_SEARCH +
+            " and participant.name >= :lastName and (participant.name > :lastName or participant.id > :lastId)"
+    )
+    List<Object[]> findKeysByNameAfter(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("pattern") @NotNull String pattern,
+        @Param("labelIds") List<Long> labels,
+        @Param("lastName") @NotNull String lastName,
+        @Param("lastId") @NotNull Long lastId,
+        Pageable pageable
+    );
+
+    @Query(
+        "select participant.id, participant.name from Participant participant " + WHERE_PROJECT_ID_LABELS + AND_SEARCH +
+            " and participant.name <= :lastName and (participant.name < :lastName or participant.id < :lastId)"
+    )
+    List<Object[]> findKeysByNameBefore(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("pattern") @NotNull String pattern,
+        @Param("labelIds") List<Long> labels,
+        @Param("lastName") @NotNull String lastName,
+        @Param("lastId") @NotNull Long lastId,
+        Pageable pageable
+    );
+
+    @Query("select distinct participant from Participant participant left join fetch participant.labels where participant.id in (:ids)")
+    List<Participant> findAllWithEagerRelationshipsByIdIn(@Param("ids") @NotNull List<Long> ids);
+
+    @Query("select count(participant) from Participant participant " + WHERE_PROJECT_ID_LABELS)
     long count(
         @Param("projectId") @NotNull Long projectId,
-        @Param("search") String search,
+        @Param("labelIds") List<Long> labels
+    );
+
+    @Query("select count(participant) from Participant participant " + WHERE_PROJECT_ID_LABELS + AND_SEARCH)
+    long countSearch(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("pattern") @NotNull String pattern,
         @Param("labelIds") List<Long> labels
     );
 
     List<Participant> findAllByProjectId(@NotNull Long projectId);
 
+    @Query(
+        "select participant.id as id, participant.name as name, participant.projectId as projectId, " +
+            "participant.imageHash as imageHash, " +
+            "participant.createdBy as createdBy, participant.createdDate as createdDate, " +
+            "participant.lastModifiedBy as lastModifiedBy, participant.lastModifiedDate as lastModifiedDate " +
+            "from Participant participant where participant.projectId = :projectId order by participant.id"
+    )
+    List<ParticipantBasicView> findAllBasicByProjectId(@Param("projectId") @NotNull Long projectId);
+
+    @Query(
+        "select participant.id as ownerId, label.id as labelId " +
+            "from Participant participant join participant.labels label where participant.projectId = :projectId"
+    )
+    List<LabelLink> findLabelLinksByProjectId(@Param("projectId") @NotNull Long projectId);
+
+    @Query(
+        "select label.id from Participant participant join participant.labels label " +
+            "where participant.projectId = :projectId and participant.id = :id"
+    )
+    List<Long> findLabelIdsByProjectIdAndId(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("id") @NotNull Long id
+    );
+
+    long countByProjectId(@NotNull Long projectId);
+
+    @Query("select min(participant.id) as minId, max(participant.id) as maxId from Participant participant where participant.projectId = :projectId")
+    IdRange findIdRangeByProjectId(@Param("projectId") @NotNull Long projectId);
+
+    @Query(
+        "select participant.id from Participant participant " +
+            "where participant.projectId = :projectId and participant.id between :minId and :maxId order by participant.id"
+    )
+    List<Long> findIdsByProjectIdAndIdBetween(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("minId") @NotNull Long minId,
+        @Param("maxId") @NotNull Long maxId
+    );
+
     @Query("select participant from Participant participant left join fetch participant.labels where participant.projectId = :projectId and participant.id = :id")
     Optional<Participant> findOneWithEagerRelationships(
         @Param("projectId") @NotNull Long projectId,
         @Param("id") @NotNull Long id
     );
 
+    @EntityGraph(attributePaths = "labels")
     Optional<Participant> findByProjectIdAndId(@NotNull Long projectId, @NotNull Long id);
 
     @Nonnull <S extends Participant> List<S> saveAll(@Nonnull Iterable<S> entities);
 
-    void deleteAllByProjectIdAndId(@NotNull Long projectId, @NotNull Long id);
+    long deleteAllByProjectIdAndId(@NotNull Long projectId, @NotNull Long id);
 }
@@ -0,0 +1,262 @@
+package pt.up.hs.project.repository;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import pt.up.hs.project.service.dto.LabelUsageDTO;
+import pt.up.hs.project.service.dto.ProjectCountsDTO;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for the counters of each project, stored in
+ * {@code project_counter} (participants, tasks and labels of a project)
+ * and {@code label_counter} (participants and tasks of a label).
+ * <p>
+ * Counters are plain rows updated in place with JDBC, out of the
+ * persistence context, so that no managed copy of them goes stale. Counting
+ * statements flush the persistence context first, as they read the
+ * counted tables.
+ * <p>
+ * Counters are deleted with their project or label (foreign keys on
+ * delete cascade), and recounted rows are upserted, so that concurrent
+ * recounts of a project or label without counters do not collide.
+ */
+@Repository
+public class ProjectCounterRepository {
+
+    private static final String COUNT_PROJECT =
+        "select (select count(*) from participant where project_id = ?), " +
+            "(select count(*) from task where project_id = ?), " +
+            "(select count(*) from label where project_id = ?)";
+
+    private static final String COUNT_LABEL_USAGE =
+        "select l.id, l.project_id, " +
+            "(select count(*) from participant_labels x where x.labels_id = l.id), " +
+            "(select count(*) from task_labels x where x.labels_id = l.id) " +
+            "from label l ";
+
+    private static final String COUNT_PROJECT_BY_ID =
+        "select p.id, " +
+            "(select count(*) from participant x where x.project_id = p.id), " +
+            "(select count(*) from task x where x.project_id = p.id), " +
+            "(select count(*) from label x where x.project_id = p.id) " +
+            "from project p where p.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProjectCounterRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Find the counters of a project.
+     *
+     * @param projectId ID of the project.
+     * @return the counts of the project, if it has counters.
+     */
+    public Optional<ProjectCountsDTO> find(long projectId) {
+        List<ProjectCountsDTO> counts = jdbcTemplate.query(
+            "select participants, tasks, labels from project_counter where project_id = ?",
+            (rs, i) -> counts(projectId, rs.getLong(1), rs.getLong(2), rs.getLong(3)),
+            projectId
+        );
+        if (counts.isEmpty()) {
+            return Optional.empty();
+        }
+        ProjectCountsDTO result = counts.get(0);
+        result.setLabelUsage(jdbcTemplate.query(
+            "select label_id, participants, tasks from label_counter where project_id = ? order by label_id",
+            (rs, i) -> new LabelUsageDTO(rs.getLong(1), rs.getLong(2), rs.getLong(3)),
+            projectId
+        ));
+        return Optional.of(result);
+    }
+
+    /**
+     * Count the contents of a project, and the usage of its labels, from
+     * the counted tables.
+     *
+     * @param projectId ID of the project.
+     * @return the counts of the project.
+     */
+    public ProjectCountsDTO count(long projectId) {
+        entityManager.flush();
+        ProjectCountsDTO result = jdbcTemplate.queryForObject(
+            COUNT_PROJECT,
+            (rs, i) -> counts(projectId, rs.getLong(1), rs.getLong(2), rs.getLong(3)),
+            projectId, projectId, projectId
+        );
+        result.setLabelUsage(jdbcTemplate.query(
+            COUNT_LABEL_USAGE + "where l.project_id = ? order by l.id",
+            (rs, i) -> new LabelUsageDTO(rs.getLong(1), rs.getLong(3), rs.getLong(4)),
+            projectId
+        ));
+        return result;
+    }
+
+    /**
+     * Insert the counters of a project.
+     *
+     * @param projectId    ID of the project.
+     * @param participants number of participants.
+     * @param tasks        number of tasks.
+     * @param labels       number of labels.
+     */
+    public void insert(long projectId, long participants, long tasks, long labels) {
+        entityManager.flush();
+        jdbcTemplate.update(
+            "insert into project_counter (project_id, participants, tasks, labels) values (?, ?, ?, ?)",
+            projectId, participants, tasks, labels
+        );
+    }
+
+    /**
+     * Add to the counters of a project, locking them until the transaction
+     * completes.
+     *
+     * @param projectId    ID of the project.
+     * @param participants number of participants to add (may be negative).
+     * @param tasks        number of tasks to add (may be negative).
+     * @param labels       number of labels to add (may be negative).
+     * @return {@code true} if the project has counters, {@code false} otherwise.
+     */
+    public boolean add(long projectId, long participants, long tasks, long labels) {
+        return jdbcTemplate.update(
+            "update project_counter set participants = participants + ?, tasks = tasks + ?, labels = labels + ? " +
+                "where project_id = ?",
+            participants, tasks, labels, projectId
+        ) > 0;
+    }
+
+    /**
+     * Insert the counters of a label.
+     *
+     * @param labelId      ID of the label.
+     * @param projectId    ID of the project of the label.
+     * @param participants number of participants with the label.
+     * @param tasks        number of tasks with the label.
+     */
+    public void insertLabel(long labelId, long projectId, long participants, long tasks) {
+        entityManager.flush();
+        jdbcTemplate.update(
+            "insert into label_counter (label_id, project_id, participants, tasks) values (?, ?, ?, ?)",
+            labelId, projectId, participants, tasks
+        );
+    }
+
+    /**
+     * Add to the counters of a label.
+     *
+     * @param labelId      ID of the label.
+     * @param participants number of participants to add (may be negative).
+     * @param tasks        number of tasks to add (may be negative).
+     * @return {@code true} if the label has counters, {@code false} otherwise.
+     */
+    public boolean addLabel(long labelId, long participants, long tasks) {
+        return jdbcTemplate.update(
+            "update label_counter set participants = participants + ?, tasks = tasks + ? where label_id = ?",
+            participants, tasks, labelId
+        ) > 0;
+    }
+
+    /**
+     * Delete the counters of a label.
+     *
+     * @param labelId ID of the label.
+     */
+    public void deleteLabel(long labelId) {
+        jdbcTemplate.update("delete from label_counter where label_id = ?", labelId);
+    }
+
+    /**
+     * Recount the counters of a label from the label join tables.
+     *
+     * @param labelId ID of the label.
+     */
+    public void recountLabel(long labelId) {
+        entityManager.flush();
+        jdbcTemplate.update(
+            upsert(
+                COUNT_LABEL_USAGE + "where l.id = ?",
+                "label_counter", "label_id", "project_id", "participants", "tasks"
+            ),
+            labelId
+        );
+    }
+
+    /**
+     * Recount all the counters of a project from the counted tables. The
+     * counters of the project are locked before counting, so that writes
+     * which committed before are counted, and those which did not yet are
+     * added afterwards. Counters are upserted, as those of a project
+     * without counters cannot be locked.
+     *
+     * @param projectId ID of the project.
+     */
+    public void recount(long projectId) {
+        entityManager.flush();
+        jdbcTemplate.queryForList(
+            "select project_id from project_counter where project_id = ? for update", Long.class, projectId
+        );
+        jdbcTemplate.update(
+            upsert(COUNT_PROJECT_BY_ID, "project_counter", "project_id", "participants", "tasks", "labels"),
+            projectId
+        );
+        jdbcTemplate.update("delete from label_counter where project_id = ?", projectId);
+        jdbcTemplate.update(
+            "insert into label_counter (label_id, project_id, participants, tasks) " +
+                COUNT_LABEL_USAGE + "where l.project_id = ?",
+            projectId
+        );
+    }
+
+    /**
+     * Build a statement which inserts the rows of a query into a table,
+     * or updates those whose key exists (a merge in H2, and an insert on
+     * conflict in PostgreSQL).
+     *
+     * @param query   the query, selecting the key and then the other columns.
+     * @param table   the table.
+     * @param key     the key column.
+     * @param columns the other columns.
+     * @return the statement.
+     */
+    private String upsert(String query, String table, String key, String... columns) {
+        String columnList = key + ", " + String.join(", ", columns);
+        if (dialect() instanceof H2Dialect) {
+            return "merge into " + table + " (" + columnList + ") key (" + key + ") " + query;
+        }
+        StringBuilder updates = new StringBuilder();
+        for (String column: columns) {
+            updates.append(updates.length() > 0 ? ", " : "").append(column).append(" = excluded.").append(column);
+        }
+        return "insert into " + table + " (" + columnList + ") " + query +
+            " on conflict (" + key + ") do update set " + updates;
+    }
+
+    private Dialect dialect() {
+        return entityManager.getEntityManagerFactory()
+            .unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices()
+            .getDialect();
+    }
+
+    private static ProjectCountsDTO counts(long projectId, long participants, long tasks, long labels) {
+        ProjectCountsDTO counts = new ProjectCountsDTO();
+        counts.setProjectId(projectId);
+        counts.setParticipants(participants);
+        counts.setTasks(tasks);
+        counts.setLabels(labels);
+        return counts;
+    }
+}
@@ -0,0 +1,14 @@
+package pt.up.hs.project.repository;
+
+/**
+ * Projection of a {@link pt.up.hs.project.domain.ProjectPermission} row
+ * without loading the entity.
+ */
+public interface ProjectPermissionGrant {
+
+    String getUser();
+
+    Long getProjectId();
+
+    String getPermissionName();
+}
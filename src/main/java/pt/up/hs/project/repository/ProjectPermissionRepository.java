@@ -1,6 +1,7 @@
 package pt.up.hs.project.repository;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pt.up.hs.project.domain.ProjectPermission;
 import pt.up.hs.project.domain.ProjectPermissionId;
@@ -15,6 +16,28 @@ import java.util.List;
 @Repository
 public interface ProjectPermissionRepository extends CustomRepository<ProjectPermission, ProjectPermissionId> {
 
+    String SELECT_GRANTS = "select pp.id.user as user, pp.id.project.id as projectId, " +
+        "pp.id.permission.name as permissionName from ProjectPermission pp ";
+
+    @Query(SELECT_GRANTS + "where pp.id.user = :user")
+    List<ProjectPermissionGrant> findGrantsByUser(@NotNull @Param("user") String user);
+
+    @Query(SELECT_GRANTS + "where pp.id.project.id = :projectId")
+    List<ProjectPermissionGrant> findGrantsByProjectId(@NotNull @Param("projectId") Long projectId);
+
+    @Query(SELECT_GRANTS + "where pp.id.user = :user and pp.id.project.id = :projectId")
+    List<ProjectPermissionGrant> findGrantsByUserAndProjectId(
+        @NotNull @Param("user") String user,
+        @NotNull @Param("projectId") Long projectId
+    );
+
+    @Query(
+        "select distinct other.id.user from ProjectPermission mine, ProjectPermission other " +
+            "where mine.id.user = :user and other.id.project.id = mine.id.project.id " +
+            "and lower(other.id.user) <> lower(:user)"
+    )
+    List<String> findConnectionsByUser(@NotNull @Param("user") String user);
+
     List<ProjectPermission> findAllByIdUserAndIdProjectId(
         @NotNull String user,
         @NotNull Long projectId
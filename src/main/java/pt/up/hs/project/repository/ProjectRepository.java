@@ -2,6 +2,7 @@ package pt.up.hs.project.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -27,16 +28,76 @@ public interface ProjectRepository extends CustomRepository<Project, Long> {
     )
     @Nonnull List<Project> findAll();
 
+    /**
+     * Find the readable projects with any of the given statuses whose name
+     * or description contain the search pattern, most relevant first (exact
+     * name, name prefix, name substring and then description matches). The
+     * permission check is an {@code exists} sub-query, so no {@code distinct}
+     * is needed and the trigram indexes of the searched columns apply.
+     *
+     * @param statuses the statuses to filter by (any if {@code null}).
+     * @param term     the lower-case search term.
+     * @param pattern  the pattern built from the term (see {@code Searches}).
+     * @return the matching projects.
+     */
     @Query(
-        value = "select distinct project from Project project join project.permissions permission " +
-            "where permission.id.user = ?#{principal} and permission.id.permission.name = '" + PermissionsConstants.READ + "' " +
+        value = "select project from Project project " +
+            "where exists (select permission.id.user from ProjectPermission permission where permission.id.project = project " +
+            "and permission.id.user = ?#{principal} and permission.id.permission.name = '" + PermissionsConstants.READ + "') " +
             "and (coalesce(:statuses) is null or project.status in (:statuses)) " +
-            "and ((:search is null or :search = '') or (lower(project.name) like ('%' || lower(:search) || '%')) or (lower(project.description) like ('%' || lower(:search) || '%')))",
-        countProjection = "distinct project.id"
+            "and (lower(project.name) like :pattern or lower(project.description) like :pattern) " +
+            "order by case when lower(project.name) = :term then 0 " +
+            "when lower(project.name) like concat(:term, '%') then 1 " +
+            "when lower(project.name) like :pattern then 2 else 3 end"
+    )
+    @Nonnull List<Project> searchAllByStatus(
+        @Param("statuses") List<ProjectStatus> statuses,
+        @Param("term") @Nonnull String term,
+        @Param("pattern") @Nonnull String pattern
+    );
+
+    /**
+     * Find the readable projects with any of the given statuses whose name
+     * or description contain the search pattern, in the given order (which
+     * replaces the order by relevance of
+     * {@link #searchAllByStatus(List, String, String)}).
+     *
+     * @param statuses the statuses to filter by (any if {@code null}).
+     * @param pattern  the pattern built from the term (see {@code Searches}).
+     * @param sort     the order of the projects.
+     * @return the matching projects.
+     */
+    @Query(
+        value = "select project from Project project " +
+            "where exists (select permission.id.user from ProjectPermission permission where permission.id.project = project " +
+            "and permission.id.user = ?#{principal} and permission.id.permission.name = '" + PermissionsConstants.READ + "') " +
+            "and (coalesce(:statuses) is null or project.status in (:statuses)) " +
+            "and (lower(project.name) like :pattern or lower(project.description) like :pattern)"
+    )
+    @Nonnull List<Project> searchAllByStatus(
+        @Param("statuses") List<ProjectStatus> statuses,
+        @Param("pattern") @Nonnull String pattern,
+        @Nonnull Sort sort
+    );
+
+    /**
+     * Count the readable projects with any of the given statuses whose name
+     * or description contain the search pattern.
+     *
+     * @param statuses the statuses to filter by (any if {@code null}).
+     * @param pattern  the pattern built from the term (see {@code Searches}).
+     * @return the number of matching projects.
+     */
+    @Query(
+        value = "select count(project) from Project project " +
+            "where exists (select permission.id.user from ProjectPermission permission where permission.id.project = project " +
+            "and permission.id.user = ?#{principal} and permission.id.permission.name = '" + PermissionsConstants.READ + "') " +
+            "and (coalesce(:statuses) is null or project.status in (:statuses)) " +
+            "and (lower(project.name) like :pattern or lower(project.description) like :pattern)"
     )
-    @Nonnull List<Project> findAllByStatusAndSearch(
-        @Param("statuses") @Nonnull List<ProjectStatus> statuses,
-        @Param("search") @Nonnull String search
+    long countSearch(
+        @Param("statuses") List<ProjectStatus> statuses,
+        @Param("pattern") @Nonnull String pattern
     );
 
     @Query(
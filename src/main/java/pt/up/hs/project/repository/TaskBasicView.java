@@ -0,0 +1,14 @@
+package pt.up.hs.project.repository;
+
+/**
+ * Projection with the basic info of a task (see
+ * {@link pt.up.hs.project.service.dto.TaskBasicDTO}).
+ */
+public interface TaskBasicView {
+
+    Long getId();
+
+    String getName();
+
+    Long getProjectId();
+}
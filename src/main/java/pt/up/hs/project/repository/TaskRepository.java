@@ -2,6 +2,7 @@ package pt.up.hs.project.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,60 +21,207 @@ import java.util.Optional;
 @Repository
 public interface TaskRepository extends CustomRepository<Task, Long> {
 
-    String SELECT_BY_PROJECT_ID_SEARCH_LABELS =
-        "select distinct task.id from Task task left join task.labels label " +
+    String WHERE_PROJECT_ID_LABELS =
         "where task.projectId = :projectId " +
-        "and ((:search is null or :search = '') or (lower(task.name) like " +
-            "('%' || lower(:search) || '%')) or (lower(task.description) like " +
-            "('%' || lower(:search) || '%'))) " +
-        "and (coalesce(:labelIds) is null or label.id in (:labelIds))";
-
-    String COUNT_BY_PROJECT_ID_SEARCH_LABELS =
-        "select count(distinct task.id) from Task task left join task.labels label " +
-            "where task.projectId = :projectId " +
-            "and ((:search is null or :search = '') or (lower(task.name) like " +
-            "('%' || lower(:search) || '%')) or (lower(task.description) like " +
-            "('%' || lower(:search) || '%'))) " +
-            "and (coalesce(:labelIds) is null or label.id in (:labelIds))";
+            "and (coalesce(:labelIds) is null or exists (select label.id from Task labelled join labelled.labels label " +
+            "where labelled.id = task.id and label.id in (:labelIds)))";
+
+    /**
+     * Search predicate. Matches {@code lower(column) like '%term%'}, which
+     * is served by the trigram indexes of these columns.
+     */
+    String AND_SEARCH =
+        " and (lower(task.name) like :pattern or lower(task.description) like :pattern)";
+
+    /**
+     * Relevance of a search match: exact name, name prefix, name
+     * substring and then any other match.
+     */
+    String ORDER_BY_RELEVANCE =
+        " order by case when lower(task.name) = :term then 0" +
+            " when lower(task.name) like concat(:term, '%') then 1" +
+            " when lower(task.name) like :pattern then 2 else 3 end";
 
     @Query(
         value = "select distinct task from Task task join fetch task.labels label " +
-            "where task.id in (" + SELECT_BY_PROJECT_ID_SEARCH_LABELS + ")",
-        countQuery = COUNT_BY_PROJECT_ID_SEARCH_LABELS
+            "where task.id in (select task.id from Task task " + WHERE_PROJECT_ID_LABELS + AND_SEARCH + ")",
+        countQuery = "select count(task) from Task task " + WHERE_PROJECT_ID_LABELS + AND_SEARCH
     )
     Page<Task> findAllWithEagerRelationships(
         @Param("projectId") @NotNull Long projectId,
-        @Param("search") String search,
+        @Param("pattern") @NotNull String pattern,
         @Param("labelIds") List<Long> labels,
         Pageable pageable
     );
 
     @Query(
-        value = "select distinct task from Task task left join task.labels label " +
-            "where task.projectId = :projectId " +
-            "and ((:search is null or :search = '') or (lower(task.name) like ('%' || lower(:search) || '%')) or (lower(task.description) like ('%' || lower(:search) || '%'))) " +
-            "and (coalesce(:labelIds) is null or label.id in (:labelIds))",
-        countProjection = "distinct task.id"
+        value = "select task from Task task " + WHERE_PROJECT_ID_LABELS,
+        countQuery = "select count(task) from Task task " + WHERE_PROJECT_ID_LABELS
     )
     Page<Task> findAllByProjectId(
         @Param("projectId") @NotNull Long projectId,
-        @Param("search") String search,
         @Param("labelIds") List<Long> labels,
         Pageable pageable
     );
 
-    @Query(COUNT_BY_PROJECT_ID_SEARCH_LABELS)
+    @Query(
+        value = "select task from Task task " + WHERE_PROJECT_ID_LABELS + AND_SEARCH + ORDER_BY_RELEVANCE,
+        countQuery = "select count(task) from Task task " + WHERE_PROJECT_ID_LABELS + AND_SEARCH
+    )
+    Page<Task> searchAllByProjectId(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("term") @NotNull String term,
+        @Param("pattern") @NotNull String pattern,
+        @Param("labelIds") List<Long> labels,
+        Pageable pageable
+    );
+
+    /**
+     * Keys (id and sort value) of the first page of a keyset-paginated
+     * listing sorted by id. The pageable must only set the limit and the
+     * order (by id).
+     */
+    @Query("select task.id, task.id from Task task " + WHERE_PROJECT_ID_LABELS + AND_SEARCH)
+    List<Object[]> findFirstKeysById(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("pattern") @NotNull String pattern,
+        @Param("labelIds") List<Long> labels,
+        Pageable pageable
+    );
+
+    /**
+     * Keys (id and sort value) of the first page of a keyset-paginated
+     * listing sorted by name. The pageable must only set the limit and the
+     * order (by name and then by id, in the same direction).
+     */
+    @Query("select task.id, task.name from Task task " + WHERE_PROJECT_ID_LABELS + AND_SEARCH)
+    List<Object[]> findFirstKeysByName(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("pattern") @NotNull String pattern,
+        @Param("labelIds") List<Long> labels,
+        Pageable pageable
+    );
+
+    /**
+     * Keys (id and sort value) of the page of a keyset-paginated listing
+     * which starts after the row with the given id. The pageable must only
+     * set the limit and the order (by id, ascending).
+     */
+    @Query(
+        "select task.id, task.id from Task task " + WHERE_PROJECT_ID_LABELS + AND_SEARCH +
+            " and task.id > :lastId"
+    )
+    List<Object[]> findKeysByIdAfter(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("pattern") @NotNull String pattern,
+        @Param("labelIds") List<Long> labels,
+        @Param("lastId") @NotNull Long lastId,
+        Pageable pageable
+    );
+
+    @Query(
+        "select task.id, task.id from Task task " + WHERE_PROJECT_ID_LABELS + AND_SEARCH +
+            " and task.id < :lastId"
+    )
+    List<Object[]> findKeysByIdBefore(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("pattern") @NotNull String pattern,
+        @Param("labelIds") List<Long> labels,
+        @Param("lastId") @NotNull Long lastId,
+        Pageable pageable
+    );
+
+    /**
+     * Keys (id and sort value) of the page of a keyset-paginated listing
+     * which starts after the row with the given name and id. The pageable
+     * must only set the limit and the order (by name and then by id,
+     * ascending). The first condition bounds the index scan on the name,
+     * and the second skips the rows of the same name already seen.
+     */
+    @Query(
+        "select task.id, task.name from Task task " + WHERE_PROJECT_ID_LABELS + AND_SEARCH +
+            " and task.name >= :lastName and (task.name > :lastName or task.id > :lastId)"
+    )
+    List<Object[]> findKeysByNameAfter(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("pattern") @NotNull String pattern,
+        @Param("labelIds") List<Long> labels,
+        @Param("lastName") @NotNull String lastName,
+        @Param("lastId") @NotNull Long lastId,
+        Pageable pageable
+    );
+
+    @Query(
+        "select task.id, task.name from Task task " + WHERE_PROJECT_ID_LABELS + AND_SEARCH +
+            " and task.name <= :lastName and (task.name < :lastName or task.id < :lastId)"
+    )
+    List<Object[]> findKeysByNameBefore(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("pattern") @NotNull String pattern,
+        @Param("labelIds") List<Long> labels,
+        @Param("lastName") @NotNull String lastName,
+        @Param("lastId") @NotNull Long lastId,
+        Pageable pageable
+    );
+
+    @Query("select distinct task from Task task left join fetch task.labels where task.id in (:ids)")
+    List<Task> findAllWithEagerRelationshipsByIdIn(@Param("ids") @NotNull List<Long> ids);
+
+    @Query("select count(task) from Task task " + WHERE_PROJECT_ID_LABELS)
     long count(
         @Param("projectId") @NotNull Long projectId,
-        @Param("search") String search,
+        @Param("labelIds") List<Long> labels
+    );
+
+    @Query("select count(task) from Task task " + WHERE_PROJECT_ID_LABELS + AND_SEARCH)
+    long countSearch(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("pattern") @NotNull String pattern,
         @Param("labelIds") List<Long> labels
     );
 
     List<Task> findAllByProjectId(@NotNull Long projectId);
 
+    @Query(
+        "select task.id as id, task.name as name, task.projectId as projectId " +
+            "from Task task where task.projectId = :projectId order by task.id"
+    )
+    List<TaskBasicView> findAllBasicByProjectId(@Param("projectId") @NotNull Long projectId);
+
+    @Query(
+        "select task.id as ownerId, label.id as labelId " +
+            "from Task task join task.labels label where task.projectId = :projectId"
+    )
+    List<LabelLink> findLabelLinksByProjectId(@Param("projectId") @NotNull Long projectId);
+
+    @Query(
+        "select label.id from Task task join task.labels label " +
+            "where task.projectId = :projectId and task.id = :id"
+    )
+    List<Long> findLabelIdsByProjectIdAndId(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("id") @NotNull Long id
+    );
+
+    long countByProjectId(@NotNull Long projectId);
+
+    @Query("select min(task.id) as minId, max(task.id) as maxId from Task task where task.projectId = :projectId")
+    IdRange findIdRangeByProjectId(@Param("projectId") @NotNull Long projectId);
+
+    @Query(
+        "select task.id from Task task " +
+            "where task.projectId = :projectId and task.id between :minId and :maxId order by task.id"
+    )
+    List<Long> findIdsByProjectIdAndIdBetween(
+        @Param("projectId") @NotNull Long projectId,
+        @Param("minId") @NotNull Long minId,
+        @Param("maxId") @NotNull Long maxId
+    );
+
     @Query("select task from Task task left join fetch task.labels where task.projectId = :projectId and task.id = :id")
     Optional<Task> findOneWithEagerRelationships(@Param("projectId") @NotNull Long projectId, @Param("id") Long id);
 
+    @EntityGraph(attributePaths = "labels")
     Optional<Task> findByProjectIdAndId(@NotNull Long projectId, @NotNull Long id);
 
     @Nonnull <S extends Task> List<S> saveAll(@Nonnull Iterable<S> entities);
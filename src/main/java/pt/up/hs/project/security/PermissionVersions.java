@@ -0,0 +1,59 @@
+package pt.up.hs.project.security;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Versions of the permissions of each user, kept in a Hazelcast map. The
+ * version of a user changes whenever the cached permissions or connections
+ * of the user are evicted or updated, so that the caches can tell whether
+ * a value loaded meanwhile may be stale (see
+ * {@link pt.up.hs.project.service.cache.ReadCache}).
+ * <p>
+ * Versions are random rather than incremented, so that a version lost with
+ * the map (expired, evicted or restarted) is never repeated.
+ */
+@Component
+public class PermissionVersions {
+
+    public static final String MAP_NAME = "permissionVersions";
+
+    private static final Logger LOG = LoggerFactory.getLogger(PermissionVersions.class);
+
+    private final IMap<String, Long> versions;
+
+    public PermissionVersions(HazelcastInstance hazelcastInstance) {
+        this.versions = hazelcastInstance.getMap(MAP_NAME);
+    }
+
+    /**
+     * Change the version of a user.
+     *
+     * @param user the user login.
+     */
+    public void change(String user) {
+        LOG.debug("Changing permissions version of user {}", user);
+        versions.set(user, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Get the current version of a user.
+     *
+     * @param user the user login.
+     * @return the version of the user.
+     */
+    public long get(String user) {
+        Long version = versions.get(user);
+        if (version != null) {
+            return version;
+        }
+        Long created = ThreadLocalRandom.current().nextLong();
+        Long previous = versions.putIfAbsent(user, created);
+        return previous != null ? previous : created;
+    }
+}
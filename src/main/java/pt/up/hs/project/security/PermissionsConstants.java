@@ -1,7 +1,15 @@
 package pt.up.hs.project.security;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Constants for Project permissions.
+ * <p>
+ * Each permission is also identified by a bit (its position in
+ * {@link #ALL}), so that the permissions of a user in a project can be
+ * held in a single {@code int} mask and checked with a bitwise operation.
  */
 public class PermissionsConstants {
 
@@ -14,6 +22,83 @@ public class PermissionsConstants {
             READ, WRITE, MANAGE, ADMIN
     };
 
+    public static final int NONE_MASK = 0;
+    public static final int READ_MASK = 1;
+    public static final int WRITE_MASK = 1 << 1;
+    public static final int MANAGE_MASK = 1 << 2;
+    public static final int ADMIN_MASK = 1 << 3;
+    public static final int ALL_MASK = READ_MASK | WRITE_MASK | MANAGE_MASK | ADMIN_MASK;
+
     private PermissionsConstants() {
     }
+
+    /**
+     * Get the bit of a permission.
+     *
+     * @param permission name of the permission.
+     * @return the bit of the permission, or {@link #NONE_MASK} if unknown.
+     */
+    public static int bit(String permission) {
+        if (permission == null) {
+            return NONE_MASK;
+        }
+        switch (permission) {
+            case READ:
+                return READ_MASK;
+            case WRITE:
+                return WRITE_MASK;
+            case MANAGE:
+                return MANAGE_MASK;
+            case ADMIN:
+                return ADMIN_MASK;
+            default:
+                return NONE_MASK;
+        }
+    }
+
+    /**
+     * Get the mask of a collection of permissions. Unknown permissions are
+     * ignored.
+     *
+     * @param permissions names of the permissions.
+     * @return the mask of the permissions.
+     */
+    public static int mask(Collection<String> permissions) {
+        int mask = NONE_MASK;
+        if (permissions != null) {
+            for (String permission: permissions) {
+                mask |= bit(permission);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Get the names of the permissions in a mask, in the order of
+     * {@link #ALL}.
+     *
+     * @param mask the mask of the permissions.
+     * @return the names of the permissions.
+     */
+    public static List<String> names(int mask) {
+        List<String> names = new ArrayList<>(Integer.bitCount(mask & ALL_MASK));
+        for (int i = 0; i < ALL.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                names.add(ALL[i]);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Check if a mask includes a permission.
+     *
+     * @param mask       the mask of the permissions.
+     * @param permission name of the permission.
+     * @return {@code true} if the mask includes the permission, {@code false} otherwise.
+     */
+    public static boolean has(int mask, String permission) {
+        int bit = bit(permission);
+        return bit != NONE_MASK && (mask & bit) != 0;
+    }
 }
@@ -0,0 +1,177 @@
+package pt.up.hs.project.security;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.AbstractEntryProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pt.up.hs.project.config.ApplicationProperties;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Optional cache of the collaborator graph, i.e., for each user, the users
+ * with whom they share at least a project, kept in a Hazelcast map.
+ * <p>
+ * Grants only add edges, so they update the cached sets in place. Revokes
+ * may or may not remove edges (users can share other projects), so they
+ * evict the sets of the affected users. Both happen after the transaction
+ * commits, and change the versions of the users involved (see
+ * {@link PermissionVersions}), so that a set loaded meanwhile, possibly
+ * before the change was committed, is not kept.
+ */
+@Component
+public class ProjectConnectionCache {
+
+    public static final String MAP_NAME = "projectConnections";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProjectConnectionCache.class);
+
+    private final IMap<String, HashSet<String>> connections;
+    private final PermissionVersions permissionVersions;
+    private final boolean enabled;
+
+    public ProjectConnectionCache(
+        HazelcastInstance hazelcastInstance,
+        PermissionVersions permissionVersions,
+        ApplicationProperties applicationProperties
+    ) {
+        this.connections = hazelcastInstance.getMap(MAP_NAME);
+        this.permissionVersions = permissionVersions;
+        this.enabled = applicationProperties.getPermissionCache().isConnections();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the connections of a user.
+     *
+     * @param user   the user login.
+     * @param loader function to load the connections of a user if not cached.
+     * @return the logins of the users connected to the user.
+     */
+    public Set<String> get(String user, Function<String, Set<String>> loader) {
+        if (!enabled) {
+            return loader.apply(user);
+        }
+        HashSet<String> cached = connections.get(user);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedVersion = permissionVersions.get(user);
+        HashSet<String> loaded = new HashSet<>(loader.apply(user));
+        HashSet<String> previous = connections.putIfAbsent(user, loaded);
+        if (previous != null) {
+            return previous;
+        }
+        if (!Objects.equals(loadedVersion, permissionVersions.get(user))) {
+            // changed while loading, hence possibly stale
+            connections.remove(user, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Connect a user to the members of a project where the user was granted
+     * permissions.
+     *
+     * @param user    the user login.
+     * @param members the logins of the other members of the project.
+     */
+    public void connect(String user, Collection<String> members) {
+        if (!enabled || members.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            LOG.debug("Connecting user {} to {}", user, members);
+            permissionVersions.change(user);
+            members.forEach(permissionVersions::change);
+            connections.executeOnKey(user, new AddConnectionsProcessor(new HashSet<>(members)));
+            connections.executeOnKeys(
+                new HashSet<>(members),
+                new AddConnectionsProcessor(new HashSet<>(Collections.singleton(user)))
+            );
+        });
+    }
+
+    /**
+     * Evict the connections of users whose permissions were revoked, and
+     * of the members of the projects involved.
+     *
+     * @param users the logins of the users.
+     */
+    public void evict(Collection<String> users) {
+        if (!enabled || users.isEmpty()) {
+            return;
+        }
+        Set<String> evicted = new HashSet<>(users);
+        evicted.forEach(this::delete);
+        afterCommit(() -> evicted.forEach(this::delete));
+    }
+
+    /**
+     * Delete the connections of a user, changing its version before (so
+     * that sets loaded before are not kept) and after (so that no set read
+     * in between is tagged with the last version).
+     *
+     * @param user the user login.
+     */
+    private void delete(String user) {
+        permissionVersions.change(user);
+        connections.delete(user);
+        permissionVersions.change(user);
+    }
+
+    private static void afterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+
+    /**
+     * Adds logins to a cached set of connections, if present.
+     */
+    private static class AddConnectionsProcessor extends AbstractEntryProcessor<String, HashSet<String>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final HashSet<String> added;
+
+        private AddConnectionsProcessor(HashSet<String> added) {
+            this.added = added;
+        }
+
+        @Override
+        public Object process(Map.Entry<String, HashSet<String>> entry) {
+            HashSet<String> current = entry.getValue();
+            if (current != null) {
+                for (String login: added) {
+                    if (!login.equalsIgnoreCase(entry.getKey())) {
+                        current.add(login);
+                    }
+                }
+                entry.setValue(current);
+            }
+            return null;
+        }
+    }
+}
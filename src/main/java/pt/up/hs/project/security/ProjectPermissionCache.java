@@ -0,0 +1,123 @@
+package pt.up.hs.project.security;
+
+import com.hazelcast.core.HazelcastInstance;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import pt.up.hs.project.repository.ProjectPermissionGrant;
+import pt.up.hs.project.repository.ProjectPermissionRepository;
+import pt.up.hs.project.service.cache.ReadCache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of the project permissions of each user, kept in a Hazelcast map
+ * (with a near cache on each node) as a map from project ID to a bitset of
+ * the granted permissions (see {@link PermissionsConstants#bit(String)}).
+ * <p>
+ * The permissions of a user are loaded all at once on the first check and
+ * must be evicted whenever they change (see {@link #evict(String)}). The
+ * map is read through a {@link ReadCache} versioned by
+ * {@link PermissionVersions}, so that permissions loaded while they are
+ * revoked are not kept.
+ */
+@Component
+public class ProjectPermissionCache {
+
+    public static final String MAP_NAME = "projectPermissions";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProjectPermissionCache.class);
+
+    private final ReadCache<String, HashMap<Long, Integer>> permissions;
+    private final ProjectPermissionRepository projectPermissionRepository;
+
+    public ProjectPermissionCache(
+        HazelcastInstance hazelcastInstance,
+        MeterRegistry meterRegistry,
+        PermissionVersions permissionVersions,
+        ProjectPermissionRepository projectPermissionRepository
+    ) {
+        this.permissions = new ReadCache<>(
+            MAP_NAME, hazelcastInstance, meterRegistry, permissionVersions::get, permissionVersions::change
+        );
+        this.projectPermissionRepository = projectPermissionRepository;
+    }
+
+    /**
+     * Check if a user has a permission in a project.
+     *
+     * @param user       the user login.
+     * @param projectId  the ID of the project.
+     * @param permission the name of the permission.
+     * @return {@code true} if the user has the permission, {@code false} otherwise.
+     */
+    public boolean hasPermission(String user, Long projectId, String permission) {
+        int bit = PermissionsConstants.bit(permission);
+        if (bit == PermissionsConstants.NONE_MASK) {
+            return false;
+        }
+        Integer granted = get(user).get(projectId);
+        return granted != null && (granted & bit) != 0;
+    }
+
+    /**
+     * Count the projects in which a user has a permission.
+     *
+     * @param user       the user login.
+     * @param permission the name of the permission.
+     * @return the number of projects.
+     */
+    public long countProjects(String user, String permission) {
+        int bit = PermissionsConstants.bit(permission);
+        if (bit == PermissionsConstants.NONE_MASK) {
+            return 0;
+        }
+        return get(user).values().stream()
+            .filter(granted -> (granted & bit) != 0)
+            .count();
+    }
+
+    /**
+     * Find the projects in which a user has a permission.
+     *
+     * @param user       the user login.
+     * @param permission the name of the permission.
+     * @return the IDs of the projects.
+     */
+    public Set<Long> findProjects(String user, String permission) {
+        int bit = PermissionsConstants.bit(permission);
+        return get(user).entrySet().stream()
+            .filter(entry -> (entry.getValue() & bit) != 0)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * Evict the permissions of a user. If called within a transaction, they
+     * are evicted again after it completes, so that a concurrent check
+     * cannot cache the permissions as they were before the change.
+     *
+     * @param user the user login.
+     */
+    public void evict(String user) {
+        LOG.debug("Evicting cached permissions of user {}", user);
+        permissions.evict(user);
+    }
+
+    private HashMap<Long, Integer> get(String user) {
+        return permissions.get(user, () -> load(user));
+    }
+
+    private HashMap<Long, Integer> load(String user) {
+        LOG.debug("Loading permissions of user {}", user);
+        HashMap<Long, Integer> granted = new HashMap<>();
+        for (ProjectPermissionGrant grant: projectPermissionRepository.findGrantsByUser(user)) {
+            granted.merge(grant.getProjectId(), PermissionsConstants.bit(grant.getPermissionName()), (a, b) -> a | b);
+        }
+        return granted;
+    }
+}
@@ -5,23 +5,20 @@ import org.springframework.security.access.PermissionEvaluator;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 import pt.up.hs.project.domain.Project;
-import pt.up.hs.project.domain.ProjectPermission;
-import pt.up.hs.project.repository.ProjectPermissionRepository;
 
 import java.io.Serializable;
-import java.util.List;
 import java.util.Optional;
 
 @Component
 public class ProjectPermissionEvaluator implements PermissionEvaluator {
 
-    private final ProjectPermissionRepository projectPermissionRepository;
+    private final ProjectPermissionCache projectPermissionCache;
 
     @Autowired
     public ProjectPermissionEvaluator(
-        ProjectPermissionRepository projectPermissionRepository
+        ProjectPermissionCache projectPermissionCache
     ) {
-        this.projectPermissionRepository = projectPermissionRepository;
+        this.projectPermissionCache = projectPermissionCache;
     }
 
     @Override
@@ -38,17 +35,11 @@ public class ProjectPermissionEvaluator implements PermissionEvaluator {
         }
 
         if (targetDomainObject instanceof Project) { // permission check is only available for projects
-            List<ProjectPermission> projectPermissions = projectPermissionRepository
-                .findAllByIdUserAndIdProjectId(
-                    userLogin.get(),
-                    ((Project) targetDomainObject).getId()
-                );
-
-            return projectPermissions.parallelStream()
-                .anyMatch(projectPermission ->
-                    projectPermission.getPermission().getName()
-                        .equals(permission.toString())
-                );
+            return projectPermissionCache.hasPermission(
+                userLogin.get(),
+                ((Project) targetDomainObject).getId(),
+                permission.toString()
+            );
         }
 
         return false;
@@ -68,17 +59,11 @@ public class ProjectPermissionEvaluator implements PermissionEvaluator {
 
         if (targetType.equals(Project.class.getCanonicalName())) {
             // permission check is only available for projects
-            List<ProjectPermission> projectPermissions = projectPermissionRepository
-                .findAllByIdUserAndIdProjectId(
-                    userLogin.get(),
-                    (Long) targetId
-                );
-
-            return projectPermissions.parallelStream()
-                .anyMatch(projectPermission ->
-                    projectPermission.getPermission().getName()
-                        .equals(permission.toString())
-                );
+            return projectPermissionCache.hasPermission(
+                userLogin.get(),
+                (Long) targetId,
+                permission.toString()
+            );
         }
 
         return false;
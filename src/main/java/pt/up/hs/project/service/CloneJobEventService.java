@@ -0,0 +1,28 @@
+package pt.up.hs.project.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Optional;
+
+/**
+ * Service Interface for streaming the progress of project cloning jobs as
+ * server-sent events.
+ */
+public interface CloneJobEventService {
+
+    /**
+     * Subscribe to the progress of the latest cloning job which creates a
+     * project. The current progress is sent at once, and then whenever it
+     * changes, until the job ends.
+     *
+     * @param newProjectId the id of the project created by the job.
+     * @return the stream of events, or empty if there is no such job.
+     */
+    Optional<SseEmitter> subscribe(Long newProjectId);
+
+    /**
+     * Send the progress of the jobs which changed since the last event to
+     * their subscribers.
+     */
+    void pushUpdates();
+}
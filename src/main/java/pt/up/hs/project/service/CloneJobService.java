@@ -0,0 +1,29 @@
+package pt.up.hs.project.service;
+
+import pt.up.hs.project.service.dto.CloneJobStatusDTO;
+
+import java.util.Optional;
+
+/**
+ * Service Interface for following project cloning jobs.
+ */
+public interface CloneJobService {
+
+    /**
+     * Get the progress of the latest cloning job which creates a project.
+     *
+     * @param newProjectId the id of the project created by the job.
+     * @return the progress of the job.
+     */
+    Optional<CloneJobStatusDTO> findLatestByNewProjectId(Long newProjectId);
+
+    /**
+     * Restart the latest cloning job which creates a project, if it failed
+     * or was stopped. Completed steps are skipped, and the others resume
+     * from their last saved progress.
+     *
+     * @param newProjectId the id of the project created by the job.
+     * @return the progress of the job before the restart.
+     */
+    Optional<CloneJobStatusDTO> restartLatestByNewProjectId(Long newProjectId);
+}
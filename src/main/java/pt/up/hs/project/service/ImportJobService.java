@@ -0,0 +1,49 @@
+package pt.up.hs.project.service;
+
+import pt.up.hs.project.service.dto.ImportJobStatusDTO;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Service Interface for running asynchronous CSV import jobs.
+ */
+public interface ImportJobService {
+
+    /**
+     * Start importing participants from CSV. The file is spooled to disk
+     * and imported in the background.
+     *
+     * @param projectId the ID of the project of the participants.
+     * @param is        {@link InputStream} the file input stream.
+     * @param sep       column separator.
+     * @param arraySep  separator for array elements.
+     * @param useHeader does the CSV include an header?
+     * @return the progress of the started job.
+     */
+    ImportJobStatusDTO startParticipantImport(
+        Long projectId, InputStream is, String sep, String arraySep, boolean useHeader);
+
+    /**
+     * Start importing tasks from CSV. The file is spooled to disk and
+     * imported in the background.
+     *
+     * @param projectId the ID of the project of the tasks.
+     * @param is        {@link InputStream} the file input stream.
+     * @param sep       column separator.
+     * @param arraySep  separator for array elements.
+     * @param useHeader does the CSV include an header?
+     * @return the progress of the started job.
+     */
+    ImportJobStatusDTO startTaskImport(
+        Long projectId, InputStream is, String sep, String arraySep, boolean useHeader);
+
+    /**
+     * Get the progress of an import job.
+     *
+     * @param projectId   the ID of the project the job imports into.
+     * @param executionId the ID of the job execution.
+     * @return the progress of the job, if it imports into the project.
+     */
+    Optional<ImportJobStatusDTO> findOne(Long projectId, Long executionId);
+}
@@ -1,6 +1,7 @@
 package pt.up.hs.project.service;
 
 import pt.up.hs.project.service.dto.LabelDTO;
+import pt.up.hs.project.service.dto.LabelUsageDTO;
 
 import org.springframework.data.domain.Page;
 
@@ -46,6 +47,14 @@ public interface LabelService {
      */
     long count(Long projectId);
 
+    /**
+     * Get the number of participants and tasks with each label.
+     *
+     * @param projectId ID of the project containing the labels.
+     * @return the usage of each label, by ID.
+     */
+    List<LabelUsageDTO> findAllUsage(Long projectId);
+
     /**
      * Get the "id" label.
      *
@@ -2,7 +2,9 @@ package pt.up.hs.project.service;
 
 import pt.up.hs.project.service.dto.BulkImportResultDTO;
 import pt.up.hs.project.service.dto.ParticipantBasicDTO;
+import pt.up.hs.project.service.dto.CursorPageDTO;
 import pt.up.hs.project.service.dto.ParticipantDTO;
+import pt.up.hs.project.service.dto.ParticipantImageDTO;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -47,6 +49,21 @@ public interface ParticipantService {
      */
     Page<ParticipantDTO> findAll(Long projectId, String search, List<Long> labels, Pageable pageable);
 
+    /**
+     * Get a page of the participants, using keyset pagination.
+     *
+     * @param projectId the ID of the project containing the participants.
+     * @param search    the search string.
+     * @param labels    the ids of the labels to filter by.
+     * @param cursor    the cursor of the page (empty for the first).
+     * @param pageable  the page size and, for the first page, the sort.
+     * @param count     whether to count all the participants matching.
+     * @return the page of entities.
+     */
+    CursorPageDTO<ParticipantDTO> findAll(
+        Long projectId, String search, List<Long> labels, String cursor, Pageable pageable, boolean count
+    );
+
     /**
      * Get all the participants' basic info.
      *
@@ -85,18 +102,30 @@ public interface ParticipantService {
      */
     Optional<ParticipantDTO> findOne(Long projectId, Long id);
 
+    /**
+     * Get the image of the "id" participant.
+     *
+     * @param projectId      the ID of the project containing the participant.
+     * @param id             the id of the participant.
+     * @param includeContent load the content of the image, or only its
+     *                       metadata?
+     * @return the image.
+     */
+    Optional<ParticipantImageDTO> findImage(Long projectId, Long id, boolean includeContent);
+
     /**
      * Upload participants from CSV.
      *
-     * @param projectId the ID of the project containing the participants.
-     * @param is        {@link InputStream} the file input stream.
-     * @param sep       column separator.
-     * @param arraySep  separator for array elements.
-     * @param useHeader does the CSV include an header?
+     * @param projectId   the ID of the project containing the participants.
+     * @param is          {@link InputStream} the file input stream.
+     * @param sep         column separator.
+     * @param arraySep    separator for array elements.
+     * @param useHeader   does the CSV include an header?
+     * @param includeData include the imported participants in the result?
      * @return {@link BulkImportResultDTO} response to CSV upload.
      */
     BulkImportResultDTO<ParticipantDTO> importFromCsv(
-        Long projectId, InputStream is, String sep, String arraySep, boolean useHeader);
+        Long projectId, InputStream is, String sep, String arraySep, boolean useHeader, boolean includeData);
 
     /**
      * Delete the "id" participant.
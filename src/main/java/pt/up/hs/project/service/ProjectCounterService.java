@@ -0,0 +1,92 @@
+package pt.up.hs.project.service;
+
+import pt.up.hs.project.service.dto.ProjectCountsDTO;
+
+import java.util.Collection;
+
+/**
+ * Service Interface for maintaining the counters of each project (its
+ * participants, tasks and labels) and of its labels (their participants
+ * and tasks), see {@link pt.up.hs.project.repository.ProjectCounterRepository}.
+ * <p>
+ * Writes record their changes in the current transaction, which applies
+ * them right before it commits (or discards them if it rolls back). Bulk
+ * writes, whose changes are not tracked one by one, request a recount
+ * instead (see {@link #refresh(Long)}).
+ */
+public interface ProjectCounterService {
+
+    /**
+     * Get the counts of a project and the usage of its labels.
+     *
+     * @param projectId the ID of the project.
+     * @return the counts of the project.
+     */
+    ProjectCountsDTO get(Long projectId);
+
+    /**
+     * Create the (zero) counters of a new project.
+     *
+     * @param projectId the ID of the project.
+     */
+    void create(Long projectId);
+
+    /**
+     * Add to the number of participants of a project.
+     *
+     * @param projectId the ID of the project.
+     * @param delta     the number of participants added (or removed, if negative).
+     */
+    void addParticipants(Long projectId, long delta);
+
+    /**
+     * Add to the number of participants with some labels.
+     *
+     * @param projectId the ID of the project.
+     * @param labelIds  the IDs of the labels.
+     * @param delta     the number of participants added to (or removed from,
+     *                  if negative) each label.
+     */
+    void addParticipantLabels(Long projectId, Collection<Long> labelIds, long delta);
+
+    /**
+     * Add to the number of tasks of a project.
+     *
+     * @param projectId the ID of the project.
+     * @param delta     the number of tasks added (or removed, if negative).
+     */
+    void addTasks(Long projectId, long delta);
+
+    /**
+     * Add to the number of tasks with some labels.
+     *
+     * @param projectId the ID of the project.
+     * @param labelIds  the IDs of the labels.
+     * @param delta     the number of tasks added to (or removed from, if
+     *                  negative) each label.
+     */
+    void addTaskLabels(Long projectId, Collection<Long> labelIds, long delta);
+
+    /**
+     * Count a new label of a project.
+     *
+     * @param projectId the ID of the project.
+     * @param labelId   the ID of the label.
+     */
+    void labelCreated(Long projectId, Long labelId);
+
+    /**
+     * Discount a deleted label of a project.
+     *
+     * @param projectId the ID of the project.
+     * @param labelId   the ID of the label.
+     */
+    void labelDeleted(Long projectId, Long labelId);
+
+    /**
+     * Recount all the counters of a project, after bulk writes.
+     *
+     * @param projectId the ID of the project.
+     */
+    void refresh(Long projectId);
+}
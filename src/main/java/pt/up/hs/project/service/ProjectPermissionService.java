@@ -4,6 +4,7 @@ import pt.up.hs.project.service.dto.BulkProjectPermissionDTO;
 import pt.up.hs.project.service.dto.ProjectPermissionDTO;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Service Interface for managing {@link pt.up.hs.project.domain.ProjectPermission}.
@@ -57,6 +58,14 @@ public interface ProjectPermissionService {
      */
     BulkProjectPermissionDTO findAll(Long projectId, String user);
 
+    /**
+     * Find all users who share at least a project with user.
+     *
+     * @param user {@link String} user login.
+     * @return {@link Set} logins of the connected users.
+     */
+    Set<String> findConnections(String user);
+
     /**
      * Delete permissions of user in a project.
      *
@@ -1,5 +1,6 @@
 package pt.up.hs.project.service;
 
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import pt.up.hs.project.domain.enumeration.ProjectStatus;
 import pt.up.hs.project.service.dto.ProjectDTO;
@@ -27,6 +28,19 @@ public interface ProjectService {
      */
     List<ProjectDTO> findAll();
 
+    /**
+     * Search the projects with any of the given statuses whose name or
+     * description contain the search string. Unless sorted otherwise, the
+     * most relevant are first (exact name, name prefix, name substring and
+     * then description matches).
+     *
+     * @param statuses the statuses to filter by (any if {@code null} or empty).
+     * @param search   the search string (any if {@code null} or blank).
+     * @param sort     the order of the projects, which replaces the relevance.
+     * @return the list of entities.
+     */
+    List<ProjectDTO> search(List<ProjectStatus> statuses, String search, Sort sort);
+
     /**
      * Count the projects.
      *
@@ -34,6 +48,24 @@ public interface ProjectService {
      */
     long count();
 
+    /**
+     * Count the projects with any of the given statuses whose name or
+     * description contain the search string (see {@link #search(List, String, Sort)}).
+     *
+     * @param statuses the statuses to filter by (any if {@code null} or empty).
+     * @param search   the search string (any if {@code null} or blank).
+     * @return the number of entities.
+     */
+    long countSearch(List<ProjectStatus> statuses, String search);
+
+    /**
+     * Get the tag of the projects of the current user (see
+     * {@link #findAll()}), which changes whenever they change.
+     *
+     * @return the tag of the projects, if there is a current user.
+     */
+    Optional<String> findAllTag();
+
     /**
      * Get the "id" project.
      *
@@ -4,6 +4,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import pt.up.hs.project.service.dto.BulkImportResultDTO;
 import pt.up.hs.project.service.dto.TaskBasicDTO;
+import pt.up.hs.project.service.dto.CursorPageDTO;
 import pt.up.hs.project.service.dto.TaskDTO;
 
 import java.io.InputStream;
@@ -45,6 +46,21 @@ public interface TaskService {
      */
     Page<TaskDTO> findAll(Long projectId, String search, List<Long> labelIds, Pageable pageable);
 
+    /**
+     * Get a page of the tasks, using keyset pagination.
+     *
+     * @param projectId the ID of the project containing the tasks.
+     * @param search    the search string.
+     * @param labelIds  the ids of the labels to filter by.
+     * @param cursor    the cursor of the page (empty for the first).
+     * @param pageable  the page size and, for the first page, the sort.
+     * @param count     whether to count all the tasks matching.
+     * @return the page of entities.
+     */
+    CursorPageDTO<TaskDTO> findAll(
+        Long projectId, String search, List<Long> labelIds, String cursor, Pageable pageable, boolean count
+    );
+
     /**
      * Get all the tasks' basic info.
      *
@@ -86,15 +102,16 @@ public interface TaskService {
     /**
      * Upload tasks from CSV.
      *
-     * @param projectId the ID of the project containing the tasks.
-     * @param is        {@link InputStream} the file input stream.
-     * @param sep       column separator.
-     * @param arraySep  separator for array elements.
-     * @param useHeader does the CSV include an header?
+     * @param projectId   the ID of the project containing the tasks.
+     * @param is          {@link InputStream} the file input stream.
+     * @param sep         column separator.
+     * @param arraySep    separator for array elements.
+     * @param useHeader   does the CSV include an header?
+     * @param includeData include the imported tasks in the result?
      * @return {@link BulkImportResultDTO} response to CSV upload.
      */
     BulkImportResultDTO<TaskDTO> importFromCsv(
-        Long projectId, InputStream is, String sep, String arraySep, boolean useHeader);
+        Long projectId, InputStream is, String sep, String arraySep, boolean useHeader, boolean includeData);
 
     /**
      * Delete the "id" task.
@@ -0,0 +1,328 @@
+package pt.up.hs.project.service.cache;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+import pt.up.hs.project.domain.enumeration.ProjectStatus;
+import pt.up.hs.project.service.dto.AbstractAuditingDTO;
+import pt.up.hs.project.service.dto.LabelDTO;
+import pt.up.hs.project.service.dto.LabelUsageDTO;
+import pt.up.hs.project.service.dto.ParticipantBasicDTO;
+import pt.up.hs.project.service.dto.ProjectCountsDTO;
+import pt.up.hs.project.service.dto.ProjectDTO;
+import pt.up.hs.project.service.dto.ProjectPermissionDTO;
+import pt.up.hs.project.service.dto.TaskBasicDTO;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Binary serializers of the values kept in the Hazelcast maps of this
+ * service (see {@link ProjectReadCaches} and {@code ProjectCounterService}),
+ * instead of default Java serialization, which writes class descriptors
+ * and field names along with every value.
+ * <p>
+ * Fields are written in a fixed order without names, hence any change to
+ * the fields of a value must change its type ID, so that nodes of
+ * different versions never read each other's entries.
+ */
+public final class CacheSerializers {
+
+    public static final int PROJECT_TYPE_ID = 1001;
+    public static final int LABEL_TYPE_ID = 1002;
+    public static final int PARTICIPANT_BASIC_TYPE_ID = 1003;
+    public static final int TASK_BASIC_TYPE_ID = 1004;
+    public static final int PROJECT_COUNTS_TYPE_ID = 1005;
+
+    private CacheSerializers() {
+    }
+
+    /**
+     * Register the serializers in a serialization configuration.
+     *
+     * @param serializationConfig the serialization configuration.
+     * @return the serialization configuration.
+     */
+    public static SerializationConfig register(SerializationConfig serializationConfig) {
+        serializationConfig.addSerializerConfig(new SerializerConfig()
+            .setTypeClass(ProjectDTO.class)
+            .setImplementation(new ProjectSerializer()));
+        serializationConfig.addSerializerConfig(new SerializerConfig()
+            .setTypeClass(LabelDTO.class)
+            .setImplementation(new LabelSerializer()));
+        serializationConfig.addSerializerConfig(new SerializerConfig()
+            .setTypeClass(ParticipantBasicDTO.class)
+            .setImplementation(new ParticipantBasicSerializer()));
+        serializationConfig.addSerializerConfig(new SerializerConfig()
+            .setTypeClass(TaskBasicDTO.class)
+            .setImplementation(new TaskBasicSerializer()));
+        serializationConfig.addSerializerConfig(new SerializerConfig()
+            .setTypeClass(ProjectCountsDTO.class)
+            .setImplementation(new ProjectCountsSerializer()));
+        return serializationConfig;
+    }
+
+    /**
+     * Serializer of {@link ProjectDTO}, including its permissions.
+     */
+    public static final class ProjectSerializer extends Serializer<ProjectDTO> {
+
+        public ProjectSerializer() {
+            super(PROJECT_TYPE_ID);
+        }
+
+        @Override
+        public void write(ObjectDataOutput out, ProjectDTO project) throws IOException {
+            writeAuditing(out, project);
+            writeLong(out, project.getId());
+            out.writeUTF(project.getName());
+            out.writeUTF(project.getDescription());
+            out.writeUTF(project.getStatus() != null ? project.getStatus().name() : null);
+            out.writeUTF(project.getColor());
+            out.writeUTF(project.getOwner());
+            out.writeInt(project.getPermissions().size());
+            for (ProjectPermissionDTO permission: project.getPermissions()) {
+                out.writeUTF(permission.getUser());
+                writeLong(out, permission.getProjectId());
+                out.writeUTF(permission.getPermissionName());
+            }
+        }
+
+        @Override
+        public ProjectDTO read(ObjectDataInput in) throws IOException {
+            ProjectDTO project = new ProjectDTO();
+            readAuditing(in, project);
+            project.setId(readLong(in));
+            project.setName(in.readUTF());
+            project.setDescription(in.readUTF());
+            String status = in.readUTF();
+            project.setStatus(status != null ? ProjectStatus.valueOf(status) : null);
+            project.setColor(in.readUTF());
+            project.setOwner(in.readUTF());
+            int permissionCount = in.readInt();
+            Set<ProjectPermissionDTO> permissions = new HashSet<>(permissionCount * 2);
+            for (int i = 0; i < permissionCount; i++) {
+                ProjectPermissionDTO permission = new ProjectPermissionDTO();
+                permission.setUser(in.readUTF());
+                permission.setProjectId(readLong(in));
+                permission.setPermissionName(in.readUTF());
+                permissions.add(permission);
+            }
+            project.setPermissions(permissions);
+            return project;
+        }
+    }
+
+    /**
+     * Serializer of {@link LabelDTO}.
+     */
+    public static final class LabelSerializer extends Serializer<LabelDTO> {
+
+        public LabelSerializer() {
+            super(LABEL_TYPE_ID);
+        }
+
+        @Override
+        public void write(ObjectDataOutput out, LabelDTO label) throws IOException {
+            writeLong(out, label.getId());
+            out.writeUTF(label.getName());
+            out.writeUTF(label.getColor());
+            writeLong(out, label.getProjectId());
+        }
+
+        @Override
+        public LabelDTO read(ObjectDataInput in) throws IOException {
+            LabelDTO label = new LabelDTO();
+            label.setId(readLong(in));
+            label.setName(in.readUTF());
+            label.setColor(in.readUTF());
+            label.setProjectId(readLong(in));
+            return label;
+        }
+    }
+
+    /**
+     * Serializer of {@link ParticipantBasicDTO}.
+     */
+    public static final class ParticipantBasicSerializer extends Serializer<ParticipantBasicDTO> {
+
+        public ParticipantBasicSerializer() {
+            super(PARTICIPANT_BASIC_TYPE_ID);
+        }
+
+        @Override
+        public void write(ObjectDataOutput out, ParticipantBasicDTO participant) throws IOException {
+            writeAuditing(out, participant);
+            writeLong(out, participant.getId());
+            out.writeUTF(participant.getName());
+            writeLong(out, participant.getProjectId());
+            out.writeUTF(participant.getImageHash());
+            writeIds(out, participant.getLabelIds());
+        }
+
+        @Override
+        public ParticipantBasicDTO read(ObjectDataInput in) throws IOException {
+            ParticipantBasicDTO participant = new ParticipantBasicDTO();
+            readAuditing(in, participant);
+            participant.setId(readLong(in));
+            participant.setName(in.readUTF());
+            participant.setProjectId(readLong(in));
+            participant.setImageHash(in.readUTF());
+            participant.setLabelIds(readIds(in));
+            return participant;
+        }
+    }
+
+    /**
+     * Serializer of {@link TaskBasicDTO}.
+     */
+    public static final class TaskBasicSerializer extends Serializer<TaskBasicDTO> {
+
+        public TaskBasicSerializer() {
+            super(TASK_BASIC_TYPE_ID);
+        }
+
+        @Override
+        public void write(ObjectDataOutput out, TaskBasicDTO task) throws IOException {
+            writeLong(out, task.getId());
+            out.writeUTF(task.getName());
+            writeLong(out, task.getProjectId());
+            writeIds(out, task.getLabelIds());
+        }
+
+        @Override
+        public TaskBasicDTO read(ObjectDataInput in) throws IOException {
+            TaskBasicDTO task = new TaskBasicDTO();
+            task.setId(readLong(in));
+            task.setName(in.readUTF());
+            task.setProjectId(readLong(in));
+            task.setLabelIds(readIds(in));
+            return task;
+        }
+    }
+
+    /**
+     * Serializer of {@link ProjectCountsDTO}, including the usage of its
+     * labels.
+     */
+    public static final class ProjectCountsSerializer extends Serializer<ProjectCountsDTO> {
+
+        public ProjectCountsSerializer() {
+            super(PROJECT_COUNTS_TYPE_ID);
+        }
+
+        @Override
+        public void write(ObjectDataOutput out, ProjectCountsDTO counts) throws IOException {
+            writeLong(out, counts.getProjectId());
+            out.writeLong(counts.getParticipants());
+            out.writeLong(counts.getTasks());
+            out.writeLong(counts.getLabels());
+            out.writeInt(counts.getLabelUsage().size());
+            for (LabelUsageDTO usage: counts.getLabelUsage()) {
+                writeLong(out, usage.getLabelId());
+                out.writeLong(usage.getParticipants());
+                out.writeLong(usage.getTasks());
+            }
+        }
+
+        @Override
+        public ProjectCountsDTO read(ObjectDataInput in) throws IOException {
+            ProjectCountsDTO counts = new ProjectCountsDTO();
+            counts.setProjectId(readLong(in));
+            counts.setParticipants(in.readLong());
+            counts.setTasks(in.readLong());
+            counts.setLabels(in.readLong());
+            int usageCount = in.readInt();
+            List<LabelUsageDTO> labelUsage = new ArrayList<>(usageCount);
+            for (int i = 0; i < usageCount; i++) {
+                labelUsage.add(new LabelUsageDTO(readLong(in), in.readLong(), in.readLong()));
+            }
+            counts.setLabelUsage(labelUsage);
+            return counts;
+        }
+    }
+
+    /**
+     * Base of the serializers, with the encoding of the common fields.
+     *
+     * @param <T> type of the serialized values.
+     */
+    abstract static class Serializer<T> implements StreamSerializer<T> {
+
+        private final int typeId;
+
+        Serializer(int typeId) {
+            this.typeId = typeId;
+        }
+
+        @Override
+        public int getTypeId() {
+            return typeId;
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        static void writeLong(ObjectDataOutput out, Long value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeLong(value);
+            }
+        }
+
+        static Long readLong(ObjectDataInput in) throws IOException {
+            return in.readBoolean() ? in.readLong() : null;
+        }
+
+        static void writeInstant(ObjectDataOutput out, Instant value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeLong(value.getEpochSecond());
+                out.writeInt(value.getNano());
+            }
+        }
+
+        static Instant readInstant(ObjectDataInput in) throws IOException {
+            return in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+        }
+
+        static void writeIds(ObjectDataOutput out, Set<Long> ids) throws IOException {
+            long[] values = new long[ids.size()];
+            int i = 0;
+            for (Long id: ids) {
+                values[i++] = id;
+            }
+            out.writeLongArray(values);
+        }
+
+        static Set<Long> readIds(ObjectDataInput in) throws IOException {
+            long[] values = in.readLongArray();
+            Set<Long> ids = new HashSet<>(values.length * 2);
+            for (long value: values) {
+                ids.add(value);
+            }
+            return ids;
+        }
+
+        static void writeAuditing(ObjectDataOutput out, AbstractAuditingDTO dto) throws IOException {
+            out.writeUTF(dto.getCreatedBy());
+            writeInstant(out, dto.getCreatedDate());
+            out.writeUTF(dto.getLastModifiedBy());
+            writeInstant(out, dto.getLastModifiedDate());
+        }
+
+        static void readAuditing(ObjectDataInput in, AbstractAuditingDTO dto) throws IOException {
+            dto.setCreatedBy(in.readUTF());
+            dto.setCreatedDate(readInstant(in));
+            dto.setLastModifiedBy(in.readUTF());
+            dto.setLastModifiedDate(readInstant(in));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package pt.up.hs.project.service.cache;
+
+import com.hazelcast.core.HazelcastInstance;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import pt.up.hs.project.service.dto.LabelDTO;
+import pt.up.hs.project.service.dto.ParticipantBasicDTO;
+import pt.up.hs.project.service.dto.ProjectDTO;
+import pt.up.hs.project.service.dto.TaskBasicDTO;
+
+import java.util.List;
+
+/**
+ * Read-through caches of the hot reads of projects, by project ID: the
+ * project itself, its labels, and the basic lists of its participants and
+ * tasks (see {@link ReadCache}).
+ * <p>
+ * Every write path of a region must evict the project from it, including
+ * bulk ones (imports and cloning). Evicting a project from any region also
+ * changes its version (see {@link ProjectVersions}), which guards the
+ * values loaded meanwhile from being cached.
+ */
+@Component
+public class ProjectReadCaches {
+
+    public static final String PROJECTS = "readProjects";
+    public static final String LABELS = "readProjectLabels";
+    public static final String PARTICIPANTS = "readProjectParticipants";
+    public static final String TASKS = "readProjectTasks";
+
+    private final ReadCache<Long, ProjectDTO> projects;
+    private final ReadCache<Long, List<LabelDTO>> labels;
+    private final ReadCache<Long, List<ParticipantBasicDTO>> participants;
+    private final ReadCache<Long, List<TaskBasicDTO>> tasks;
+
+    public ProjectReadCaches(
+        HazelcastInstance hazelcastInstance,
+        MeterRegistry meterRegistry,
+        ProjectVersions projectVersions
+    ) {
+        this.projects = region(PROJECTS, hazelcastInstance, meterRegistry, projectVersions);
+        this.labels = region(LABELS, hazelcastInstance, meterRegistry, projectVersions);
+        this.participants = region(PARTICIPANTS, hazelcastInstance, meterRegistry, projectVersions);
+        this.tasks = region(TASKS, hazelcastInstance, meterRegistry, projectVersions);
+    }
+
+    public ReadCache<Long, ProjectDTO> projects() {
+        return projects;
+    }
+
+    public ReadCache<Long, List<LabelDTO>> labels() {
+        return labels;
+    }
+
+    public ReadCache<Long, List<ParticipantBasicDTO>> participants() {
+        return participants;
+    }
+
+    public ReadCache<Long, List<TaskBasicDTO>> tasks() {
+        return tasks;
+    }
+
+    /**
+     * Create a region keyed by project ID, guarded by the versions of the
+     * projects.
+     *
+     * @param name              the name of the region.
+     * @param hazelcastInstance the Hazelcast instance.
+     * @param meterRegistry     the registry of the metrics of the region.
+     * @param projectVersions   the versions of the projects.
+     * @param <V>               type of the values.
+     * @return the region.
+     */
+    public static <V> ReadCache<Long, V> region(
+        String name,
+        HazelcastInstance hazelcastInstance,
+        MeterRegistry meterRegistry,
+        ProjectVersions projectVersions
+    ) {
+        return new ReadCache<>(name, hazelcastInstance, meterRegistry, projectVersions::get, projectVersions::change);
+    }
+
+    /**
+     * Evict the contents of a project (labels, participants and tasks),
+     * after a write which may change all of them.
+     *
+     * @param projectId the ID of the project.
+     */
+    public void evictContents(Long projectId) {
+        labels.evict(projectId);
+        participants.evict(projectId);
+        tasks.evict(projectId);
+    }
+}
@@ -0,0 +1,100 @@
+package pt.up.hs.project.service.cache;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Versions of the projects, kept in a Hazelcast map, from which the tags
+ * (ETags) of the responses about a project are derived without reading it.
+ * <p>
+ * The version of a project changes whenever it is evicted from any region
+ * of {@link ProjectReadCaches}, i.e., on every write, and again after the
+ * writing transaction completes and the regions are evicted for good, so
+ * no tag read afterwards matches a response read before. The regions read
+ * the versions, too, to tell whether a project was evicted while a value
+ * was loaded (see {@link ReadCache}). Versions are
+ * random rather than incremented, so that a version lost with the map
+ * (expired, evicted or restarted) is never repeated.
+ * <p>
+ * The version of a project must be read before the project itself.
+ */
+@Component
+public class ProjectVersions {
+
+    public static final String MAP_NAME = "projectVersions";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProjectVersions.class);
+
+    private final IMap<Long, Long> versions;
+
+    public ProjectVersions(HazelcastInstance hazelcastInstance) {
+        this.versions = hazelcastInstance.getMap(MAP_NAME);
+    }
+
+    /**
+     * Get the tag of the current version of a project.
+     *
+     * @param projectId the ID of the project.
+     * @return the tag of the project.
+     */
+    public String tag(Long projectId) {
+        return projectId + "-" + Long.toHexString(get(projectId));
+    }
+
+    /**
+     * Get the tag of the current versions of a set of projects, which
+     * changes whenever any of them changes, or the set itself.
+     *
+     * @param projectIds the IDs of the projects.
+     * @return the tag of the projects.
+     */
+    public String tag(Collection<Long> projectIds) {
+        TreeSet<Long> sortedIds = new TreeSet<>(projectIds);
+        Map<Long, Long> current = versions.getAll(sortedIds);
+        StringBuilder sb = new StringBuilder(sortedIds.size() * 24);
+        for (Long projectId: sortedIds) {
+            Long version = current.get(projectId);
+            sb.append(projectId)
+                .append(':')
+                .append(Long.toHexString(version != null ? version : get(projectId)))
+                .append(';');
+        }
+        return DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Change the version of a project.
+     *
+     * @param projectId the ID of the project.
+     */
+    public void change(Long projectId) {
+        LOG.debug("Changing version of project {}", projectId);
+        versions.set(projectId, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Get the current version of a project.
+     *
+     * @param projectId the ID of the project.
+     * @return the version of the project.
+     */
+    public long get(Long projectId) {
+        Long version = versions.get(projectId);
+        if (version != null) {
+            return version;
+        }
+        Long created = ThreadLocalRandom.current().nextLong();
+        Long previous = versions.putIfAbsent(projectId, created);
+        return previous != null ? previous : created;
+    }
+}
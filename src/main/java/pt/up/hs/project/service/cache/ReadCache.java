@@ -0,0 +1,183 @@
+package pt.up.hs.project.service.cache;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of a region, kept in a Hazelcast map of the same name
+ * (see {@link pt.up.hs.project.config.CacheConfiguration} for its bounds).
+ * <p>
+ * Write paths must evict the entries they change (see {@link #evict(Object)}).
+ * Entries are evicted at once and again after the transaction completes;
+ * in between, reads of the evicted keys in the same transaction go to the
+ * loader and are not cached, so that no uncommitted state is shared.
+ * <p>
+ * Each key has a version, changed right before and right after each
+ * eviction (i.e., the last time after the entry is evicted for good). The
+ * version is read before loading a missing value, and the value is only
+ * kept if the version is still the same once it is cached. Otherwise, the
+ * key was evicted while loading, and the value (possibly stale) is removed.
+ * <p>
+ * Hits and misses are published as the {@code read.cache.gets} counters
+ * tagged with the region and the result, and the entries owned by the node
+ * as the {@code read.cache.size} gauge.
+ *
+ * @param <K> type of the keys.
+ * @param <V> type of the values.
+ */
+public class ReadCache<K, V> {
+
+    public static final String GETS_METER = "read.cache.gets";
+    public static final String SIZE_METER = "read.cache.size";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReadCache.class);
+
+    private final String name;
+    private final IMap<K, V> map;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    private final Function<K, ?> version;
+    private final Consumer<K> changeVersion;
+
+    public ReadCache(
+        String name,
+        HazelcastInstance hazelcastInstance,
+        MeterRegistry meterRegistry,
+        Function<K, ?> version,
+        Consumer<K> changeVersion
+    ) {
+        this.name = name;
+        this.map = hazelcastInstance.getMap(name);
+        this.version = version;
+        this.changeVersion = changeVersion;
+        this.hits = Counter.builder(GETS_METER)
+            .tag("region", name)
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter.builder(GETS_METER)
+            .tag("region", name)
+            .tag("result", "miss")
+            .register(meterRegistry);
+        Gauge.builder(SIZE_METER, map, m -> m.getLocalMapStats().getOwnedEntryCount())
+            .tag("region", name)
+            .register(meterRegistry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the value of a key, loading and caching it on a miss. Absent
+     * values ({@code null}) are not cached.
+     *
+     * @param key    the key.
+     * @param loader loader of the value.
+     * @return the value.
+     */
+    public V get(K key, Supplier<V> loader) {
+        Evictions evictions = findEvictions();
+        if (evictions != null && evictions.keys.contains(key)) {
+            // changed in this transaction, hence not cached
+            return loader.get();
+        }
+        V cached = map.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Object loadedVersion = version.apply(key);
+        V loaded = loader.get();
+        if (loaded == null) {
+            return null;
+        }
+        V previous = map.putIfAbsent(key, loaded);
+        if (previous != null) {
+            return previous;
+        }
+        if (!Objects.equals(loadedVersion, version.apply(key))) {
+            // evicted while loading, hence possibly stale
+            map.remove(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Evict the value of a key. If called within a transaction, it is
+     * evicted again after it completes.
+     *
+     * @param key the key.
+     */
+    public void evict(K key) {
+        LOG.debug("Evicting {} from region {}", key, name);
+        delete(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Evictions evictions = findEvictions();
+            if (evictions == null) {
+                evictions = new Evictions();
+                TransactionSynchronizationManager.registerSynchronization(evictions);
+            }
+            evictions.keys.add(key);
+        }
+    }
+
+    /**
+     * Delete the value of a key, changing its version before (so that
+     * values loaded before are not kept) and after (so that no value read
+     * in between is tagged with the last version).
+     *
+     * @param key the key.
+     */
+    private void delete(K key) {
+        changeVersion.accept(key);
+        map.delete(key);
+        changeVersion.accept(key);
+    }
+
+    private Evictions findEvictions() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization: TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof ReadCache.Evictions && ((Evictions) synchronization).cache() == this) {
+                return (Evictions) synchronization;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Keys evicted in a transaction.
+     */
+    private class Evictions extends TransactionSynchronizationAdapter {
+
+        private final Set<K> keys = new HashSet<>();
+
+        ReadCache<K, V> cache() {
+            return ReadCache.this;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            keys.forEach(ReadCache.this::delete);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package pt.up.hs.project.service.dto;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO for the progress of a project cloning job.
+ */
+@ApiModel(description = "Progress of a project cloning job.")
+public class CloneJobStatusDTO implements Serializable {
+
+    @ApiModelProperty(value = "ID of the job execution")
+    private Long executionId;
+
+    @ApiModelProperty(value = "ID of the project being copied")
+    private Long projectId;
+
+    @ApiModelProperty(value = "ID of the project being created")
+    private Long newProjectId;
+
+    @ApiModelProperty(value = "Whether the source project is removed at the end")
+    private boolean move;
+
+    @ApiModelProperty(value = "Status of the job")
+    private String status;
+
+    @ApiModelProperty(value = "Name of the step running (or last run)")
+    private String currentStep;
+
+    @ApiModelProperty(value = "Description of the failure, if any")
+    private String exitDescription;
+
+    private Instant startTime;
+
+    private Instant endTime;
+
+    private List<CloneStepStatusDTO> steps = new ArrayList<>();
+
+    public Long getExecutionId() {
+        return executionId;
+    }
+
+    public void setExecutionId(Long executionId) {
+        this.executionId = executionId;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public Long getNewProjectId() {
+        return newProjectId;
+    }
+
+    public void setNewProjectId(Long newProjectId) {
+        this.newProjectId = newProjectId;
+    }
+
+    public boolean isMove() {
+        return move;
+    }
+
+    public void setMove(boolean move) {
+        this.move = move;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getCurrentStep() {
+        return currentStep;
+    }
+
+    public void setCurrentStep(String currentStep) {
+        this.currentStep = currentStep;
+    }
+
+    public String getExitDescription() {
+        return exitDescription;
+    }
+
+    public void setExitDescription(String exitDescription) {
+        this.exitDescription = exitDescription;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Instant startTime) {
+        this.startTime = startTime;
+    }
+
+    public Instant getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(Instant endTime) {
+        this.endTime = endTime;
+    }
+
+    public List<CloneStepStatusDTO> getSteps() {
+        return steps;
+    }
+
+    public void setSteps(List<CloneStepStatusDTO> steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * Check whether the job is no longer running.
+     *
+     * @return {@code true} if the job is no longer running.
+     */
+    public boolean isFinished() {
+        return endTime != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CloneJobStatusDTO that = (CloneJobStatusDTO) o;
+        return Objects.equals(executionId, that.executionId) &&
+            Objects.equals(status, that.status) &&
+            Objects.equals(currentStep, that.currentStep) &&
+            Objects.equals(steps, that.steps);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(executionId, status, currentStep, steps);
+    }
+
+    @Override
+    public String toString() {
+        return "CloneJobStatusDTO{" +
+            "executionId=" + getExecutionId() +
+            ", projectId=" + getProjectId() +
+            ", newProjectId=" + getNewProjectId() +
+            ", move='" + isMove() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", currentStep='" + getCurrentStep() + "'" +
+            ", steps=" + getSteps() +
+            "}";
+    }
+}
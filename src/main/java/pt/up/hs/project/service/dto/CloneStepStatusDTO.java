@@ -0,0 +1,132 @@
+package pt.up.hs.project.service.dto;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A DTO for the progress of a step of a project cloning job.
+ */
+@ApiModel(description = "Progress of a step of a project cloning job.")
+public class CloneStepStatusDTO implements Serializable {
+
+    @ApiModelProperty(value = "Name of the step")
+    private String name;
+
+    @ApiModelProperty(value = "Status of the step")
+    private String status;
+
+    @ApiModelProperty(value = "Number of items processed so far")
+    private long itemsProcessed;
+
+    @ApiModelProperty(value = "Number of items to process, if known")
+    private Long itemsTotal;
+
+    @ApiModelProperty(value = "Items processed per second")
+    private double throughput;
+
+    @ApiModelProperty(value = "Estimated seconds until the step ends, if known")
+    private Long etaSeconds;
+
+    private Instant startTime;
+
+    private Instant endTime;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getItemsProcessed() {
+        return itemsProcessed;
+    }
+
+    public void setItemsProcessed(long itemsProcessed) {
+        this.itemsProcessed = itemsProcessed;
+    }
+
+    public Long getItemsTotal() {
+        return itemsTotal;
+    }
+
+    public void setItemsTotal(Long itemsTotal) {
+        this.itemsTotal = itemsTotal;
+    }
+
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public void setThroughput(double throughput) {
+        this.throughput = throughput;
+    }
+
+    public Long getEtaSeconds() {
+        return etaSeconds;
+    }
+
+    public void setEtaSeconds(Long etaSeconds) {
+        this.etaSeconds = etaSeconds;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Instant startTime) {
+        this.startTime = startTime;
+    }
+
+    public Instant getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(Instant endTime) {
+        this.endTime = endTime;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CloneStepStatusDTO that = (CloneStepStatusDTO) o;
+        return itemsProcessed == that.itemsProcessed &&
+            Objects.equals(name, that.name) &&
+            Objects.equals(status, that.status);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, status, itemsProcessed);
+    }
+
+    @Override
+    public String toString() {
+        return "CloneStepStatusDTO{" +
+            "name='" + getName() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", itemsProcessed=" + getItemsProcessed() +
+            ", itemsTotal=" + getItemsTotal() +
+            ", throughput=" + getThroughput() +
+            ", etaSeconds=" + getEtaSeconds() +
+            "}";
+    }
+}
@@ -0,0 +1,55 @@
+package pt.up.hs.project.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A DTO for a page of a keyset-paginated listing.
+ */
+public class CursorPageDTO<T extends Serializable> implements Serializable {
+
+    private List<T> content;
+
+    /**
+     * Opaque token of the next page, or {@code null} if this is the last.
+     */
+    private String nextCursor;
+
+    /**
+     * Total number of elements, or {@code null} if not requested.
+     */
+    private Long totalCount;
+
+    public CursorPageDTO() {
+    }
+
+    public CursorPageDTO(List<T> content, String nextCursor, Long totalCount) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.totalCount = totalCount;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(Long totalCount) {
+        this.totalCount = totalCount;
+    }
+}
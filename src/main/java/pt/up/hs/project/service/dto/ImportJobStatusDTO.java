@@ -0,0 +1,190 @@
+package pt.up.hs.project.service.dto;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO for the progress of an asynchronous CSV import job.
+ */
+@ApiModel(description = "Progress of an asynchronous CSV import job.")
+public class ImportJobStatusDTO implements Serializable {
+
+    @ApiModelProperty(value = "ID of the job execution")
+    private Long executionId;
+
+    @ApiModelProperty(value = "ID of the project to import into")
+    private Long projectId;
+
+    @ApiModelProperty(value = "Name of the imported entity")
+    private String entityName;
+
+    @ApiModelProperty(value = "Status of the job")
+    private String status;
+
+    @ApiModelProperty(value = "Description of the failure, if any")
+    private String exitDescription;
+
+    @ApiModelProperty(value = "Number of rows processed (imported or rejected)")
+    private long rowsProcessed;
+
+    @ApiModelProperty(value = "Number of rows imported")
+    private long rowsImported;
+
+    @ApiModelProperty(value = "Number of rows rejected")
+    private long rowsRejected;
+
+    @ApiModelProperty(value = "Line numbers of (up to a limit of) the rejected rows")
+    private List<Long> rejectedLines = new ArrayList<>();
+
+    @ApiModelProperty(value = "Rows processed per second")
+    private Double throughput;
+
+    private Instant startTime;
+
+    private Instant endTime;
+
+    public Long getExecutionId() {
+        return executionId;
+    }
+
+    public void setExecutionId(Long executionId) {
+        this.executionId = executionId;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public void setEntityName(String entityName) {
+        this.entityName = entityName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getExitDescription() {
+        return exitDescription;
+    }
+
+    public void setExitDescription(String exitDescription) {
+        this.exitDescription = exitDescription;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public void setRowsProcessed(long rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public void setRowsImported(long rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public void setRowsRejected(long rowsRejected) {
+        this.rowsRejected = rowsRejected;
+    }
+
+    public List<Long> getRejectedLines() {
+        return rejectedLines;
+    }
+
+    public void setRejectedLines(List<Long> rejectedLines) {
+        this.rejectedLines = rejectedLines;
+    }
+
+    public Double getThroughput() {
+        return throughput;
+    }
+
+    public void setThroughput(Double throughput) {
+        this.throughput = throughput;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Instant startTime) {
+        this.startTime = startTime;
+    }
+
+    public Instant getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(Instant endTime) {
+        this.endTime = endTime;
+    }
+
+    /**
+     * Check whether the job is no longer running.
+     *
+     * @return {@code true} if the job is no longer running.
+     */
+    public boolean isFinished() {
+        return endTime != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ImportJobStatusDTO that = (ImportJobStatusDTO) o;
+        return rowsProcessed == that.rowsProcessed &&
+            rowsImported == that.rowsImported &&
+            rowsRejected == that.rowsRejected &&
+            Objects.equals(executionId, that.executionId) &&
+            Objects.equals(status, that.status);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(executionId, status, rowsProcessed, rowsImported, rowsRejected);
+    }
+
+    @Override
+    public String toString() {
+        return "ImportJobStatusDTO{" +
+            "executionId=" + getExecutionId() +
+            ", projectId=" + getProjectId() +
+            ", entityName='" + getEntityName() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", rowsProcessed=" + getRowsProcessed() +
+            ", rowsImported=" + getRowsImported() +
+            ", rowsRejected=" + getRowsRejected() +
+            "}";
+    }
+}
@@ -0,0 +1,58 @@
+package pt.up.hs.project.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for the usage of a label, i.e., the number of participants and
+ * tasks with it.
+ */
+public class LabelUsageDTO implements Serializable {
+
+    private Long labelId;
+
+    private long participants;
+
+    private long tasks;
+
+    public LabelUsageDTO() {
+    }
+
+    public LabelUsageDTO(Long labelId, long participants, long tasks) {
+        this.labelId = labelId;
+        this.participants = participants;
+        this.tasks = tasks;
+    }
+
+    public Long getLabelId() {
+        return labelId;
+    }
+
+    public void setLabelId(Long labelId) {
+        this.labelId = labelId;
+    }
+
+    public long getParticipants() {
+        return participants;
+    }
+
+    public void setParticipants(long participants) {
+        this.participants = participants;
+    }
+
+    public long getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(long tasks) {
+        this.tasks = tasks;
+    }
+
+    @Override
+    public String toString() {
+        return "LabelUsageDTO{" +
+            "labelId=" + getLabelId() +
+            ", participants=" + getParticipants() +
+            ", tasks=" + getTasks() +
+            "}";
+    }
+}
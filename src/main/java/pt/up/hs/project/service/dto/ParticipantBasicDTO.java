@@ -34,6 +34,12 @@ public class ParticipantBasicDTO extends AbstractAuditingDTO {
     @ApiModelProperty(value = "A participant belongs to a project.")
     private Long projectId;
 
+    /**
+     * Hash of the image of the participant, which changes with it.
+     */
+    @ApiModelProperty(value = "Hash of the image of the participant, which changes with it")
+    private String imageHash;
+
     private Set<Long> labelIds = new HashSet<>();
 
     public Long getId() {
@@ -60,6 +66,14 @@ public class ParticipantBasicDTO extends AbstractAuditingDTO {
         this.projectId = projectId;
     }
 
+    public String getImageHash() {
+        return imageHash;
+    }
+
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
+
     public Set<Long> getLabelIds() {
         return labelIds;
     }
@@ -1,5 +1,6 @@
 package pt.up.hs.project.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import java.time.LocalDate;
@@ -7,7 +8,6 @@ import javax.validation.constraints.*;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.Objects;
-import javax.persistence.Lob;
 import pt.up.hs.project.domain.enumeration.Gender;
 import pt.up.hs.project.domain.enumeration.HandwritingMean;
 
@@ -54,14 +54,21 @@ public class ParticipantDTO extends AbstractAuditingDTO {
     private String additionalInfo;
 
     /**
-     * Image of the participant for visual identification
+     * Image of the participant for visual identification. Only sent by the
+     * client, to set the image: it is streamed from its own endpoint.
      */
-    @ApiModelProperty(value = "Image of the participant for visual identification")
-    @Lob
+    @ApiModelProperty(value = "Image of the participant for visual identification (only when saving)")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private byte[] image;
 
     private String imageContentType;
 
+    /**
+     * Hash of the image of the participant, which changes with it.
+     */
+    @ApiModelProperty(value = "Hash of the image of the participant, which changes with it")
+    private String imageHash;
+
     /**
      * A participant belongs to a project.
      */
@@ -134,6 +141,14 @@ public class ParticipantDTO extends AbstractAuditingDTO {
         this.imageContentType = imageContentType;
     }
 
+    public String getImageHash() {
+        return imageHash;
+    }
+
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
+
     public Long getProjectId() {
         return projectId;
     }
@@ -180,7 +195,8 @@ public class ParticipantDTO extends AbstractAuditingDTO {
             ", birthdate='" + getBirthdate() + "'" +
             ", handedness='" + getHandedness() + "'" +
             ", additionalInfo='" + getAdditionalInfo() + "'" +
-            ", image='" + getImage() + "'" +
+            ", imageContentType='" + getImageContentType() + "'" +
+            ", imageHash='" + getImageHash() + "'" +
             ", projectId=" + getProjectId() +
             "}";
     }
@@ -0,0 +1,79 @@
+package pt.up.hs.project.service.dto;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link pt.up.hs.project.domain.ParticipantImage} entity.
+ * The content is only present when it was requested. Only used from
+ * server to client (streamed, not serialized).
+ */
+public class ParticipantImageDTO implements Serializable {
+
+    private String contentType;
+
+    private Long contentLength;
+
+    private String hash;
+
+    private byte[] content;
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getContentLength() {
+        return contentLength;
+    }
+
+    public void setContentLength(Long contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ParticipantImageDTO that = (ParticipantImageDTO) o;
+        return Objects.equals(hash, that.hash) && Arrays.equals(content, that.content);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(hash);
+    }
+
+    @Override
+    public String toString() {
+        return "ParticipantImageDTO{" +
+            "contentType='" + getContentType() + "'" +
+            ", contentLength=" + getContentLength() +
+            ", hash='" + getHash() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,85 @@
+package pt.up.hs.project.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A DTO for the counts of the contents of a project (participants, tasks
+ * and labels), and the usage of each of its labels.
+ */
+public class ProjectCountsDTO implements Serializable {
+
+    private Long projectId;
+
+    private long participants;
+
+    private long tasks;
+
+    private long labels;
+
+    private List<LabelUsageDTO> labelUsage = new ArrayList<>();
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public long getParticipants() {
+        return participants;
+    }
+
+    public void setParticipants(long participants) {
+        this.participants = participants;
+    }
+
+    public long getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(long tasks) {
+        this.tasks = tasks;
+    }
+
+    public long getLabels() {
+        return labels;
+    }
+
+    public void setLabels(long labels) {
+        this.labels = labels;
+    }
+
+    public List<LabelUsageDTO> getLabelUsage() {
+        return labelUsage;
+    }
+
+    public void setLabelUsage(List<LabelUsageDTO> labelUsage) {
+        this.labelUsage = labelUsage;
+    }
+
+    /**
+     * Find the usage of a label of the project.
+     *
+     * @param labelId the ID of the label.
+     * @return the usage of the label, if it belongs to the project.
+     */
+    public Optional<LabelUsageDTO> findLabelUsage(Long labelId) {
+        return labelUsage.stream()
+            .filter(usage -> usage.getLabelId().equals(labelId))
+            .findFirst();
+    }
+
+    @Override
+    public String toString() {
+        return "ProjectCountsDTO{" +
+            "projectId=" + getProjectId() +
+            ", participants=" + getParticipants() +
+            ", tasks=" + getTasks() +
+            ", labels=" + getLabels() +
+            "}";
+    }
+}
@@ -0,0 +1,117 @@
+package pt.up.hs.project.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pt.up.hs.project.service.CloneJobEventService;
+import pt.up.hs.project.service.CloneJobService;
+import pt.up.hs.project.service.dto.CloneJobStatusDTO;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service Implementation for streaming the progress of project cloning
+ * jobs. Subscriptions are kept on the node which received them, and the
+ * progress is polled from the Spring Batch metadata once per interval for
+ * each project followed.
+ */
+@Service
+public class CloneJobEventServiceImpl implements CloneJobEventService {
+
+    private static final long EMITTER_TIMEOUT = 30 * 60 * 1000L;
+    private static final long PUSH_INTERVAL = 1000L;
+
+    private final Logger log = LoggerFactory.getLogger(CloneJobEventServiceImpl.class);
+
+    private final CloneJobService cloneJobService;
+
+    private final Map<SseEmitter, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    public CloneJobEventServiceImpl(CloneJobService cloneJobService) {
+        this.cloneJobService = cloneJobService;
+    }
+
+    /**
+     * Subscribe to the progress of the latest cloning job which creates a
+     * project.
+     *
+     * @param newProjectId the id of the project created by the job.
+     * @return the stream of events, or empty if there is no such job.
+     */
+    @Override
+    public Optional<SseEmitter> subscribe(Long newProjectId) {
+        log.debug("Request to subscribe to latest cloning job of project {}", newProjectId);
+        Optional<CloneJobStatusDTO> status = cloneJobService.findLatestByNewProjectId(newProjectId);
+        if (!status.isPresent()) {
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT);
+        emitter.onCompletion(() -> subscriptions.remove(emitter));
+        emitter.onTimeout(() -> subscriptions.remove(emitter));
+        emitter.onError(e -> subscriptions.remove(emitter));
+        Subscription subscription = new Subscription(newProjectId);
+        subscriptions.put(emitter, subscription);
+        send(emitter, subscription, status);
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Send the progress of the jobs which changed since the last event to
+     * their subscribers.
+     */
+    @Override
+    @Scheduled(fixedDelay = PUSH_INTERVAL)
+    public void pushUpdates() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        Map<Long, Optional<CloneJobStatusDTO>> statuses = new HashMap<>();
+        subscriptions.forEach((emitter, subscription) -> send(
+            emitter,
+            subscription,
+            statuses.computeIfAbsent(subscription.newProjectId, cloneJobService::findLatestByNewProjectId)
+        ));
+    }
+
+    /**
+     * Send the progress of a job, if it changed, and end the stream if the
+     * job ended or no longer exists (e.g., its project was deleted).
+     */
+    private void send(SseEmitter emitter, Subscription subscription, Optional<CloneJobStatusDTO> status) {
+        if (!status.isPresent()) {
+            subscriptions.remove(emitter);
+            emitter.complete();
+            return;
+        }
+        if (status.get().equals(subscription.lastSent)) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name("progress").data(status.get()));
+            subscription.lastSent = status.get();
+            if (status.get().isFinished()) {
+                subscriptions.remove(emitter);
+                emitter.complete();
+            }
+        } catch (IOException e) {
+            log.trace("Clone job stream closed: {}", e.getMessage());
+            subscriptions.remove(emitter);
+        }
+    }
+
+    private static class Subscription {
+
+        private final Long newProjectId;
+        private CloneJobStatusDTO lastSent;
+
+        private Subscription(Long newProjectId) {
+            this.newProjectId = newProjectId;
+        }
+    }
+}
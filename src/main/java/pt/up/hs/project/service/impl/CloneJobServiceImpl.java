@@ -0,0 +1,214 @@
+package pt.up.hs.project.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.stereotype.Service;
+import org.zalando.problem.Status;
+import pt.up.hs.project.cloner.ClonerJobLauncher;
+import pt.up.hs.project.constants.EntityNames;
+import pt.up.hs.project.constants.ErrorKeys;
+import pt.up.hs.project.repository.CloneJobRepository;
+import pt.up.hs.project.service.CloneJobService;
+import pt.up.hs.project.service.dto.CloneJobStatusDTO;
+import pt.up.hs.project.service.dto.CloneStepStatusDTO;
+import pt.up.hs.project.service.exceptions.ServiceException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static pt.up.hs.project.cloner.ClonerConstants.*;
+
+/**
+ * Service Implementation for following project cloning jobs. Progress is
+ * read from the Spring Batch metadata, which is updated on every chunk
+ * commit, so it is accurate on any node.
+ */
+@Service
+public class CloneJobServiceImpl implements CloneJobService {
+
+    private final Logger log = LoggerFactory.getLogger(CloneJobServiceImpl.class);
+
+    private final JobExplorer jobExplorer;
+    private final CloneJobRepository cloneJobRepository;
+    private final ClonerJobLauncher clonerJobLauncher;
+
+    public CloneJobServiceImpl(
+        JobExplorer jobExplorer,
+        CloneJobRepository cloneJobRepository,
+        ClonerJobLauncher clonerJobLauncher
+    ) {
+        this.jobExplorer = jobExplorer;
+        this.cloneJobRepository = cloneJobRepository;
+        this.clonerJobLauncher = clonerJobLauncher;
+    }
+
+    /**
+     * Get the progress of the latest cloning job which creates a project.
+     *
+     * @param newProjectId the id of the project created by the job.
+     * @return the progress of the job.
+     */
+    @Override
+    public Optional<CloneJobStatusDTO> findLatestByNewProjectId(Long newProjectId) {
+        log.debug("Request to get latest cloning job of project {}", newProjectId);
+        return cloneJobRepository.findLatestExecutionId(NEW_PROJECT_ID_PARAMETER, newProjectId)
+            .map(jobExplorer::getJobExecution)
+            .map(this::toStatus);
+    }
+
+    /**
+     * Restart the latest cloning job which creates a project, if it failed
+     * or was stopped.
+     *
+     * @param newProjectId the id of the project created by the job.
+     * @return the progress of the job before the restart.
+     */
+    @Override
+    public Optional<CloneJobStatusDTO> restartLatestByNewProjectId(Long newProjectId) {
+        log.debug("Request to restart latest cloning job of project {}", newProjectId);
+        Optional<JobExecution> jobExecution = cloneJobRepository
+            .findLatestExecutionId(NEW_PROJECT_ID_PARAMETER, newProjectId)
+            .map(jobExplorer::getJobExecution);
+        jobExecution.ifPresent(execution -> {
+            BatchStatus status = execution.getStatus();
+            if (status != BatchStatus.FAILED && status != BatchStatus.STOPPED) {
+                throw new ServiceException(
+                    Status.CONFLICT, EntityNames.PROJECT, ErrorKeys.ERR_NOT_RESTARTABLE,
+                    "Cloning job " + execution.getId() + " is " + status + ", hence it cannot be restarted"
+                );
+            }
+            clonerJobLauncher.restart(execution.getId());
+        });
+        return jobExecution.map(this::toStatus);
+    }
+
+    private CloneJobStatusDTO toStatus(JobExecution jobExecution) {
+        CloneJobStatusDTO status = new CloneJobStatusDTO();
+        status.setExecutionId(jobExecution.getId());
+        status.setProjectId(jobExecution.getJobParameters().getLong(PROJECT_ID_PARAMETER));
+        status.setNewProjectId(jobExecution.getJobParameters().getLong(NEW_PROJECT_ID_PARAMETER));
+        status.setMove(Boolean.parseBoolean(jobExecution.getJobParameters().getString(MOVE_PARAMETER)));
+        status.setStatus(jobExecution.getStatus().name());
+        status.setStartTime(toInstant(jobExecution.getStartTime()));
+        status.setEndTime(toInstant(jobExecution.getEndTime()));
+        if (jobExecution.getStatus().isUnsuccessful()) {
+            status.setExitDescription(jobExecution.getExitStatus().getExitDescription());
+        }
+
+        // group partitions with the step which they belong to
+        Map<String, List<StepExecution>> groups = new LinkedHashMap<>();
+        jobExecution.getStepExecutions().stream()
+            .sorted(Comparator.comparing(StepExecution::getId))
+            .forEach(stepExecution -> groups
+                .computeIfAbsent(stepName(stepExecution.getStepName()), k -> new ArrayList<>())
+                .add(stepExecution)
+            );
+
+        ExecutionContext executionContext = jobExecution.getExecutionContext();
+        for (Map.Entry<String, List<StepExecution>> group: groups.entrySet()) {
+            CloneStepStatusDTO step = toStepStatus(group.getKey(), group.getValue(), executionContext);
+            status.getSteps().add(step);
+            if (status.getCurrentStep() == null || BatchStatus.valueOf(step.getStatus()).isRunning()) {
+                status.setCurrentStep(step.getName());
+            }
+        }
+        if (!status.getSteps().isEmpty() && !jobExecution.isRunning()) {
+            status.setCurrentStep(status.getSteps().get(status.getSteps().size() - 1).getName());
+        }
+
+        return status;
+    }
+
+    private CloneStepStatusDTO toStepStatus(
+        String name,
+        List<StepExecution> stepExecutions,
+        ExecutionContext executionContext
+    ) {
+        StepExecution main = stepExecutions.stream()
+            .filter(stepExecution -> stepExecution.getStepName().equals(name))
+            .findFirst()
+            .orElse(stepExecutions.get(0));
+
+        long processed = 0;
+        boolean partitioned = stepExecutions.size() > 1;
+        for (StepExecution stepExecution: stepExecutions) {
+            if (!partitioned || stepExecution != main) {
+                processed += stepExecution.getWriteCount();
+            }
+        }
+
+        CloneStepStatusDTO step = new CloneStepStatusDTO();
+        step.setName(name);
+        step.setStatus(main.getStatus().name());
+        step.setItemsProcessed(processed);
+        step.setItemsTotal(itemsTotal(name, executionContext));
+        step.setStartTime(toInstant(main.getStartTime()));
+        step.setEndTime(toInstant(main.getEndTime()));
+
+        if (step.getStartTime() != null) {
+            Instant end = step.getEndTime() != null ? step.getEndTime() : Instant.now();
+            double seconds = Math.max(1, Duration.between(step.getStartTime(), end).toMillis()) / 1000.0;
+            step.setThroughput(processed / seconds);
+            if (step.getEndTime() == null && step.getItemsTotal() != null && processed > 0) {
+                long remaining = Math.max(0, step.getItemsTotal() - processed);
+                step.setEtaSeconds((long) Math.ceil(remaining / step.getThroughput()));
+            }
+        }
+
+        return step;
+    }
+
+    private static Long itemsTotal(String stepName, ExecutionContext executionContext) {
+        switch (stepName) {
+            case LABEL_CLONING_STEP:
+                return total(executionContext, LABEL_TOTAL_PARAMETER);
+            case TASK_CLONING_STEP:
+                return total(executionContext, TASK_TOTAL_PARAMETER);
+            case PARTICIPANT_CLONING_STEP:
+            case PROTOCOL_CLONING_STEP:
+            case TEXT_CLONING_STEP:
+                return total(executionContext, PARTICIPANT_TOTAL_PARAMETER);
+            case BULK_CLONING_STEP:
+                Long labels = total(executionContext, LABEL_TOTAL_PARAMETER);
+                Long participants = total(executionContext, PARTICIPANT_TOTAL_PARAMETER);
+                Long tasks = total(executionContext, TASK_TOTAL_PARAMETER);
+                return labels == null || participants == null || tasks == null
+                    ? null
+                    : labels + participants + tasks;
+            default:
+                return null;
+        }
+    }
+
+    private static Long total(ExecutionContext executionContext, String key) {
+        return executionContext.containsKey(key) ? executionContext.getLong(key) : null;
+    }
+
+    /**
+     * Name of the step to which a step execution belongs, i.e., without the
+     * partition and worker suffixes.
+     */
+    private static String stepName(String stepExecutionName) {
+        int separator = stepExecutionName.indexOf(':');
+        String name = separator < 0 ? stepExecutionName : stepExecutionName.substring(0, separator);
+        return name.endsWith(WORKER_STEP_SUFFIX)
+            ? name.substring(0, name.length() - WORKER_STEP_SUFFIX.length())
+            : name;
+    }
+
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
+    }
+}
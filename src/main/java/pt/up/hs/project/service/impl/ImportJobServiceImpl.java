@@ -0,0 +1,177 @@
+package pt.up.hs.project.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.zalando.problem.Status;
+import pt.up.hs.project.config.ApplicationProperties;
+import pt.up.hs.project.constants.EntityNames;
+import pt.up.hs.project.constants.ErrorKeys;
+import pt.up.hs.project.service.ImportJobService;
+import pt.up.hs.project.service.dto.ImportJobStatusDTO;
+import pt.up.hs.project.service.exceptions.ServiceException;
+import pt.up.hs.project.service.importer.batch.CsvImportJobLauncher;
+import pt.up.hs.project.service.importer.batch.ImportRejections;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Optional;
+
+import static pt.up.hs.project.service.importer.batch.ImportConstants.*;
+
+/**
+ * Service Implementation for running asynchronous CSV import jobs.
+ * Progress is read from the Spring Batch metadata, which is updated on
+ * every chunk commit.
+ */
+@Service
+public class ImportJobServiceImpl implements ImportJobService {
+
+    private final Logger log = LoggerFactory.getLogger(ImportJobServiceImpl.class);
+
+    private final CsvImportJobLauncher csvImportJobLauncher;
+    private final JobExplorer jobExplorer;
+    private final Job participantCsvImportJob;
+    private final Job taskCsvImportJob;
+    private final Path spoolDirectory;
+
+    public ImportJobServiceImpl(
+        CsvImportJobLauncher csvImportJobLauncher,
+        JobExplorer jobExplorer,
+        @Qualifier(PARTICIPANT_CSV_IMPORT_JOB) Job participantCsvImportJob,
+        @Qualifier(TASK_CSV_IMPORT_JOB) Job taskCsvImportJob,
+        ApplicationProperties applicationProperties
+    ) {
+        this.csvImportJobLauncher = csvImportJobLauncher;
+        this.jobExplorer = jobExplorer;
+        this.participantCsvImportJob = participantCsvImportJob;
+        this.taskCsvImportJob = taskCsvImportJob;
+        this.spoolDirectory = Paths.get(applicationProperties.getImporter().getSpoolDirectory());
+    }
+
+    @Override
+    public ImportJobStatusDTO startParticipantImport(
+        Long projectId, InputStream is, String sep, String arraySep, boolean useHeader
+    ) {
+        log.debug("Request to start importing Participants from CSV to project {}", projectId);
+        return start(participantCsvImportJob, EntityNames.PARTICIPANT, projectId, is, sep, arraySep, useHeader);
+    }
+
+    @Override
+    public ImportJobStatusDTO startTaskImport(
+        Long projectId, InputStream is, String sep, String arraySep, boolean useHeader
+    ) {
+        log.debug("Request to start importing Tasks from CSV to project {}", projectId);
+        return start(taskCsvImportJob, EntityNames.TASK, projectId, is, sep, arraySep, useHeader);
+    }
+
+    @Override
+    public Optional<ImportJobStatusDTO> findOne(Long projectId, Long executionId) {
+        log.debug("Request to get import job {} of project {}", executionId, projectId);
+        return Optional.ofNullable(jobExplorer.getJobExecution(executionId))
+            .filter(jobExecution -> entityName(jobExecution) != null)
+            .filter(jobExecution -> projectId.equals(jobExecution.getJobParameters().getLong(PROJECT_ID_PARAMETER)))
+            .map(this::toStatus);
+    }
+
+    private ImportJobStatusDTO start(
+        Job job, String entityName, Long projectId, InputStream is, String sep, String arraySep, boolean useHeader
+    ) {
+        Path file = spool(entityName, is);
+        try {
+            return toStatus(csvImportJobLauncher.run(job, projectId, file, sep, arraySep, useHeader));
+        } catch (TaskRejectedException e) {
+            log.warn("Import job rejected: {}", e.getMessage());
+            delete(file);
+            throw new ServiceException(
+                Status.SERVICE_UNAVAILABLE, entityName, ErrorKeys.ERR_IMPORT_BUSY, "Too many imports running, try again later"
+            );
+        } catch (Exception e) {
+            log.error("Could not launch import job: {}", e.getMessage());
+            delete(file);
+            throw new ServiceException(
+                Status.INTERNAL_SERVER_ERROR, entityName, ErrorKeys.ERR_READ_IMPORT, "Could not start the import"
+            );
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled import file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Path spool(String entityName, InputStream is) {
+        try {
+            Files.createDirectories(spoolDirectory);
+            Path file = Files.createTempFile(spoolDirectory, "import-", ".csv");
+            Files.copy(is, file, StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        } catch (IOException e) {
+            log.error("Could not spool import file: {}", e.getMessage());
+            throw new ServiceException(
+                Status.INTERNAL_SERVER_ERROR, entityName, ErrorKeys.ERR_READ_IMPORT, "Could not store the uploaded file"
+            );
+        }
+    }
+
+    private ImportJobStatusDTO toStatus(JobExecution jobExecution) {
+        ImportJobStatusDTO status = new ImportJobStatusDTO();
+        status.setExecutionId(jobExecution.getId());
+        status.setProjectId(jobExecution.getJobParameters().getLong(PROJECT_ID_PARAMETER));
+        status.setEntityName(entityName(jobExecution));
+        status.setStatus(jobExecution.getStatus().name());
+        status.setStartTime(toInstant(jobExecution.getStartTime()));
+        status.setEndTime(toInstant(jobExecution.getEndTime()));
+        if (jobExecution.getStatus().isUnsuccessful()) {
+            status.setExitDescription(jobExecution.getExitStatus().getExitDescription());
+        }
+
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            long rejected = ImportRejections.count(stepExecution.getExecutionContext());
+            status.setRowsImported(status.getRowsImported() + stepExecution.getWriteCount());
+            status.setRowsRejected(status.getRowsRejected() + rejected);
+            status.setRejectedLines(new ArrayList<>(ImportRejections.lines(stepExecution.getExecutionContext())));
+        }
+        status.setRowsProcessed(status.getRowsImported() + status.getRowsRejected());
+
+        if (status.getStartTime() != null) {
+            Instant end = status.getEndTime() != null ? status.getEndTime() : Instant.now();
+            double seconds = Math.max(1, Duration.between(status.getStartTime(), end).toMillis()) / 1000.0;
+            status.setThroughput(status.getRowsProcessed() / seconds);
+        }
+
+        return status;
+    }
+
+    private static String entityName(JobExecution jobExecution) {
+        switch (jobExecution.getJobInstance().getJobName()) {
+            case PARTICIPANT_CSV_IMPORT_JOB:
+                return EntityNames.PARTICIPANT;
+            case TASK_CSV_IMPORT_JOB:
+                return EntityNames.TASK;
+            default:
+                return null;
+        }
+    }
+
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
+    }
+}
@@ -0,0 +1,135 @@
+package pt.up.hs.project.service.impl;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.zalando.problem.Status;
+import pt.up.hs.project.constants.ErrorKeys;
+import pt.up.hs.project.service.exceptions.ServiceException;
+import pt.up.hs.project.utils.Keyset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Helpers shared by the services with keyset-paginated listings.
+ * <p>
+ * A page is read as the id and sort value of its rows, ordered by the
+ * sort property and then by id, starting after the row recorded in the
+ * {@link Keyset} (see the {@code findKeysBy...} queries of the
+ * repositories), or at the first row (see {@code findFirstKeysBy...}).
+ * The first page has no cursor predicate, and the others bound the index
+ * scan from the cursor, so that deep pages cost as much as the first. The
+ * label filter is an {@code exists} sub-query, so no {@code distinct} is
+ * needed and the index on the sort property can serve the ordering.
+ */
+final class KeysetPages {
+
+    /**
+     * Properties by which listings can be sorted (non-null and unique when
+     * combined with the id).
+     */
+    static final Set<String> SORT_PROPERTIES = Collections.unmodifiableSet(
+        new HashSet<>(Arrays.asList("id", "name"))
+    );
+
+    private KeysetPages() {
+    }
+
+    /**
+     * Get the keyset of a page, given the cursor sent by the client. An
+     * empty cursor requests the first page, sorted as requested (by id if
+     * not sorted).
+     *
+     * @param cursor     the cursor.
+     * @param sort       the requested sort.
+     * @param entityName name of the listed entity, for errors.
+     * @return the keyset of the page.
+     */
+    static Keyset keyset(String cursor, Sort sort, String entityName) {
+        Keyset keyset;
+        if (cursor == null || cursor.isEmpty()) {
+            Iterator<Sort.Order> orders = sort.iterator();
+            if (orders.hasNext()) {
+                Sort.Order order = orders.next();
+                keyset = Keyset.first(order.getProperty(), order.isAscending());
+            } else {
+                keyset = Keyset.first("id", true);
+            }
+        } else {
+            try {
+                keyset = Keyset.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ServiceException(Status.BAD_REQUEST, entityName, ErrorKeys.ERR_INVALID_CURSOR, "Invalid cursor");
+            }
+        }
+        if (!SORT_PROPERTIES.contains(keyset.getProperty())) {
+            throw new ServiceException(
+                Status.BAD_REQUEST, entityName, ErrorKeys.ERR_INVALID_CURSOR,
+                "Keyset pagination only supports sorting by " + SORT_PROPERTIES
+            );
+        }
+        return keyset;
+    }
+
+    /**
+     * Get the limit and order of the query of the keys of a page.
+     *
+     * @param keyset keyset of the page.
+     * @param limit  maximum number of rows.
+     * @return the pageable of the query.
+     */
+    static Pageable pageable(Keyset keyset, int limit) {
+        Sort.Direction direction = keyset.isAscending() ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return PageRequest.of(0, limit, "id".equals(keyset.getProperty())
+            ? Sort.by(direction, "id")
+            : Sort.by(direction, keyset.getProperty(), "id"));
+    }
+
+    /**
+     * Check whether a page is sorted by id.
+     *
+     * @param keyset keyset of the page.
+     * @return {@code true} if sorted by id, {@code false} if by name.
+     */
+    static boolean byId(Keyset keyset) {
+        return "id".equals(keyset.getProperty());
+    }
+
+    /**
+     * Get the ids of the rows of a page, given the keys of up to one row
+     * more than the page size.
+     *
+     * @param keys pairs of id and sort value.
+     * @param size the page size.
+     * @return the ids.
+     */
+    static List<Long> ids(List<Object[]> keys, int size) {
+        List<Long> ids = new ArrayList<>(Math.min(size, keys.size()));
+        for (int i = 0; i < keys.size() && i < size; i++) {
+            ids.add((Long) keys.get(i)[0]);
+        }
+        return ids;
+    }
+
+    /**
+     * Get the cursor of the page after the current.
+     *
+     * @param keyset keyset of the current page.
+     * @param keys   pairs of id and sort value of up to one row more than the page size.
+     * @param size   the page size.
+     * @return the cursor of the next page, or {@code null} if there is none.
+     */
+    static String nextCursor(Keyset keyset, List<Object[]> keys, int size) {
+        if (keys.size() <= size) {
+            return null;
+        }
+        Object[] last = keys.get(size - 1);
+        return keyset.after((Long) last[0], last[1]).encode();
+    }
+}
@@ -10,10 +10,14 @@ import pt.up.hs.project.constants.ErrorKeys;
 import pt.up.hs.project.domain.Label;
 import pt.up.hs.project.repository.LabelRepository;
 import pt.up.hs.project.service.LabelService;
+import pt.up.hs.project.service.ProjectCounterService;
+import pt.up.hs.project.service.cache.ProjectReadCaches;
 import pt.up.hs.project.service.dto.LabelDTO;
+import pt.up.hs.project.service.dto.LabelUsageDTO;
 import pt.up.hs.project.service.exceptions.ServiceException;
 import pt.up.hs.project.service.mapper.LabelMapper;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -30,9 +34,19 @@ public class LabelServiceImpl implements LabelService {
     private final LabelRepository labelRepository;
     private final LabelMapper labelMapper;
 
-    public LabelServiceImpl(LabelRepository labelRepository, LabelMapper labelMapper) {
+    private final ProjectCounterService projectCounterService;
+    private final ProjectReadCaches projectReadCaches;
+
+    public LabelServiceImpl(
+        LabelRepository labelRepository,
+        LabelMapper labelMapper,
+        ProjectCounterService projectCounterService,
+        ProjectReadCaches projectReadCaches
+    ) {
         this.labelRepository = labelRepository;
         this.labelMapper = labelMapper;
+        this.projectCounterService = projectCounterService;
+        this.projectReadCaches = projectReadCaches;
     }
 
     /**
@@ -48,6 +62,10 @@ public class LabelServiceImpl implements LabelService {
         Label label = labelMapper.toEntity(labelDTO);
         label.setProjectId(projectId);
         label = labelRepository.save(label);
+        if (labelDTO.getId() == null) {
+            projectCounterService.labelCreated(projectId, label.getId());
+        }
+        projectReadCaches.labels().evict(projectId);
         return labelMapper.toDto(label);
     }
 
@@ -71,7 +89,8 @@ public class LabelServiceImpl implements LabelService {
     }
 
     /**
-     * Get all the labels.
+     * Get all the labels, cached until a write to the labels of the project
+     * (see {@link ProjectReadCaches}).
      *
      * @param projectId ID of the project containing the labels.
      * @return the list of entities.
@@ -80,14 +99,15 @@ public class LabelServiceImpl implements LabelService {
     @Transactional(readOnly = true)
     public List<LabelDTO> findAll(Long projectId) {
         log.debug("Request to get all Labels from project {}", projectId);
-        return labelRepository.findAllByProjectId(projectId)
-            .parallelStream()
+        return projectReadCaches.labels().get(projectId, () -> labelRepository.findAllByProjectId(projectId)
+            .stream()
             .map(labelMapper::toDto)
-            .collect(Collectors.toList());
+            .collect(Collectors.toCollection(ArrayList::new))
+        );
     }
 
     /**
-     * Count the labels.
+     * Count the labels, from the counters of the project.
      *
      * @param projectId ID of the project containing the labels.
      * @return the number of entities.
@@ -96,7 +116,21 @@ public class LabelServiceImpl implements LabelService {
     @Transactional(readOnly = true)
     public long count(Long projectId) {
         log.debug("Request to count labels from project {}", projectId);
-        return labelRepository.countByProjectId(projectId);
+        return projectCounterService.get(projectId).getLabels();
+    }
+
+    /**
+     * Get the number of participants and tasks with each label, from the
+     * counters of the project.
+     *
+     * @param projectId ID of the project containing the labels.
+     * @return the usage of each label, by ID.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<LabelUsageDTO> findAllUsage(Long projectId) {
+        log.debug("Request to get the usage of Labels from project {}", projectId);
+        return projectCounterService.get(projectId).getLabelUsage();
     }
 
     /**
@@ -141,10 +175,14 @@ public class LabelServiceImpl implements LabelService {
         Optional<Label> labelOpt = labelRepository.findByProjectIdAndId(projectId, id);
         if (labelOpt.isPresent()) {
             Label label = labelOpt.get();
-            label.getTasks().parallelStream().forEach(label::removeTasks);
-            label.getParticipants().parallelStream().forEach(label::removeParticipants);
+            projectCounterService.labelDeleted(projectId, id);
+            // iterate over copies, as removing updates the collections
+            new ArrayList<>(label.getTasks()).forEach(label::removeTasks);
+            new ArrayList<>(label.getParticipants()).forEach(label::removeParticipants);
         }
         labelRepository.deleteByProjectIdAndId(projectId, id);
+        // the label is also removed from the participants and tasks
+        projectReadCaches.evictContents(projectId);
     }
 
     @Override
@@ -5,28 +5,44 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.zalando.problem.Status;
 import pt.up.hs.project.constants.EntityNames;
 import pt.up.hs.project.constants.ErrorKeys;
 import pt.up.hs.project.domain.Label;
 import pt.up.hs.project.domain.Participant;
+import pt.up.hs.project.domain.ParticipantImage;
 import pt.up.hs.project.repository.LabelRepository;
+import pt.up.hs.project.repository.LabelLink;
+import pt.up.hs.project.repository.ParticipantImageInfo;
+import pt.up.hs.project.repository.ParticipantImageRepository;
 import pt.up.hs.project.repository.ParticipantRepository;
-import pt.up.hs.project.service.LabelService;
 import pt.up.hs.project.service.ParticipantService;
+import pt.up.hs.project.service.ProjectCounterService;
+import pt.up.hs.project.service.cache.ProjectReadCaches;
 import pt.up.hs.project.service.dto.BulkImportResultDTO;
+import pt.up.hs.project.service.dto.CursorPageDTO;
 import pt.up.hs.project.service.dto.LabelDTO;
+import pt.up.hs.project.service.dto.LabelUsageDTO;
 import pt.up.hs.project.service.dto.ParticipantBasicDTO;
 import pt.up.hs.project.service.dto.ParticipantDTO;
+import pt.up.hs.project.service.dto.ParticipantImageDTO;
 import pt.up.hs.project.service.exceptions.ServiceException;
+import pt.up.hs.project.service.importer.ChunkedCsvImporter;
+import pt.up.hs.project.service.importer.CsvReaderFactory;
+import pt.up.hs.project.service.importer.ImportRow;
+import pt.up.hs.project.service.importer.converters.ParticipantCsvConverter;
 import pt.up.hs.project.service.importer.dto.ParticipantCsvDTO;
+import pt.up.hs.project.service.importer.exception.CsvReaderException;
 import pt.up.hs.project.service.importer.reader.CsvReader;
 import pt.up.hs.project.service.mapper.ParticipantBasicMapper;
 import pt.up.hs.project.service.mapper.ParticipantMapper;
-import pt.up.hs.project.utils.Genders;
-import pt.up.hs.project.utils.HandwritingMeans;
+import pt.up.hs.project.utils.Hashes;
+import pt.up.hs.project.utils.Keyset;
+import pt.up.hs.project.utils.Searches;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -41,24 +57,39 @@ public class ParticipantServiceImpl implements ParticipantService {
     private final Logger log = LoggerFactory.getLogger(ParticipantServiceImpl.class);
 
     private final ParticipantRepository participantRepository;
+    private final ParticipantImageRepository participantImageRepository;
     private final ParticipantMapper participantMapper;
     private final ParticipantBasicMapper participantBasicMapper;
 
-    private final LabelService labelService;
     private final LabelRepository labelRepository;
+    private final ProjectCounterService projectCounterService;
+    private final ProjectReadCaches projectReadCaches;
+    private final CsvReaderFactory csvReaderFactory;
+    private final ChunkedCsvImporter chunkedCsvImporter;
+    private final ParticipantCsvConverter participantCsvConverter;
 
     public ParticipantServiceImpl(
         ParticipantRepository participantRepository,
+        ParticipantImageRepository participantImageRepository,
         ParticipantMapper participantMapper,
         ParticipantBasicMapper participantBasicMapper,
-        LabelService labelService,
-        LabelRepository labelRepository
+        LabelRepository labelRepository,
+        ProjectCounterService projectCounterService,
+        ProjectReadCaches projectReadCaches,
+        CsvReaderFactory csvReaderFactory,
+        ChunkedCsvImporter chunkedCsvImporter,
+        ParticipantCsvConverter participantCsvConverter
     ) {
         this.participantRepository = participantRepository;
+        this.participantImageRepository = participantImageRepository;
         this.participantMapper = participantMapper;
         this.participantBasicMapper = participantBasicMapper;
-        this.labelService = labelService;
         this.labelRepository = labelRepository;
+        this.projectCounterService = projectCounterService;
+        this.projectReadCaches = projectReadCaches;
+        this.csvReaderFactory = csvReaderFactory;
+        this.chunkedCsvImporter = chunkedCsvImporter;
+        this.participantCsvConverter = participantCsvConverter;
     }
 
     /**
@@ -71,10 +102,19 @@ public class ParticipantServiceImpl implements ParticipantService {
     @Override
     public ParticipantDTO save(Long projectId, ParticipantDTO participantDTO) {
         log.debug("Request to save Participant {} in project {}", participantDTO, projectId);
+        Set<Long> oldLabelIds = participantDTO.getId() == null
+            ? Collections.emptySet()
+            : new HashSet<>(participantRepository.findLabelIdsByProjectIdAndId(projectId, participantDTO.getId()));
         Participant participant = participantMapper.toEntity(participantDTO);
         participant.setProjectId(projectId);
         populateAndSaveLabels(projectId, participant);
         participant = participantRepository.save(participant);
+        saveImage(projectId, participant, participantDTO);
+        countLabels(projectId, oldLabelIds, participantBasicMapper.labelsToIds(participant.getLabels()));
+        if (participantDTO.getId() == null) {
+            projectCounterService.addParticipants(projectId, 1);
+        }
+        projectReadCaches.participants().evict(projectId);
         return participantMapper.toDto(participant);
     }
 
@@ -88,16 +128,22 @@ public class ParticipantServiceImpl implements ParticipantService {
     @Override
     public List<ParticipantDTO> saveAll(Long projectId, List<ParticipantDTO> participantDTOs) {
         log.debug("Request to save all Participants in project {}", projectId);
-        return participantRepository
+        List<Participant> participants = participantRepository
             .saveAll(
-                participantDTOs.parallelStream()
+                participantDTOs.stream()
                     .map(participantDTO -> {
                         Participant participant = participantMapper.toEntity(participantDTO);
                         participant.setProjectId(projectId);
                         return participant;
                     })
                     .collect(Collectors.toList())
-            ).parallelStream()
+            );
+        for (int i = 0; i < participants.size(); i++) {
+            saveImage(projectId, participants.get(i), participantDTOs.get(i));
+        }
+        projectCounterService.refresh(projectId);
+        projectReadCaches.participants().evict(projectId);
+        return participants.stream()
             .map(participantMapper::toDto)
             .collect(Collectors.toList());
     }
@@ -115,12 +161,90 @@ public class ParticipantServiceImpl implements ParticipantService {
     @Transactional(readOnly = true)
     public Page<ParticipantDTO> findAll(Long projectId, String search, List<Long> labels, Pageable pageable) {
         log.debug("Request to get all Participants from project {}", projectId);
-        return participantRepository.findAllByProjectId(projectId, search, labels, pageable)
-            .map(participantMapper::toDto);
+        String term = Searches.term(search);
+        Page<Participant> page = term == null
+            ? participantRepository.findAllByProjectId(projectId, labels, pageable)
+            : participantRepository.searchAllByProjectId(projectId, term, Searches.containsPattern(term), labels, pageable);
+        return page.map(participantMapper::toDto);
+    }
+
+    /**
+     * Get a page of the participants, using keyset pagination.
+     *
+     * @param projectId the ID of the project containing the participants.
+     * @param search    the search string.
+     * @param labels    the ids of the labels to filter by.
+     * @param cursor    the cursor of the page (empty for the first).
+     * @param pageable  the page size and, for the first page, the sort.
+     * @param count     whether to count all the participants matching.
+     * @return the page of entities.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ParticipantDTO> findAll(
+        Long projectId, String search, List<Long> labels, String cursor, Pageable pageable, boolean count
+    ) {
+        log.debug("Request to get a page of Participants from project {} after {}", projectId, cursor);
+        Keyset keyset = KeysetPages.keyset(cursor, pageable.getSort(), EntityNames.PARTICIPANT);
+        int size = pageable.getPageSize();
+        List<Object[]> keys = findKeys(projectId, search, labels, keyset, size + 1);
+        List<Long> ids = KeysetPages.ids(keys, size);
+
+        Map<Long, Participant> participants = new HashMap<>();
+        if (!ids.isEmpty()) {
+            participantRepository.findAllWithEagerRelationshipsByIdIn(ids)
+                .forEach(participant -> participants.put(participant.getId(), participant));
+        }
+        List<ParticipantDTO> content = ids.stream()
+            .map(participants::get)
+            .map(participantMapper::toDto)
+            .collect(Collectors.toList());
+
+        return new CursorPageDTO<>(
+            content,
+            KeysetPages.nextCursor(keyset, keys, size),
+            count ? count(projectId, search, labels) : null
+        );
     }
 
     /**
-     * Get all the participants' basic info.
+     * Find the keys (id and sort value) of a page of the participants.
+     *
+     * @param projectId the ID of the project containing the participants.
+     * @param search    the search string.
+     * @param labels    the ids of the labels to filter by.
+     * @param keyset    position of the page.
+     * @param limit     maximum number of rows.
+     * @return pairs of id and sort value.
+     */
+    private List<Object[]> findKeys(Long projectId, String search, List<Long> labels, Keyset keyset, int limit) {
+        String pattern = Searches.containsPattern(Searches.term(search));
+        List<Long> labelIds = labels == null || labels.isEmpty() ? null : labels;
+        Pageable pageable = KeysetPages.pageable(keyset, limit);
+        if (keyset.isFirst()) {
+            return KeysetPages.byId(keyset)
+                ? participantRepository.findFirstKeysById(projectId, pattern, labelIds, pageable)
+                : participantRepository.findFirstKeysByName(projectId, pattern, labelIds, pageable);
+        }
+        if (KeysetPages.byId(keyset)) {
+            return keyset.isAscending()
+                ? participantRepository.findKeysByIdAfter(projectId, pattern, labelIds, keyset.getLastId(), pageable)
+                : participantRepository.findKeysByIdBefore(projectId, pattern, labelIds, keyset.getLastId(), pageable);
+        }
+        return keyset.isAscending()
+            ? participantRepository.findKeysByNameAfter(
+                projectId, pattern, labelIds, keyset.getLastValue(), keyset.getLastId(), pageable
+            )
+            : participantRepository.findKeysByNameBefore(
+                projectId, pattern, labelIds, keyset.getLastValue(), keyset.getLastId(), pageable
+            );
+    }
+
+    /**
+     * Get all the participants' basic info. Rows and label ids are read
+     * with two projection queries, without loading any entity, and the
+     * list is cached until a write to the participants of the project (see
+     * {@link ProjectReadCaches}).
      *
      * @param projectId the ID of the project containing the participants.
      * @return the list of entities' basic info.
@@ -129,10 +253,16 @@ public class ParticipantServiceImpl implements ParticipantService {
     @Transactional(readOnly = true)
     public List<ParticipantBasicDTO> findAllBasic(Long projectId) {
         log.debug("Request to get all Participants' basic info from project {}", projectId);
-        return participantRepository.findAllByProjectId(projectId)
-            .parallelStream()
-            .map(participantBasicMapper::toDto)
-            .collect(Collectors.toList());
+        return projectReadCaches.participants().get(projectId, () -> {
+            Map<Long, Set<Long>> labelIds = new HashMap<>();
+            for (LabelLink link : participantRepository.findLabelLinksByProjectId(projectId)) {
+                labelIds.computeIfAbsent(link.getOwnerId(), id -> new HashSet<>()).add(link.getLabelId());
+            }
+            return participantRepository.findAllBasicByProjectId(projectId)
+                .stream()
+                .map(view -> participantBasicMapper.toDto(view, labelIds.getOrDefault(view.getId(), new HashSet<>())))
+                .collect(Collectors.toCollection(ArrayList::new));
+        });
     }
 
     /**
@@ -149,12 +279,14 @@ public class ParticipantServiceImpl implements ParticipantService {
     public Page<ParticipantDTO> findAllWithEagerRelationships(Long projectId, String search, List<Long> labels, Pageable pageable) {
         log.debug("Request to get all Participants with eager relationships from project {}", projectId);
         return participantRepository
-            .findAllWithEagerRelationships(projectId, search, labels, pageable)
+            .findAllWithEagerRelationships(projectId, Searches.containsPattern(Searches.term(search)), labels, pageable)
             .map(participantMapper::toDto);
     }
 
     /**
-     * Count the participants with eager load of many-to-many relationships.
+     * Count the participants. Counts without search nor labels, or with a
+     * single label, are read from the counters of the project (see
+     * {@link ProjectCounterService}); the others are queried.
      *
      * @param projectId the ID of the project containing the tasks.
      * @param search the search string.
@@ -165,7 +297,18 @@ public class ParticipantServiceImpl implements ParticipantService {
     @Transactional(readOnly = true)
     public long count(Long projectId, String search, List<Long> labels) {
         log.debug("Request to count Participants from project {}", projectId);
-        return participantRepository.count(projectId, search, labels);
+        String term = Searches.term(search);
+        if (term == null && (labels == null || labels.isEmpty())) {
+            return projectCounterService.get(projectId).getParticipants();
+        }
+        if (term == null && labels.size() == 1) {
+            return projectCounterService.get(projectId).findLabelUsage(labels.get(0))
+                .map(LabelUsageDTO::getParticipants)
+                .orElse(0L);
+        }
+        return term == null
+            ? participantRepository.count(projectId, labels)
+            : participantRepository.countSearch(projectId, Searches.containsPattern(term), labels);
     }
 
     /**
@@ -184,55 +327,72 @@ public class ParticipantServiceImpl implements ParticipantService {
     }
 
     /**
-     * Upload participants from CSV.
+     * Get the image of the "id" participant.
+     *
+     * @param projectId      the ID of the project containing the participant.
+     * @param id             the id of the participant.
+     * @param includeContent load the content of the image, or only its
+     *                       metadata?
+     * @return the image.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ParticipantImageDTO> findImage(Long projectId, Long id, boolean includeContent) {
+        log.debug("Request to get the image of Participant {} from project {}", id, projectId);
+        if (includeContent) {
+            return participantImageRepository.findByProjectIdAndParticipantId(projectId, id)
+                .map(image -> {
+                    ParticipantImageDTO dto = new ParticipantImageDTO();
+                    dto.setContentType(image.getContentType());
+                    dto.setContentLength(image.getContentLength());
+                    dto.setHash(image.getHash());
+                    dto.setContent(image.getContent());
+                    return dto;
+                });
+        }
+        return participantImageRepository.findInfoByProjectIdAndParticipantId(projectId, id)
+            .map(info -> {
+                ParticipantImageDTO dto = new ParticipantImageDTO();
+                dto.setContentType(info.getContentType());
+                dto.setContentLength(info.getContentLength());
+                dto.setHash(info.getHash());
+                return dto;
+            });
+    }
+
+    /**
+     * Upload participants from CSV. Rows are parsed and saved in chunks (see
+     * {@link ChunkedCsvImporter}).
      *
-     * @param projectId the ID of the project of the participants.
-     * @param is        {@link InputStream} the file input stream.
-     * @param sep       column separator.
-     * @param arraySep  separator for array elements.
-     * @param useHeader does the CSV include an header?
+     * @param projectId   the ID of the project of the participants.
+     * @param is          {@link InputStream} the file input stream.
+     * @param sep         column separator.
+     * @param arraySep    separator for array elements.
+     * @param useHeader   does the CSV include an header?
+     * @param includeData include the imported participants in the result?
      * @return {@link BulkImportResultDTO} response to CSV upload.
      */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BulkImportResultDTO<ParticipantDTO> importFromCsv(
-        Long projectId, InputStream is, String sep, String arraySep, boolean useHeader
+        Long projectId, InputStream is, String sep, String arraySep, boolean useHeader, boolean includeData
     ) {
         log.debug("Request to import Participants from CSV to project {}", projectId);
-        long startTime = new Date().getTime();
-        CsvReader<ParticipantCsvDTO> reader = CsvReader.fromInputStream(
-            ParticipantCsvDTO.class, is, sep, useHeader
-        );
-        List<ParticipantDTO> participantDTOs = reader.getAll().stream().map(participantCsvDTO -> {
-            try {
-                ParticipantDTO participantDTO = new ParticipantDTO();
-                participantDTO.setProjectId(projectId);
-                participantDTO.setName(participantCsvDTO.getName());
-                participantDTO.setGender(Genders.fromString(participantCsvDTO.getGender()));
-                participantDTO.setHandedness(HandwritingMeans.fromString(participantCsvDTO.getHandedness()));
-                participantDTO.setBirthdate(participantCsvDTO.getBirthdate());
-                participantDTO.setAdditionalInfo(participantCsvDTO.getAdditionalInfo());
-                if (participantCsvDTO.getLabels() != null) {
-                    participantDTO.setLabels(
-                        Arrays.stream(participantCsvDTO.getLabels().split(arraySep))
-                            .map(String::trim)
-                            .filter(name -> !name.isEmpty())
-                            .map(name -> labelService.createIfNameNotExists(projectId, name))
-                            .collect(Collectors.toSet())
-                    );
-                }
-                return participantDTO;
-            } catch (Exception e) {
-                return null;
-            }
-        }).filter(Objects::nonNull).collect(Collectors.toList());
-        List<ParticipantDTO> savedParticipantDTOs = saveAll(projectId, participantDTOs);
-        long endTime = new Date().getTime();
-        return new BulkImportResultDTO<>(
-            savedParticipantDTOs.size(),
-            reader.getExceptionLines().length + (participantDTOs.size() - savedParticipantDTOs.size()),
-            savedParticipantDTOs,
-            endTime - startTime
-        );
+        try (CsvReader<ImportRow<Participant>> reader = csvReaderFactory.open(
+            ParticipantCsvDTO.class, is, sep, useHeader, row -> participantCsvConverter.convert(projectId, row, arraySep)
+        )) {
+            return chunkedCsvImporter.importAll(
+                reader,
+                participantCsvConverter.labelTable(projectId),
+                Participant::setLabels,
+                participantRepository,
+                saved -> afterCreate(projectId, saved),
+                participantMapper::toDto,
+                includeData
+            );
+        } catch (IOException e) {
+            throw new CsvReaderException(e);
+        }
     }
 
     /**
@@ -244,7 +404,12 @@ public class ParticipantServiceImpl implements ParticipantService {
     @Override
     public void delete(Long projectId, Long id) {
         log.debug("Request to delete Participant {} from project {}", id, projectId);
-        participantRepository.deleteAllByProjectIdAndId(projectId, id);
+        List<Long> labelIds = participantRepository.findLabelIdsByProjectIdAndId(projectId, id);
+        if (participantRepository.deleteAllByProjectIdAndId(projectId, id) > 0) {
+            projectCounterService.addParticipants(projectId, -1);
+            projectCounterService.addParticipantLabels(projectId, labelIds, -1);
+        }
+        projectReadCaches.participants().evict(projectId);
     }
 
     @Override
@@ -260,6 +425,11 @@ public class ParticipantServiceImpl implements ParticipantService {
         participantDTO.setBirthdate(oldParticipantDTO.getBirthdate());
         participantDTO.setGender(oldParticipantDTO.getGender());
         participantDTO.setHandedness(oldParticipantDTO.getHandedness());
+        Optional<ParticipantImage> image = participantImageRepository.findByProjectIdAndParticipantId(projectId, id);
+        if (image.isPresent()) {
+            participantDTO.setImage(image.get().getContent());
+            participantDTO.setImageContentType(image.get().getContentType());
+        }
         if (!projectId.equals(toProjectId)) {
             if (oldParticipantDTO.getLabels() != null) {
                 participantDTO.setLabels(oldParticipantDTO.getLabels().stream().map(labelDTO -> {
@@ -279,6 +449,77 @@ public class ParticipantServiceImpl implements ParticipantService {
         return participantDTO;
     }
 
+    /**
+     * Save, keep or remove the image of a saved participant, as sent in the
+     * DTO. The content is only sent on uploads; a DTO with the hash of the
+     * current image and no content keeps it.
+     *
+     * @param projectId      the ID of the project containing the participant.
+     * @param participant    the saved participant.
+     * @param participantDTO the DTO sent.
+     */
+    private void saveImage(Long projectId, Participant participant, ParticipantDTO participantDTO) {
+        if (participantDTO.getImage() != null) {
+            byte[] content = participantDTO.getImage();
+            String hash = Hashes.sha256Hex(content);
+            participantImageRepository.save(
+                new ParticipantImage()
+                    .participantId(participant.getId())
+                    .content(content)
+                    .contentType(participantDTO.getImageContentType())
+                    .contentLength((long) content.length)
+                    .hash(hash)
+            );
+            participant.setImageHash(hash);
+            participant.setImageContentType(participantDTO.getImageContentType());
+            return;
+        }
+        Optional<ParticipantImageInfo> current = participantDTO.getId() == null
+            ? Optional.empty()
+            : participantImageRepository.findInfoByProjectIdAndParticipantId(projectId, participant.getId());
+        if (current.isPresent() && current.get().getHash().equals(participantDTO.getImageHash())) {
+            participant.setImageHash(current.get().getHash());
+            participant.setImageContentType(current.get().getContentType());
+            return;
+        }
+        current.ifPresent(info -> participantImageRepository.deleteById(participant.getId()));
+        participant.setImageHash(null);
+        participant.setImageContentType(null);
+    }
+
+    /**
+     * Count the labels added to and removed from a saved participant.
+     *
+     * @param projectId   the ID of the project containing the participant.
+     * @param oldLabelIds the IDs of the labels before saving.
+     * @param labelIds    the IDs of the labels after saving.
+     */
+    private void countLabels(Long projectId, Set<Long> oldLabelIds, Set<Long> labelIds) {
+        Set<Long> added = new HashSet<>(labelIds);
+        added.removeAll(oldLabelIds);
+        Set<Long> removed = new HashSet<>(oldLabelIds);
+        removed.removeAll(labelIds);
+        projectCounterService.addParticipantLabels(projectId, added, 1);
+        projectCounterService.addParticipantLabels(projectId, removed, -1);
+    }
+
+    /**
+     * Count new participants, and their labels, and evict the cached list of
+     * participants of the project.
+     *
+     * @param projectId    the ID of the project containing the participants.
+     * @param participants the new participants.
+     */
+    private void afterCreate(Long projectId, List<Participant> participants) {
+        projectCounterService.addParticipants(projectId, participants.size());
+        for (Participant participant: participants) {
+            projectCounterService.addParticipantLabels(
+                projectId, participantBasicMapper.labelsToIds(participant.getLabels()), 1
+            );
+        }
+        projectReadCaches.participants().evict(projectId);
+    }
+
     private void populateAndSaveLabels(Long projectId, Participant participant) {
         Set<Label> labels = new HashSet<>();
         for (Label label : participant.getLabels()) {
@@ -297,6 +538,8 @@ public class ParticipantServiceImpl implements ParticipantService {
                 labels.add(labelOpt.get().addParticipants(participant));
             } else { // new labels
                 labelRepository.save(label);
+                projectCounterService.labelCreated(projectId, label.getId());
+                projectReadCaches.labels().evict(projectId);
                 labels.add(label.addParticipants(participant));
             }
         }
@@ -0,0 +1,242 @@
+package pt.up.hs.project.service.impl;
+
+import com.hazelcast.core.HazelcastInstance;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pt.up.hs.project.repository.ProjectCounterRepository;
+import pt.up.hs.project.service.ProjectCounterService;
+import pt.up.hs.project.service.cache.ProjectReadCaches;
+import pt.up.hs.project.service.cache.ProjectVersions;
+import pt.up.hs.project.service.cache.ReadCache;
+import pt.up.hs.project.service.dto.ProjectCountsDTO;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Service Implementation for maintaining the counters of each project.
+ * <p>
+ * Changes are recorded per transaction and applied right before it
+ * commits, project by project and label by label in ascending order of ID,
+ * so the counter rows are only locked for the commit itself and always in
+ * the same order. Counts are read through a {@link ReadCache} region
+ * guarded by the versions of the projects, from which the changed projects
+ * are evicted when the changes are recorded and again after the
+ * transaction completes.
+ */
+@Service
+@Transactional
+public class ProjectCounterServiceImpl implements ProjectCounterService {
+
+    public static final String MAP_NAME = "projectCounts";
+
+    private final Logger log = LoggerFactory.getLogger(ProjectCounterServiceImpl.class);
+
+    private final ProjectCounterRepository projectCounterRepository;
+
+    private final ReadCache<Long, ProjectCountsDTO> counts;
+
+    public ProjectCounterServiceImpl(
+        ProjectCounterRepository projectCounterRepository,
+        HazelcastInstance hazelcastInstance,
+        MeterRegistry meterRegistry,
+        ProjectVersions projectVersions
+    ) {
+        this.projectCounterRepository = projectCounterRepository;
+        this.counts = ProjectReadCaches.region(MAP_NAME, hazelcastInstance, meterRegistry, projectVersions);
+    }
+
+    /**
+     * Get the counts of a project and the usage of its labels. Projects
+     * without counters are counted on the fly.
+     *
+     * @param projectId the ID of the project.
+     * @return the counts of the project.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProjectCountsDTO get(Long projectId) {
+        log.debug("Request to get the counts of project {}", projectId);
+        Changes changes = findChanges();
+        if (changes != null && changes.touches(projectId)) {
+            // changed in this transaction, hence not cached
+            changes.apply(projectId);
+            return load(projectId);
+        }
+        return counts.get(projectId, () -> load(projectId));
+    }
+
+    /**
+     * Create the (zero) counters of a new project.
+     *
+     * @param projectId the ID of the project.
+     */
+    @Override
+    public void create(Long projectId) {
+        log.debug("Request to create the counters of project {}", projectId);
+        projectCounterRepository.insert(projectId, 0, 0, 0);
+    }
+
+    @Override
+    public void addParticipants(Long projectId, long delta) {
+        if (delta != 0) {
+            changes().of(projectId).participants += delta;
+        }
+    }
+
+    @Override
+    public void addParticipantLabels(Long projectId, Collection<Long> labelIds, long delta) {
+        if (delta != 0 && !labelIds.isEmpty()) {
+            ProjectChanges projectChanges = changes().of(projectId);
+            labelIds.forEach(labelId -> projectChanges.label(labelId)[0] += delta);
+        }
+    }
+
+    @Override
+    public void addTasks(Long projectId, long delta) {
+        if (delta != 0) {
+            changes().of(projectId).tasks += delta;
+        }
+    }
+
+    @Override
+    public void addTaskLabels(Long projectId, Collection<Long> labelIds, long delta) {
+        if (delta != 0 && !labelIds.isEmpty()) {
+            ProjectChanges projectChanges = changes().of(projectId);
+            labelIds.forEach(labelId -> projectChanges.label(labelId)[1] += delta);
+        }
+    }
+
+    @Override
+    public void labelCreated(Long projectId, Long labelId) {
+        ProjectChanges projectChanges = changes().of(projectId);
+        projectChanges.labels++;
+        projectChanges.label(labelId);
+        projectChanges.createdLabels.add(labelId);
+    }
+
+    @Override
+    public void labelDeleted(Long projectId, Long labelId) {
+        ProjectChanges projectChanges = changes().of(projectId);
+        projectChanges.labels--;
+        projectChanges.label(labelId);
+        projectChanges.deletedLabels.add(labelId);
+    }
+
+    @Override
+    public void refresh(Long projectId) {
+        log.debug("Request to recount the counters of project {}", projectId);
+        changes().of(projectId).refresh = true;
+    }
+
+    private ProjectCountsDTO load(Long projectId) {
+        return projectCounterRepository.find(projectId)
+            .orElseGet(() -> projectCounterRepository.count(projectId));
+    }
+
+    private void apply(Long projectId, ProjectChanges projectChanges) {
+        if (projectChanges.refresh || !projectCounterRepository.add(
+            projectId, projectChanges.participants, projectChanges.tasks, projectChanges.labels
+        )) {
+            // bulk writes, or counters missing
+            projectCounterRepository.recount(projectId);
+            return;
+        }
+        for (Map.Entry<Long, long[]> entry: projectChanges.labelUsage.entrySet()) {
+            Long labelId = entry.getKey();
+            long[] usage = entry.getValue();
+            if (projectChanges.deletedLabels.contains(labelId)) {
+                projectCounterRepository.deleteLabel(labelId);
+            } else if (projectChanges.createdLabels.contains(labelId)) {
+                projectCounterRepository.insertLabel(labelId, projectId, usage[0], usage[1]);
+            } else if ((usage[0] != 0 || usage[1] != 0) && !projectCounterRepository.addLabel(labelId, usage[0], usage[1])) {
+                projectCounterRepository.recountLabel(labelId);
+            }
+        }
+    }
+
+    private Changes findChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization: TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Changes) {
+                return (Changes) synchronization;
+            }
+        }
+        return null;
+    }
+
+    private Changes changes() {
+        Changes changes = findChanges();
+        if (changes == null) {
+            changes = new Changes();
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        return changes;
+    }
+
+    /**
+     * Changes to the counters recorded in a transaction.
+     */
+    private class Changes extends TransactionSynchronizationAdapter {
+
+        private final SortedMap<Long, ProjectChanges> pending = new TreeMap<>();
+        private final Set<Long> touched = new HashSet<>();
+
+        ProjectChanges of(Long projectId) {
+            if (touched.add(projectId)) {
+                counts.evict(projectId);
+            }
+            return pending.computeIfAbsent(projectId, id -> new ProjectChanges());
+        }
+
+        boolean touches(Long projectId) {
+            return touched.contains(projectId);
+        }
+
+        void apply(Long projectId) {
+            ProjectChanges projectChanges = pending.remove(projectId);
+            if (projectChanges != null) {
+                ProjectCounterServiceImpl.this.apply(projectId, projectChanges);
+            }
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            while (!pending.isEmpty()) {
+                apply(pending.firstKey());
+            }
+        }
+    }
+
+    /**
+     * Changes to the counters of a project and of its labels (participants
+     * and tasks added to each label).
+     */
+    private static class ProjectChanges {
+
+        private boolean refresh = false;
+        private long participants = 0;
+        private long tasks = 0;
+        private long labels = 0;
+
+        private final SortedMap<Long, long[]> labelUsage = new TreeMap<>();
+        private final Set<Long> createdLabels = new HashSet<>();
+        private final Set<Long> deletedLabels = new HashSet<>();
+
+        long[] label(Long labelId) {
+            return labelUsage.computeIfAbsent(labelId, id -> new long[2]);
+        }
+    }
+}
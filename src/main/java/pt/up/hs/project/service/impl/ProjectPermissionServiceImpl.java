@@ -6,17 +6,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pt.up.hs.project.domain.ProjectPermission;
+import pt.up.hs.project.repository.ProjectPermissionGrant;
 import pt.up.hs.project.repository.ProjectPermissionRepository;
+import pt.up.hs.project.security.PermissionsConstants;
+import pt.up.hs.project.security.ProjectConnectionCache;
+import pt.up.hs.project.security.ProjectPermissionCache;
 import pt.up.hs.project.service.ProjectPermissionService;
 import pt.up.hs.project.service.ProjectService;
+import pt.up.hs.project.service.cache.ProjectReadCaches;
 import pt.up.hs.project.service.dto.BulkProjectPermissionDTO;
 import pt.up.hs.project.service.dto.ProjectDTO;
 import pt.up.hs.project.service.dto.ProjectPermissionDTO;
 import pt.up.hs.project.service.mapper.ProjectPermissionMapper;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -30,15 +40,24 @@ public class ProjectPermissionServiceImpl implements ProjectPermissionService {
 
     private final ProjectPermissionRepository projectPermissionRepository;
     private final ProjectPermissionMapper projectPermissionMapper;
+    private final ProjectPermissionCache projectPermissionCache;
+    private final ProjectConnectionCache projectConnectionCache;
+    private final ProjectReadCaches projectReadCaches;
 
     private ProjectService projectService;
 
     public ProjectPermissionServiceImpl(
         ProjectPermissionRepository projectPermissionRepository,
-        ProjectPermissionMapper projectPermissionMapper
+        ProjectPermissionMapper projectPermissionMapper,
+        ProjectPermissionCache projectPermissionCache,
+        ProjectConnectionCache projectConnectionCache,
+        ProjectReadCaches projectReadCaches
     ) {
         this.projectPermissionRepository = projectPermissionRepository;
         this.projectPermissionMapper = projectPermissionMapper;
+        this.projectPermissionCache = projectPermissionCache;
+        this.projectConnectionCache = projectConnectionCache;
+        this.projectReadCaches = projectReadCaches;
     }
 
     @Autowired
@@ -65,17 +84,28 @@ public class ProjectPermissionServiceImpl implements ProjectPermissionService {
         );
         bulkProjectPermissionDTO.setProjectId(projectId);
         bulkProjectPermissionDTO.setUser(user);
+        projectPermissionCache.evict(user);
+        projectReadCaches.projects().evict(projectId);
         List<ProjectPermissionDTO> projectPermissionDTOs = projectPermissionRepository
             .saveAll(
                 bulkProjectPermissionDTOToProjectPermissionDTOs(bulkProjectPermissionDTO)
-                    .parallelStream()
+                    .stream()
                     .map(projectPermissionMapper::toEntity)
                     .collect(Collectors.toList())
             )
-                .parallelStream()
+                .stream()
                 .map(projectPermissionMapper::toDto)
                 .collect(Collectors.toList());
 
+        if (projectConnectionCache.isEnabled()) {
+            projectConnectionCache.connect(
+                user,
+                projectMembers(projectId).stream()
+                    .filter(member -> !member.equalsIgnoreCase(user))
+                    .collect(Collectors.toList())
+            );
+        }
+
         return projectPermissionsToBulkProjectPermissionDTO(
             projectId, user, projectPermissionDTOs
         );
@@ -110,16 +140,9 @@ public class ProjectPermissionServiceImpl implements ProjectPermissionService {
     public List<BulkProjectPermissionDTO> findAll(String user) {
         log.debug("Request to find all permissions of user {}", user);
 
-        List<ProjectPermissionDTO> projectPermissionDTOs =
-            projectPermissionRepository.findAllByIdUser(user)
-                .parallelStream()
-                .map(projectPermissionMapper::toDto)
-                .collect(Collectors.toList());
-
-        return projectPermissionDTOs.parallelStream()
-            .collect(Collectors.groupingBy(ProjectPermissionDTO::getProjectId))
-            .entrySet().parallelStream()
-            .map(e -> projectPermissionsToBulkProjectPermissionDTO(e.getKey(), user, e.getValue()))
+        return masks(projectPermissionRepository.findGrantsByUser(user), ProjectPermissionGrant::getProjectId)
+            .entrySet().stream()
+            .map(e -> new BulkProjectPermissionDTO(user, e.getKey(), PermissionsConstants.names(e.getValue())))
             .collect(Collectors.toList());
     }
 
@@ -134,16 +157,9 @@ public class ProjectPermissionServiceImpl implements ProjectPermissionService {
     public List<BulkProjectPermissionDTO> findAll(Long projectId) {
         log.debug("Request to find all permissions in project {}", projectId);
 
-        List<ProjectPermissionDTO> projectPermissionDTOs =
-            projectPermissionRepository.findAllByIdProjectId(projectId)
-                .parallelStream()
-                .map(projectPermissionMapper::toDto)
-                .collect(Collectors.toList());
-
-        return projectPermissionDTOs.parallelStream()
-            .collect(Collectors.groupingBy(ProjectPermissionDTO::getUser))
-            .entrySet().parallelStream()
-            .map(e -> projectPermissionsToBulkProjectPermissionDTO(projectId, e.getKey(), e.getValue()))
+        return masks(projectPermissionRepository.findGrantsByProjectId(projectId), ProjectPermissionGrant::getUser)
+            .entrySet().stream()
+            .map(e -> new BulkProjectPermissionDTO(e.getKey(), projectId, PermissionsConstants.names(e.getValue())))
             .collect(Collectors.toList());
     }
 
@@ -159,13 +175,25 @@ public class ProjectPermissionServiceImpl implements ProjectPermissionService {
     public BulkProjectPermissionDTO findAll(Long projectId, String user) {
         log.debug("Request to find all permissions of user {} in project {}", user, projectId);
 
-        List<ProjectPermissionDTO> projectPermissionDTOs =
-            projectPermissionRepository.findAllByIdUserAndIdProjectId(user, projectId)
-                .parallelStream()
-                .map(projectPermissionMapper::toDto)
-                .collect(Collectors.toList());
+        int mask = masks(projectPermissionRepository.findGrantsByUserAndProjectId(user, projectId), g -> projectId)
+            .getOrDefault(projectId, PermissionsConstants.NONE_MASK);
+        return new BulkProjectPermissionDTO(user, projectId, PermissionsConstants.names(mask));
+    }
 
-        return projectPermissionsToBulkProjectPermissionDTO(projectId, user, projectPermissionDTOs);
+    /**
+     * Find all users who share at least a project with user.
+     *
+     * @param user {@link String} user login.
+     * @return {@link Set} logins of the connected users.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> findConnections(String user) {
+        log.debug("Request to find all connections of user {}", user);
+        return projectConnectionCache.get(
+            user,
+            login -> new HashSet<>(projectPermissionRepository.findConnectionsByUser(login))
+        );
     }
 
     /**
@@ -181,6 +209,9 @@ public class ProjectPermissionServiceImpl implements ProjectPermissionService {
         projectPermissionRepository.deleteAllByIdUserAndIdProjectIdAndIdPermissionNameIn(
             user, projectId, bulkProjectPermissionDTO.getPermissions()
         );
+        projectPermissionCache.evict(user);
+        projectReadCaches.projects().evict(projectId);
+        evictConnections(projectId, user);
     }
 
     /**
@@ -193,6 +224,9 @@ public class ProjectPermissionServiceImpl implements ProjectPermissionService {
     public void deleteAll(Long projectId, String user) {
         log.debug("Request to delete permissions of user {} in project {}", user, projectId);
         projectPermissionRepository.deleteAllByIdUserAndIdProjectId(user, projectId);
+        projectPermissionCache.evict(user);
+        projectReadCaches.projects().evict(projectId);
+        evictConnections(projectId, user);
     }
 
     /**
@@ -203,7 +237,11 @@ public class ProjectPermissionServiceImpl implements ProjectPermissionService {
     @Override
     public void deleteAll(Long projectId) {
         log.debug("Request to delete permissions of project {}", projectId);
+        Set<String> users = projectMembers(projectId);
         projectPermissionRepository.deleteAllByIdProjectId(projectId);
+        users.forEach(projectPermissionCache::evict);
+        projectReadCaches.projects().evict(projectId);
+        projectConnectionCache.evict(users);
     }
 
     /**
@@ -219,6 +257,54 @@ public class ProjectPermissionServiceImpl implements ProjectPermissionService {
         return project.isPresent() && Objects.equals(project.get().getOwner(), user);
     }
 
+    /**
+     * Find the users with permissions in a project.
+     *
+     * @param projectId ID of the project.
+     * @return logins of the users.
+     */
+    private Set<String> projectMembers(Long projectId) {
+        return projectPermissionRepository.findGrantsByProjectId(projectId)
+            .stream()
+            .map(ProjectPermissionGrant::getUser)
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * Evict the cached connections which may be lost when permissions of a
+     * user in a project are revoked.
+     *
+     * @param projectId ID of the project.
+     * @param user User login.
+     */
+    private void evictConnections(Long projectId, String user) {
+        if (!projectConnectionCache.isEnabled()) {
+            return;
+        }
+        Set<String> users = projectMembers(projectId);
+        users.add(user);
+        projectConnectionCache.evict(users);
+    }
+
+    /**
+     * Fold permission rows into permission masks.
+     *
+     * @param grants permission rows.
+     * @param key    function giving the key of the mask of a row.
+     * @param <K>    type of the key.
+     * @return the permission mask of each key.
+     */
+    private static <K> Map<K, Integer> masks(
+        List<ProjectPermissionGrant> grants,
+        Function<ProjectPermissionGrant, K> key
+    ) {
+        Map<K, Integer> masks = new LinkedHashMap<>();
+        for (ProjectPermissionGrant grant: grants) {
+            masks.merge(key.apply(grant), PermissionsConstants.bit(grant.getPermissionName()), (a, b) -> a | b);
+        }
+        return masks;
+    }
+
     /**
      * Convert {@link BulkProjectPermissionDTO} to list of {@link ProjectPermissionDTO}.
      *
@@ -229,7 +315,7 @@ public class ProjectPermissionServiceImpl implements ProjectPermissionService {
         BulkProjectPermissionDTO bulkProjectPermissionDTO
     ) {
         return bulkProjectPermissionDTO.getPermissions()
-            .parallelStream()
+            .stream()
             .map(permission -> {
                 ProjectPermissionDTO projectPermissionDTO = new ProjectPermissionDTO();
                 projectPermissionDTO.setUser(bulkProjectPermissionDTO.getUser());
@@ -256,7 +342,7 @@ public class ProjectPermissionServiceImpl implements ProjectPermissionService {
         bulkProjectPermissionDTO.setUser(user);
         bulkProjectPermissionDTO.setProjectId(projectId);
         bulkProjectPermissionDTO.setPermissions(
-            projectPermissionDTOs.parallelStream()
+            projectPermissionDTOs.stream()
                 .map(ProjectPermissionDTO::getPermissionName)
                 .collect(Collectors.toList())
         );
@@ -4,7 +4,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.zalando.problem.Status;
 import pt.up.hs.project.cloner.ClonerJobLauncher;
@@ -14,13 +16,18 @@ import pt.up.hs.project.domain.Project;
 import pt.up.hs.project.domain.enumeration.ProjectStatus;
 import pt.up.hs.project.repository.ProjectRepository;
 import pt.up.hs.project.security.PermissionsConstants;
+import pt.up.hs.project.security.ProjectPermissionCache;
 import pt.up.hs.project.security.SecurityUtils;
+import pt.up.hs.project.service.ProjectCounterService;
 import pt.up.hs.project.service.ProjectPermissionService;
 import pt.up.hs.project.service.ProjectService;
+import pt.up.hs.project.service.cache.ProjectReadCaches;
+import pt.up.hs.project.service.cache.ProjectVersions;
 import pt.up.hs.project.service.dto.BulkProjectPermissionDTO;
 import pt.up.hs.project.service.dto.ProjectDTO;
 import pt.up.hs.project.service.exceptions.ServiceException;
 import pt.up.hs.project.service.mapper.ProjectMapper;
+import pt.up.hs.project.utils.Searches;
 
 import java.security.Security;
 import java.util.Arrays;
@@ -43,16 +50,29 @@ public class ProjectServiceImpl implements ProjectService {
 
     private final ClonerJobLauncher clonerJobLauncher;
 
+    private final ProjectCounterService projectCounterService;
+    private final ProjectPermissionCache projectPermissionCache;
+    private final ProjectReadCaches projectReadCaches;
+    private final ProjectVersions projectVersions;
+
     private ProjectPermissionService projectPermissionService;
 
     public ProjectServiceImpl(
         ProjectRepository projectRepository,
         ProjectMapper projectMapper,
-        ClonerJobLauncher clonerJobLauncher
+        ClonerJobLauncher clonerJobLauncher,
+        ProjectCounterService projectCounterService,
+        ProjectPermissionCache projectPermissionCache,
+        ProjectReadCaches projectReadCaches,
+        ProjectVersions projectVersions
     ) {
         this.projectRepository = projectRepository;
         this.projectMapper = projectMapper;
         this.clonerJobLauncher = clonerJobLauncher;
+        this.projectCounterService = projectCounterService;
+        this.projectPermissionCache = projectPermissionCache;
+        this.projectReadCaches = projectReadCaches;
+        this.projectVersions = projectVersions;
     }
 
     @Autowired
@@ -93,6 +113,11 @@ public class ProjectServiceImpl implements ProjectService {
         }
 
         project = projectRepository.saveAndFlush(project);
+        projectReadCaches.projects().evict(project.getId());
+
+        if (projectDTO.getId() == null) {
+            projectCounterService.create(project.getId());
+        }
 
         // save project owner's permissions
         if (projectDTO.getId() == null || changed) {
@@ -126,19 +151,78 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     /**
-     * Count the projects.
+     * Search the projects with any of the given statuses whose name or
+     * description contain the search string, by relevance unless sorted.
      *
+     * @param statuses the statuses to filter by (any if {@code null} or empty).
+     * @param search   the search string (any if {@code null} or blank).
+     * @param sort     the order of the projects, which replaces the relevance.
      * @return the list of entities.
      */
     @Override
     @Transactional(readOnly = true)
+    public List<ProjectDTO> search(List<ProjectStatus> statuses, String search, Sort sort) {
+        log.debug("Request to search Projects with status {} and search {}", statuses, search);
+        String term = Searches.term(search);
+        List<ProjectStatus> statusFilter = statuses == null || statuses.isEmpty() ? null : statuses;
+        List<Project> projects = term != null && sort.isUnsorted()
+            ? projectRepository.searchAllByStatus(statusFilter, term, Searches.containsPattern(term))
+            : projectRepository.searchAllByStatus(statusFilter, Searches.containsPattern(term), sort);
+        return projects.stream()
+            .map(projectMapper::toDto)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Count the projects readable by the current user, from the cached
+     * permissions of the user (see {@link ProjectPermissionCache}).
+     *
+     * @return the number of entities.
+     */
+    @Override
+    @Transactional(readOnly = true)
     public long count() {
         log.debug("Request to count Projects");
-        return projectRepository.count();
+        return SecurityUtils.getCurrentUserLogin()
+            .map(login -> projectPermissionCache.countProjects(login, PermissionsConstants.READ))
+            .orElseGet(projectRepository::count);
+    }
+
+    /**
+     * Count the projects with any of the given statuses whose name or
+     * description contain the search string.
+     *
+     * @param statuses the statuses to filter by (any if {@code null} or empty).
+     * @param search   the search string (any if {@code null} or blank).
+     * @return the number of entities.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long countSearch(List<ProjectStatus> statuses, String search) {
+        log.debug("Request to count Projects with status {} and search {}", statuses, search);
+        return projectRepository.countSearch(
+            statuses == null || statuses.isEmpty() ? null : statuses,
+            Searches.containsPattern(Searches.term(search))
+        );
+    }
+
+    /**
+     * Get the tag of the projects readable by the current user, from the
+     * cached permissions of the user and the versions of the projects (see
+     * {@link ProjectVersions}), without reading the projects.
+     *
+     * @return the tag of the projects, if there is a current user.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<String> findAllTag() {
+        return SecurityUtils.getCurrentUserLogin()
+            .map(login -> projectVersions.tag(projectPermissionCache.findProjects(login, PermissionsConstants.READ)));
     }
 
     /**
-     * Get one project by id.
+     * Get one project by id, cached until the project is saved or deleted
+     * (see {@link ProjectReadCaches}).
      *
      * @param id the id of the entity.
      * @return the entity.
@@ -147,8 +231,9 @@ public class ProjectServiceImpl implements ProjectService {
     @Transactional(readOnly = true)
     public Optional<ProjectDTO> findOne(Long id) {
         log.debug("Request to get Project : {}", id);
-        return projectRepository.findById(id)
-            .map(projectMapper::toDto);
+        return Optional.ofNullable(projectReadCaches.projects().get(
+            id, () -> projectRepository.findById(id).map(projectMapper::toDto).orElse(null)
+        ));
     }
 
     /**
@@ -162,6 +247,7 @@ public class ProjectServiceImpl implements ProjectService {
         log.debug("Request to delete Project : {}", id);
 
         Optional<Project> projectOptional = projectRepository.findById(id);
+        projectReadCaches.projects().evict(id);
 
         return projectOptional.flatMap(project -> Optional.of(projectRepository.saveAndFlush(
             project.status(ProjectStatus.DISCARDED)
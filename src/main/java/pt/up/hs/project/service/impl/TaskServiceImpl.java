@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.zalando.problem.Status;
 import pt.up.hs.project.constants.EntityNames;
@@ -12,18 +13,31 @@ import pt.up.hs.project.constants.ErrorKeys;
 import pt.up.hs.project.domain.Label;
 import pt.up.hs.project.domain.Task;
 import pt.up.hs.project.repository.LabelRepository;
+import pt.up.hs.project.repository.LabelLink;
 import pt.up.hs.project.repository.TaskRepository;
+import pt.up.hs.project.service.ProjectCounterService;
+import pt.up.hs.project.service.cache.ProjectReadCaches;
 import pt.up.hs.project.service.TaskService;
 import pt.up.hs.project.service.dto.BulkImportResultDTO;
+import pt.up.hs.project.service.dto.CursorPageDTO;
+import pt.up.hs.project.service.dto.LabelUsageDTO;
 import pt.up.hs.project.service.dto.TaskBasicDTO;
 import pt.up.hs.project.service.dto.TaskDTO;
 import pt.up.hs.project.service.exceptions.ServiceException;
+import pt.up.hs.project.service.importer.ChunkedCsvImporter;
+import pt.up.hs.project.service.importer.CsvReaderFactory;
+import pt.up.hs.project.service.importer.ImportRow;
+import pt.up.hs.project.service.importer.converters.TaskCsvConverter;
 import pt.up.hs.project.service.importer.dto.TaskCsvDTO;
+import pt.up.hs.project.service.importer.exception.CsvReaderException;
 import pt.up.hs.project.service.importer.reader.CsvReader;
 import pt.up.hs.project.service.mapper.LabelMapper;
 import pt.up.hs.project.service.mapper.TaskBasicMapper;
 import pt.up.hs.project.service.mapper.TaskMapper;
+import pt.up.hs.project.utils.Keyset;
+import pt.up.hs.project.utils.Searches;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -44,18 +58,34 @@ public class TaskServiceImpl implements TaskService {
     private final LabelRepository labelRepository;
     private final LabelMapper labelMapper;
 
+    private final ProjectCounterService projectCounterService;
+    private final ProjectReadCaches projectReadCaches;
+    private final CsvReaderFactory csvReaderFactory;
+    private final ChunkedCsvImporter chunkedCsvImporter;
+    private final TaskCsvConverter taskCsvConverter;
+
     public TaskServiceImpl(
         TaskRepository taskRepository,
         TaskMapper taskMapper,
         TaskBasicMapper taskBasicMapper,
         LabelRepository labelRepository,
-        LabelMapper labelMapper
+        LabelMapper labelMapper,
+        ProjectCounterService projectCounterService,
+        ProjectReadCaches projectReadCaches,
+        CsvReaderFactory csvReaderFactory,
+        ChunkedCsvImporter chunkedCsvImporter,
+        TaskCsvConverter taskCsvConverter
     ) {
         this.taskRepository = taskRepository;
         this.taskMapper = taskMapper;
         this.taskBasicMapper = taskBasicMapper;
         this.labelRepository = labelRepository;
         this.labelMapper = labelMapper;
+        this.projectCounterService = projectCounterService;
+        this.projectReadCaches = projectReadCaches;
+        this.csvReaderFactory = csvReaderFactory;
+        this.chunkedCsvImporter = chunkedCsvImporter;
+        this.taskCsvConverter = taskCsvConverter;
     }
 
     /**
@@ -68,10 +98,18 @@ public class TaskServiceImpl implements TaskService {
     @Override
     public TaskDTO save(Long projectId, TaskDTO taskDTO) {
         log.debug("Request to save Task {} from project {}", taskDTO, projectId);
+        Set<Long> oldLabelIds = taskDTO.getId() == null
+            ? Collections.emptySet()
+            : new HashSet<>(taskRepository.findLabelIdsByProjectIdAndId(projectId, taskDTO.getId()));
         Task task = taskMapper.toEntity(taskDTO);
         task.setProjectId(projectId);
         populateAndSaveLabels(projectId, task);
         task = taskRepository.save(task);
+        countLabels(projectId, oldLabelIds, taskBasicMapper.labelsToIds(task.getLabels()));
+        if (taskDTO.getId() == null) {
+            projectCounterService.addTasks(projectId, 1);
+        }
+        projectReadCaches.tasks().evict(projectId);
         return taskMapper.toDto(task);
     }
 
@@ -85,9 +123,9 @@ public class TaskServiceImpl implements TaskService {
     @Override
     public List<TaskDTO> saveAll(Long projectId, List<TaskDTO> taskDTOs) {
         log.debug("Request to save all Tasks in project {}", projectId);
-        return taskRepository
+        List<Task> tasks = taskRepository
             .saveAll(
-                taskDTOs.parallelStream()
+                taskDTOs.stream()
                     .map(taskDTO -> {
                         Task task = taskMapper.toEntity(taskDTO);
                         task.setProjectId(projectId);
@@ -95,13 +133,19 @@ public class TaskServiceImpl implements TaskService {
                         return task;
                     })
                     .collect(Collectors.toList())
-            ).parallelStream()
+            );
+        projectCounterService.refresh(projectId);
+        projectReadCaches.tasks().evict(projectId);
+        return tasks.stream()
             .map(taskMapper::toDto)
             .collect(Collectors.toList());
     }
 
     /**
-     * Get all the tasks' basic info.
+     * Get all the tasks' basic info. Rows and label ids are read
+     * with two projection queries, without loading any entity, and the
+     * list is cached until a write to the tasks of the project (see
+     * {@link ProjectReadCaches}).
      *
      * @param projectId the ID of the project containing the tasks.
      * @return the list of entities' basic info.
@@ -110,10 +154,16 @@ public class TaskServiceImpl implements TaskService {
     @Transactional(readOnly = true)
     public List<TaskBasicDTO> findAllBasic(Long projectId) {
         log.debug("Request to get all Tasks' basic info from project {}", projectId);
-        return taskRepository.findAllByProjectId(projectId)
-            .parallelStream()
-            .map(taskBasicMapper::toDto)
-            .collect(Collectors.toList());
+        return projectReadCaches.tasks().get(projectId, () -> {
+            Map<Long, Set<Long>> labelIds = new HashMap<>();
+            for (LabelLink link : taskRepository.findLabelLinksByProjectId(projectId)) {
+                labelIds.computeIfAbsent(link.getOwnerId(), id -> new HashSet<>()).add(link.getLabelId());
+            }
+            return taskRepository.findAllBasicByProjectId(projectId)
+                .stream()
+                .map(view -> taskBasicMapper.toDto(view, labelIds.getOrDefault(view.getId(), new HashSet<>())))
+                .collect(Collectors.toCollection(ArrayList::new));
+        });
     }
 
     /**
@@ -129,8 +179,83 @@ public class TaskServiceImpl implements TaskService {
     @Transactional(readOnly = true)
     public Page<TaskDTO> findAll(Long projectId, String search, List<Long> labels, Pageable pageable) {
         log.debug("Request to get all Tasks from project {}", projectId);
-        return taskRepository.findAllByProjectId(projectId, search, labels, pageable)
-            .map(taskMapper::toDto);
+        String term = Searches.term(search);
+        Page<Task> page = term == null
+            ? taskRepository.findAllByProjectId(projectId, labels, pageable)
+            : taskRepository.searchAllByProjectId(projectId, term, Searches.containsPattern(term), labels, pageable);
+        return page.map(taskMapper::toDto);
+    }
+
+    /**
+     * Get a page of the tasks, using keyset pagination.
+     *
+     * @param projectId the ID of the project containing the tasks.
+     * @param search    the search string.
+     * @param labels    the ids of the labels to filter by.
+     * @param cursor    the cursor of the page (empty for the first).
+     * @param pageable  the page size and, for the first page, the sort.
+     * @param count     whether to count all the tasks matching.
+     * @return the page of entities.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskDTO> findAll(
+        Long projectId, String search, List<Long> labels, String cursor, Pageable pageable, boolean count
+    ) {
+        log.debug("Request to get a page of Tasks from project {} after {}", projectId, cursor);
+        Keyset keyset = KeysetPages.keyset(cursor, pageable.getSort(), EntityNames.TASK);
+        int size = pageable.getPageSize();
+        List<Object[]> keys = findKeys(projectId, search, labels, keyset, size + 1);
+        List<Long> ids = KeysetPages.ids(keys, size);
+
+        Map<Long, Task> tasks = new HashMap<>();
+        if (!ids.isEmpty()) {
+            taskRepository.findAllWithEagerRelationshipsByIdIn(ids)
+                .forEach(task -> tasks.put(task.getId(), task));
+        }
+        List<TaskDTO> content = ids.stream()
+            .map(tasks::get)
+            .map(taskMapper::toDto)
+            .collect(Collectors.toList());
+
+        return new CursorPageDTO<>(
+            content,
+            KeysetPages.nextCursor(keyset, keys, size),
+            count ? count(projectId, search, labels) : null
+        );
+    }
+
+    /**
+     * Find the keys (id and sort value) of a page of the tasks.
+     *
+     * @param projectId the ID of the project containing the tasks.
+     * @param search    the search string.
+     * @param labels    the ids of the labels to filter by.
+     * @param keyset    position of the page.
+     * @param limit     maximum number of rows.
+     * @return pairs of id and sort value.
+     */
+    private List<Object[]> findKeys(Long projectId, String search, List<Long> labels, Keyset keyset, int limit) {
+        String pattern = Searches.containsPattern(Searches.term(search));
+        List<Long> labelIds = labels == null || labels.isEmpty() ? null : labels;
+        Pageable pageable = KeysetPages.pageable(keyset, limit);
+        if (keyset.isFirst()) {
+            return KeysetPages.byId(keyset)
+                ? taskRepository.findFirstKeysById(projectId, pattern, labelIds, pageable)
+                : taskRepository.findFirstKeysByName(projectId, pattern, labelIds, pageable);
+        }
+        if (KeysetPages.byId(keyset)) {
+            return keyset.isAscending()
+                ? taskRepository.findKeysByIdAfter(projectId, pattern, labelIds, keyset.getLastId(), pageable)
+                : taskRepository.findKeysByIdBefore(projectId, pattern, labelIds, keyset.getLastId(), pageable);
+        }
+        return keyset.isAscending()
+            ? taskRepository.findKeysByNameAfter(
+                projectId, pattern, labelIds, keyset.getLastValue(), keyset.getLastId(), pageable
+            )
+            : taskRepository.findKeysByNameBefore(
+                projectId, pattern, labelIds, keyset.getLastValue(), keyset.getLastId(), pageable
+            );
     }
 
     /**
@@ -147,12 +272,14 @@ public class TaskServiceImpl implements TaskService {
     public Page<TaskDTO> findAllWithEagerRelationships(Long projectId, String search, List<Long> labels, Pageable pageable) {
         log.debug("Request to get all Tasks with eager relationships from project {}", projectId);
         return taskRepository
-            .findAllWithEagerRelationships(projectId, search, labels, pageable)
+            .findAllWithEagerRelationships(projectId, Searches.containsPattern(Searches.term(search)), labels, pageable)
             .map(taskMapper::toDto);
     }
 
     /**
-     * Count the tasks with eager load of many-to-many relationships.
+     * Count the tasks. Counts without search nor labels, or with a single
+     * label, are read from the counters of the project (see
+     * {@link ProjectCounterService}); the others are queried.
      *
      * @param projectId the ID of the project containing the tasks.
      * @param search    the search string.
@@ -163,7 +290,18 @@ public class TaskServiceImpl implements TaskService {
     @Transactional(readOnly = true)
     public long count(Long projectId, String search, List<Long> labels) {
         log.debug("Request to count Tasks from project {}", projectId);
-        return taskRepository.count(projectId, search, labels);
+        String term = Searches.term(search);
+        if (term == null && (labels == null || labels.isEmpty())) {
+            return projectCounterService.get(projectId).getTasks();
+        }
+        if (term == null && labels.size() == 1) {
+            return projectCounterService.get(projectId).findLabelUsage(labels.get(0))
+                .map(LabelUsageDTO::getTasks)
+                .orElse(0L);
+        }
+        return term == null
+            ? taskRepository.count(projectId, labels)
+            : taskRepository.countSearch(projectId, Searches.containsPattern(term), labels);
     }
 
     /**
@@ -182,70 +320,38 @@ public class TaskServiceImpl implements TaskService {
     }
 
     /**
-     * Upload tasks from CSV.
+     * Upload tasks from CSV. Rows are parsed and saved in chunks (see
+     * {@link ChunkedCsvImporter}).
      *
-     * @param projectId the ID of the project of the tasks.
-     * @param is        {@link InputStream} the file input stream.
-     * @param sep       column separator.
-     * @param arraySep  separator for array elements.
-     * @param useHeader does the CSV include an header?
+     * @param projectId   the ID of the project of the tasks.
+     * @param is          {@link InputStream} the file input stream.
+     * @param sep         column separator.
+     * @param arraySep    separator for array elements.
+     * @param useHeader   does the CSV include an header?
+     * @param includeData include the imported tasks in the result?
      * @return {@link BulkImportResultDTO} response to CSV upload.
      */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BulkImportResultDTO<TaskDTO> importFromCsv(
-        Long projectId, InputStream is, String sep, String arraySep, boolean useHeader
+        Long projectId, InputStream is, String sep, String arraySep, boolean useHeader, boolean includeData
     ) {
         log.debug("Request to import Tasks from CSV to project {}", projectId);
-
-        long startTime = new Date().getTime();
-
-        CsvReader<TaskCsvDTO> reader = CsvReader.fromInputStream(
-            TaskCsvDTO.class, is, sep, useHeader
-        );
-
-        List<Task> tasks = reader.getAll().stream().map(taskCsv -> {
-            try {
-                Task task = new Task();
-                task.setProjectId(projectId);
-                task.setName(taskCsv.getName());
-                task.setStartDate(taskCsv.getStartDate());
-                task.setEndDate(taskCsv.getEndDate());
-                task.setDescription(taskCsv.getDescription());
-                if (taskCsv.getLabels() != null) {
-                    task.setLabels(
-                        Arrays.stream(taskCsv.getLabels().split(arraySep))
-                            .map(String::trim)
-                            .filter(name -> !name.isEmpty())
-                            .map(name -> {
-                                Optional<Label> labelOpt = labelRepository.findByProjectIdAndName(projectId, name);
-                                if (labelOpt.isPresent()) {
-                                    return labelOpt.get();
-                                } else {
-                                    Label label = new Label();
-                                    label.setProjectId(projectId);
-                                    label.setName(name);
-                                    return labelRepository.saveAndFlush(label);
-                                }
-                            })
-                            .collect(Collectors.toSet())
-                    );
-                }
-                return task;
-            } catch (Exception e) {
-                return null;
-            }
-        }).filter(Objects::nonNull).collect(Collectors.toList());
-
-        List<Task> savedTasks = taskRepository.saveAll(tasks);
-
-        long endTime = new Date().getTime();
-
-        return new BulkImportResultDTO<>(
-            savedTasks.size(),
-            reader.getExceptionLines().length + (tasks.size() - savedTasks.size()),
-            savedTasks.parallelStream().map(taskMapper::toDto).collect(Collectors.toList()),
-            endTime - startTime
-        );
+        try (CsvReader<ImportRow<Task>> reader = csvReaderFactory.open(
+            TaskCsvDTO.class, is, sep, useHeader, row -> taskCsvConverter.convert(projectId, row, arraySep)
+        )) {
+            return chunkedCsvImporter.importAll(
+                reader,
+                taskCsvConverter.labelTable(projectId),
+                Task::setLabels,
+                taskRepository,
+                saved -> afterCreate(projectId, saved),
+                taskMapper::toDto,
+                includeData
+            );
+        } catch (IOException e) {
+            throw new CsvReaderException(e);
+        }
     }
 
     /**
@@ -260,9 +366,13 @@ public class TaskServiceImpl implements TaskService {
         Optional<Task> taskOpt = taskRepository.findByProjectIdAndId(projectId, id);
         if (taskOpt.isPresent()) {
             Task task = taskOpt.get();
-            task.getLabels().parallelStream().forEach(task::removeLabels);
+            projectCounterService.addTasks(projectId, -1);
+            projectCounterService.addTaskLabels(projectId, taskBasicMapper.labelsToIds(task.getLabels()), -1);
+            // iterate over a copy, as removing updates the collection
+            new ArrayList<>(task.getLabels()).forEach(task::removeLabels);
         }
         taskRepository.deleteByProjectIdAndId(projectId, id);
+        projectReadCaches.tasks().evict(projectId);
     }
 
     @Override
@@ -289,6 +399,37 @@ public class TaskServiceImpl implements TaskService {
         return taskDTO;
     }
 
+    /**
+     * Count the labels added to and removed from a saved task.
+     *
+     * @param projectId   the ID of the project containing the task.
+     * @param oldLabelIds the IDs of the labels before saving.
+     * @param labelIds    the IDs of the labels after saving.
+     */
+    private void countLabels(Long projectId, Set<Long> oldLabelIds, Set<Long> labelIds) {
+        Set<Long> added = new HashSet<>(labelIds);
+        added.removeAll(oldLabelIds);
+        Set<Long> removed = new HashSet<>(oldLabelIds);
+        removed.removeAll(labelIds);
+        projectCounterService.addTaskLabels(projectId, added, 1);
+        projectCounterService.addTaskLabels(projectId, removed, -1);
+    }
+
+    /**
+     * Count new tasks, and their labels, and evict the cached list of
+     * tasks of the project.
+     *
+     * @param projectId the ID of the project containing the tasks.
+     * @param tasks     the new tasks.
+     */
+    private void afterCreate(Long projectId, List<Task> tasks) {
+        projectCounterService.addTasks(projectId, tasks.size());
+        for (Task task: tasks) {
+            projectCounterService.addTaskLabels(projectId, taskBasicMapper.labelsToIds(task.getLabels()), 1);
+        }
+        projectReadCaches.tasks().evict(projectId);
+    }
+
     private void populateAndSaveLabels(Long projectId, Task task) {
         Set<Label> labels = new HashSet<>();
         for (Label label : task.getLabels()) {
@@ -307,6 +448,8 @@ public class TaskServiceImpl implements TaskService {
                 labels.add(labelOpt.get().addTasks(task));
             } else { // new labels
                 labelRepository.save(label);
+                projectCounterService.labelCreated(projectId, label.getId());
+                projectReadCaches.labels().evict(projectId);
                 labels.add(label.addTasks(task));
             }
         }
@@ -0,0 +1,133 @@
+package pt.up.hs.project.service.importer;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pt.up.hs.project.config.ApplicationProperties;
+import pt.up.hs.project.domain.Label;
+import pt.up.hs.project.repository.CustomRepository;
+import pt.up.hs.project.service.dto.BulkImportResultDTO;
+import pt.up.hs.project.service.importer.reader.CsvReader;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Imports the rows of a {@link CsvReader} in chunks of bounded size.
+ * <p>
+ * Rows arrive already parsed and validated (see {@link CsvReaderFactory}),
+ * in the order of the file. Each chunk has its labels resolved in bulk, and
+ * is saved, flushed and cleared from the persistence context in its own
+ * transaction (or in the caller's, if there is one), so memory stays flat
+ * regardless of the size of the file.
+ */
+@Component
+public class ChunkedCsvImporter {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public ChunkedCsvImporter(
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = applicationProperties.getImporter().getChunkSize();
+    }
+
+    /**
+     * Import all rows of a CSV file.
+     *
+     * @param reader      the CSV reader of the converted rows.
+     * @param labelTable  the label table of the import.
+     * @param labelSetter setter of the labels of an entity.
+     * @param repository  repository of the entities.
+     * @param onSaved     callback with the entities saved in each chunk,
+     *                    within the transaction of the chunk.
+     * @param mapper      mapper of a saved entity into a DTO.
+     * @param includeData include the DTOs of the saved entities in the
+     *                    result? They are held in memory until the end.
+     * @param <E>         type of the entities.
+     * @param <D>         type of the DTOs.
+     * @return {@link BulkImportResultDTO} result of the import.
+     */
+    public <E, D extends Serializable> BulkImportResultDTO<D> importAll(
+        CsvReader<ImportRow<E>> reader,
+        LabelTable labelTable,
+        BiConsumer<E, Set<Label>> labelSetter,
+        CustomRepository<E, Long> repository,
+        Consumer<List<E>> onSaved,
+        Function<E, D> mapper,
+        boolean includeData
+    ) {
+        long startTime = new Date().getTime();
+        Chunks<E, D> chunks = new Chunks<>(labelTable, labelSetter, repository, onSaved, mapper, includeData);
+        List<ImportRow<E>> rows = new ArrayList<>(chunkSize);
+        for (ImportRow<E> row : reader) {
+            rows.add(row);
+            if (rows.size() >= chunkSize) {
+                chunks.write(rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            chunks.write(rows);
+        }
+        long endTime = new Date().getTime();
+        return new BulkImportResultDTO<>(
+            chunks.saved,
+            reader.getExceptionLines().length,
+            includeData ? chunks.data : null,
+            endTime - startTime
+        );
+    }
+
+    private class Chunks<E, D extends Serializable> {
+
+        private final LabelTable labelTable;
+        private final BiConsumer<E, Set<Label>> labelSetter;
+        private final CustomRepository<E, Long> repository;
+        private final Consumer<List<E>> onSaved;
+        private final Function<E, D> mapper;
+        private final List<D> data;
+
+        private int saved = 0;
+
+        Chunks(
+            LabelTable labelTable,
+            BiConsumer<E, Set<Label>> labelSetter,
+            CustomRepository<E, Long> repository,
+            Consumer<List<E>> onSaved,
+            Function<E, D> mapper,
+            boolean includeData
+        ) {
+            this.labelTable = labelTable;
+            this.labelSetter = labelSetter;
+            this.repository = repository;
+            this.onSaved = onSaved;
+            this.mapper = mapper;
+            this.data = includeData ? new ArrayList<>() : null;
+        }
+
+        void write(List<ImportRow<E>> rows) {
+            transactionTemplate.execute(status -> {
+                List<E> savedEntities = repository.saveAll(labelTable.attach(rows, labelSetter));
+                onSaved.accept(savedEntities);
+                if (data != null) {
+                    for (E entity : savedEntities) {
+                        data.add(mapper.apply(entity));
+                    }
+                }
+                saved += savedEntities.size();
+                repository.refresh();
+                return null;
+            });
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package pt.up.hs.project.service.importer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import pt.up.hs.project.config.ApplicationProperties;
+import pt.up.hs.project.service.importer.exception.CsvReaderException;
+import pt.up.hs.project.service.importer.reader.CsvReader;
+
+import javax.annotation.PreDestroy;
+import java.io.InputStream;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+
+/**
+ * Factory of the {@link CsvReader}s of imports. Rows are parsed and
+ * validated in blocks on a bounded pool of threads, shared by all imports,
+ * while the importing thread splits the file and writes the rows in order.
+ * <p>
+ * Each reader keeps at most two blocks per thread in flight. When the pool
+ * is saturated by concurrent imports, blocks are parsed by the importing
+ * thread itself. Once the pool is shut down, blocks are rejected (as with
+ * {@link ThreadPoolExecutor.AbortPolicy}), which fails the imports still
+ * reading instead of leaving them waiting for blocks that never run.
+ * <p>
+ * This is the only pool for fan-outs on request paths (collections of a
+ * request are small, and processed sequentially). Its activity, queue and
+ * task durations are published as the {@code executor} metrics tagged
+ * {@code name=importer.parser}.
+ */
+@Component
+public class CsvReaderFactory {
+
+    public static final String EXECUTOR_NAME = "importer.parser";
+
+    private final ThreadPoolTaskExecutor taskExecutor;
+    private final Executor executor;
+    private final int blockSize;
+    private final int maxBlocksInFlight;
+
+    public CsvReaderFactory(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Importer importer = applicationProperties.getImporter();
+        int concurrency = importer.getParseConcurrency() > 0
+            ? importer.getParseConcurrency()
+            : Runtime.getRuntime().availableProcessors();
+        this.taskExecutor = new ThreadPoolTaskExecutor();
+        this.taskExecutor.setCorePoolSize(concurrency);
+        this.taskExecutor.setMaxPoolSize(concurrency);
+        this.taskExecutor.setQueueCapacity(2 * concurrency);
+        this.taskExecutor.setRejectedExecutionHandler(CsvReaderFactory::rejectedExecution);
+        this.taskExecutor.setThreadNamePrefix("importer-parser-");
+        this.taskExecutor.initialize();
+        this.executor = ExecutorServiceMetrics.monitor(
+            meterRegistry, this.taskExecutor.getThreadPoolExecutor(), EXECUTOR_NAME, Tags.empty()
+        );
+        this.blockSize = importer.getParseBlockSize();
+        this.maxBlocksInFlight = 2 * concurrency;
+    }
+
+    /**
+     * Run a rejected block on the submitting thread while the pool is
+     * saturated, and abort it once the pool is shut down.
+     *
+     * @param r        the rejected block.
+     * @param executor the pool.
+     */
+    private static void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            new ThreadPoolExecutor.AbortPolicy().rejectedExecution(r, executor);
+        } else {
+            r.run();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        taskExecutor.shutdown();
+    }
+
+    /**
+     * Open a reader of a CSV file.
+     *
+     * @param beanClass   class of the beans of the rows.
+     * @param is          {@link InputStream} the file input stream.
+     * @param sep         column separator.
+     * @param useHeader   does the CSV include an header?
+     * @param transformer validation and conversion of each row (must be
+     *                    thread-safe).
+     * @param <B>         type of the beans of the rows.
+     * @param <T>         type of the converted rows.
+     * @return the reader.
+     * @throws CsvReaderException if the header cannot be read.
+     */
+    public <B, T> CsvReader<T> open(
+        Class<B> beanClass, InputStream is, String sep, boolean useHeader,
+        Function<? super B, ? extends T> transformer
+    ) throws CsvReaderException {
+        return CsvReader.fromInputStream(
+            beanClass, is, sep, useHeader, transformer, executor, blockSize, maxBlocksInFlight
+        );
+    }
+}
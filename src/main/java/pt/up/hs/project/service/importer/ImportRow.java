@@ -0,0 +1,37 @@
+package pt.up.hs.project.service.importer;
+
+import java.util.Set;
+
+/**
+ * An entity converted from a CSV row, together with the names of its
+ * labels, which are only resolved when the entity is written (see
+ * {@link LabelTable#attach(java.util.List, java.util.function.BiConsumer)}).
+ *
+ * @param <E> type of the entity.
+ */
+public class ImportRow<E> {
+
+    private final E entity;
+    private final Set<String> labelNames;
+
+    public ImportRow(E entity, Set<String> labelNames) {
+        this.entity = entity;
+        this.labelNames = labelNames;
+    }
+
+    public E getEntity() {
+        return entity;
+    }
+
+    public Set<String> getLabelNames() {
+        return labelNames;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportRow{" +
+            "entity=" + entity +
+            ", labelNames=" + labelNames +
+            "}";
+    }
+}
@@ -0,0 +1,168 @@
+package pt.up.hs.project.service.importer;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pt.up.hs.project.domain.Label;
+import pt.up.hs.project.repository.LabelRepository;
+import pt.up.hs.project.service.ProjectCounterService;
+import pt.up.hs.project.service.cache.ProjectReadCaches;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Table of the labels of a project, by name, used while importing. Names
+ * are resolved in bulk (see {@link #resolve(Collection)}): those not seen
+ * before are looked up with a single query, and those which do not exist
+ * are created in a single batch. Rows are then mapped in memory.
+ * <p>
+ * Label names are split and validated with the rest of the row (see
+ * {@link #names(String, String)}), and only resolved when the rows are
+ * written (see {@link #attach(List, BiConsumer)}).
+ * <p>
+ * A table belongs to a single import, and it is not thread-safe.
+ */
+public class LabelTable {
+
+    private static final int MAX_NAME_LENGTH = 50;
+
+    private final LabelRepository labelRepository;
+    private final ProjectCounterService projectCounterService;
+    private final ProjectReadCaches projectReadCaches;
+    private final Long projectId;
+
+    private final Map<String, Label> labels = new HashMap<>();
+
+    public LabelTable(
+        LabelRepository labelRepository,
+        ProjectCounterService projectCounterService,
+        ProjectReadCaches projectReadCaches,
+        Long projectId
+    ) {
+        this.labelRepository = labelRepository;
+        this.projectCounterService = projectCounterService;
+        this.projectReadCaches = projectReadCaches;
+        this.projectId = projectId;
+    }
+
+    /**
+     * Split a list of label names.
+     *
+     * @param names    the list of label names (may be {@code null}).
+     * @param arraySep separator of the names.
+     * @return the distinct, trimmed, non-empty names, in order.
+     */
+    public static Set<String> split(String names, String arraySep) {
+        if (names == null) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(names.split(arraySep))
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Split and validate a list of label names.
+     *
+     * @param names    the list of label names (may be {@code null}).
+     * @param arraySep separator of the names.
+     * @return the distinct, trimmed, non-empty names, in order.
+     * @throws IllegalArgumentException if a name is not a valid label name.
+     */
+    public static Set<String> names(String names, String arraySep) {
+        Set<String> result = split(names, arraySep);
+        for (String name : result) {
+            if (name.length() > MAX_NAME_LENGTH) {
+                throw new IllegalArgumentException("Invalid label name: " + name);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resolve label names, creating the labels which do not exist yet. If
+     * the transaction in which labels are created rolls back, they are
+     * forgotten.
+     *
+     * @param names the label names.
+     */
+    public void resolve(Collection<String> names) {
+        Set<String> missing = names.stream()
+            .filter(name -> !labels.containsKey(name))
+            .collect(Collectors.toSet());
+        if (missing.isEmpty()) {
+            return;
+        }
+        for (Label label : labelRepository.findAllByProjectIdAndNameIn(projectId, missing)) {
+            labels.putIfAbsent(label.getName(), label);
+        }
+        List<Label> created = missing.stream()
+            .filter(name -> !labels.containsKey(name) && name.length() <= MAX_NAME_LENGTH)
+            .map(name -> new Label().name(name).projectId(projectId))
+            .collect(Collectors.toList());
+        if (created.isEmpty()) {
+            return;
+        }
+        for (Label label : labelRepository.saveAll(created)) {
+            labels.put(label.getName(), label);
+            projectCounterService.labelCreated(projectId, label.getId());
+        }
+        projectReadCaches.labels().evict(projectId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        created.forEach(label -> labels.remove(label.getName()));
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Get the labels with the given names, resolving them if needed.
+     *
+     * @param names the label names.
+     * @return the labels.
+     * @throws IllegalArgumentException if a name is not a valid label name.
+     */
+    public Set<Label> get(Collection<String> names) {
+        resolve(names);
+        Set<Label> result = new HashSet<>();
+        for (String name : names) {
+            Label label = labels.get(name);
+            if (label == null) {
+                throw new IllegalArgumentException("Invalid label name: " + name);
+            }
+            result.add(label);
+        }
+        return result;
+    }
+
+    /**
+     * Resolve the labels of converted rows in bulk, and set them on their
+     * entities.
+     *
+     * @param rows        the converted rows.
+     * @param labelSetter setter of the labels of an entity.
+     * @param <E>         type of the entities.
+     * @return the entities, in order.
+     * @throws IllegalArgumentException if a name is not a valid label name.
+     */
+    public <E> List<E> attach(List<ImportRow<E>> rows, BiConsumer<E, Set<Label>> labelSetter) {
+        Set<String> names = new LinkedHashSet<>();
+        for (ImportRow<E> row : rows) {
+            names.addAll(row.getLabelNames());
+        }
+        resolve(names);
+        List<E> entities = new ArrayList<>(rows.size());
+        for (ImportRow<E> row : rows) {
+            labelSetter.accept(row.getEntity(), get(row.getLabelNames()));
+            entities.add(row.getEntity());
+        }
+        return entities;
+    }
+}
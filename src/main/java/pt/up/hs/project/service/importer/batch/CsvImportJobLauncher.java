@@ -0,0 +1,101 @@
+package pt.up.hs.project.service.importer.batch;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.launch.support.SimpleJobLauncher;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import pt.up.hs.project.config.ApplicationProperties;
+
+import javax.annotation.Nonnull;
+import javax.annotation.PreDestroy;
+import java.nio.file.Path;
+
+import static pt.up.hs.project.service.importer.batch.ImportConstants.*;
+
+/**
+ * Launcher of the CSV import jobs. Jobs run in a bounded pool of threads,
+ * so the execution is returned (with its id) as soon as it is created.
+ * Jobs wait for a thread in a bounded queue, beyond which they are
+ * rejected.
+ */
+@Component
+public class CsvImportJobLauncher {
+
+    private final SimpleJobLauncher jobLauncher;
+    private final ThreadPoolTaskExecutor taskExecutor;
+
+    public CsvImportJobLauncher(
+        JobRepository jobRepository,
+        ApplicationProperties applicationProperties
+    ) throws Exception {
+        ApplicationProperties.Importer importer = applicationProperties.getImporter();
+        this.taskExecutor = new ThreadPoolTaskExecutor();
+        this.taskExecutor.setCorePoolSize(importer.getJobConcurrency());
+        this.taskExecutor.setMaxPoolSize(importer.getJobConcurrency());
+        this.taskExecutor.setQueueCapacity(importer.getJobQueueCapacity());
+        this.taskExecutor.setThreadNamePrefix("importer-job-");
+        this.taskExecutor.initialize();
+        this.jobLauncher = new SimpleJobLauncher();
+        this.jobLauncher.setJobRepository(jobRepository);
+        this.jobLauncher.setTaskExecutor(taskExecutor);
+        this.jobLauncher.afterPropertiesSet();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        taskExecutor.shutdown();
+    }
+
+    /**
+     * Launch an import job.
+     *
+     * @param job       the import job.
+     * @param projectId ID of the project to import into.
+     * @param file      the spooled CSV file (deleted when the job ends).
+     * @param sep       column separator.
+     * @param arraySep  separator for array elements.
+     * @param useHeader does the CSV include an header?
+     * @return the job execution.
+     * @throws JobExecutionAlreadyRunningException  never, as parameters are unique.
+     * @throws JobRestartException                  never, as parameters are unique.
+     * @throws JobInstanceAlreadyCompleteException  never, as parameters are unique.
+     * @throws JobParametersInvalidException        if the parameters are invalid.
+     * @throws TaskRejectedException                if too many jobs are waiting.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public JobExecution run(
+        @Nonnull Job job,
+        @Nonnull Long projectId,
+        @Nonnull Path file,
+        @Nonnull String sep,
+        @Nonnull String arraySep,
+        boolean useHeader
+    ) throws JobExecutionAlreadyRunningException, JobRestartException,
+        JobInstanceAlreadyCompleteException, JobParametersInvalidException {
+        JobParametersBuilder jobParametersBuilder = new JobParametersBuilder()
+            .addLong(UNIQUENESS_PARAMETER, System.nanoTime())
+            .addLong(PROJECT_ID_PARAMETER, projectId)
+            .addString(FILE_PATH_PARAMETER, file.toAbsolutePath().toString())
+            .addString(SEPARATOR_PARAMETER, sep)
+            .addString(ARRAY_SEPARATOR_PARAMETER, arraySep)
+            .addString(USE_HEADER_PARAMETER, Boolean.toString(useHeader));
+        JobExecution jobExecution = jobLauncher.run(job, jobParametersBuilder.toJobParameters());
+        if (jobExecution.getStatus() == BatchStatus.FAILED && jobExecution.getStartTime() == null) {
+            // the launcher marks a job rejected by the executor as failed,
+            // before it ever starts
+            throw new TaskRejectedException("Import job " + jobExecution.getId() + " rejected, too many jobs are waiting");
+        }
+        return jobExecution;
+    }
+}
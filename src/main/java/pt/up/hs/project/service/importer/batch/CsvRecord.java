@@ -0,0 +1,45 @@
+package pt.up.hs.project.service.importer.batch;
+
+/**
+ * A value read from a CSV file (or derived from it) together with the
+ * number of the line of the file it came from.
+ *
+ * @param <T> type of the value.
+ */
+public class CsvRecord<T> {
+
+    private final long lineNumber;
+    private final T value;
+
+    public CsvRecord(long lineNumber, T value) {
+        this.lineNumber = lineNumber;
+        this.value = value;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * Replace the value, keeping the line number.
+     *
+     * @param value the new value.
+     * @param <R>   type of the new value.
+     * @return the new record.
+     */
+    public <R> CsvRecord<R> with(R value) {
+        return new CsvRecord<>(lineNumber, value);
+    }
+
+    @Override
+    public String toString() {
+        return "CsvRecord{" +
+            "lineNumber=" + lineNumber +
+            ", value=" + value +
+            "}";
+    }
+}
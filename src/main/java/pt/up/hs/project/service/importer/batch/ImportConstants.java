@@ -0,0 +1,19 @@
+package pt.up.hs.project.service.importer.batch;
+
+public class ImportConstants {
+    public static final String UNIQUENESS_PARAMETER = "uniqueness";
+
+    public static final String PROJECT_ID_PARAMETER = "projectId";
+    public static final String FILE_PATH_PARAMETER = "filePath";
+    public static final String SEPARATOR_PARAMETER = "separator";
+    public static final String ARRAY_SEPARATOR_PARAMETER = "arraySeparator";
+    public static final String USE_HEADER_PARAMETER = "useHeader";
+
+    public static final String REJECTED_COUNT_KEY = "rejectedCount";
+    public static final String REJECTED_LINES_KEY = "rejectedLines";
+
+    public static final String PARTICIPANT_CSV_IMPORT_JOB = "participantCsvImportJob";
+    public static final String PARTICIPANT_CSV_IMPORT_STEP = "participantCsvImportStep";
+    public static final String TASK_CSV_IMPORT_JOB = "taskCsvImportJob";
+    public static final String TASK_CSV_IMPORT_STEP = "taskCsvImportStep";
+}
@@ -0,0 +1,62 @@
+package pt.up.hs.project.service.importer.batch;
+
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static pt.up.hs.project.service.importer.batch.ImportConstants.*;
+
+/**
+ * Helpers to record the rows rejected by an import step in its execution
+ * context, which is saved on every chunk commit.
+ */
+public final class ImportRejections {
+
+    private ImportRejections() {
+    }
+
+    /**
+     * Record a rejected row.
+     *
+     * @param executionContext the execution context of the step.
+     * @param lineNumber       the number of the line of the row.
+     * @param maxLines         maximum number of line numbers to keep.
+     */
+    @SuppressWarnings("unchecked")
+    public static void record(ExecutionContext executionContext, long lineNumber, int maxLines) {
+        executionContext.putLong(REJECTED_COUNT_KEY, count(executionContext) + 1);
+        ArrayList<Long> lines = (ArrayList<Long>) executionContext.get(REJECTED_LINES_KEY);
+        if (lines == null) {
+            lines = new ArrayList<>();
+        }
+        if (lines.size() < maxLines) {
+            lines.add(lineNumber);
+            Collections.sort(lines);
+            executionContext.put(REJECTED_LINES_KEY, lines);
+        }
+    }
+
+    /**
+     * Get the number of rejected rows.
+     *
+     * @param executionContext the execution context of the step.
+     * @return the number of rejected rows.
+     */
+    public static long count(ExecutionContext executionContext) {
+        return executionContext.getLong(REJECTED_COUNT_KEY, 0L);
+    }
+
+    /**
+     * Get the (first) line numbers of the rejected rows, in order.
+     *
+     * @param executionContext the execution context of the step.
+     * @return the line numbers.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Long> lines(ExecutionContext executionContext) {
+        List<Long> lines = (List<Long>) executionContext.get(REJECTED_LINES_KEY);
+        return lines == null ? Collections.emptyList() : lines;
+    }
+}
@@ -1,144 +1,143 @@
 package pt.up.hs.project.service.importer.batch.config;
 
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-
+import pt.up.hs.project.config.ApplicationProperties;
+import pt.up.hs.project.domain.Label;
+import pt.up.hs.project.domain.Task;
+import pt.up.hs.project.repository.TaskRepository;
+import pt.up.hs.project.service.ProjectCounterService;
+import pt.up.hs.project.service.cache.ProjectReadCaches;
+import pt.up.hs.project.service.importer.CsvReaderFactory;
+import pt.up.hs.project.service.importer.ImportRow;
+import pt.up.hs.project.service.importer.LabelTable;
+import pt.up.hs.project.service.importer.batch.CsvRecord;
+import pt.up.hs.project.service.importer.batch.listener.ImportJobListener;
+import pt.up.hs.project.service.importer.batch.reader.CsvImportItemReader;
+import pt.up.hs.project.service.importer.converters.TaskCsvConverter;
+import pt.up.hs.project.service.importer.dto.TaskCsvDTO;
+import pt.up.hs.project.service.importer.exception.CsvReaderException;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static pt.up.hs.project.service.importer.batch.ImportConstants.*;
+
+/**
+ * Configuration of the asynchronous import of tasks from a spooled
+ * CSV file. Rows are parsed and converted in blocks on the pool of the
+ * {@link CsvReaderFactory}, and saved in chunks, in order, resolving the
+ * labels of each chunk in bulk.
+ * Rows which fail to be parsed, converted or saved are skipped and recorded
+ * as rejected (see {@link ImportJobListener}).
+ */
 @Configuration
 public class TaskCsvImportConfig {
-    /*private static final String DEFAULT_DELIMITER = ",";
-    private static final String DEFAULT_LABEL_DELIMITER = ";";
 
-    private static final String HEADER_NAME = "name";
-    private static final String HEADER_DESCRIPTION = "description";
-    private static final String HEADER_STARTDATE = "startDate";
-    private static final String HEADER_ENDDATE = "endDate";
-    private static final String HEADER_LABELS = "labels";
+    private final JobBuilderFactory jobBuilders;
+    private final StepBuilderFactory stepBuilders;
 
-    private static final String[] DEFAULT_HEADERS = new String[] {
-        HEADER_NAME, HEADER_DESCRIPTION, HEADER_STARTDATE, HEADER_ENDDATE, HEADER_LABELS
-    };
+    private final ApplicationProperties applicationProperties;
 
-    private TaskRepository taskRepository;
-    private LabelRepository labelRepository;
+    private final TaskRepository taskRepository;
+    private final ProjectCounterService projectCounterService;
+    private final ProjectReadCaches projectReadCaches;
+    private final CsvReaderFactory csvReaderFactory;
+    private final TaskCsvConverter taskCsvConverter;
+    private final ImportJobListener importJobListener;
 
-    @Autowired
     public TaskCsvImportConfig(
-        TaskRepository taskRepository, LabelRepository labelRepository
+        JobBuilderFactory jobBuilders,
+        StepBuilderFactory stepBuilders,
+        ApplicationProperties applicationProperties,
+        TaskRepository taskRepository,
+        ProjectCounterService projectCounterService,
+        ProjectReadCaches projectReadCaches,
+        CsvReaderFactory csvReaderFactory,
+        TaskCsvConverter taskCsvConverter,
+        ImportJobListener importJobListener
     ) {
+        this.jobBuilders = jobBuilders;
+        this.stepBuilders = stepBuilders;
+        this.applicationProperties = applicationProperties;
         this.taskRepository = taskRepository;
-        this.labelRepository = labelRepository;
+        this.projectCounterService = projectCounterService;
+        this.projectReadCaches = projectReadCaches;
+        this.csvReaderFactory = csvReaderFactory;
+        this.taskCsvConverter = taskCsvConverter;
+        this.importJobListener = importJobListener;
     }
 
     @Bean
     @StepScope
-    ItemReader<Task> taskCsvImportItemReader(
-        @Value("#{jobParameters['file.path']}") String pathToFile,
-        @Value("#{jobParameters['delimiter']}") String delim,
-        @Value("#{jobParameters['hasHeader']}") Boolean hasHeader
+    public CsvImportItemReader<ImportRow<Task>> taskCsvImportItemReader(
+        @Value("#{jobParameters[" + PROJECT_ID_PARAMETER + "]}") Long projectId,
+        @Value("#{jobParameters[" + FILE_PATH_PARAMETER + "]}") String filePath,
+        @Value("#{jobParameters[" + SEPARATOR_PARAMETER + "]}") String separator,
+        @Value("#{jobParameters[" + ARRAY_SEPARATOR_PARAMETER + "]}") String arraySeparator,
+        @Value("#{jobParameters[" + USE_HEADER_PARAMETER + "]}") String useHeader
     ) {
-        FlatFileItemReader<Task> csvFileReader = new FlatFileItemReader<>();
-        csvFileReader.setResource(new FileSystemResource(pathToFile));
-        csvFileReader.setLinesToSkip(hasHeader ? 1 : 0);
-
-        LineMapper<Task> taskLineMapper = createTaskLineMapper(
-            delim == null ? DEFAULT_DELIMITER : delim
+        return new CsvImportItemReader<>(
+            is -> csvReaderFactory.open(
+                TaskCsvDTO.class, is, separator, Boolean.parseBoolean(useHeader),
+                row -> taskCsvConverter.convert(projectId, row, arraySeparator)
+            ),
+            filePath,
+            applicationProperties.getImporter().getMaxRejectedLines()
         );
-        csvFileReader.setLineMapper(taskLineMapper);
-
-        return csvFileReader;
-    }
-
-    private LineMapper<Task> createTaskLineMapper(String delim) {
-        DefaultLineMapper<Task> taskLineMapper = new DefaultLineMapper<>();
-
-        LineTokenizer taskLineTokenizer = createTaskLineTokenizer(delim);
-        taskLineMapper.setLineTokenizer(taskLineTokenizer);
-
-        FieldSetMapper<Task> taskInformationMapper = createTaskInformationMapper();
-        taskLineMapper.setFieldSetMapper(taskInformationMapper);
-
-        return taskLineMapper;
-    }
-
-    private LineTokenizer createTaskLineTokenizer(String delim) {
-        DelimitedLineTokenizer taskLineTokenizer = new DelimitedLineTokenizer();
-        taskLineTokenizer.setDelimiter(delim);
-        taskLineTokenizer.setNames(DEFAULT_HEADERS);
-        taskLineTokenizer.setStrict(false);
-        return taskLineTokenizer;
-    }
-
-    private FieldSetMapper<Task> createTaskInformationMapper() {
-        return fs -> {
-            Task task = new Task();
-            task.setName(fs.readString(HEADER_NAME));
-            task.setDescription(fs.readString(HEADER_DESCRIPTION));
-            task.setStartDate(
-                Dates.convertToLocalDate(fs.readDate(HEADER_STARTDATE))
-            );
-            task.setEndDate(
-                Dates.convertToLocalDate(fs.readDate(HEADER_ENDDATE))
-            );
-
-            String labelNames = fs.readString(HEADER_LABELS);
-            if (!labelNames.trim().isEmpty()) {
-                task.setLabels(getLabelsByNames(labelNames.split(DEFAULT_LABEL_DELIMITER)));
-            }
-            return task;
-        };
     }
 
     @Bean
-    ItemProcessor<Task, Task> taskCsvImportLoggingProcessor() {
-        return new ImportLoggingProcessor<>();
-    }
-
-    @Bean
-    ItemWriter<Task> taskCsvImportItemWriter() {
-        return tasks -> {
-            for (Task task: tasks) {
-                taskRepository.save(task);
+    @StepScope
+    public ItemWriter<CsvRecord<ImportRow<Task>>> taskCsvImportItemWriter(
+        @Value("#{jobParameters[" + PROJECT_ID_PARAMETER + "]}") Long projectId
+    ) {
+        LabelTable labelTable = taskCsvConverter.labelTable(projectId);
+        return records -> {
+            List<Task> saved = taskRepository.saveAll(
+                labelTable.attach(
+                    records.stream().map(CsvRecord::getValue).collect(Collectors.toList()),
+                    Task::setLabels
+                )
+            );
+            projectCounterService.addTasks(projectId, saved.size());
+            for (Task task : saved) {
+                projectCounterService.addTaskLabels(
+                    projectId, task.getLabels().stream().map(Label::getId).collect(Collectors.toList()), 1
+                );
             }
+            projectReadCaches.tasks().evict(projectId);
         };
     }
 
     @Bean
-    Step taskCsvImportStep(
-        ItemReader<Task> taskCsvImportItemReader,
-        ItemProcessor<Task, Task> taskCsvImportLoggingProcessor,
-        ItemWriter<Task> taskCsvImportItemWriter,
-        StepBuilderFactory stepBuilderFactory
-    ) {
-        return stepBuilderFactory.get("taskCsvImportStep")
-            .<Task, Task>chunk(1)
-            .reader(taskCsvImportItemReader)
-            .processor(taskCsvImportLoggingProcessor)
-            .writer(taskCsvImportItemWriter)
+    public Step taskCsvImportStep() {
+        return stepBuilders.get(TASK_CSV_IMPORT_STEP)
+            .<CsvRecord<ImportRow<Task>>, CsvRecord<ImportRow<Task>>>chunk(applicationProperties.getImporter().getChunkSize())
+            .reader(taskCsvImportItemReader(null, null, null, null, null))
+            .writer(taskCsvImportItemWriter(null))
+            .faultTolerant()
+            .skip(Exception.class)
+            .noSkip(CsvReaderException.class)
+            .skipLimit(Integer.MAX_VALUE)
+            .listener((SkipListener<CsvRecord<?>, CsvRecord<?>>) importJobListener)
             .build();
     }
 
     @Bean
-    Job taskCsvImportJob(
-        JobBuilderFactory jobBuilderFactory,
-        @Qualifier("taskCsvImportStep") Step taskCsvImportStep
-    ) {
-        return jobBuilderFactory.get("taskCsvImportJob")
-            .incrementer(new RunIdIncrementer())
-            .flow(taskCsvImportStep)
-            .end()
+    public Job taskCsvImportJob() {
+        return jobBuilders.get(TASK_CSV_IMPORT_JOB)
+            .listener((JobExecutionListener) importJobListener)
+            .start(taskCsvImportStep())
             .build();
     }
-
-    *//* Helper Functions *//*
-
-    private Set<Label> getLabelsByNames(String[] names) {
-
-        return Arrays.stream(names)
-            .filter(name -> !name.trim().isEmpty())
-            .map(name -> {
-                Label label = new Label();
-                label.setName(name);
-                return labelRepository.findOne(Example.of(label)).orElse(label);
-            })
-            .collect(Collectors.toSet());
-    }*/
 }
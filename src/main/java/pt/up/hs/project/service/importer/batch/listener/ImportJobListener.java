@@ -0,0 +1,81 @@
+package pt.up.hs.project.service.importer.batch.listener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.stereotype.Component;
+import pt.up.hs.project.config.ApplicationProperties;
+import pt.up.hs.project.service.importer.batch.CsvRecord;
+import pt.up.hs.project.service.importer.batch.ImportRejections;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static pt.up.hs.project.service.importer.batch.ImportConstants.FILE_PATH_PARAMETER;
+
+/**
+ * Listener of the CSV import jobs, which records the rows skipped while
+ * processing or writing as rejected, and deletes the spooled file once the
+ * job ends.
+ */
+@Component
+public class ImportJobListener implements JobExecutionListener, SkipListener<CsvRecord<?>, CsvRecord<?>> {
+
+    private final Logger log = LoggerFactory.getLogger(ImportJobListener.class);
+
+    private final int maxRejectedLines;
+
+    public ImportJobListener(ApplicationProperties applicationProperties) {
+        this.maxRejectedLines = applicationProperties.getImporter().getMaxRejectedLines();
+    }
+
+    @Override
+    public void beforeJob(@Nonnull JobExecution jobExecution) {
+    }
+
+    @Override
+    public void afterJob(@Nonnull JobExecution jobExecution) {
+        String filePath = jobExecution.getJobParameters().getString(FILE_PATH_PARAMETER);
+        if (filePath == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(filePath));
+        } catch (IOException e) {
+            log.warn("Could not delete spooled import file {}: {}", filePath, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onSkipInRead(@Nonnull Throwable t) {
+    }
+
+    @Override
+    public void onSkipInProcess(@Nonnull CsvRecord<?> item, @Nonnull Throwable t) {
+        log.debug("Rejected CSV row at line {}: {}", item.getLineNumber(), t.getMessage());
+        reject(item);
+    }
+
+    @Override
+    public void onSkipInWrite(@Nonnull CsvRecord<?> item, @Nonnull Throwable t) {
+        log.debug("Rejected CSV row at line {}: {}", item.getLineNumber(), t.getMessage());
+        reject(item);
+    }
+
+    private void reject(CsvRecord<?> item) {
+        StepContext context = StepSynchronizationManager.getContext();
+        if (context != null) {
+            ImportRejections.record(
+                context.getStepExecution().getExecutionContext(),
+                item.getLineNumber(),
+                maxRejectedLines
+            );
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package pt.up.hs.project.service.importer.batch.reader;
+
+import com.opencsv.exceptions.CsvException;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import pt.up.hs.project.service.importer.batch.CsvRecord;
+import pt.up.hs.project.service.importer.batch.ImportRejections;
+import pt.up.hs.project.service.importer.reader.CsvReader;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Item reader of the rows of a spooled CSV file, with their line numbers.
+ * Rows which cannot be parsed or validated are skipped and recorded as
+ * rejected in the execution context of the step.
+ *
+ * @param <T> type of the (converted) rows.
+ */
+public class CsvImportItemReader<T> implements ItemStreamReader<CsvRecord<T>> {
+
+    private final Function<InputStream, CsvReader<T>> opener;
+    private final String filePath;
+    private final int maxRejectedLines;
+
+    private CsvReader<T> reader = null;
+    private Iterator<T> iterator = null;
+
+    /**
+     * Create an item reader.
+     *
+     * @param opener           opener of the {@link CsvReader} of the file.
+     * @param filePath         path of the spooled file.
+     * @param maxRejectedLines maximum number of rejected line numbers
+     *                         recorded.
+     */
+    public CsvImportItemReader(
+        Function<InputStream, CsvReader<T>> opener, String filePath, int maxRejectedLines
+    ) {
+        this.opener = opener;
+        this.filePath = filePath;
+        this.maxRejectedLines = maxRejectedLines;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        try {
+            reader = opener.apply(new FileInputStream(filePath));
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not open spooled file " + filePath, e);
+        }
+        iterator = reader.iterator();
+    }
+
+    @Override
+    public CsvRecord<T> read() {
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        T value = iterator.next();
+        return new CsvRecord<>(reader.getLineNumber(), value);
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        List<CsvException> exceptions = reader.getCapturedExceptions();
+        for (CsvException exception : exceptions) {
+            ImportRejections.record(executionContext, exception.getLineNumber(), maxRejectedLines);
+        }
+        exceptions.clear();
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        if (reader == null) {
+            return;
+        }
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not close spooled file " + filePath, e);
+        }
+    }
+}
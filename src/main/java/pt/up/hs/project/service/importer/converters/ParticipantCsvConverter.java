@@ -0,0 +1,73 @@
+package pt.up.hs.project.service.importer.converters;
+
+import org.springframework.stereotype.Component;
+import pt.up.hs.project.domain.Participant;
+import pt.up.hs.project.repository.LabelRepository;
+import pt.up.hs.project.service.ProjectCounterService;
+import pt.up.hs.project.service.cache.ProjectReadCaches;
+import pt.up.hs.project.service.dto.ParticipantDTO;
+import pt.up.hs.project.service.importer.ImportRow;
+import pt.up.hs.project.service.importer.LabelTable;
+import pt.up.hs.project.service.importer.dto.ParticipantCsvDTO;
+import pt.up.hs.project.service.mapper.ParticipantMapper;
+import pt.up.hs.project.utils.Genders;
+import pt.up.hs.project.utils.HandwritingMeans;
+
+/**
+ * Converter of participant CSV rows into {@link Participant} entities,
+ * shared by the synchronous and the batch importers. Rows are converted
+ * without touching the database, so conversion is thread-safe; labels are
+ * mapped later through the {@link LabelTable} of the import.
+ */
+@Component
+public class ParticipantCsvConverter {
+
+    private final LabelRepository labelRepository;
+    private final ProjectCounterService projectCounterService;
+    private final ProjectReadCaches projectReadCaches;
+    private final ParticipantMapper participantMapper;
+
+    public ParticipantCsvConverter(
+        LabelRepository labelRepository,
+        ProjectCounterService projectCounterService,
+        ProjectReadCaches projectReadCaches,
+        ParticipantMapper participantMapper
+    ) {
+        this.labelRepository = labelRepository;
+        this.projectCounterService = projectCounterService;
+        this.projectReadCaches = projectReadCaches;
+        this.participantMapper = participantMapper;
+    }
+
+    /**
+     * Create the label table of an import.
+     *
+     * @param projectId the ID of the project of the participants.
+     * @return the label table.
+     */
+    public LabelTable labelTable(Long projectId) {
+        return new LabelTable(labelRepository, projectCounterService, projectReadCaches, projectId);
+    }
+
+    /**
+     * Validate and convert a CSV row into a participant, without labels.
+     *
+     * @param projectId         the ID of the project of the participant.
+     * @param participantCsvDTO the CSV row.
+     * @param arraySep          separator for array elements.
+     * @return the participant (not saved) and its label names.
+     * @throws IllegalArgumentException if the row is invalid.
+     */
+    public ImportRow<Participant> convert(Long projectId, ParticipantCsvDTO participantCsvDTO, String arraySep) {
+        ParticipantDTO participantDTO = new ParticipantDTO();
+        participantDTO.setProjectId(projectId);
+        participantDTO.setName(participantCsvDTO.getName());
+        participantDTO.setGender(Genders.fromString(participantCsvDTO.getGender()));
+        participantDTO.setHandedness(HandwritingMeans.fromString(participantCsvDTO.getHandedness()));
+        participantDTO.setBirthdate(participantCsvDTO.getBirthdate());
+        participantDTO.setAdditionalInfo(participantCsvDTO.getAdditionalInfo());
+        Participant participant = participantMapper.toEntity(participantDTO);
+        participant.setProjectId(projectId);
+        return new ImportRow<>(participant, LabelTable.names(participantCsvDTO.getLabels(), arraySep));
+    }
+}
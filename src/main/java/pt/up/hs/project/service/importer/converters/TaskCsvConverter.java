@@ -0,0 +1,63 @@
+package pt.up.hs.project.service.importer.converters;
+
+import org.springframework.stereotype.Component;
+import pt.up.hs.project.domain.Task;
+import pt.up.hs.project.repository.LabelRepository;
+import pt.up.hs.project.service.ProjectCounterService;
+import pt.up.hs.project.service.cache.ProjectReadCaches;
+import pt.up.hs.project.service.importer.ImportRow;
+import pt.up.hs.project.service.importer.LabelTable;
+import pt.up.hs.project.service.importer.dto.TaskCsvDTO;
+
+/**
+ * Converter of task CSV rows into {@link Task} entities, shared by the
+ * synchronous and the batch importers. Rows are converted without touching
+ * the database, so conversion is thread-safe; labels are mapped later
+ * through the {@link LabelTable} of the import.
+ */
+@Component
+public class TaskCsvConverter {
+
+    private final LabelRepository labelRepository;
+    private final ProjectCounterService projectCounterService;
+    private final ProjectReadCaches projectReadCaches;
+
+    public TaskCsvConverter(
+        LabelRepository labelRepository,
+        ProjectCounterService projectCounterService,
+        ProjectReadCaches projectReadCaches
+    ) {
+        this.labelRepository = labelRepository;
+        this.projectCounterService = projectCounterService;
+        this.projectReadCaches = projectReadCaches;
+    }
+
+    /**
+     * Create the label table of an import.
+     *
+     * @param projectId the ID of the project of the tasks.
+     * @return the label table.
+     */
+    public LabelTable labelTable(Long projectId) {
+        return new LabelTable(labelRepository, projectCounterService, projectReadCaches, projectId);
+    }
+
+    /**
+     * Validate and convert a CSV row into a task, without labels.
+     *
+     * @param projectId the ID of the project of the task.
+     * @param taskCsv   the CSV row.
+     * @param arraySep  separator for array elements.
+     * @return the task (not saved) and its label names.
+     * @throws IllegalArgumentException if the row is invalid.
+     */
+    public ImportRow<Task> convert(Long projectId, TaskCsvDTO taskCsv, String arraySep) {
+        Task task = new Task();
+        task.setProjectId(projectId);
+        task.setName(taskCsv.getName());
+        task.setStartDate(taskCsv.getStartDate());
+        task.setEndDate(taskCsv.getEndDate());
+        task.setDescription(taskCsv.getDescription());
+        return new ImportRow<>(task, LabelTable.names(taskCsv.getLabels(), arraySep));
+    }
+}
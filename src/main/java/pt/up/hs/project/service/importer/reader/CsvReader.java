@@ -1,35 +1,108 @@
 package pt.up.hs.project.service.importer.reader;
 
+import com.opencsv.CSVParser;
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
 import com.opencsv.bean.*;
 import com.opencsv.exceptions.CsvException;
 import pt.up.hs.project.service.importer.exception.CsvReaderException;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
-public class CsvReader<T> {
+/**
+ * Reader of CSV files into beans. Rows are parsed one at a time, as the
+ * reader is iterated, so the file is never held in memory. Invalid rows are
+ * skipped and their exceptions captured (see
+ * {@link #getCapturedExceptions()}, complete once the iteration ends).
+ * <p>
+ * Records are split on the iterating thread, in blocks of lines. Blocks
+ * can be parsed into beans and transformed (e.g., validated and converted)
+ * on an {@link Executor}, with a bounded number of blocks in flight. Blocks
+ * are consumed in order, so rows and line numbers are those of the file.
+ * A block the executor rejects fails the iteration, rather than waiting
+ * for it forever.
+ *
+ * @param <T> type of the (transformed) beans.
+ */
+public class CsvReader<T> implements Iterable<T>, Closeable {
 
-    private List<T> values;
-    private List<CsvException> capturedExceptions;
+    private static final Executor SAME_THREAD = Runnable::run;
 
-    protected CsvReader(List<T> values, List<CsvException> capturedExceptions) {
-        this.values = values;
-        this.capturedExceptions = capturedExceptions;
+    private final CSVReader csvReader;
+    private final Function<String[], T> parser;
+    private final Executor executor;
+    private final int blockSize;
+    private final int maxBlocksInFlight;
+
+    private final List<CsvException> capturedExceptions = new ArrayList<>();
+    private long lineNumber = 0;
+
+    protected CsvReader(
+        CSVReader csvReader,
+        Function<String[], T> parser,
+        Executor executor,
+        int blockSize,
+        int maxBlocksInFlight
+    ) {
+        this.csvReader = csvReader;
+        this.parser = parser;
+        this.executor = executor;
+        this.blockSize = blockSize;
+        this.maxBlocksInFlight = maxBlocksInFlight;
     }
 
     public static <T> CsvReader<T> fromInputStream(
         final Class<T> beanClass, InputStream is, String sep, boolean useHeaders
     ) throws CsvReaderException {
+        return fromInputStream(beanClass, is, sep, useHeaders, Function.identity(), SAME_THREAD, 1, 1);
+    }
+
+    /**
+     * Create a reader which parses and transforms blocks of rows on an
+     * executor.
+     *
+     * @param beanClass         class of the beans of the rows.
+     * @param is                {@link InputStream} the file input stream.
+     * @param sep               column separator.
+     * @param useHeaders        does the CSV include an header?
+     * @param transformer       transformer of each bean (thread-safe). Rows
+     *                          for which it fails are skipped, as invalid.
+     * @param executor          executor of the parsing of blocks.
+     * @param blockSize         number of rows per block.
+     * @param maxBlocksInFlight maximum number of blocks split ahead of the
+     *                          iteration.
+     * @param <B>               type of the beans of the rows.
+     * @param <T>               type of the transformed beans.
+     * @return the reader.
+     * @throws CsvReaderException if the header cannot be read.
+     */
+    public static <B, T> CsvReader<T> fromInputStream(
+        final Class<B> beanClass, InputStream is, String sep, boolean useHeaders,
+        Function<? super B, ? extends T> transformer, Executor executor, int blockSize, int maxBlocksInFlight
+    ) throws CsvReaderException {
 
-        // parse CSV file to create a list of Participant objects
-        try (Reader reader = new BufferedReader(new InputStreamReader(is))) {
+        Reader reader = new BufferedReader(new InputStreamReader(is));
+        try {
 
             // create a mapping strategy
-            MappingStrategy<T> strategy;
+            MappingStrategy<B> strategy;
             if (useHeaders) {
                 strategy = new HeaderColumnNameMappingStrategy<>();
             } else {
@@ -37,31 +110,172 @@ public class CsvReader<T> {
             }
             strategy.setType(beanClass);
 
-            // create csv bean reader
-            CsvToBean<T> csvToBean = new CsvToBeanBuilder<T>(reader)
-                .withMappingStrategy(strategy)
+            // create csv reader
+            CSVParser csvParser = new CSVParserBuilder()
                 .withSeparator(sep.charAt(0))
                 .withIgnoreLeadingWhiteSpace(true)
-                .withIgnoreEmptyLine(true)
-                .withOrderedResults(false)
-                .withThrowExceptions(false)
                 .build();
+            CSVReader csvReader = new CSVReaderBuilder(reader)
+                .withCSVParser(csvParser)
+                .build();
+            strategy.captureHeader(csvReader);
 
             return new CsvReader<>(
-                csvToBean.parse(),
-                csvToBean.getCapturedExceptions()
+                csvReader,
+                line -> {
+                    try {
+                        return transformer.apply(strategy.populateNewBean(line));
+                    } catch (CsvException e) {
+                        throw new CompletionException(e);
+                    }
+                },
+                executor,
+                Math.max(1, blockSize),
+                Math.max(1, maxBlocksInFlight)
             );
         } catch (Exception e) {
+            try {
+                reader.close();
+            } catch (IOException ioe) {
+                e.addSuppressed(ioe);
+            }
             throw new CsvReaderException(e);
         }
     }
 
+    /**
+     * Iterate the rows of the file, parsing them on demand. The file can
+     * only be iterated once.
+     *
+     * @return the iterator.
+     */
+    @Override
     public Iterator<T> iterator() {
-        return values.iterator();
+        return new Iterator<T>() {
+
+            private final Deque<CompletableFuture<List<Row<T>>>> blocks = new ArrayDeque<>();
+            private Iterator<Row<T>> block = null;
+            private boolean eof = false;
+
+            private T next = null;
+            private long nextLineNumber = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    if (block != null && block.hasNext()) {
+                        Row<T> row = block.next();
+                        if (row.exception != null) {
+                            capturedExceptions.add(row.exception);
+                        } else {
+                            next = row.value;
+                            nextLineNumber = row.lineNumber;
+                        }
+                        continue;
+                    }
+                    split();
+                    if (blocks.isEmpty()) {
+                        return false;
+                    }
+                    block = blocks.poll().join().iterator();
+                    split();
+                }
+                return true;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T bean = next;
+                next = null;
+                lineNumber = nextLineNumber;
+                return bean;
+            }
+
+            /**
+             * Split blocks of records and submit them for parsing, until
+             * the limit of blocks in flight.
+             */
+            private void split() {
+                while (!eof && blocks.size() < maxBlocksInFlight) {
+                    List<Row<String[]>> records = readBlock();
+                    if (records.isEmpty()) {
+                        eof = true;
+                    } else {
+                        blocks.add(submit(records));
+                    }
+                }
+            }
+
+            private List<Row<String[]>> readBlock() {
+                List<Row<String[]>> records = new ArrayList<>(blockSize);
+                try {
+                    String[] line;
+                    while (records.size() < blockSize && (line = csvReader.readNext()) != null) {
+                        if (line.length == 1 && line[0].isEmpty()) {
+                            continue;
+                        }
+                        records.add(new Row<>(csvReader.getLinesRead(), line, null));
+                    }
+                } catch (Exception e) {
+                    throw new CsvReaderException(e);
+                }
+                return records;
+            }
+        };
+    }
+
+    /**
+     * Submit a block of records for parsing on the executor.
+     *
+     * @param records the records of the block.
+     * @return the future rows of the block, failed if the executor rejects
+     * the block.
+     */
+    private CompletableFuture<List<Row<T>>> submit(List<Row<String[]>> records) {
+        CompletableFuture<List<Row<T>>> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(parse(records));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private List<Row<T>> parse(List<Row<String[]>> records) {
+        List<Row<T>> rows = new ArrayList<>(records.size());
+        for (Row<String[]> record : records) {
+            try {
+                rows.add(new Row<>(record.lineNumber, parser.apply(record.value), null));
+            } catch (Exception e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                CsvException exception = cause instanceof CsvException
+                    ? (CsvException) cause
+                    : new CsvException(cause.getMessage());
+                exception.setLineNumber(record.lineNumber);
+                exception.setLine(record.value);
+                rows.add(new Row<>(record.lineNumber, null, exception));
+            }
+        }
+        return rows;
     }
 
-    public List<T> getAll() {
-        return values;
+    /**
+     * Get the number of the (last) line of the file of the row last
+     * returned by the iterator, counting from 1 and including the header.
+     *
+     * @return the line number, or 0 if no row has been returned.
+     */
+    public long getLineNumber() {
+        return lineNumber;
     }
 
     public List<CsvException> getCapturedExceptions() {
@@ -73,4 +287,22 @@ public class CsvReader<T> {
             .mapToInt(e -> (int) e.getLineNumber())
             .toArray();
     }
+
+    @Override
+    public void close() throws IOException {
+        csvReader.close();
+    }
+
+    private static class Row<V> {
+
+        private final long lineNumber;
+        private final V value;
+        private final CsvException exception;
+
+        private Row(long lineNumber, V value, CsvException exception) {
+            this.lineNumber = lineNumber;
+            this.value = value;
+            this.exception = exception;
+        }
+    }
 }
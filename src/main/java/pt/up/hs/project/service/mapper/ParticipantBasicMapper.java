@@ -5,6 +5,7 @@ import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 import pt.up.hs.project.domain.Label;
 import pt.up.hs.project.domain.Participant;
+import pt.up.hs.project.repository.ParticipantBasicView;
 import pt.up.hs.project.service.dto.ParticipantBasicDTO;
 
 import java.util.Set;
@@ -27,12 +28,25 @@ public interface ParticipantBasicMapper extends EntityMapper<ParticipantBasicDTO
     @Mapping(target = "birthdate", ignore = true)
     @Mapping(target = "handedness", ignore = true)
     @Mapping(target = "additionalInfo", ignore = true)
-    @Mapping(target = "image", ignore = true)
     @Mapping(target = "imageContentType", ignore = true)
     @Mapping(target = "removeLabels", ignore = true)
     @Mapping(source = "labelIds", target = "labels", qualifiedByName = "idsToLabels")
     Participant toEntity(ParticipantBasicDTO participantBasicDTO);
 
+    default ParticipantBasicDTO toDto(ParticipantBasicView view, Set<Long> labelIds) {
+        ParticipantBasicDTO participantBasicDTO = new ParticipantBasicDTO();
+        participantBasicDTO.setId(view.getId());
+        participantBasicDTO.setName(view.getName());
+        participantBasicDTO.setProjectId(view.getProjectId());
+        participantBasicDTO.setImageHash(view.getImageHash());
+        participantBasicDTO.setCreatedBy(view.getCreatedBy());
+        participantBasicDTO.setCreatedDate(view.getCreatedDate());
+        participantBasicDTO.setLastModifiedBy(view.getLastModifiedBy());
+        participantBasicDTO.setLastModifiedDate(view.getLastModifiedDate());
+        participantBasicDTO.setLabelIds(labelIds);
+        return participantBasicDTO;
+    }
+
     default Participant fromId(Long id) {
         if (id == null) {
             return null;
@@ -44,14 +58,14 @@ public interface ParticipantBasicMapper extends EntityMapper<ParticipantBasicDTO
 
     @Named("labelsToIds")
     default Set<Long> labelsToIds(Set<Label> labels) {
-        return labels.parallelStream()
+        return labels.stream()
             .map(Label::getId)
             .collect(Collectors.toSet());
     }
 
     @Named("idsToLabels")
     default Set<Label> idsToLabels(Set<Long> labelIds) {
-        return labelIds.parallelStream()
+        return labelIds.stream()
             .map(id -> {
                 if (id == null) {
                     return null;
@@ -12,6 +12,7 @@ import org.mapstruct.*;
 @Mapper(componentModel = "spring", uses = {ProjectMapper.class, LabelMapper.class})
 public interface ParticipantMapper extends EntityMapper<ParticipantDTO, Participant> {
 
+    @Mapping(target = "image", ignore = true)
     ParticipantDTO toDto(Participant participant);
 
     @Mapping(target = "removeLabels", ignore = true)
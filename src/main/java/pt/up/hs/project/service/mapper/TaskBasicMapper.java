@@ -5,6 +5,7 @@ import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 import pt.up.hs.project.domain.Label;
 import pt.up.hs.project.domain.Task;
+import pt.up.hs.project.repository.TaskBasicView;
 import pt.up.hs.project.service.dto.TaskBasicDTO;
 
 import java.util.Set;
@@ -30,6 +31,15 @@ public interface TaskBasicMapper extends EntityMapper<TaskBasicDTO, Task> {
     @Mapping(source = "labelIds", target = "labels", qualifiedByName = "idsToLabels")
     Task toEntity(TaskBasicDTO taskBasicDTO);
 
+    default TaskBasicDTO toDto(TaskBasicView view, Set<Long> labelIds) {
+        TaskBasicDTO taskBasicDTO = new TaskBasicDTO();
+        taskBasicDTO.setId(view.getId());
+        taskBasicDTO.setName(view.getName());
+        taskBasicDTO.setProjectId(view.getProjectId());
+        taskBasicDTO.setLabelIds(labelIds);
+        return taskBasicDTO;
+    }
+
     default Task fromId(Long id) {
         if (id == null) {
             return null;
@@ -41,14 +51,14 @@ public interface TaskBasicMapper extends EntityMapper<TaskBasicDTO, Task> {
 
     @Named("labelsToIds")
     default Set<Long> labelsToIds(Set<Label> labels) {
-        return labels.parallelStream()
+        return labels.stream()
             .map(Label::getId)
             .collect(Collectors.toSet());
     }
 
     @Named("idsToLabels")
     default Set<Label> idsToLabels(Set<Long> labelIds) {
-        return labelIds.parallelStream()
+        return labelIds.stream()
             .map(id -> {
                 if (id == null) {
                     return null;
@@ -0,0 +1,33 @@
+package pt.up.hs.project.utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Helpers to hash contents (e.g., to identify versions of images).
+ */
+public class Hashes {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Compute the SHA-256 of a content.
+     *
+     * @param content the content.
+     * @return the hash, in lower-case hexadecimal (64 characters).
+     */
+    public static String sha256Hex(byte[] content) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[2 * i] = HEX[(digest[i] >> 4) & 0xf];
+            hex[2 * i + 1] = HEX[digest[i] & 0xf];
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,131 @@
+package pt.up.hs.project.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Position in a listing ordered by a property and then by id, used for
+ * keyset (seek) pagination: the next page starts right after the row with
+ * the recorded sort value and id, instead of skipping an offset.
+ * <p>
+ * It is exchanged with clients as an opaque token (see {@link #encode()}).
+ */
+public final class Keyset {
+
+    private static final String SEPARATOR = ",";
+
+    private final String property;
+    private final boolean ascending;
+    private final Long lastId;
+    private final String lastValue;
+
+    private Keyset(String property, boolean ascending, Long lastId, String lastValue) {
+        this.property = property;
+        this.ascending = ascending;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    /**
+     * Keyset of the first page of a listing.
+     *
+     * @param property  the property to sort by.
+     * @param ascending {@code true} to sort in ascending order.
+     * @return the keyset of the first page.
+     */
+    public static Keyset first(String property, boolean ascending) {
+        return new Keyset(property, ascending, null, null);
+    }
+
+    /**
+     * Keyset of the page after a row.
+     *
+     * @param id    the id of the last row of the current page.
+     * @param value the sort value of the last row of the current page.
+     * @return the keyset of the next page.
+     */
+    public Keyset after(Long id, Object value) {
+        return new Keyset(property, ascending, id, value == null ? null : value.toString());
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public String getLastValue() {
+        return lastValue;
+    }
+
+    public boolean isFirst() {
+        return lastId == null;
+    }
+
+    /**
+     * Encode as an opaque, URL-safe token.
+     *
+     * @return the token.
+     */
+    public String encode() {
+        String raw = property + SEPARATOR + (ascending ? "a" : "d") + SEPARATOR +
+            (lastId == null ? "" : lastId) + SEPARATOR + (lastValue == null ? "" : lastValue);
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}.
+     *
+     * @param token the token.
+     * @return the keyset.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static Keyset decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] parts = raw.split(SEPARATOR, 4);
+        if (parts.length != 4 || parts[0].isEmpty() || !(parts[1].equals("a") || parts[1].equals("d"))) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        Long lastId = parts[2].isEmpty() ? null : Long.valueOf(parts[2]);
+        String lastValue = lastId == null ? null : parts[3];
+        return new Keyset(parts[0], parts[1].equals("a"), lastId, lastValue);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Keyset)) {
+            return false;
+        }
+        Keyset keyset = (Keyset) o;
+        return ascending == keyset.ascending &&
+            Objects.equals(property, keyset.property) &&
+            Objects.equals(lastId, keyset.lastId) &&
+            Objects.equals(lastValue, keyset.lastValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(property, ascending, lastId, lastValue);
+    }
+
+    @Override
+    public String toString() {
+        return "Keyset{" +
+            "property='" + property + "'" +
+            ", ascending=" + ascending +
+            ", lastId=" + lastId +
+            ", lastValue='" + lastValue + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,168 @@
+package pt.up.hs.project.utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to primitive
+ * {@code long} values, to hold id mappings without boxing every entry.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class LongLongMap {
+
+    private static final long EMPTY_KEY = 0L;
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private int resizeAt;
+
+    // the empty key marks free slots, so its entry is kept apart
+    private boolean hasEmptyKey;
+    private long emptyKeyValue;
+
+    public LongLongMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongLongMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Callback for the entries of a {@link LongLongMap}.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        void accept(long key, long value);
+    }
+
+    public int size() {
+        return size + (hasEmptyKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void put(long key, long value) {
+        if (key == EMPTY_KEY) {
+            hasEmptyKey = true;
+            emptyKeyValue = value;
+            return;
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY_KEY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    public void putAll(LongLongMap other) {
+        other.forEach(this::put);
+    }
+
+    public long get(long key, long defaultValue) {
+        if (key == EMPTY_KEY) {
+            return hasEmptyKey ? emptyKeyValue : defaultValue;
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY_KEY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == EMPTY_KEY) {
+            return hasEmptyKey;
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY_KEY) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return false;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        if (hasEmptyKey) {
+            consumer.accept(EMPTY_KEY, emptyKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY_KEY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY_KEY);
+        size = 0;
+        hasEmptyKey = false;
+    }
+
+    /**
+     * Copy the entries into a boxed map, for APIs which require one.
+     *
+     * @return a boxed copy of this map.
+     */
+    public Map<Long, Long> toMap() {
+        Map<Long, Long> map = new HashMap<>(Math.max(MIN_CAPACITY, (int) (size() / 0.75f) + 1));
+        forEach(map::put);
+        return map;
+    }
+
+    private int slot(long key) {
+        // spread sequential ids across the table (murmur3 finalizer)
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & (keys.length - 1);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * LOAD_FACTOR <= expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
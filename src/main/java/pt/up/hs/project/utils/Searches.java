@@ -0,0 +1,33 @@
+package pt.up.hs.project.utils;
+
+/**
+ * Helpers to build the parameters of search queries, which match
+ * {@code lower(column) like '%term%'} (see the trigram indexes in the
+ * Liquibase changelogs).
+ */
+public class Searches {
+
+    /**
+     * Normalize a search string into a search term.
+     *
+     * @param search the search string.
+     * @return the lower-case, trimmed term, or {@code null} if blank.
+     */
+    public static String term(String search) {
+        if (search == null) {
+            return null;
+        }
+        String term = search.trim().toLowerCase();
+        return term.isEmpty() ? null : term;
+    }
+
+    /**
+     * Build the pattern matching values which contain a term.
+     *
+     * @param term the search term, or {@code null}.
+     * @return the pattern.
+     */
+    public static String containsPattern(String term) {
+        return term == null ? "%" : "%" + term + "%";
+    }
+}
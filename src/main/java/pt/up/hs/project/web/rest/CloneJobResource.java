@@ -0,0 +1,89 @@
+package pt.up.hs.project.web.rest;
+
+import io.github.jhipster.web.util.ResponseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pt.up.hs.project.service.CloneJobEventService;
+import pt.up.hs.project.service.CloneJobService;
+import pt.up.hs.project.service.dto.CloneJobStatusDTO;
+
+import java.util.Optional;
+
+/**
+ * REST controller for following the cloning jobs of
+ * {@link pt.up.hs.project.domain.Project}.
+ */
+@RestController
+@RequestMapping("/api")
+public class CloneJobResource {
+
+    private final Logger log = LoggerFactory.getLogger(CloneJobResource.class);
+
+    private final CloneJobService cloneJobService;
+    private final CloneJobEventService cloneJobEventService;
+
+    public CloneJobResource(CloneJobService cloneJobService, CloneJobEventService cloneJobEventService) {
+        this.cloneJobService = cloneJobService;
+        this.cloneJobEventService = cloneJobEventService;
+    }
+
+    /**
+     * {@code GET  /projects/:projectId/clone-job} : get the progress of the
+     * job which clones into the "projectId" project.
+     *
+     * @param projectId the id of the project created by the job.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the job progress, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/projects/{projectId}/clone-job")
+    @PreAuthorize(
+        "hasAnyRole('ROLE_USER', 'ROLE_ADVANCED_USER', 'ROLE_ADMIN') and " +
+            "hasPermission(#projectId, 'pt.up.hs.project.domain.Project', 'READ')"
+    )
+    public ResponseEntity<CloneJobStatusDTO> getCloneJob(@PathVariable("projectId") Long projectId) {
+        log.debug("REST request to get clone job of Project : {}", projectId);
+        Optional<CloneJobStatusDTO> status = cloneJobService.findLatestByNewProjectId(projectId);
+        return ResponseUtil.wrapOrNotFound(status);
+    }
+
+    /**
+     * {@code POST  /projects/:projectId/clone-job/restart} : restart the job
+     * which clones into the "projectId" project, if it failed or was stopped.
+     *
+     * @param projectId the id of the project created by the job.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the job progress before the restart,
+     * with status {@code 409 (Conflict)} if the job did not fail, or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping("/projects/{projectId}/clone-job/restart")
+    @PreAuthorize(
+        "hasAnyRole('ROLE_USER', 'ROLE_ADVANCED_USER', 'ROLE_ADMIN') and " +
+            "hasPermission(#projectId, 'pt.up.hs.project.domain.Project', 'WRITE')"
+    )
+    public ResponseEntity<CloneJobStatusDTO> restartCloneJob(@PathVariable("projectId") Long projectId) {
+        log.debug("REST request to restart clone job of Project : {}", projectId);
+        return cloneJobService.restartLatestByNewProjectId(projectId)
+            .map(status -> ResponseEntity.accepted().body(status))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * {@code GET  /projects/:projectId/clone-job/events} : stream the
+     * progress of the job which clones into the "projectId" project. An
+     * event is sent whenever the progress changes, until the job ends.
+     *
+     * @param projectId the id of the project created by the job.
+     * @return the stream of server-sent events, or the {@link ResponseEntity} with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/projects/{projectId}/clone-job/events")
+    @PreAuthorize(
+        "hasAnyRole('ROLE_USER', 'ROLE_ADVANCED_USER', 'ROLE_ADMIN') and " +
+            "hasPermission(#projectId, 'pt.up.hs.project.domain.Project', 'READ')"
+    )
+    public ResponseEntity<SseEmitter> streamCloneJob(@PathVariable("projectId") Long projectId) {
+        log.debug("REST request to stream clone job of Project : {}", projectId);
+        return ResponseUtil.wrapOrNotFound(cloneJobEventService.subscribe(projectId));
+    }
+}
@@ -0,0 +1,177 @@
+package pt.up.hs.project.web.rest;
+
+import io.github.jhipster.web.util.ResponseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import pt.up.hs.project.service.ImportJobService;
+import pt.up.hs.project.service.dto.ImportJobStatusDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Optional;
+
+/**
+ * REST controller for running asynchronous CSV imports of
+ * {@link pt.up.hs.project.domain.Participant} and
+ * {@link pt.up.hs.project.domain.Task}. The upload is spooled and the
+ * import runs in the background, while its progress can be followed.
+ */
+@RestController
+@RequestMapping("/api/projects/{projectId}")
+public class ImportJobResource {
+
+    private final Logger log = LoggerFactory.getLogger(ImportJobResource.class);
+
+    private final ImportJobService importJobService;
+
+    public ImportJobResource(ImportJobService importJobService) {
+        this.importJobService = importJobService;
+    }
+
+    /**
+     * {@code POST /participants/import-jobs} : start importing CSV sent in
+     * body.
+     *
+     * @param projectId ID of the project to which the participants belong.
+     * @param sep       column separator.
+     * @param arraySep  separator for array elements.
+     * @param useHeader does the CSV include an header?
+     * @param is        {@link InputStream} input stream of the request body.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)}
+     * and with body the progress of the started job, or with status
+     * {@code 503 (Service Unavailable)} if too many imports are waiting.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping(value = "/participants/import-jobs", consumes = "text/csv")
+    @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADVANCED_USER', 'ROLE_ADMIN') and hasPermission(#projectId, 'pt.up.hs.project.domain.Project', 'WRITE')")
+    public ResponseEntity<ImportJobStatusDTO> startParticipantImportSimple(
+        @PathVariable("projectId") Long projectId,
+        @RequestParam(value = "sep", defaultValue = ",") String sep,
+        @RequestParam(value = "array-sep", defaultValue = ";") String arraySep,
+        @RequestParam(value = "use-header", defaultValue = "true") boolean useHeader,
+        @RequestBody InputStream is
+    ) throws URISyntaxException {
+        log.debug("REST request to start importing Participants from CSV sent in body in project {}", projectId);
+        return accepted(projectId, importJobService.startParticipantImport(projectId, is, sep, arraySep, useHeader));
+    }
+
+    /**
+     * {@code POST /participants/import-jobs} : start importing CSV sent in
+     * multipart/form-data.
+     *
+     * @param projectId ID of the project to which the participants belong.
+     * @param sep       column separator.
+     * @param arraySep  separator for array elements.
+     * @param useHeader does the CSV include an header?
+     * @param file      {@link MultipartFile} file from multipart/form-data.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)}
+     * and with body the progress of the started job, or with status
+     * {@code 503 (Service Unavailable)} if too many imports are waiting.
+     * @throws IOException        if the file cannot be read.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping(value = "/participants/import-jobs", consumes = "multipart/form-data")
+    @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADVANCED_USER', 'ROLE_ADMIN') and hasPermission(#projectId, 'pt.up.hs.project.domain.Project', 'WRITE')")
+    public ResponseEntity<ImportJobStatusDTO> startParticipantImportMultipart(
+        @PathVariable("projectId") Long projectId,
+        @RequestParam(value = "sep", defaultValue = ",") String sep,
+        @RequestParam(value = "array-sep", defaultValue = ";") String arraySep,
+        @RequestParam(value = "use-header", defaultValue = "true") boolean useHeader,
+        @RequestParam("file") MultipartFile file
+    ) throws IOException, URISyntaxException {
+        log.debug("REST request to start importing Participants from CSV sent in multipart/form-data in project {}", projectId);
+        try (InputStream is = file.getInputStream()) {
+            return accepted(projectId, importJobService.startParticipantImport(projectId, is, sep, arraySep, useHeader));
+        }
+    }
+
+    /**
+     * {@code POST /tasks/import-jobs} : start importing CSV sent in body.
+     *
+     * @param projectId ID of the project to which the tasks belong.
+     * @param sep       column separator.
+     * @param arraySep  separator for array elements.
+     * @param useHeader does the CSV include an header?
+     * @param is        {@link InputStream} input stream of the request body.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)}
+     * and with body the progress of the started job, or with status
+     * {@code 503 (Service Unavailable)} if too many imports are waiting.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping(value = "/tasks/import-jobs", consumes = "text/csv")
+    @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADVANCED_USER', 'ROLE_ADMIN') and hasPermission(#projectId, 'pt.up.hs.project.domain.Project', 'WRITE')")
+    public ResponseEntity<ImportJobStatusDTO> startTaskImportSimple(
+        @PathVariable("projectId") Long projectId,
+        @RequestParam(value = "sep", defaultValue = ",") String sep,
+        @RequestParam(value = "array-sep", defaultValue = ";") String arraySep,
+        @RequestParam(value = "use-header", defaultValue = "true") boolean useHeader,
+        @RequestBody InputStream is
+    ) throws URISyntaxException {
+        log.debug("REST request to start importing Tasks from CSV sent in body in project {}", projectId);
+        return accepted(projectId, importJobService.startTaskImport(projectId, is, sep, arraySep, useHeader));
+    }
+
+    /**
+     * {@code POST /tasks/import-jobs} : start importing CSV sent in
+     * multipart/form-data.
+     *
+     * @param projectId ID of the project to which the tasks belong.
+     * @param sep       column separator.
+     * @param arraySep  separator for array elements.
+     * @param useHeader does the CSV include an header?
+     * @param file      {@link MultipartFile} file from multipart/form-data.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)}
+     * and with body the progress of the started job, or with status
+     * {@code 503 (Service Unavailable)} if too many imports are waiting.
+     * @throws IOException        if the file cannot be read.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping(value = "/tasks/import-jobs", consumes = "multipart/form-data")
+    @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADVANCED_USER', 'ROLE_ADMIN') and hasPermission(#projectId, 'pt.up.hs.project.domain.Project', 'WRITE')")
+    public ResponseEntity<ImportJobStatusDTO> startTaskImportMultipart(
+        @PathVariable("projectId") Long projectId,
+        @RequestParam(value = "sep", defaultValue = ",") String sep,
+        @RequestParam(value = "array-sep", defaultValue = ";") String arraySep,
+        @RequestParam(value = "use-header", defaultValue = "true") boolean useHeader,
+        @RequestParam("file") MultipartFile file
+    ) throws IOException, URISyntaxException {
+        log.debug("REST request to start importing Tasks from CSV sent in multipart/form-data in project {}", projectId);
+        try (InputStream is = file.getInputStream()) {
+            return accepted(projectId, importJobService.startTaskImport(projectId, is, sep, arraySep, useHeader));
+        }
+    }
+
+    /**
+     * {@code GET /import-jobs/:executionId} : get the progress of an import
+     * job.
+     *
+     * @param projectId   ID of the project the job imports into.
+     * @param executionId the id of the job execution.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the job progress, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/import-jobs/{executionId}")
+    @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADVANCED_USER', 'ROLE_ADMIN') and hasPermission(#projectId, 'pt.up.hs.project.domain.Project', 'READ')")
+    public ResponseEntity<ImportJobStatusDTO> getImportJob(
+        @PathVariable("projectId") Long projectId,
+        @PathVariable("executionId") Long executionId
+    ) {
+        log.debug("REST request to get import job {} in project {}", executionId, projectId);
+        Optional<ImportJobStatusDTO> status = importJobService.findOne(projectId, executionId);
+        return ResponseUtil.wrapOrNotFound(status);
+    }
+
+    private static ResponseEntity<ImportJobStatusDTO> accepted(
+        Long projectId, ImportJobStatusDTO status
+    ) throws URISyntaxException {
+        return ResponseEntity
+            .accepted()
+            .location(new URI("/api/projects/" + projectId + "/import-jobs/" + status.getExecutionId()))
+            .body(status);
+    }
+}
@@ -8,10 +8,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import pt.up.hs.project.constants.EntityNames;
 import pt.up.hs.project.constants.ErrorKeys;
 import pt.up.hs.project.service.LabelService;
+import pt.up.hs.project.service.cache.ProjectVersions;
 import pt.up.hs.project.service.dto.LabelDTO;
+import pt.up.hs.project.service.dto.LabelUsageDTO;
 import pt.up.hs.project.web.rest.errors.BadRequestException;
 import pt.up.hs.project.web.rest.vm.LabelCopyPayload;
 
@@ -34,9 +37,11 @@ public class LabelResource {
     private String applicationName;
 
     private final LabelService labelService;
+    private final ProjectVersions projectVersions;
 
-    public LabelResource(LabelService labelService) {
+    public LabelResource(LabelService labelService, ProjectVersions projectVersions) {
         this.labelService = labelService;
+        this.projectVersions = projectVersions;
     }
 
     /**
@@ -92,15 +97,21 @@ public class LabelResource {
     /**
      * {@code GET  /labels} : get all the labels.
      *
-     * @param projectId ID of the project to which the labels belong.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of labels in body.
+     * @param projectId  ID of the project to which the labels belong.
+     * @param webRequest the request, checked against the tag of the project.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of labels in body,
+     * or with status {@code 304 (Not Modified)} if they match the tag in {@code If-None-Match}.
      */
     @GetMapping("/labels")
     @PreAuthorize("hasAnyRole('ROLE_GUEST', 'ROLE_USER', 'ROLE_ADVANCED_USER', 'ROLE_ADMIN') and hasPermission(#projectId, 'pt.up.hs.project.domain.Project', 'READ')")
     public ResponseEntity<List<LabelDTO>> getAllLabels(
-        @PathVariable("projectId") Long projectId
+        @PathVariable("projectId") Long projectId,
+        WebRequest webRequest
     ) {
         log.debug("REST request to get Labels in project {}", projectId);
+        if (webRequest.checkNotModified(projectVersions.tag(projectId))) {
+            return null;
+        }
         List<LabelDTO> labels = labelService.findAll(projectId);
         return ResponseEntity.ok().body(labels);
     }
@@ -120,6 +131,21 @@ public class LabelResource {
         return ResponseEntity.ok().body(labelService.count(projectId));
     }
 
+    /**
+     * {@code GET  /labels/usage} : get the number of participants and tasks with each label.
+     *
+     * @param projectId ID of the project to which the labels belong.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the usage of each label in body.
+     */
+    @GetMapping("/labels/usage")
+    @PreAuthorize("hasAnyRole('ROLE_GUEST', 'ROLE_USER', 'ROLE_ADVANCED_USER', 'ROLE_ADMIN') and hasPermission(#projectId, 'pt.up.hs.project.domain.Project', 'READ')")
+    public ResponseEntity<List<LabelUsageDTO>> getLabelUsage(
+        @PathVariable("projectId") Long projectId
+    ) {
+        log.debug("REST request to get the usage of Labels in project {}", projectId);
+        return ResponseEntity.ok().body(labelService.findAllUsage(projectId));
+    }
+
     /**
      * {@code GET  /labels/:id} : get the "id" label.
      *
@@ -7,21 +7,32 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import pt.up.hs.project.constants.EntityNames;
 import pt.up.hs.project.constants.ErrorKeys;
 import pt.up.hs.project.service.ParticipantService;
+import pt.up.hs.project.service.cache.ProjectVersions;
 import pt.up.hs.project.service.dto.BulkImportResultDTO;
+import pt.up.hs.project.service.dto.CursorPageDTO;
 import pt.up.hs.project.service.dto.ParticipantBasicDTO;
 import pt.up.hs.project.service.dto.ParticipantDTO;
+import pt.up.hs.project.service.dto.ParticipantImageDTO;
 import pt.up.hs.project.service.dto.TaskDTO;
 import pt.up.hs.project.web.rest.errors.BadRequestException;
+import pt.up.hs.project.web.rest.util.CursorPaginationUtil;
 import pt.up.hs.project.web.rest.vm.ParticipantCopyPayload;
 import pt.up.hs.project.web.rest.vm.TaskCopyPayload;
 
@@ -46,9 +57,11 @@ public class ParticipantResource {
     private String applicationName;
 
     private final ParticipantService participantService;
+    private final ProjectVersions projectVersions;
 
-    public ParticipantResource(ParticipantService participantService) {
+    public ParticipantResource(ParticipantService participantService, ProjectVersions projectVersions) {
         this.participantService = participantService;
+        this.projectVersions = projectVersions;
     }
 
     /**
@@ -108,6 +121,9 @@ public class ParticipantResource {
      * @param search the search string.
      * @param labels the ids of the labels to filter by.
      * @param pageable  the pagination information.
+     * @param cursor    the cursor of the page, for keyset pagination (empty
+     *                  for the first page; the sort is kept in the cursor).
+     * @param count     whether to count the participants, in keyset pagination.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of participants in body.
      */
     @GetMapping("/participants")
@@ -116,9 +132,18 @@ public class ParticipantResource {
         @PathVariable("projectId") Long projectId,
         @RequestParam(value = "search", required = false, defaultValue = "") String search,
         @RequestParam(value = "labels", required = false) List<Long> labels,
-        Pageable pageable
+        Pageable pageable,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "count", required = false, defaultValue = "false") boolean count
     ) {
         log.debug("REST request to get Participants in project {}", projectId);
+        if (cursor != null) {
+            CursorPageDTO<ParticipantDTO> page = participantService.findAll(projectId, search, labels, cursor, pageable, count);
+            HttpHeaders headers = CursorPaginationUtil.generateCursorPaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(), page
+            );
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        }
         Page<ParticipantDTO> page = participantService.findAll(projectId, search, labels, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
@@ -127,16 +152,22 @@ public class ParticipantResource {
     /**
      * {@code GET  /participants/basic} : get basic info of all the participants (for selectors).
      *
-     * @param projectId ID of the project to which the participants belong.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of participants' basic info in body.
+     * @param projectId  ID of the project to which the participants belong.
+     * @param webRequest the request, checked against the tag of the project.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of participants' basic info in body,
+     * or with status {@code 304 (Not Modified)} if it matches the tag in {@code If-None-Match}.
      */
     @GetMapping("/participants/basic")
     @PreAuthorize("hasAnyRole('ROLE_GUEST', 'ROLE_USER', 'ROLE_ADVANCED_USER', 'ROLE_ADMIN') and" +
         " hasPermission(#projectId, 'pt.up.hs.project.domain.Project', 'READ')")
     public ResponseEntity<List<ParticipantBasicDTO>> getAllParticipantsBasic(
-        @PathVariable("projectId") Long projectId
+        @PathVariable("projectId") Long projectId,
+        WebRequest webRequest
     ) {
         log.debug("REST request to get Participants in project {}", projectId);
+        if (webRequest.checkNotModified(projectVersions.tag(projectId))) {
+            return null;
+        }
         List<ParticipantBasicDTO> participantDTOs = participantService.findAllBasic(projectId);
         return ResponseEntity.ok().body(participantDTOs);
     }
@@ -179,14 +210,58 @@ public class ParticipantResource {
         return ResponseUtil.wrapOrNotFound(participantDTO);
     }
 
+    /**
+     * {@code GET  /participants/:id/image} : get the image of the "id"
+     * participant. The ETag is the hash of the image, so conditional
+     * requests are answered without reading its content, and byte ranges
+     * are served as partial content.
+     *
+     * @param projectId  ID of the project to which this participant belongs.
+     * @param id         the id of the participant.
+     * @param webRequest the request, to check its preconditions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and
+     * with body the image, with status {@code 304 (Not Modified)} if it
+     * matches the {@code If-None-Match} header, or with status
+     * {@code 404 (Not Found)}.
+     */
+    @GetMapping("/participants/{id}/image")
+    @PreAuthorize("hasAnyRole('ROLE_GUEST', 'ROLE_USER', 'ROLE_ADVANCED_USER', 'ROLE_ADMIN') and hasPermission(#projectId, 'pt.up.hs.project.domain.Project', 'READ')")
+    public ResponseEntity<Resource> getParticipantImage(
+        @PathVariable("projectId") Long projectId,
+        @PathVariable Long id,
+        WebRequest webRequest
+    ) {
+        log.debug("REST request to get the image of Participant {} in project {}", id, projectId);
+        Optional<ParticipantImageDTO> info = participantService.findImage(projectId, id, false);
+        if (!info.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        String eTag = "\"" + info.get().getHash() + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        Optional<ParticipantImageDTO> image = participantService.findImage(projectId, id, true);
+        if (!image.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .eTag("\"" + image.get().getHash() + "\"")
+            .cacheControl(CacheControl.noCache().cachePrivate());
+        if (image.get().getContentType() != null) {
+            builder.contentType(MediaType.parseMediaType(image.get().getContentType()));
+        }
+        return builder.body(new ByteArrayResource(image.get().getContent()));
+    }
+
     /**
      * {@code POST /participants/import} : import CSV sent in body.
      *
-     * @param projectId ID of the project to which this participant belongs.
-     * @param sep       column separator.
-     * @param arraySep  separator for array elements.
-     * @param useHeader does the CSV include an header?
-     * @param is        {@link InputStream} input stream of the request body.
+     * @param projectId   ID of the project to which this participant belongs.
+     * @param sep         column separator.
+     * @param arraySep    separator for array elements.
+     * @param useHeader   does the CSV include an header?
+     * @param includeData include the imported participants in the response?
+     * @param is          {@link InputStream} input stream of the request body.
      * @return {@link ResponseEntity} with status {@code 200 (OK)} and with
      * body the {@link BulkImportResultDTO}.
      */
@@ -197,20 +272,22 @@ public class ParticipantResource {
         @RequestParam(value = "sep", defaultValue = ",") String sep,
         @RequestParam(value = "array-sep", defaultValue = ";") String arraySep,
         @RequestParam(value = "use-header", defaultValue = "true") boolean useHeader,
+        @RequestParam(value = "include-data", defaultValue = "true") boolean includeData,
         @RequestBody InputStream is
     ) {
         log.debug("REST request to import Participants from CSV sent in body in project {}", projectId);
-        return ResponseEntity.ok(participantService.importFromCsv(projectId, is, sep, arraySep, useHeader));
+        return ResponseEntity.ok(participantService.importFromCsv(projectId, is, sep, arraySep, useHeader, includeData));
     }
 
     /**
      * {@code POST /participants/import} : import CSV sent in multipart/form-data.
      *
-     * @param projectId ID of the project to which this participant belongs.
-     * @param sep       column separator.
-     * @param arraySep  separator for array elements.
-     * @param useHeader does the CSV include an header?
-     * @param file      {@link MultipartFile} file from multipart/form-data.
+     * @param projectId   ID of the project to which this participant belongs.
+     * @param sep         column separator.
+     * @param arraySep    separator for array elements.
+     * @param useHeader   does the CSV include an header?
+     * @param includeData include the imported participants in the response?
+     * @param file        {@link MultipartFile} file from multipart/form-data.
      * @return {@link ResponseEntity} with status {@code 200 (OK)} and with
      * body the {@link BulkImportResultDTO}.
      */
@@ -221,11 +298,12 @@ public class ParticipantResource {
         @RequestParam(value = "sep", defaultValue = ",") String sep,
         @RequestParam(value = "array-sep", defaultValue = ";") String arraySep,
         @RequestParam(value = "use-header", defaultValue = "true") boolean useHeader,
+        @RequestParam(value = "include-data", defaultValue = "true") boolean includeData,
         @RequestParam("file") MultipartFile file
     ) throws IOException {
         log.debug("REST request to import Participants from CSV sent in multipart/form-data in project {}", projectId);
         return ResponseEntity.ok(
-            participantService.importFromCsv(projectId, file.getInputStream(), sep, arraySep, useHeader)
+            participantService.importFromCsv(projectId, file.getInputStream(), sep, arraySep, useHeader, includeData)
         );
     }
 
@@ -15,11 +15,9 @@ import pt.up.hs.project.web.rest.errors.BadRequestException;
 import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * REST controller for managing {@link pt.up.hs.project.domain.ProjectPermission}.
@@ -166,16 +164,7 @@ public class ProjectPermissionResource {
         @PathVariable("user") String user
     ) {
         log.debug("REST request to get connections of user {}", user);
-        Set<String> connections = new HashSet<>();
-        List<BulkProjectPermissionDTO> userPermissions = projectPermissionService.findAll(user);
-        for (BulkProjectPermissionDTO permissionDTO: userPermissions) {
-            Long projectId = permissionDTO.getProjectId();
-            List<BulkProjectPermissionDTO> projectPermissions = projectPermissionService.findAll(projectId);
-            connections.addAll(projectPermissions.parallelStream()
-                .map(BulkProjectPermissionDTO::getUser)
-                .filter(login -> !login.equalsIgnoreCase(user))
-                .collect(Collectors.toList()));
-        }
+        Set<String> connections = projectPermissionService.findConnections(user);
         return ResponseEntity.ok().body(connections);
     }
 
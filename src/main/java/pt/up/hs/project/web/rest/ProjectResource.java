@@ -5,12 +5,16 @@ import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import pt.up.hs.project.constants.EntityNames;
 import pt.up.hs.project.constants.ErrorKeys;
+import pt.up.hs.project.domain.enumeration.ProjectStatus;
 import pt.up.hs.project.service.ProjectService;
+import pt.up.hs.project.service.cache.ProjectVersions;
 import pt.up.hs.project.service.dto.ParticipantDTO;
 import pt.up.hs.project.service.dto.ProjectDTO;
 import pt.up.hs.project.web.rest.errors.BadRequestException;
@@ -36,9 +40,11 @@ public class ProjectResource {
     private String applicationName;
 
     private final ProjectService projectService;
+    private final ProjectVersions projectVersions;
 
-    public ProjectResource(ProjectService projectService) {
+    public ProjectResource(ProjectService projectService, ProjectVersions projectVersions) {
         this.projectService = projectService;
+        this.projectVersions = projectVersions;
     }
 
     /**
@@ -86,45 +92,77 @@ public class ProjectResource {
     }
 
     /**
-     * {@code GET  /projects} : get all the projects.
+     * {@code GET  /projects} : get all the projects, or search them by
+     * status and name or description.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of projects in body.
+     * @param statuses   the statuses to filter by (any if none).
+     * @param search     the string to search in the name or description.
+     * @param sort       the order of the projects (by relevance if searching and not sorted).
+     * @param webRequest the request, checked against the tag of the projects.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of projects in body,
+     * or with status {@code 304 (Not Modified)} if they match the tag in {@code If-None-Match}.
      */
     @GetMapping("/projects")
     @PreAuthorize("hasAnyRole('ROLE_GUEST', 'ROLE_USER', 'ROLE_ADVANCED_USER', 'ROLE_ADMIN')")
-    public ResponseEntity<List<ProjectDTO>> getAllProjects() {
+    public ResponseEntity<List<ProjectDTO>> getAllProjects(
+        @RequestParam(value = "status", required = false) List<ProjectStatus> statuses,
+        @RequestParam(value = "search", required = false) String search,
+        Sort sort,
+        WebRequest webRequest
+    ) {
         log.debug("REST request to get projects");
-        List<ProjectDTO> projects = projectService.findAll();
+        // the projects returned depend only on the readable projects and on
+        // the parameters, which are part of the URL, so the tag applies
+        Optional<String> tag = projectService.findAllTag();
+        if (tag.isPresent() && webRequest.checkNotModified(tag.get())) {
+            return null;
+        }
+        List<ProjectDTO> projects = (statuses == null || statuses.isEmpty()) && search == null && sort.isUnsorted()
+            ? projectService.findAll()
+            : projectService.search(statuses, search, sort);
         /*HttpHeaders headers = PaginationUtil
             .generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);*/
         return ResponseEntity.ok().body(projects);
     }
 
     /**
-     * {@code GET  /projects/count} : count all the projects.
+     * {@code GET  /projects/count} : count all the projects, or those
+     * matching a search (see {@link #getAllProjects(List, String, Sort, WebRequest)}).
      *
+     * @param statuses the statuses to filter by (any if none).
+     * @param search   the string to search in the name or description.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
      */
     @GetMapping("/projects/count")
     @PreAuthorize("hasAnyRole('ROLE_GUEST', 'ROLE_USER', 'ROLE_ADVANCED_USER', 'ROLE_ADMIN')")
-    public ResponseEntity<Long> countProjects() {
+    public ResponseEntity<Long> countProjects(
+        @RequestParam(value = "status", required = false) List<ProjectStatus> statuses,
+        @RequestParam(value = "search", required = false) String search
+    ) {
         log.debug("REST request to count projects");
-        return ResponseEntity.ok().body(projectService.count());
+        return ResponseEntity.ok().body((statuses == null || statuses.isEmpty()) && search == null
+            ? projectService.count()
+            : projectService.countSearch(statuses, search));
     }
 
     /**
      * {@code GET  /projects/:id} : get the "id" project.
      *
-     * @param id the id of the projectDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the projectDTO, or with status {@code 404 (Not Found)}.
+     * @param id         the id of the projectDTO to retrieve.
+     * @param webRequest the request, checked against the tag of the project.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the projectDTO, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it matches the tag in {@code If-None-Match}.
      */
     @GetMapping("/projects/{id}")
     @PreAuthorize(
         "hasAnyRole('ROLE_GUEST', 'ROLE_USER', 'ROLE_ADVANCED_USER', 'ROLE_ADMIN') and " +
             "hasPermission(#id, 'pt.up.hs.project.domain.Project', 'READ')"
     )
-    public ResponseEntity<ProjectDTO> getProject(@PathVariable Long id) {
+    public ResponseEntity<ProjectDTO> getProject(@PathVariable Long id, WebRequest webRequest) {
         log.debug("REST request to get Project : {}", id);
+        if (webRequest.checkNotModified(projectVersions.tag(id))) {
+            return null;
+        }
         Optional<ProjectDTO> projectDTO = projectService.findOne(id);
         return ResponseUtil.wrapOrNotFound(projectDTO);
     }
@@ -12,15 +12,19 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import pt.up.hs.project.constants.EntityNames;
 import pt.up.hs.project.constants.ErrorKeys;
 import pt.up.hs.project.service.TaskService;
+import pt.up.hs.project.service.cache.ProjectVersions;
 import pt.up.hs.project.service.dto.BulkImportResultDTO;
+import pt.up.hs.project.service.dto.CursorPageDTO;
 import pt.up.hs.project.service.dto.TaskBasicDTO;
 import pt.up.hs.project.service.dto.TaskDTO;
 import pt.up.hs.project.web.rest.errors.BadRequestException;
+import pt.up.hs.project.web.rest.util.CursorPaginationUtil;
 import pt.up.hs.project.web.rest.vm.TaskCopyPayload;
 
 import javax.validation.Valid;
@@ -44,9 +48,11 @@ public class TaskResource {
     private String applicationName;
 
     private final TaskService taskService;
+    private final ProjectVersions projectVersions;
 
-    public TaskResource(TaskService taskService) {
+    public TaskResource(TaskService taskService, ProjectVersions projectVersions) {
         this.taskService = taskService;
+        this.projectVersions = projectVersions;
     }
 
     /**
@@ -107,6 +113,9 @@ public class TaskResource {
      * @param search    the search string.
      * @param labels    the ids of the labels to filter by.
      * @param pageable  the pagination information.
+     * @param cursor    the cursor of the page, for keyset pagination (empty
+     *                  for the first page; the sort is kept in the cursor).
+     * @param count     whether to count the tasks, in keyset pagination.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tasks in body.
      */
     @GetMapping("/tasks")
@@ -116,9 +125,18 @@ public class TaskResource {
         @PathVariable("projectId") Long projectId,
         @RequestParam(value = "search", required = false, defaultValue = "") String search,
         @RequestParam(value = "labels", required = false) List<Long> labels,
-        Pageable pageable
+        Pageable pageable,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "count", required = false, defaultValue = "false") boolean count
     ) {
         log.debug("REST request to get Tasks in project {}", projectId);
+        if (cursor != null) {
+            CursorPageDTO<TaskDTO> page = taskService.findAll(projectId, search, labels, cursor, pageable, count);
+            HttpHeaders headers = CursorPaginationUtil.generateCursorPaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(), page
+            );
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        }
         Page<TaskDTO> page = taskService.findAll(projectId, search, labels, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
@@ -127,16 +145,22 @@ public class TaskResource {
     /**
      * {@code GET  /tasks/basic} : get basic info of all the tasks (for selectors).
      *
-     * @param projectId ID of the project to which the tasks belong.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tasks' basic info in body.
+     * @param projectId  ID of the project to which the tasks belong.
+     * @param webRequest the request, checked against the tag of the project.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tasks' basic info in body,
+     * or with status {@code 304 (Not Modified)} if it matches the tag in {@code If-None-Match}.
      */
     @GetMapping("/tasks/basic")
     @PreAuthorize("hasAnyRole('ROLE_GUEST', 'ROLE_USER', 'ROLE_ADVANCED_USER', 'ROLE_ADMIN') and" +
         " hasPermission(#projectId, 'pt.up.hs.project.domain.Project', 'READ')")
     public ResponseEntity<List<TaskBasicDTO>> getAllTasksBasic(
-        @PathVariable("projectId") Long projectId
+        @PathVariable("projectId") Long projectId,
+        WebRequest webRequest
     ) {
         log.debug("REST request to get Tasks in project {}", projectId);
+        if (webRequest.checkNotModified(projectVersions.tag(projectId))) {
+            return null;
+        }
         List<TaskBasicDTO> taskDTOs = taskService.findAllBasic(projectId);
         return ResponseEntity.ok().body(taskDTOs);
     }
@@ -184,11 +208,12 @@ public class TaskResource {
     /**
      * {@code POST /tasks/import} : import CSV sent in body.
      *
-     * @param projectId ID of the project to which this task belongs.
-     * @param sep       column separator.
-     * @param arraySep  separator for array elements.
-     * @param useHeader does the CSV include an header?
-     * @param is        {@link InputStream} input stream of the request body.
+     * @param projectId   ID of the project to which this task belongs.
+     * @param sep         column separator.
+     * @param arraySep    separator for array elements.
+     * @param useHeader   does the CSV include an header?
+     * @param includeData include the imported tasks in the response?
+     * @param is          {@link InputStream} input stream of the request body.
      * @return {@link ResponseEntity} with status {@code 200 (OK)} and with
      * body the {@link BulkImportResultDTO}.
      */
@@ -200,20 +225,22 @@ public class TaskResource {
         @RequestParam(value = "sep", defaultValue = ",") String sep,
         @RequestParam(value = "array-sep", defaultValue = ";") String arraySep,
         @RequestParam(value = "use-header", defaultValue = "true") boolean useHeader,
+        @RequestParam(value = "include-data", defaultValue = "true") boolean includeData,
         @RequestBody InputStream is
     ) {
         log.debug("REST request to import Tasks from CSV sent in body in project {}", projectId);
-        return ResponseEntity.ok(taskService.importFromCsv(projectId, is, sep, arraySep, useHeader));
+        return ResponseEntity.ok(taskService.importFromCsv(projectId, is, sep, arraySep, useHeader, includeData));
     }
 
     /**
      * {@code POST /tasks/import} : import CSV sent in multipart/form-data.
      *
-     * @param projectId ID of the project to which this task belongs.
-     * @param sep       column separator.
-     * @param arraySep  separator for array elements.
-     * @param useHeader does the CSV include an header?
-     * @param file      {@link MultipartFile} file from multipart/form-data.
+     * @param projectId   ID of the project to which this task belongs.
+     * @param sep         column separator.
+     * @param arraySep    separator for array elements.
+     * @param useHeader   does the CSV include an header?
+     * @param includeData include the imported tasks in the response?
+     * @param file        {@link MultipartFile} file from multipart/form-data.
      * @return {@link ResponseEntity} with status {@code 200 (OK)} and with
      * body the {@link BulkImportResultDTO}.
      */
@@ -225,11 +252,12 @@ public class TaskResource {
         @RequestParam(value = "sep", defaultValue = ",") String sep,
         @RequestParam(value = "array-sep", defaultValue = ";") String arraySep,
         @RequestParam(value = "use-header", defaultValue = "true") boolean useHeader,
+        @RequestParam(value = "include-data", defaultValue = "true") boolean includeData,
         @RequestParam("file") MultipartFile file
     ) throws IOException {
         log.debug("REST request to import Tasks from CSV sent in multipart/form-data in project {}", projectId);
         return ResponseEntity.ok(
-            taskService.importFromCsv(projectId, file.getInputStream(), sep, arraySep, useHeader)
+            taskService.importFromCsv(projectId, file.getInputStream(), sep, arraySep, useHeader, includeData)
         );
     }
 
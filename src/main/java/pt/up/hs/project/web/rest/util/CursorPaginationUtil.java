@@ -0,0 +1,46 @@
+package pt.up.hs.project.web.rest.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+import pt.up.hs.project.service.dto.CursorPageDTO;
+
+/**
+ * Utility class for handling keyset (cursor) pagination.
+ * <p>
+ * The cursor of the next page is sent in the {@code X-Next-Cursor} header
+ * and as a {@code next} link (absent on the last page). The total count is
+ * only sent, in {@code X-Total-Count}, if it was requested.
+ */
+public final class CursorPaginationUtil {
+
+    public static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+    private static final String HEADER_X_TOTAL_COUNT = "X-Total-Count";
+
+    private CursorPaginationUtil() {
+    }
+
+    /**
+     * Generate pagination headers for a keyset-paginated page.
+     *
+     * @param uriBuilder the URI builder of the current request.
+     * @param page       the page.
+     * @return the HTTP headers.
+     */
+    public static HttpHeaders generateCursorPaginationHttpHeaders(
+        UriComponentsBuilder uriBuilder, CursorPageDTO<?> page
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getTotalCount() != null) {
+            headers.add(HEADER_X_TOTAL_COUNT, Long.toString(page.getTotalCount()));
+        }
+        if (page.getNextCursor() != null) {
+            headers.add(HEADER_NEXT_CURSOR, page.getNextCursor());
+            String next = uriBuilder
+                .replaceQueryParam("cursor", page.getNextCursor())
+                .replaceQueryParam("page")
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,118 @@
+package pt.up.hs.project.cloner;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pt.up.hs.project.config.ApplicationProperties;
+import pt.up.hs.project.repository.CloneIdMappingRepository;
+import pt.up.hs.project.utils.LongLongMap;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class IdMappingStoreTest {
+
+    private static final long ID_MAPPING = 1L;
+
+    private CloneIdMappingRepository cloneIdMappingRepository;
+    private IdMappingStore idMappingStore;
+
+    @BeforeEach
+    public void setup() {
+        cloneIdMappingRepository = mock(CloneIdMappingRepository.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCloner().setMappingSpillThreshold(10);
+        idMappingStore = new IdMappingStore(
+            cloneIdMappingRepository, mock(PlatformTransactionManager.class), applicationProperties
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void writeBufferedPairsBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        idMappingStore.putAll(ID_MAPPING, CloneIdMappingRepository.LABEL, pairs(1, 2));
+        verify(cloneIdMappingRepository, never()).saveAll(anyLong(), anyString(), any());
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        verify(cloneIdMappingRepository).saveAll(eq(ID_MAPPING), eq(CloneIdMappingRepository.LABEL), any());
+        assertThat(TransactionSynchronizationManager.getResource(idMappingStore)).isNull();
+    }
+
+    @Test
+    public void discardBufferedPairsOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        idMappingStore.putAll(ID_MAPPING, CloneIdMappingRepository.LABEL, pairs(1, 2));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        verify(cloneIdMappingRepository, never()).saveAll(anyLong(), anyString(), any());
+        assertThat(TransactionSynchronizationManager.getResource(idMappingStore)).isNull();
+    }
+
+    @Test
+    public void spillInTransactionBeyondThreshold() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        idMappingStore.putAll(ID_MAPPING, CloneIdMappingRepository.TASK, pairs(1, 10));
+
+        verify(cloneIdMappingRepository).saveAll(eq(ID_MAPPING), eq(CloneIdMappingRepository.TASK), any());
+    }
+
+    @Test
+    public void writePairsAtOnceOutsideTransaction() {
+        idMappingStore.putAll(ID_MAPPING, CloneIdMappingRepository.LABEL, pairs(1, 2));
+
+        verify(cloneIdMappingRepository).saveAll(eq(ID_MAPPING), eq(CloneIdMappingRepository.LABEL), any());
+    }
+
+    @Test
+    public void findOldIdsWithoutPair() {
+        when(cloneIdMappingRepository.findOldIds(eq(ID_MAPPING), eq(CloneIdMappingRepository.PARTICIPANT), any()))
+            .thenReturn(new HashSet<>(Arrays.asList(2L, 4L)));
+
+        List<Long> unmapped = idMappingStore.unmapped(
+            ID_MAPPING, CloneIdMappingRepository.PARTICIPANT, Arrays.asList(1L, 2L, 3L, 4L)
+        );
+
+        assertThat(unmapped).containsExactly(1L, 3L);
+    }
+
+    private static LongLongMap pairs(long from, long to) {
+        LongLongMap pairs = new LongLongMap();
+        for (long oldId = from; oldId <= to; oldId++) {
+            pairs.put(oldId, oldId + 100);
+        }
+        return pairs;
+    }
+
+    private static void complete(int status) {
+        for (TransactionSynchronization synchronization: TransactionSynchronizationManager.getSynchronizations()) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.beforeCommit(false);
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package pt.up.hs.project.cloner;
+
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pt.up.hs.project.ProjectApp;
+import pt.up.hs.project.client.sampling.SamplingMicroService;
+import pt.up.hs.project.config.SecurityBeanOverrideConfiguration;
+import pt.up.hs.project.domain.Label;
+import pt.up.hs.project.domain.ParticipantImage;
+import pt.up.hs.project.domain.enumeration.ProjectStatus;
+import pt.up.hs.project.repository.LabelRepository;
+import pt.up.hs.project.repository.ParticipantImageRepository;
+import pt.up.hs.project.repository.ParticipantRepository;
+import pt.up.hs.project.repository.ProjectRepository;
+import pt.up.hs.project.repository.TaskRepository;
+import pt.up.hs.project.web.rest.LabelResourceIT;
+import pt.up.hs.project.web.rest.ParticipantResourceIT;
+import pt.up.hs.project.web.rest.ProjectResourceIT;
+import pt.up.hs.project.web.rest.TaskResourceIT;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static pt.up.hs.project.cloner.ClonerConstants.*;
+
+/**
+ * Integration tests for the project cloning job, with the set-based copy
+ * of {@link BulkCloningTasklet}. The copy requests to the sampling service
+ * are mocked and record the id pairs they are sent. The job runs in its own
+ * transactions, hence the test data is committed and deleted after each
+ * test.
+ */
+@SpringBootTest(classes = {SecurityBeanOverrideConfiguration.class, ProjectApp.class})
+public class ProjectCloningJobIT {
+
+    private static final byte[] IMAGE_CONTENT = { 1, 2, 3 };
+    private static final String IMAGE_HASH = "AAAAAAAAAA";
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    private ClonerJobConfig clonerJobConfig;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private LabelRepository labelRepository;
+
+    @Autowired
+    private ParticipantRepository participantRepository;
+
+    @Autowired
+    private ParticipantImageRepository participantImageRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private SamplingMicroService samplingMicroService;
+
+    private final Map<Long, Long> copiedTasks = new HashMap<>();
+    private final Map<Long, Long> copiedParticipants = new HashMap<>();
+
+    private Long projectId;
+    private Long newProjectId;
+
+    private Long firstParticipantId;
+    private Long secondParticipantId;
+    private Long taskId;
+
+    @BeforeEach
+    public void initTest() {
+        projectId = projectRepository.saveAndFlush(ProjectResourceIT.createEntity(null)).getId();
+        newProjectId = projectRepository.saveAndFlush(ProjectResourceIT.createEntity(null)).getId();
+
+        Label first = labelRepository.saveAndFlush(LabelResourceIT.createEntity(projectId).name("first"));
+        Label second = labelRepository.saveAndFlush(LabelResourceIT.createEntity(projectId).name("second"));
+        firstParticipantId = participantRepository.saveAndFlush(
+            ParticipantResourceIT.createEntity(projectId, new Long[] { first.getId(), second.getId() }).name("first")
+        ).getId();
+        secondParticipantId = participantRepository.saveAndFlush(
+            ParticipantResourceIT.createEntity(projectId, new Long[] { second.getId() }).name("second")
+        ).getId();
+        participantImageRepository.saveAndFlush(new ParticipantImage()
+            .participantId(firstParticipantId)
+            .content(IMAGE_CONTENT)
+            .contentType("image/png")
+            .contentLength((long) IMAGE_CONTENT.length)
+            .hash(IMAGE_HASH)
+        );
+        taskId = taskRepository.saveAndFlush(
+            TaskResourceIT.createEntity(projectId, new Long[] { first.getId() }).name("task")
+        ).getId();
+
+        // the protocols are copied with the id pairs of the tasks and participants
+        doAnswer(invocation -> {
+            copiedTasks.putAll(invocation.getArgument(3));
+            copiedParticipants.putAll(invocation.getArgument(4));
+            return null;
+        }).when(samplingMicroService).bulkCopyProtocols(anyLong(), anyBoolean(), anyLong(), any(), any());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (Long id: new Long[] { projectId, newProjectId }) {
+            jdbcTemplate.update(
+                "delete from participant_labels where participant_id in (select id from participant where project_id = ?)", id
+            );
+            jdbcTemplate.update("delete from task_labels where task_id in (select id from task where project_id = ?)", id);
+            jdbcTemplate.update(
+                "delete from participant_image where participant_id in (select id from participant where project_id = ?)", id
+            );
+            jdbcTemplate.update("delete from participant where project_id = ?", id);
+            jdbcTemplate.update("delete from task where project_id = ?", id);
+            jdbcTemplate.update("delete from label_counter where project_id = ?", id);
+            jdbcTemplate.update("delete from label where project_id = ?", id);
+            jdbcTemplate.update("delete from project_counter where project_id = ?", id);
+            projectRepository.deleteById(id);
+        }
+    }
+
+    @Test
+    public void cloneProject() throws Exception {
+        JobExecution jobExecution = runJob(false);
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+
+        assertCopied();
+
+        // the source is kept as it was
+        assertThat(projectRepository.findById(projectId).get().getStatus()).isNotEqualTo(ProjectStatus.DISCARDED);
+        assertThat(count("label", projectId)).isEqualTo(2);
+        assertThat(count("participant", projectId)).isEqualTo(2);
+        assertThat(count("task", projectId)).isEqualTo(1);
+        assertThat(labelPairs("participant_labels", "participant_id", "participant", projectId)).hasSize(3);
+        assertThat(labelPairs("task_labels", "task_id", "task", projectId)).hasSize(1);
+
+        // the id mapping is released once the job completes
+        assertThat(jdbcTemplate.queryForObject(
+            "select count(*) from clone_id_mapping where job_execution_id = ?", Long.class, jobExecution.getId()
+        )).isZero();
+    }
+
+    @Test
+    public void moveProject() throws Exception {
+        JobExecution jobExecution = runJob(true);
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+
+        assertCopied();
+
+        // the source is emptied and discarded
+        assertThat(projectRepository.findById(projectId).get().getStatus()).isEqualTo(ProjectStatus.DISCARDED);
+        assertThat(count("label", projectId)).isZero();
+        assertThat(count("participant", projectId)).isZero();
+        assertThat(count("task", projectId)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+            "select count(*) from participant_image where participant_id in (?, ?)",
+            Long.class, firstParticipantId, secondParticipantId
+        )).isZero();
+    }
+
+    private JobExecution runJob(boolean move) throws Exception {
+        return jobLauncher.run(
+            clonerJobConfig.projectCloningJob(false, move),
+            new JobParametersBuilder()
+                .addLong(UNIQUENESS_PARAMETER, System.nanoTime())
+                .addLong(PROJECT_ID_PARAMETER, projectId)
+                .addLong(NEW_PROJECT_ID_PARAMETER, newProjectId)
+                .addString(MOVE_PARAMETER, Boolean.toString(move))
+                .addString(COPY_PERMISSIONS_PARAMETER, Boolean.toString(false))
+                .toJobParameters()
+        );
+    }
+
+    private void assertCopied() {
+        // the rows are copied into the new project
+        assertThat(jdbcTemplate.queryForList(
+            "select name from label where project_id = ?", String.class, newProjectId
+        )).containsExactlyInAnyOrder("first", "second");
+        assertThat(jdbcTemplate.queryForList(
+            "select name from participant where project_id = ?", String.class, newProjectId
+        )).containsExactlyInAnyOrder("first", "second");
+        assertThat(jdbcTemplate.queryForList(
+            "select name from task where project_id = ?", String.class, newProjectId
+        )).containsExactly("task");
+
+        // the label associations point to the copied labels
+        assertThat(labelPairs("participant_labels", "participant_id", "participant", newProjectId))
+            .containsExactlyInAnyOrder(tuple("first", "first"), tuple("first", "second"), tuple("second", "second"));
+        assertThat(labelPairs("task_labels", "task_id", "task", newProjectId))
+            .containsExactly(tuple("task", "first"));
+
+        // the id mapping pairs each old row with its copy
+        assertThat(copiedParticipants).containsOnlyKeys(firstParticipantId, secondParticipantId);
+        assertThat(copiedTasks).containsOnlyKeys(taskId);
+        assertThat(name("participant", copiedParticipants.get(firstParticipantId), newProjectId)).isEqualTo("first");
+        assertThat(name("participant", copiedParticipants.get(secondParticipantId), newProjectId)).isEqualTo("second");
+        assertThat(name("task", copiedTasks.get(taskId), newProjectId)).isEqualTo("task");
+
+        // the image is copied with its participant
+        Map<String, Object> image = jdbcTemplate.queryForMap(
+            "select content, hash from participant_image where participant_id = ?",
+            copiedParticipants.get(firstParticipantId)
+        );
+        assertThat((byte[]) image.get("content")).isEqualTo(IMAGE_CONTENT);
+        assertThat(image.get("hash")).isEqualTo(IMAGE_HASH);
+        assertThat(jdbcTemplate.queryForObject(
+            "select count(*) from participant_image where participant_id = ?",
+            Long.class, copiedParticipants.get(secondParticipantId)
+        )).isZero();
+    }
+
+    private long count(String table, Long id) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table + " where project_id = ?", Long.class, id);
+    }
+
+    private String name(String table, Long id, Long projectId) {
+        return jdbcTemplate.queryForObject(
+            "select name from " + table + " where id = ? and project_id = ?", String.class, id, projectId
+        );
+    }
+
+    /**
+     * Get the pairs of owner and label names of the label associations of
+     * the owners in a project, whose labels must be in the same project.
+     */
+    private List<Tuple> labelPairs(String joinTable, String ownerColumn, String ownerTable, Long id) {
+        return jdbcTemplate.query(
+            "select o.name, l.name from " + joinTable + " j " +
+                "join " + ownerTable + " o on o.id = j." + ownerColumn + " " +
+                "join label l on l.id = j.labels_id and l.project_id = o.project_id " +
+                "where o.project_id = ?",
+            (rs, rowNum) -> tuple(rs.getString(1), rs.getString(2)),
+            id
+        );
+    }
+}
@@ -0,0 +1,158 @@
+package pt.up.hs.project.cloner;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import pt.up.hs.project.config.ApplicationProperties;
+import pt.up.hs.project.repository.CloneIdMappingRepository;
+import pt.up.hs.project.utils.LongLongMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SamplingCopyTaskletTest {
+
+    private static final long ID_MAPPING = 1L;
+    private static final int PARTICIPANTS = 10;
+
+    private final TreeMap<Long, Long> participants = new TreeMap<>();
+    private final Map<Long, Integer> copies = new HashMap<>();
+
+    private IdMappingStore idMappingStore;
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    public void setup() {
+        for (long oldId = 1; oldId <= PARTICIPANTS; oldId++) {
+            participants.put(oldId, oldId + 100);
+        }
+
+        idMappingStore = mock(IdMappingStore.class);
+        when(idMappingStore.page(eq(ID_MAPPING), eq(CloneIdMappingRepository.PARTICIPANT), anyLong(), anyInt()))
+            .thenAnswer(invocation -> {
+                LongLongMap page = new LongLongMap();
+                participants.tailMap(invocation.<Long>getArgument(2), false).entrySet().stream()
+                    .limit(invocation.<Integer>getArgument(3))
+                    .forEach(e -> page.put(e.getKey(), e.getValue()));
+                return page;
+            });
+
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCloner().setCopyBatchSize(2);
+        applicationProperties.getCloner().setCopyConcurrency(3);
+        applicationProperties.getCloner().setCopyMaxAttempts(1);
+    }
+
+    @Test
+    public void copyEachParticipantOnce() throws Exception {
+        StepExecution stepExecution = newStepExecution(new ExecutionContext());
+
+        runStep(newTasklet(-1L), stepExecution);
+
+        assertCopiedOnce();
+    }
+
+    @Test
+    public void restartFailedCopyWithoutCopyingAgain() throws Exception {
+        StepExecution stepExecution = newStepExecution(new ExecutionContext());
+
+        // the second page of the first window fails, after the first and
+        // third pages are copied
+        assertThatThrownBy(() -> runStep(newTasklet(3L), stepExecution))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(copies).containsOnlyKeys(1L, 2L, 5L, 6L);
+        assertThat(stepExecution.getExecutionContext().getLong(SamplingCopyTasklet.LAST_ACKNOWLEDGED_ID_KEY))
+            .isEqualTo(2L);
+
+        // the restarted step resumes with the same execution context
+        StepExecution restartedExecution = newStepExecution(
+            new ExecutionContext(stepExecution.getExecutionContext())
+        );
+        runStep(newTasklet(-1L), restartedExecution);
+
+        assertCopiedOnce();
+        assertThat(restartedExecution.getExecutionContext().getString(SamplingCopyTasklet.ACKNOWLEDGED_RANGES_KEY))
+            .isEmpty();
+    }
+
+    @Test
+    public void parseAcknowledgedRanges() {
+        SamplingCopyTasklet.AcknowledgedRanges ranges = SamplingCopyTasklet.AcknowledgedRanges.parse("4:6,8:10");
+
+        assertThat(ranges.contains(4L)).isFalse();
+        assertThat(ranges.contains(5L)).isTrue();
+        assertThat(ranges.contains(6L)).isTrue();
+        assertThat(ranges.contains(7L)).isFalse();
+        assertThat(ranges.contains(10L)).isTrue();
+
+        ranges.removeUpTo(6L);
+        assertThat(ranges.toString()).isEqualTo("8:10");
+    }
+
+    private void assertCopiedOnce() {
+        assertThat(copies).hasSize(PARTICIPANTS);
+        assertThat(copies.values()).containsOnly(1);
+    }
+
+    private SamplingCopyTasklet newTasklet(long failingOldId) {
+        SamplingCopyTasklet tasklet = new SamplingCopyTasklet() {
+            @Override
+            protected void copyPage(Map<Long, Long> tasks, Map<Long, Long> page) {
+                if (page.containsKey(failingOldId)) {
+                    throw new IllegalStateException("Sampling service unavailable");
+                }
+                page.keySet().forEach(oldId -> copies.merge(oldId, 1, Integer::sum));
+            }
+        };
+        tasklet.setIdMappingStore(idMappingStore);
+        tasklet.setClonerCopyTaskExecutor(new TaskExecutorAdapter(Runnable::run));
+        tasklet.setApplicationProperties(applicationProperties);
+        tasklet.idMapping = ID_MAPPING;
+        tasklet.projectId = 1L;
+        return tasklet;
+    }
+
+    private static StepExecution newStepExecution(ExecutionContext executionContext) {
+        StepExecution stepExecution = new StepExecution("copy", new JobExecution(1L));
+        stepExecution.setExecutionContext(executionContext);
+        return stepExecution;
+    }
+
+    /**
+     * Run a tasklet as a tasklet step does, where the execution context is
+     * restored whenever a chunk fails (i.e., its transaction rolls back).
+     */
+    private static void runStep(SamplingCopyTasklet tasklet, StepExecution stepExecution) throws Exception {
+        ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+        RepeatStatus status = RepeatStatus.CONTINUABLE;
+        while (status.isContinuable()) {
+            List<Map.Entry<String, Object>> committed = new ArrayList<>(stepExecution.getExecutionContext().entrySet());
+            try {
+                status = tasklet.execute(new StepContribution(stepExecution), chunkContext);
+            } catch (Exception e) {
+                ExecutionContext restored = new ExecutionContext();
+                committed.forEach(entry -> restored.put(entry.getKey(), entry.getValue()));
+                stepExecution.setExecutionContext(restored);
+                throw e;
+            }
+        }
+    }
+}
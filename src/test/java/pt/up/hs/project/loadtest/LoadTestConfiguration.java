@@ -0,0 +1,67 @@
+package pt.up.hs.project.loadtest;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.ResourceServerTokenServices;
+import pt.up.hs.project.security.AuthoritiesConstants;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Replaces the validation of UAA tokens in the load-test server. Bearer
+ * tokens are accepted in the form {@code loadtest-<login>} and
+ * authenticate {@code <login>} as a user (as {@code OAuth2TokenMockUtil}
+ * does in the integration tests), so load tests need no UAA.
+ */
+@Configuration
+@Profile(LoadTestServer.PROFILE)
+public class LoadTestConfiguration {
+
+    public static final String TOKEN_PREFIX = "loadtest-";
+
+    @Bean
+    @Primary
+    public ResourceServerTokenServices loadTestTokenServices() {
+        return new ResourceServerTokenServices() {
+
+            @Override
+            public OAuth2Authentication loadAuthentication(String accessToken) {
+                if (accessToken == null || !accessToken.startsWith(TOKEN_PREFIX)
+                    || accessToken.length() == TOKEN_PREFIX.length()) {
+                    throw new InvalidTokenException("Invalid load-test token");
+                }
+                return createAuthentication(accessToken.substring(TOKEN_PREFIX.length()));
+            }
+
+            @Override
+            public OAuth2AccessToken readAccessToken(String accessToken) {
+                return new DefaultOAuth2AccessToken(accessToken);
+            }
+        };
+    }
+
+    private static OAuth2Authentication createAuthentication(String login) {
+        List<GrantedAuthority> authorities =
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+        User principal = new User(login, "loadtest", true, true, true, true, authorities);
+        Authentication authentication =
+            new UsernamePasswordAuthenticationToken(principal, principal.getPassword(), principal.getAuthorities());
+        OAuth2Request authRequest = new OAuth2Request(
+            null, "loadtest", null, true, Collections.emptySet(), null, null, null, null
+        );
+        return new OAuth2Authentication(authRequest, authentication);
+    }
+}
@@ -0,0 +1,48 @@
+package pt.up.hs.project.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.testcontainers.containers.PostgreSQLContainer;
+import pt.up.hs.project.ProjectApp;
+import pt.up.hs.project.config.SecurityBeanOverrideConfiguration;
+
+/**
+ * Server for the load tests (see {@code src/gatling}). Runs the application
+ * with the "loadtest" profile against a PostgreSQL container, accepting the
+ * bearer tokens of {@link LoadTestConfiguration} instead of UAA tokens.
+ * <p>
+ * Start it with {@code ./gradlew loadTestServer}; the container is removed
+ * when the server stops.
+ */
+public final class LoadTestServer {
+
+    public static final String PROFILE = "loadtest";
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestServer.class);
+
+    private static final String POSTGRES_IMAGE = "postgres:12.1";
+
+    private LoadTestServer() {
+    }
+
+    public static void main(String[] args) {
+        PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(POSTGRES_IMAGE)
+            .withDatabaseName("project")
+            .withUsername("project")
+            .withPassword("project");
+        postgres.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(postgres::stop));
+        log.info("Started PostgreSQL container at {}", postgres.getJdbcUrl());
+
+        // system properties take precedence over the test configuration
+        String url = postgres.getJdbcUrl();
+        System.setProperty("spring.datasource.url", url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true");
+        System.setProperty("spring.datasource.username", postgres.getUsername());
+        System.setProperty("spring.datasource.password", postgres.getPassword());
+
+        SpringApplication app = new SpringApplication(ProjectApp.class, SecurityBeanOverrideConfiguration.class);
+        app.setAdditionalProfiles(PROFILE);
+        app.run(args);
+    }
+}
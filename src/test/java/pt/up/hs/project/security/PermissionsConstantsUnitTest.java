@@ -0,0 +1,43 @@
+package pt.up.hs.project.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the permission masks of {@link PermissionsConstants}.
+ */
+public class PermissionsConstantsUnitTest {
+
+    @Test
+    public void testBitsAreDistinct() {
+        int mask = PermissionsConstants.NONE_MASK;
+        for (String permission: PermissionsConstants.ALL) {
+            int bit = PermissionsConstants.bit(permission);
+            assertThat(Integer.bitCount(bit)).isEqualTo(1);
+            assertThat(mask & bit).isZero();
+            mask |= bit;
+        }
+        assertThat(mask).isEqualTo(PermissionsConstants.ALL_MASK);
+    }
+
+    @Test
+    public void testUnknownPermissionHasNoBit() {
+        assertThat(PermissionsConstants.bit("UNKNOWN")).isEqualTo(PermissionsConstants.NONE_MASK);
+        assertThat(PermissionsConstants.bit(null)).isEqualTo(PermissionsConstants.NONE_MASK);
+        assertThat(PermissionsConstants.has(PermissionsConstants.ALL_MASK, "UNKNOWN")).isFalse();
+    }
+
+    @Test
+    public void testMaskRoundTrip() {
+        int mask = PermissionsConstants.mask(Arrays.asList(PermissionsConstants.ADMIN, PermissionsConstants.READ));
+        assertThat(PermissionsConstants.has(mask, PermissionsConstants.READ)).isTrue();
+        assertThat(PermissionsConstants.has(mask, PermissionsConstants.WRITE)).isFalse();
+        assertThat(PermissionsConstants.names(mask))
+            .containsExactly(PermissionsConstants.READ, PermissionsConstants.ADMIN);
+        assertThat(PermissionsConstants.names(PermissionsConstants.mask(Collections.emptyList()))).isEmpty();
+    }
+}
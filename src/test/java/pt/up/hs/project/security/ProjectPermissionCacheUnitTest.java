@@ -0,0 +1,124 @@
+package pt.up.hs.project.security;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pt.up.hs.project.config.ApplicationProperties;
+import pt.up.hs.project.repository.ProjectPermissionGrant;
+import pt.up.hs.project.repository.ProjectPermissionRepository;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link ProjectPermissionCache} and the
+ * {@link ProjectConnectionCache}, when permissions are revoked while they
+ * are loaded.
+ */
+public class ProjectPermissionCacheUnitTest {
+
+    private static final String USER = "user";
+    private static final Long PROJECT_ID = 1L;
+
+    private final Map<String, Map<Object, Object>> maps = new HashMap<>();
+
+    private ProjectPermissionRepository projectPermissionRepository;
+    private ProjectPermissionCache projectPermissionCache;
+    private ProjectConnectionCache projectConnectionCache;
+
+    @BeforeEach
+    public void setup() {
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<Object, Object>getMap(anyString())).thenAnswer(invocation -> map(invocation.getArgument(0)));
+        PermissionVersions permissionVersions = new PermissionVersions(hazelcastInstance);
+
+        projectPermissionRepository = mock(ProjectPermissionRepository.class);
+        projectPermissionCache = new ProjectPermissionCache(
+            hazelcastInstance, new SimpleMeterRegistry(), permissionVersions, projectPermissionRepository
+        );
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getPermissionCache().setConnections(true);
+        projectConnectionCache = new ProjectConnectionCache(
+            hazelcastInstance, permissionVersions, applicationProperties
+        );
+    }
+
+    @Test
+    public void doNotKeepPermissionsLoadedWhileRevoked() {
+        // the grants are read before the revoke commits, and cached after
+        // it is evicted
+        ProjectPermissionGrant grant = mock(ProjectPermissionGrant.class);
+        when(grant.getProjectId()).thenReturn(PROJECT_ID);
+        when(grant.getPermissionName()).thenReturn(PermissionsConstants.READ);
+        List<ProjectPermissionGrant> stale = Collections.singletonList(grant);
+        when(projectPermissionRepository.findGrantsByUser(USER))
+            .thenAnswer(invocation -> {
+                projectPermissionCache.evict(USER);
+                return stale;
+            })
+            .thenReturn(Collections.emptyList());
+
+        assertThat(projectPermissionCache.hasPermission(USER, PROJECT_ID, PermissionsConstants.READ)).isTrue();
+
+        // the next check loads the permissions again
+        assertThat(projectPermissionCache.hasPermission(USER, PROJECT_ID, PermissionsConstants.READ)).isFalse();
+        assertThat(projectPermissionCache.hasPermission(USER, PROJECT_ID, PermissionsConstants.READ)).isFalse();
+        verify(projectPermissionRepository, times(2)).findGrantsByUser(USER);
+    }
+
+    @Test
+    public void doNotKeepConnectionsLoadedWhileRevoked() {
+        Set<String> stale = Collections.singleton("other");
+
+        Set<String> loaded = projectConnectionCache.get(USER, user -> {
+            projectConnectionCache.evict(Collections.singleton(USER));
+            return stale;
+        });
+        assertThat(loaded).containsExactly("other");
+
+        // the next request loads the connections again
+        assertThat(projectConnectionCache.get(USER, user -> Collections.emptySet())).isEmpty();
+        assertThat(projectConnectionCache.get(USER, user -> stale)).isEmpty();
+    }
+
+    @Test
+    public void keepConnectionsLoadedWithoutChanges() {
+        assertThat(projectConnectionCache.get(USER, user -> Collections.singleton("other"))).containsExactly("other");
+        assertThat(projectConnectionCache.get(USER, user -> Collections.emptySet())).containsExactly("other");
+    }
+
+    /**
+     * Get a mock of a Hazelcast map, backed by a hash map.
+     */
+    @SuppressWarnings("unchecked")
+    private IMap<Object, Object> map(String name) {
+        Map<Object, Object> entries = maps.computeIfAbsent(name, k -> new HashMap<>());
+        IMap<Object, Object> map = mock(IMap.class);
+        when(map.get(any())).thenAnswer(invocation -> entries.get(invocation.getArgument(0)));
+        when(map.putIfAbsent(any(), any())).thenAnswer(invocation ->
+            entries.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1))
+        );
+        when(map.remove(any(), any())).thenAnswer(invocation ->
+            entries.remove(invocation.getArgument(0), invocation.getArgument(1))
+        );
+        doAnswer(invocation -> entries.remove(invocation.getArgument(0))).when(map).delete(any());
+        doAnswer(invocation -> entries.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(map).set(any(), any());
+        return map;
+    }
+}
@@ -0,0 +1,131 @@
+package pt.up.hs.project.service.cache;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pt.up.hs.project.domain.enumeration.ProjectStatus;
+import pt.up.hs.project.service.dto.LabelDTO;
+import pt.up.hs.project.service.dto.LabelUsageDTO;
+import pt.up.hs.project.service.dto.ParticipantBasicDTO;
+import pt.up.hs.project.service.dto.ProjectCountsDTO;
+import pt.up.hs.project.service.dto.ProjectDTO;
+import pt.up.hs.project.service.dto.ProjectPermissionDTO;
+import pt.up.hs.project.service.dto.TaskBasicDTO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CacheSerializersTest {
+
+    private InternalSerializationService serializationService;
+
+    @BeforeEach
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder()
+            .setConfig(CacheSerializers.register(new SerializationConfig()))
+            .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        serializationService.dispose();
+    }
+
+    @Test
+    public void roundTripProject() {
+        ProjectDTO project = new ProjectDTO();
+        project.setId(1L);
+        project.setName("Project");
+        project.setStatus(ProjectStatus.OPEN);
+        project.setColor("#000000");
+        project.setOwner("owner");
+        project.setCreatedBy("owner");
+        project.setCreatedDate(Instant.ofEpochSecond(1000, 123));
+        project.setLastModifiedDate(null);
+        ProjectPermissionDTO permission = new ProjectPermissionDTO();
+        permission.setUser("user");
+        permission.setProjectId(1L);
+        permission.setPermissionName("READ");
+        project.getPermissions().add(permission);
+
+        ProjectDTO result = roundTrip(project, CacheSerializers.PROJECT_TYPE_ID);
+
+        assertThat(result).isEqualToComparingFieldByField(project);
+        assertThat(result.getDescription()).isNull();
+        assertThat(result.getLastModifiedDate()).isNull();
+    }
+
+    @Test
+    public void roundTripLabels() {
+        LabelDTO label = new LabelDTO();
+        label.setId(1L);
+        label.setName("label");
+        label.setColor("#000000");
+        label.setProjectId(2L);
+        ArrayList<LabelDTO> labels = new ArrayList<>(Collections.singletonList(label));
+
+        List<LabelDTO> result = serializationService.toObject(serializationService.toData(labels));
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0)).isEqualToComparingFieldByField(label);
+    }
+
+    @Test
+    public void roundTripParticipant() {
+        ParticipantBasicDTO participant = new ParticipantBasicDTO();
+        participant.setId(1L);
+        participant.setName("participant");
+        participant.setProjectId(2L);
+        participant.setImageHash("abc");
+        participant.setLabelIds(new HashSet<>(Arrays.asList(3L, 4L)));
+
+        ParticipantBasicDTO result = roundTrip(participant, CacheSerializers.PARTICIPANT_BASIC_TYPE_ID);
+
+        assertThat(result).isEqualToComparingFieldByField(participant);
+    }
+
+    @Test
+    public void roundTripTask() {
+        TaskBasicDTO task = new TaskBasicDTO();
+        task.setId(1L);
+        task.setName("task");
+        task.setProjectId(null);
+
+        TaskBasicDTO result = roundTrip(task, CacheSerializers.TASK_BASIC_TYPE_ID);
+
+        assertThat(result).isEqualToComparingFieldByField(task);
+    }
+
+    @Test
+    public void roundTripCounts() {
+        ProjectCountsDTO counts = new ProjectCountsDTO();
+        counts.setProjectId(1L);
+        counts.setParticipants(10);
+        counts.setTasks(20);
+        counts.setLabels(2);
+        counts.setLabelUsage(Arrays.asList(new LabelUsageDTO(3L, 1, 2), new LabelUsageDTO(4L, 0, 5)));
+
+        ProjectCountsDTO result = roundTrip(counts, CacheSerializers.PROJECT_COUNTS_TYPE_ID);
+
+        assertThat(result).isEqualToIgnoringGivenFields(counts, "labelUsage");
+        assertThat(result.getLabelUsage())
+            .usingFieldByFieldElementComparator()
+            .containsExactlyElementsOf(counts.getLabelUsage());
+    }
+
+    private <T> T roundTrip(T object, int typeId) {
+        Data data = serializationService.toData(object);
+        assertThat(data.getType()).isEqualTo(typeId);
+        return serializationService.toObject(data);
+    }
+}
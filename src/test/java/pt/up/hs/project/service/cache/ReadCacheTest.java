@@ -0,0 +1,148 @@
+package pt.up.hs.project.service.cache;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReadCacheTest {
+
+    private final Map<Long, String> entries = new HashMap<>();
+    private final Map<Long, Integer> versions = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReadCache<Long, String> cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        IMap<Long, String> map = mock(IMap.class);
+        when(map.get(any())).thenAnswer(invocation -> entries.get(invocation.<Long>getArgument(0)));
+        when(map.putIfAbsent(any(), any())).thenAnswer(invocation ->
+            entries.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1))
+        );
+        when(map.remove(any(), any())).thenAnswer(invocation ->
+            entries.remove(invocation.<Long>getArgument(0), invocation.getArgument(1))
+        );
+        doAnswer(invocation -> entries.remove(invocation.<Long>getArgument(0))).when(map).delete(any());
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<Long, String>getMap(anyString())).thenReturn(map);
+
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ReadCache<>(
+            "test", hazelcastInstance, meterRegistry,
+            key -> versions.getOrDefault(key, 0),
+            key -> versions.merge(key, 1, Integer::sum)
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void loadOnMissAndCountHits() {
+        assertThat(cache.get(1L, () -> load("a"))).isEqualTo("a");
+        assertThat(cache.get(1L, () -> load("b"))).isEqualTo("a");
+        assertThat(cache.get(1L, () -> load("c"))).isEqualTo("a");
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(gets("hit")).isEqualTo(2.0);
+        assertThat(gets("miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    public void doNotCacheAbsentValues() {
+        assertThat(cache.get(1L, () -> load(null))).isNull();
+        assertThat(cache.get(1L, () -> load("a"))).isEqualTo("a");
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void evictOutsideTransaction() {
+        cache.get(1L, () -> load("a"));
+        cache.evict(1L);
+
+        assertThat(cache.get(1L, () -> load("b"))).isEqualTo("b");
+    }
+
+    @Test
+    public void bypassEvictedKeysUntilTransactionCompletes() {
+        cache.get(1L, () -> load("a"));
+        cache.get(2L, () -> load("x"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evict(1L);
+
+        // uncommitted changes are read, but not shared
+        assertThat(cache.get(1L, () -> load("b"))).isEqualTo("b");
+        assertThat(entries).doesNotContainKey(1L);
+        assertThat(cache.get(2L, () -> load("y"))).isEqualTo("x");
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(cache.get(1L, () -> load("c"))).isEqualTo("c");
+        assertThat(entries).containsEntry(1L, "c");
+    }
+
+    @Test
+    public void doNotKeepValuesLoadedWhileEvicted() {
+        // a writer commits and evicts the key after the value is loaded,
+        // but before it is cached
+        String loaded = cache.get(1L, () -> {
+            String stale = load("a");
+            cache.evict(1L);
+            return stale;
+        });
+
+        assertThat(loaded).isEqualTo("a");
+        assertThat(entries).doesNotContainKey(1L);
+        assertThat(cache.get(1L, () -> load("b"))).isEqualTo("b");
+        assertThat(entries).containsEntry(1L, "b");
+    }
+
+    @Test
+    public void changeVersionOnEviction() {
+        cache.get(1L, () -> load("a"));
+        cache.evict(1L);
+
+        assertThat(versions.get(1L)).isEqualTo(2);
+        assertThat(versions).doesNotContainKey(2L);
+    }
+
+    private String load(String value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get(ReadCache.GETS_METER)
+            .tag("region", "test")
+            .tag("result", result)
+            .counter()
+            .count();
+    }
+}
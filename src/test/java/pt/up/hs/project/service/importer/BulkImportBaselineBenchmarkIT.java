@@ -0,0 +1,25 @@
+package pt.up.hs.project.service.importer;
+
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.test.context.SpringBootTest;
+import pt.up.hs.project.ProjectApp;
+import pt.up.hs.project.config.SecurityBeanOverrideConfiguration;
+
+/**
+ * Baseline of {@link BulkImportBenchmarkIT}: the same imports without JDBC
+ * batching ({@code hibernate.jdbc.batch_size} unset) and with ids drawn
+ * from the default sequence in blocks of 50 (see
+ * {@code config/benchmark/baseline-orm.xml}), as before the bulk import
+ * path.
+ */
+@EnabledIfEnvironmentVariable(named = "IMPORT_BENCHMARK", matches = "true")
+@SpringBootTest(
+    classes = {SecurityBeanOverrideConfiguration.class, ProjectApp.class},
+    properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=0",
+        "spring.jpa.properties.hibernate.order_inserts=false",
+        "spring.jpa.mapping-resources=config/benchmark/baseline-orm.xml"
+    }
+)
+public class BulkImportBaselineBenchmarkIT extends BulkImportBenchmarkIT {
+}
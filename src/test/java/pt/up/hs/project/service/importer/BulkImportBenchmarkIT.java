@@ -0,0 +1,124 @@
+package pt.up.hs.project.service.importer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pt.up.hs.project.ProjectApp;
+import pt.up.hs.project.config.SecurityBeanOverrideConfiguration;
+import pt.up.hs.project.repository.BulkCloneRepository;
+import pt.up.hs.project.repository.ProjectRepository;
+import pt.up.hs.project.service.ParticipantService;
+import pt.up.hs.project.service.TaskService;
+import pt.up.hs.project.service.dto.BulkImportResultDTO;
+import pt.up.hs.project.service.dto.ParticipantDTO;
+import pt.up.hs.project.service.dto.TaskDTO;
+import pt.up.hs.project.web.rest.ProjectResourceIT;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput benchmark of the bulk import path: imports 100k participants
+ * and 100k tasks and reports the rows per second. Run it against the same
+ * database before and after a change to the persistence path, e.g.:
+ * <pre>
+ * IMPORT_BENCHMARK=true ./gradlew integrationTest --tests '*BulkImportBenchmarkIT'
+ * </pre>
+ * It only runs when {@code IMPORT_BENCHMARK} is {@code true}, as it takes
+ * far longer than the rest of the tests. {@link BulkImportBaselineBenchmarkIT}
+ * runs the same imports without JDBC batching and with the default
+ * sequence, for comparison.
+ */
+@EnabledIfEnvironmentVariable(named = "IMPORT_BENCHMARK", matches = "true")
+@SpringBootTest(classes = {SecurityBeanOverrideConfiguration.class, ProjectApp.class})
+public class BulkImportBenchmarkIT {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private static final int ROWS = 100_000;
+    private static final int LABELS = 20;
+
+    @Autowired
+    private ParticipantService participantService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private BulkCloneRepository bulkCloneRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long projectId;
+
+    @BeforeEach
+    public void initTest() {
+        projectId = projectRepository.saveAndFlush(ProjectResourceIT.createEntity(null)).getId();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            bulkCloneRepository.deleteProjectContents(projectId);
+            projectRepository.deleteById(projectId);
+            return null;
+        });
+    }
+
+    @Test
+    public void importParticipants() {
+        StringBuilder csv = new StringBuilder("name,gender,birthdate,handedness,additional info,labels\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append("Participant ").append(i).append(i % 2 == 0 ? ",MALE," : ",FEMALE,")
+                .append("2000-01-").append(String.format("%02d", i % 28 + 1))
+                .append(",RIGHT HAND,info ").append(i)
+                .append(",group ").append(i % LABELS).append("; all\n");
+        }
+
+        BulkImportResultDTO<ParticipantDTO> result = participantService.importFromCsv(
+            projectId, new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+            ",", ";", true, false
+        );
+
+        report("participants", result);
+        assertThat(result.getTotal()).isEqualTo(ROWS);
+    }
+
+    @Test
+    public void importTasks() {
+        StringBuilder csv = new StringBuilder("name,start date,end date,description,labels\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append("Task ").append(i).append(",2020-01-01,2020-12-31,description ").append(i)
+                .append(",group ").append(i % LABELS).append("; all\n");
+        }
+
+        BulkImportResultDTO<TaskDTO> result = taskService.importFromCsv(
+            projectId, new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+            ",", ";", true, false
+        );
+
+        report("tasks", result);
+        assertThat(result.getTotal()).isEqualTo(ROWS);
+    }
+
+    private void report(String entity, BulkImportResultDTO<?> result) {
+        log.info(
+            "Imported {} {} in {} ms ({} rows/s), {} invalid",
+            result.getTotal(), entity, result.getProcessingTime(),
+            Math.round(result.getTotal() * 1000.0 / Math.max(1, result.getProcessingTime())), result.getInvalid()
+        );
+    }
+}
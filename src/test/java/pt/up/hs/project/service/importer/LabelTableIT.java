@@ -0,0 +1,122 @@
+package pt.up.hs.project.service.importer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pt.up.hs.project.ProjectApp;
+import pt.up.hs.project.config.SecurityBeanOverrideConfiguration;
+import pt.up.hs.project.domain.Participant;
+import pt.up.hs.project.repository.LabelRepository;
+import pt.up.hs.project.repository.ParticipantRepository;
+import pt.up.hs.project.repository.ProjectRepository;
+import pt.up.hs.project.service.ProjectCounterService;
+import pt.up.hs.project.service.cache.ProjectReadCaches;
+import pt.up.hs.project.web.rest.ProjectResourceIT;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for the {@link LabelTable}. Labels are created in the
+ * transaction of the chunk which writes the rows, hence the test data is
+ * committed and deleted after each test.
+ */
+@SpringBootTest(classes = {SecurityBeanOverrideConfiguration.class, ProjectApp.class})
+public class LabelTableIT {
+
+    @Autowired
+    private LabelRepository labelRepository;
+
+    @Autowired
+    private ParticipantRepository participantRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectCounterService projectCounterService;
+
+    @Autowired
+    private ProjectReadCaches projectReadCaches;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long projectId;
+
+    @BeforeEach
+    public void initTest() {
+        projectId = projectRepository.saveAndFlush(ProjectResourceIT.createEntity(null)).getId();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update(
+            "delete from participant_labels where participant_id in (select id from participant where project_id = ?)",
+            projectId
+        );
+        jdbcTemplate.update("delete from participant where project_id = ?", projectId);
+        jdbcTemplate.update("delete from label_counter where project_id = ?", projectId);
+        jdbcTemplate.update("delete from label where project_id = ?", projectId);
+        jdbcTemplate.update("delete from project_counter where project_id = ?", projectId);
+        projectRepository.deleteById(projectId);
+    }
+
+    @Test
+    public void rollBackLabelsOfFailingChunk() {
+        LabelTable labelTable = new LabelTable(
+            labelRepository, projectCounterService, projectReadCaches, projectId
+        );
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // the second row has no name, so the chunk fails after its labels
+        // are created
+        List<ImportRow<Participant>> failingChunk = Arrays.asList(
+            row("AAAAAAAAAA", "first", "shared"),
+            row(null, "second", "shared")
+        );
+        assertThatThrownBy(() -> transactionTemplate.execute(status ->
+            participantRepository.saveAll(labelTable.attach(failingChunk, Participant::setLabels))
+        ));
+
+        assertThat(labelRepository.findAllByProjectIdAndNameIn(
+            projectId, Arrays.asList("first", "second", "shared")
+        )).isEmpty();
+        assertThat(participantRepository.countByProjectId(projectId)).isZero();
+        assertThat(projectCounterService.get(projectId).getLabels()).isZero();
+
+        // the table forgets the labels rolled back, so the next chunk
+        // creates them again
+        List<ImportRow<Participant>> chunk = Arrays.asList(
+            row("AAAAAAAAAA", "first", "shared"),
+            row("BBBBBBBBBB", "second", "shared")
+        );
+        transactionTemplate.execute(status ->
+            participantRepository.saveAll(labelTable.attach(chunk, Participant::setLabels))
+        );
+
+        assertThat(labelRepository.findAllByProjectIdAndNameIn(
+            projectId, Arrays.asList("first", "second", "shared")
+        )).hasSize(3);
+        assertThat(projectCounterService.get(projectId).getLabels()).isEqualTo(3);
+    }
+
+    private ImportRow<Participant> row(String name, String... labelNames) {
+        return new ImportRow<>(
+            new Participant().name(name).projectId(projectId),
+            new LinkedHashSet<>(Arrays.asList(labelNames))
+        );
+    }
+}
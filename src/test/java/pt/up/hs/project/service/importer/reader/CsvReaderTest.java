@@ -0,0 +1,93 @@
+package pt.up.hs.project.service.importer.reader;
+
+import org.junit.jupiter.api.Test;
+import pt.up.hs.project.service.importer.dto.ParticipantCsvDTO;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CsvReaderTest {
+
+    private static final String CSV =
+        "name,gender,birthdate,handedness,additional info,labels\n" +
+        "John Doe,MALE,2020-02-23,LEft,multi-tasking,test; nop\n" +
+        ",,,2020-02-23,LEft,multi-tasking,test; nop\n" +
+        "\n" +
+        "Jane Doe,FEMALE,2020-02-23,OTHER,\"Run Avon,\n overriding\",test\n" +
+        "Jane,F,2020-02-23,RIGHT HAND,Buckinghamshire,nop\n";
+
+    @Test
+    public void readRowsWithLineNumbers() throws Exception {
+        try (CsvReader<ParticipantCsvDTO> reader = CsvReader.fromInputStream(
+            ParticipantCsvDTO.class, new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)), ",", true
+        )) {
+            List<String> names = new ArrayList<>();
+            List<Long> lines = new ArrayList<>();
+            for (ParticipantCsvDTO participantCsvDTO : reader) {
+                names.add(participantCsvDTO.getName());
+                lines.add(reader.getLineNumber());
+            }
+
+            assertThat(names).containsExactly("John Doe", "Jane Doe", "Jane");
+            assertThat(lines).containsExactly(2L, 6L, 7L);
+            assertThat(reader.getExceptionLines()).containsExactly(3);
+        }
+    }
+
+    @Test
+    public void readRowsInParallelBlocksWithLineNumbers() throws Exception {
+        StringBuilder csv = new StringBuilder("name,gender,birthdate,handedness,additional info,labels\n");
+        for (int i = 0; i < 100; i++) {
+            if (i % 10 == 3) {
+                csv.append(",,,2020-02-23,LEft,multi-tasking,test\n");
+            } else {
+                csv.append("P").append(i).append(",MALE,2020-02-23,LEft,info,test\n");
+            }
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (CsvReader<String> reader = CsvReader.fromInputStream(
+            ParticipantCsvDTO.class, new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+            ",", true, participantCsvDTO -> {
+                if ("P42".equals(participantCsvDTO.getName())) {
+                    throw new IllegalArgumentException("Invalid participant");
+                }
+                return participantCsvDTO.getName();
+            }, executor, 7, 8
+        )) {
+            List<String> names = new ArrayList<>();
+            for (String name : reader) {
+                assertThat(name).isEqualTo("P" + (reader.getLineNumber() - 2));
+                names.add(name);
+            }
+
+            assertThat(names).hasSize(89);
+            assertThat(reader.getExceptionLines())
+                .containsExactly(5, 15, 25, 35, 44, 45, 55, 65, 75, 85, 95);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void failReadingWhenExecutorRejectsBlocks() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        executor.shutdown();
+        try (CsvReader<ParticipantCsvDTO> reader = CsvReader.fromInputStream(
+            ParticipantCsvDTO.class, new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)),
+            ",", true, participantCsvDTO -> participantCsvDTO, executor, 2, 2
+        )) {
+            assertThatThrownBy(() -> reader.iterator().hasNext())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package pt.up.hs.project.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HashesTest {
+
+    @Test
+    public void sha256HexOfEmptyContent() {
+        assertThat(Hashes.sha256Hex(new byte[0]))
+            .isEqualTo("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855");
+    }
+
+    @Test
+    public void sha256HexOfContent() {
+        assertThat(Hashes.sha256Hex("abc".getBytes(StandardCharsets.US_ASCII)))
+            .isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+}
@@ -0,0 +1,37 @@
+package pt.up.hs.project.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class KeysetTest {
+
+    @Test
+    public void encodeAndDecodeFirst() {
+        Keyset keyset = Keyset.first("name", false);
+        Keyset decoded = Keyset.decode(keyset.encode());
+        assertThat(decoded).isEqualTo(keyset);
+        assertThat(decoded.isFirst()).isTrue();
+        assertThat(decoded.isAscending()).isFalse();
+    }
+
+    @Test
+    public void encodeAndDecodeWithSeparatorsInValue() {
+        Keyset keyset = Keyset.first("name", true).after(42L, "Doe, John/é");
+        String token = keyset.encode();
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        Keyset decoded = Keyset.decode(token);
+        assertThat(decoded).isEqualTo(keyset);
+        assertThat(decoded.getLastId()).isEqualTo(42L);
+        assertThat(decoded.getLastValue()).isEqualTo("Doe, John/é");
+    }
+
+    @Test
+    public void rejectMalformed() {
+        assertThatThrownBy(() -> Keyset.decode("not a token"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Keyset.decode(Keyset.first("id", true).encode().substring(0, 2)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,49 @@
+package pt.up.hs.project.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LongLongMapTest {
+
+    @Test
+    public void putAndGet() {
+        LongLongMap map = new LongLongMap();
+        for (long i = 1; i <= 10000; i++) {
+            map.put(i, i + 1000);
+        }
+        assertThat(map.size()).isEqualTo(10000);
+        assertThat(map.get(1L, -1L)).isEqualTo(1001L);
+        assertThat(map.get(10000L, -1L)).isEqualTo(11000L);
+        assertThat(map.get(10001L, -1L)).isEqualTo(-1L);
+        assertThat(map.containsKey(5000L)).isTrue();
+        assertThat(map.containsKey(-5000L)).isFalse();
+    }
+
+    @Test
+    public void replaceValueAndZeroKey() {
+        LongLongMap map = new LongLongMap();
+        map.put(7L, 1L);
+        map.put(7L, 2L);
+        map.put(0L, 3L);
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.get(7L, -1L)).isEqualTo(2L);
+        assertThat(map.get(0L, -1L)).isEqualTo(3L);
+
+        map.clear();
+        assertThat(map.isEmpty()).isTrue();
+        assertThat(map.containsKey(0L)).isFalse();
+    }
+
+    @Test
+    public void toMap() {
+        LongLongMap map = new LongLongMap(2);
+        map.put(1L, 11L);
+        map.put(2L, 22L);
+        map.put(3L, 33L);
+        Map<Long, Long> boxed = map.toMap();
+        assertThat(boxed).hasSize(3).containsEntry(1L, 11L).containsEntry(3L, 33L);
+    }
+}
@@ -0,0 +1,151 @@
+package pt.up.hs.project.web.rest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import pt.up.hs.project.ProjectApp;
+import pt.up.hs.project.config.SecurityBeanOverrideConfiguration;
+import pt.up.hs.project.service.CloneJobEventService;
+import pt.up.hs.project.service.CloneJobService;
+import pt.up.hs.project.service.dto.CloneJobStatusDTO;
+import pt.up.hs.project.service.impl.CloneJobEventServiceImpl;
+import pt.up.hs.project.web.rest.errors.ExceptionTranslator;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link CloneJobResource} REST controller. The
+ * progress of the jobs is mocked, as it is read from the Spring Batch
+ * metadata of jobs which take long to run.
+ */
+@SpringBootTest(classes = {SecurityBeanOverrideConfiguration.class, ProjectApp.class})
+public class CloneJobResourceIT {
+
+    private static final Long NEW_PROJECT_ID = 2L;
+    private static final Long UNKNOWN_PROJECT_ID = 3L;
+    private static final long ASYNC_TIMEOUT = 5000L;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private ExceptionTranslator exceptionTranslator;
+
+    private CloneJobService cloneJobService;
+
+    private CloneJobEventService cloneJobEventService;
+
+    private MockMvc restCloneJobMockMvc;
+
+    @BeforeEach
+    public void setup() {
+        cloneJobService = mock(CloneJobService.class);
+        when(cloneJobService.findLatestByNewProjectId(anyLong())).thenReturn(Optional.empty());
+        cloneJobEventService = new CloneJobEventServiceImpl(cloneJobService);
+        restCloneJobMockMvc = MockMvcBuilders
+            .standaloneSetup(new CloneJobResource(cloneJobService, cloneJobEventService))
+            .setControllerAdvice(exceptionTranslator)
+            .setMessageConverters(jacksonMessageConverter)
+            .build();
+    }
+
+    @Test
+    public void getCloneJob() throws Exception {
+        when(cloneJobService.findLatestByNewProjectId(NEW_PROJECT_ID))
+            .thenReturn(Optional.of(status("STARTED", false)));
+
+        restCloneJobMockMvc.perform(get("/api/projects/{projectId}/clone-job", NEW_PROJECT_ID))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.executionId").value(1))
+            .andExpect(jsonPath("$.newProjectId").value(NEW_PROJECT_ID.intValue()))
+            .andExpect(jsonPath("$.status").value("STARTED"));
+    }
+
+    @Test
+    public void getNonExistingCloneJob() throws Exception {
+        restCloneJobMockMvc.perform(get("/api/projects/{projectId}/clone-job", UNKNOWN_PROJECT_ID))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void streamCloneJobUntilItEnds() throws Exception {
+        when(cloneJobService.findLatestByNewProjectId(NEW_PROJECT_ID))
+            .thenReturn(Optional.of(status("STARTED", false)));
+
+        // the current progress is sent at once
+        MvcResult result = restCloneJobMockMvc
+            .perform(get("/api/projects/{projectId}/clone-job/events", NEW_PROJECT_ID))
+            .andExpect(request().asyncStarted())
+            .andExpect(content().string(containsString("event:progress")))
+            .andExpect(content().string(containsString("\"status\":\"STARTED\"")))
+            .andReturn();
+
+        // an unchanged progress is not sent again
+        cloneJobEventService.pushUpdates();
+        assertThat(count(result.getResponse().getContentAsString(), "event:progress")).isEqualTo(1);
+
+        // the last progress is sent when the job ends, closing the stream
+        when(cloneJobService.findLatestByNewProjectId(NEW_PROJECT_ID))
+            .thenReturn(Optional.of(status("COMPLETED", true)));
+        cloneJobEventService.pushUpdates();
+        result.getAsyncResult(ASYNC_TIMEOUT);
+        assertThat(result.getResponse().getContentAsString()).contains("\"status\":\"COMPLETED\"");
+        assertThat(count(result.getResponse().getContentAsString(), "event:progress")).isEqualTo(2);
+    }
+
+    @Test
+    public void streamEndedCloneJob() throws Exception {
+        when(cloneJobService.findLatestByNewProjectId(NEW_PROJECT_ID))
+            .thenReturn(Optional.of(status("FAILED", true)));
+
+        MvcResult result = restCloneJobMockMvc
+            .perform(get("/api/projects/{projectId}/clone-job/events", NEW_PROJECT_ID))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // the stream is closed after the only event
+        result.getAsyncResult(ASYNC_TIMEOUT);
+        assertThat(count(result.getResponse().getContentAsString(), "event:progress")).isEqualTo(1);
+        assertThat(result.getResponse().getContentAsString()).contains("\"status\":\"FAILED\"");
+    }
+
+    @Test
+    public void streamNonExistingCloneJob() throws Exception {
+        restCloneJobMockMvc.perform(get("/api/projects/{projectId}/clone-job/events", UNKNOWN_PROJECT_ID))
+            .andExpect(request().asyncNotStarted())
+            .andExpect(status().isNotFound());
+    }
+
+    private static CloneJobStatusDTO status(String status, boolean finished) {
+        CloneJobStatusDTO dto = new CloneJobStatusDTO();
+        dto.setExecutionId(1L);
+        dto.setProjectId(1L);
+        dto.setNewProjectId(NEW_PROJECT_ID);
+        dto.setStatus(status);
+        dto.setStartTime(Instant.now());
+        dto.setEndTime(finished ? Instant.now() : null);
+        return dto;
+    }
+
+    private static int count(String content, String text) {
+        int count = 0;
+        for (int i = content.indexOf(text); i >= 0; i = content.indexOf(text, i + text.length())) {
+            count++;
+        }
+        return count;
+    }
+}
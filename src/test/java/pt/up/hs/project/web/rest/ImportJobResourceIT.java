@@ -0,0 +1,193 @@
+package pt.up.hs.project.web.rest;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import pt.up.hs.project.ProjectApp;
+import pt.up.hs.project.config.ApplicationProperties;
+import pt.up.hs.project.config.SecurityBeanOverrideConfiguration;
+import pt.up.hs.project.constants.EntityNames;
+import pt.up.hs.project.repository.ProjectRepository;
+import pt.up.hs.project.service.ImportJobService;
+import pt.up.hs.project.service.impl.ImportJobServiceImpl;
+import pt.up.hs.project.service.importer.batch.CsvImportJobLauncher;
+import pt.up.hs.project.web.rest.errors.ExceptionTranslator;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static pt.up.hs.project.service.importer.batch.ImportConstants.PARTICIPANT_CSV_IMPORT_JOB;
+import static pt.up.hs.project.service.importer.batch.ImportConstants.TASK_CSV_IMPORT_JOB;
+
+/**
+ * Integration tests for the {@link ImportJobResource} REST controller. The
+ * jobs run in the background, in their own transactions, hence the test
+ * data is committed and deleted after each test.
+ */
+@SpringBootTest(classes = {SecurityBeanOverrideConfiguration.class, ProjectApp.class})
+public class ImportJobResourceIT {
+
+    private static final long JOB_TIMEOUT = 10000;
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    @Autowired
+    @Qualifier(PARTICIPANT_CSV_IMPORT_JOB)
+    private Job participantCsvImportJob;
+
+    @Autowired
+    @Qualifier(TASK_CSV_IMPORT_JOB)
+    private Job taskCsvImportJob;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private ExceptionTranslator exceptionTranslator;
+
+    @TempDir
+    Path spoolDirectory;
+
+    private Long projectId;
+
+    @BeforeEach
+    public void initTest() {
+        projectId = projectRepository.saveAndFlush(ProjectResourceIT.createEntity(null)).getId();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("delete from participant where project_id = ?", projectId);
+        jdbcTemplate.update("delete from label_counter where project_id = ?", projectId);
+        jdbcTemplate.update("delete from project_counter where project_id = ?", projectId);
+        projectRepository.deleteById(projectId);
+    }
+
+    @Test
+    public void importParticipantsCsvInBackground() throws Exception {
+        MockMvc restImportJobMockMvc = buildMockMvc(importJobService);
+        byte[] content = TestUtil.readFileFromResourcesFolder("data/participants/participants-async.csv");
+        MockMultipartFile file = new MockMultipartFile("file", "participants-async.csv", null, content);
+
+        // Start the import, which is accepted at once
+        String response = restImportJobMockMvc
+            .perform(
+                MockMvcRequestBuilders
+                    .multipart("/api/projects/{projectId}/participants/import-jobs", projectId)
+                    .file(file)
+            )
+            .andExpect(status().isAccepted())
+            .andExpect(header().string("Location", startsWith("/api/projects/" + projectId + "/import-jobs/")))
+            .andExpect(jsonPath("$.executionId").isNumber())
+            .andExpect(jsonPath("$.projectId").value(projectId.intValue()))
+            .andExpect(jsonPath("$.entityName").value(EntityNames.PARTICIPANT))
+            .andReturn().getResponse().getContentAsString();
+        Integer executionId = JsonPath.read(response, "$.executionId");
+
+        // Follow its progress until it ends
+        String status = waitForJob(restImportJobMockMvc, executionId);
+        assertThat(status).isEqualTo("COMPLETED");
+
+        restImportJobMockMvc.perform(get("/api/projects/{projectId}/import-jobs/{executionId}", projectId, executionId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.executionId").value(executionId))
+            .andExpect(jsonPath("$.rowsImported").value(3))
+            .andExpect(jsonPath("$.rowsRejected").value(1))
+            .andExpect(jsonPath("$.rowsProcessed").value(4))
+            .andExpect(jsonPath("$.rejectedLines").value(hasSize(1)))
+            .andExpect(jsonPath("$.endTime").exists());
+
+        Long imported = jdbcTemplate.queryForObject(
+            "select count(*) from participant where project_id = ?", Long.class, projectId
+        );
+        assertThat(imported).isEqualTo(3L);
+    }
+
+    @Test
+    public void getImportJobOfOtherProject() throws Exception {
+        MockMvc restImportJobMockMvc = buildMockMvc(importJobService);
+
+        restImportJobMockMvc.perform(get("/api/projects/{projectId}/import-jobs/{executionId}", projectId, Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void rejectImportWhenTooManyAreWaiting() throws Exception {
+        CsvImportJobLauncher csvImportJobLauncher = mock(CsvImportJobLauncher.class);
+        when(csvImportJobLauncher.run(any(), any(), any(), anyString(), anyString(), anyBoolean()))
+            .thenThrow(new TaskRejectedException("rejected"));
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getImporter().setSpoolDirectory(spoolDirectory.toString());
+        ImportJobService rejectingImportJobService = new ImportJobServiceImpl(
+            csvImportJobLauncher, jobExplorer, participantCsvImportJob, taskCsvImportJob, applicationProperties
+        );
+        MockMvc restImportJobMockMvc = buildMockMvc(rejectingImportJobService);
+        byte[] content = TestUtil.readFileFromResourcesFolder("data/participants/participants-async.csv");
+
+        restImportJobMockMvc
+            .perform(
+                MockMvcRequestBuilders
+                    .multipart("/api/projects/{projectId}/participants/import-jobs", projectId)
+                    .file(new MockMultipartFile("file", "participants-async.csv", null, content))
+            )
+            .andExpect(status().isServiceUnavailable());
+
+        // the spooled file is deleted
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private MockMvc buildMockMvc(ImportJobService importJobService) {
+        return MockMvcBuilders.standaloneSetup(new ImportJobResource(importJobService))
+            .setControllerAdvice(exceptionTranslator)
+            .setMessageConverters(jacksonMessageConverter)
+            .build();
+    }
+
+    private String waitForJob(MockMvc restImportJobMockMvc, Integer executionId) throws Exception {
+        long deadline = System.currentTimeMillis() + JOB_TIMEOUT;
+        String status;
+        do {
+            Thread.sleep(100);
+            String response = restImportJobMockMvc
+                .perform(get("/api/projects/{projectId}/import-jobs/{executionId}", projectId, executionId))
+                .andReturn().getResponse().getContentAsString();
+            status = JsonPath.read(response, "$.status");
+        } while (("STARTING".equals(status) || "STARTED".equals(status)) && System.currentTimeMillis() < deadline);
+        return status;
+    }
+}
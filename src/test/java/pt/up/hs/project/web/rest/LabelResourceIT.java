@@ -8,6 +8,7 @@ import pt.up.hs.project.domain.Participant;
 import pt.up.hs.project.domain.Task;
 import pt.up.hs.project.repository.LabelRepository;
 import pt.up.hs.project.service.LabelService;
+import pt.up.hs.project.service.cache.ProjectVersions;
 import pt.up.hs.project.service.dto.LabelDTO;
 import pt.up.hs.project.service.mapper.LabelMapper;
 import pt.up.hs.project.web.rest.errors.ExceptionTranslator;
@@ -18,6 +19,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
@@ -31,6 +33,7 @@ import java.util.List;
 import static pt.up.hs.project.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -55,6 +58,9 @@ public class LabelResourceIT {
     @Autowired
     private LabelService labelService;
 
+    @Autowired
+    private ProjectVersions projectVersions;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -78,7 +84,7 @@ public class LabelResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final LabelResource labelResource = new LabelResource(labelService);
+        final LabelResource labelResource = new LabelResource(labelService, projectVersions);
         this.restLabelMockMvc = MockMvcBuilders.standaloneSetup(labelResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -226,6 +232,58 @@ public class LabelResourceIT {
             .andExpect(jsonPath("$.[*].color").value(hasItem(DEFAULT_COLOR)));
     }
 
+    @Test
+    @Transactional
+    public void getAllLabelsAfterCreate() throws Exception {
+        // Get all the labelList, so that it is cached
+        restLabelMockMvc.perform(get("/api/projects/{projectId}/labels", projectId))
+            .andExpect(status().isOk());
+
+        // Create the Label
+        LabelDTO labelDTO = labelMapper.toDto(label);
+        restLabelMockMvc.perform(post("/api/projects/{projectId}/labels", projectId)
+            .contentType(TestUtil.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(labelDTO)))
+            .andExpect(status().isCreated());
+        List<Label> labelList = labelRepository.findAll();
+        Long id = labelList.get(labelList.size() - 1).getId();
+
+        // Get all the labelList again, with the new label
+        restLabelMockMvc.perform(get("/api/projects/{projectId}/labels", projectId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(id.intValue())));
+    }
+
+    @Test
+    @Transactional
+    public void getAllLabelsNotModifiedUntilChanged() throws Exception {
+        // Get all the labelList, with its tag
+        String etag = restLabelMockMvc.perform(get("/api/projects/{projectId}/labels", projectId))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Get it again with the tag
+        restLabelMockMvc.perform(get("/api/projects/{projectId}/labels", projectId)
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Create the Label
+        LabelDTO labelDTO = labelMapper.toDto(label);
+        restLabelMockMvc.perform(post("/api/projects/{projectId}/labels", projectId)
+            .contentType(TestUtil.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(labelDTO)))
+            .andExpect(status().isCreated());
+
+        // Get it again with the old tag, which no longer matches
+        restLabelMockMvc.perform(get("/api/projects/{projectId}/labels", projectId)
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
+    }
+
     @Test
     @Transactional
     public void getLabel() throws Exception {
@@ -241,6 +299,41 @@ public class LabelResourceIT {
             .andExpect(jsonPath("$.color").value(DEFAULT_COLOR));
     }
 
+    @Test
+    @Transactional
+    public void countLabelsAfterCreateAndDelete() throws Exception {
+        long countBefore = labelRepository.countByProjectId(projectId);
+
+        // Create the Label
+        LabelDTO labelDTO = labelMapper.toDto(label);
+        restLabelMockMvc.perform(post("/api/projects/{projectId}/labels", projectId)
+            .contentType(TestUtil.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(labelDTO)))
+            .andExpect(status().isCreated());
+        List<Label> labelList = labelRepository.findAll();
+        Long id = labelList.get(labelList.size() - 1).getId();
+
+        // Check the count, and the usage of the new label
+        restLabelMockMvc.perform(get("/api/projects/{projectId}/labels/count", projectId))
+            .andExpect(status().isOk())
+            .andExpect(content().string(String.valueOf(countBefore + 1)));
+        restLabelMockMvc.perform(get("/api/projects/{projectId}/labels/usage", projectId))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[?(@.labelId == " + id + ")].participants").value(hasItem(0)))
+            .andExpect(jsonPath("$.[?(@.labelId == " + id + ")].tasks").value(hasItem(0)));
+
+        // Delete the label
+        restLabelMockMvc.perform(delete("/api/projects/{projectId}/labels/{id}", projectId, id)
+            .accept(TestUtil.APPLICATION_JSON))
+            .andExpect(status().isNoContent());
+
+        // Check the count is back
+        restLabelMockMvc.perform(get("/api/projects/{projectId}/labels/count", projectId))
+            .andExpect(status().isOk())
+            .andExpect(content().string(String.valueOf(countBefore)));
+    }
+
     /**
      * Executes the search, and checks that the default entity is returned.
      */
@@ -8,7 +8,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
@@ -16,26 +19,31 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.Base64Utils;
 import org.springframework.validation.Validator;
 import pt.up.hs.project.ProjectApp;
 import pt.up.hs.project.config.SecurityBeanOverrideConfiguration;
 import pt.up.hs.project.domain.Label;
 import pt.up.hs.project.domain.Participant;
+import pt.up.hs.project.domain.ParticipantImage;
 import pt.up.hs.project.domain.Project;
 import pt.up.hs.project.domain.enumeration.Gender;
 import pt.up.hs.project.domain.enumeration.HandwritingMean;
+import pt.up.hs.project.repository.ParticipantImageRepository;
 import pt.up.hs.project.repository.ParticipantRepository;
 import pt.up.hs.project.service.ParticipantService;
+import pt.up.hs.project.service.cache.ProjectVersions;
 import pt.up.hs.project.service.dto.ParticipantDTO;
 import pt.up.hs.project.service.mapper.ParticipantMapper;
+import pt.up.hs.project.utils.Hashes;
 import pt.up.hs.project.web.rest.errors.ExceptionTranslator;
+import pt.up.hs.project.web.rest.util.CursorPaginationUtil;
 
 import javax.persistence.EntityManager;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -73,6 +81,8 @@ public class ParticipantResourceIT {
     private static final byte[] UPDATED_IMAGE = TestUtil.createByteArray(1, "1");
     private static final String DEFAULT_IMAGE_CONTENT_TYPE = "image/jpg";
     private static final String UPDATED_IMAGE_CONTENT_TYPE = "image/png";
+    private static final String DEFAULT_IMAGE_HASH = Hashes.sha256Hex(DEFAULT_IMAGE);
+    private static final String UPDATED_IMAGE_HASH = Hashes.sha256Hex(UPDATED_IMAGE);
 
     private static final String CSV_PARTICIPANT_1_NAME = "John Doe";
     private static final String CSV_PARTICIPANT_2_NAME = "Jane Doe";
@@ -103,6 +113,9 @@ public class ParticipantResourceIT {
     @Mock
     private ParticipantRepository participantRepositoryMock;
 
+    @Autowired
+    private ParticipantImageRepository participantImageRepository;
+
     @Autowired
     private ParticipantMapper participantMapper;
 
@@ -112,6 +125,9 @@ public class ParticipantResourceIT {
     @Autowired
     private ParticipantService participantService;
 
+    @Autowired
+    private ProjectVersions projectVersions;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -136,12 +152,16 @@ public class ParticipantResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final ParticipantResource participantResource = new ParticipantResource(participantService);
+        final ParticipantResource participantResource = new ParticipantResource(participantService, projectVersions);
         this.restParticipantMockMvc = MockMvcBuilders.standaloneSetup(participantResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
             .setConversionService(createFormattingConversionService())
-            .setMessageConverters(jacksonMessageConverter)
+            .setMessageConverters(
+                jacksonMessageConverter,
+                new ResourceHttpMessageConverter(),
+                new ResourceRegionHttpMessageConverter()
+            )
             .setValidator(validator).build();
     }
 
@@ -158,7 +178,7 @@ public class ParticipantResourceIT {
             .birthdate(DEFAULT_BIRTHDATE)
             .handedness(DEFAULT_HANDWRITING_MEAN)
             .additionalInfo(DEFAULT_ADDITIONAL_INFO)
-            .image(DEFAULT_IMAGE)
+            .imageHash(DEFAULT_IMAGE_HASH)
             .imageContentType(DEFAULT_IMAGE_CONTENT_TYPE)
             .projectId(projectId);
 
@@ -187,7 +207,7 @@ public class ParticipantResourceIT {
             .birthdate(UPDATED_BIRTHDATE)
             .handedness(UPDATED_HANDWRITING_MEAN)
             .additionalInfo(UPDATED_ADDITIONAL_INFO)
-            .image(UPDATED_IMAGE)
+            .imageHash(UPDATED_IMAGE_HASH)
             .imageContentType(UPDATED_IMAGE_CONTENT_TYPE)
             .projectId(projectId);
 
@@ -245,6 +265,7 @@ public class ParticipantResourceIT {
 
         // Create the Participant
         ParticipantDTO participantDTO = participantMapper.toDto(participant);
+        participantDTO.setImage(DEFAULT_IMAGE);
         restParticipantMockMvc.perform(post("/api/projects/{projectId}/participants", projectId)
             .contentType(TestUtil.APPLICATION_JSON)
             .content(TestUtil.convertObjectToJsonBytes(participantDTO)))
@@ -259,8 +280,12 @@ public class ParticipantResourceIT {
         assertThat(testParticipant.getBirthdate()).isEqualTo(DEFAULT_BIRTHDATE);
         assertThat(testParticipant.getHandedness()).isEqualTo(DEFAULT_HANDWRITING_MEAN);
         assertThat(testParticipant.getAdditionalInfo()).isEqualTo(DEFAULT_ADDITIONAL_INFO);
-        assertThat(testParticipant.getImage()).isEqualTo(DEFAULT_IMAGE);
+        assertThat(testParticipant.getImageHash()).isEqualTo(DEFAULT_IMAGE_HASH);
         assertThat(testParticipant.getImageContentType()).isEqualTo(DEFAULT_IMAGE_CONTENT_TYPE);
+        ParticipantImage testImage = participantImageRepository.findById(testParticipant.getId()).get();
+        assertThat(testImage.getContent()).isEqualTo(DEFAULT_IMAGE);
+        assertThat(testImage.getContentLength()).isEqualTo((long) DEFAULT_IMAGE.length);
+        assertThat(testImage.getHash()).isEqualTo(DEFAULT_IMAGE_HASH);
         assertThat(testParticipant.getCreatedBy()).isEqualTo(DEFAULT_USERNAME);
         assertThat(testParticipant.getCreatedDate()).isStrictlyBetween(beforeInstant, Instant.now());
     }
@@ -323,12 +348,46 @@ public class ParticipantResourceIT {
             .andExpect(jsonPath("$.[*].handedness").value(hasItem(DEFAULT_HANDWRITING_MEAN.toString())))
             .andExpect(jsonPath("$.[*].additionalInfo").value(hasItem(DEFAULT_ADDITIONAL_INFO)))
             .andExpect(jsonPath("$.[*].imageContentType").value(hasItem(DEFAULT_IMAGE_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].image").value(hasItem(Base64Utils.encodeToString(DEFAULT_IMAGE))))
+            .andExpect(jsonPath("$.[*].imageHash").value(hasItem(DEFAULT_IMAGE_HASH)))
+            .andExpect(jsonPath("$.[*].image").doesNotExist())
             .andExpect(jsonPath("$.[*].labels").isArray())
             .andExpect(jsonPath("$.[*].createdBy").value(hasItem(DEFAULT_USERNAME)))
             .andExpect(jsonPath("$.[*].createdDate").exists());
     }
 
+    @Test
+    @Transactional
+    public void getAllParticipantsWithCursor() throws Exception {
+        // Initialize the database
+        participantRepository.saveAndFlush(participant);
+        Participant other = participantRepository.saveAndFlush(createEntity(projectId, new Long[] { labelId }));
+
+        // Get the first page
+        String nextCursor = restParticipantMockMvc.perform(
+            get("/api/projects/{projectId}/participants?cursor=&size=1&sort=id,asc&count=true", projectId))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(header().exists(CursorPaginationUtil.HEADER_NEXT_CURSOR))
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(participant.getId().intValue()))
+            .andExpect(jsonPath("$.[0].labels").isArray())
+            .andReturn().getResponse().getHeader(CursorPaginationUtil.HEADER_NEXT_CURSOR);
+
+        // Get the last page
+        restParticipantMockMvc.perform(
+            get("/api/projects/{projectId}/participants?size=1&cursor={cursor}", projectId, nextCursor))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().doesNotExist(CursorPaginationUtil.HEADER_NEXT_CURSOR))
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(other.getId().intValue()));
+
+        // Reject a malformed cursor
+        restParticipantMockMvc.perform(
+            get("/api/projects/{projectId}/participants?cursor={cursor}", projectId, "%%%"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void getAllParticipantsBasic() throws Exception {
@@ -344,9 +403,39 @@ public class ParticipantResourceIT {
             .andExpect(jsonPath("$.[*].labelIds.[*]").value(hasItem(labelId.intValue())));
     }
 
+    @Test
+    @Transactional
+    public void getAllParticipantsBasicNotModifiedUntilChanged() throws Exception {
+        // Get the basic participantList, with its tag
+        String etag = restParticipantMockMvc.perform(get("/api/projects/{projectId}/participants/basic", projectId))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Get it again with the tag
+        restParticipantMockMvc.perform(get("/api/projects/{projectId}/participants/basic", projectId)
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Create the Participant
+        ParticipantDTO participantDTO = participantMapper.toDto(participant);
+        restParticipantMockMvc.perform(post("/api/projects/{projectId}/participants", projectId)
+            .contentType(TestUtil.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(participantDTO)))
+            .andExpect(status().isCreated());
+
+        // Get it again with the old tag, which no longer matches
+        restParticipantMockMvc.perform(get("/api/projects/{projectId}/participants/basic", projectId)
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
+    }
+
     @SuppressWarnings({"unchecked"})
     public void getAllParticipantsWithEagerRelationshipsIsEnabled() throws Exception {
-        ParticipantResource participantResource = new ParticipantResource(participantServiceMock);
+        ParticipantResource participantResource = new ParticipantResource(participantServiceMock, projectVersions);
         when(participantServiceMock.findAllWithEagerRelationships(projectId, null, null, any())).thenReturn(new PageImpl<>(new ArrayList<>()));
 
         MockMvc restParticipantMockMvc = MockMvcBuilders.standaloneSetup(participantResource)
@@ -363,7 +452,7 @@ public class ParticipantResourceIT {
 
     @SuppressWarnings({"unchecked"})
     public void getAllParticipantsWithEagerRelationshipsIsNotEnabled() throws Exception {
-        ParticipantResource participantResource = new ParticipantResource(participantServiceMock);
+        ParticipantResource participantResource = new ParticipantResource(participantServiceMock, projectVersions);
         when(participantServiceMock.findAllWithEagerRelationships(projectId, null, null, any())).thenReturn(new PageImpl<>(new ArrayList<>()));
         MockMvc restParticipantMockMvc = MockMvcBuilders.standaloneSetup(participantResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
@@ -394,7 +483,8 @@ public class ParticipantResourceIT {
             .andExpect(jsonPath("$.handedness").value(DEFAULT_HANDWRITING_MEAN.toString()))
             .andExpect(jsonPath("$.additionalInfo").value(DEFAULT_ADDITIONAL_INFO))
             .andExpect(jsonPath("$.imageContentType").value(DEFAULT_IMAGE_CONTENT_TYPE))
-            .andExpect(jsonPath("$.image").value(Base64Utils.encodeToString(DEFAULT_IMAGE)))
+            .andExpect(jsonPath("$.imageHash").value(DEFAULT_IMAGE_HASH))
+            .andExpect(jsonPath("$.image").doesNotExist())
             .andExpect(jsonPath("$.labels").isArray())
             .andExpect(jsonPath("$.createdBy").value(DEFAULT_USERNAME))
             .andExpect(jsonPath("$.createdDate").exists());
@@ -818,7 +908,8 @@ public class ParticipantResourceIT {
             .andExpect(jsonPath("$.[*].handedness").value(hasItem(DEFAULT_HANDWRITING_MEAN.toString())))
             .andExpect(jsonPath("$.[*].additionalInfo").value(hasItem(DEFAULT_ADDITIONAL_INFO)))
             .andExpect(jsonPath("$.[*].imageContentType").value(hasItem(DEFAULT_IMAGE_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].image").value(hasItem(Base64Utils.encodeToString(DEFAULT_IMAGE))))
+            .andExpect(jsonPath("$.[*].imageHash").value(hasItem(DEFAULT_IMAGE_HASH)))
+            .andExpect(jsonPath("$.[*].image").doesNotExist())
             .andExpect(jsonPath("$.[*].labels").isArray())
             .andExpect(jsonPath("$.[*].createdBy").value(hasItem(DEFAULT_USERNAME)))
             .andExpect(jsonPath("$.[*].createdDate").exists());
@@ -879,9 +970,9 @@ public class ParticipantResourceIT {
             .birthdate(UPDATED_BIRTHDATE)
             .handedness(UPDATED_HANDWRITING_MEAN)
             .additionalInfo(UPDATED_ADDITIONAL_INFO)
-            .image(UPDATED_IMAGE)
             .imageContentType(UPDATED_IMAGE_CONTENT_TYPE);
         ParticipantDTO participantDTO = participantMapper.toDto(updatedParticipant);
+        participantDTO.setImage(UPDATED_IMAGE);
 
         Instant beforeUpdateInstant = Instant.now();
 
@@ -899,12 +990,59 @@ public class ParticipantResourceIT {
         assertThat(testParticipant.getBirthdate()).isEqualTo(UPDATED_BIRTHDATE);
         assertThat(testParticipant.getHandedness()).isEqualTo(UPDATED_HANDWRITING_MEAN);
         assertThat(testParticipant.getAdditionalInfo()).isEqualTo(UPDATED_ADDITIONAL_INFO);
-        assertThat(testParticipant.getImage()).isEqualTo(UPDATED_IMAGE);
+        assertThat(testParticipant.getImageHash()).isEqualTo(UPDATED_IMAGE_HASH);
+        assertThat(participantImageRepository.findById(testParticipant.getId()).get().getContent())
+            .isEqualTo(UPDATED_IMAGE);
         assertThat(testParticipant.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
         assertThat(testParticipant.getCreatedDate()).isStrictlyBetween(beforeCreateInstant, afterCreateInstant);
         assertThat(testParticipant.getLastModifiedDate()).isStrictlyBetween(beforeUpdateInstant, Instant.now());
     }
 
+    @Test
+    @Transactional
+    public void getParticipantImage() throws Exception {
+        // Initialize the database
+        participantRepository.saveAndFlush(participant);
+        participantImageRepository.saveAndFlush(
+            new ParticipantImage()
+                .participantId(participant.getId())
+                .content(DEFAULT_IMAGE)
+                .contentType(DEFAULT_IMAGE_CONTENT_TYPE)
+                .contentLength((long) DEFAULT_IMAGE.length)
+                .hash(DEFAULT_IMAGE_HASH)
+        );
+        String eTag = "\"" + DEFAULT_IMAGE_HASH + "\"";
+
+        // Get the image
+        restParticipantMockMvc.perform(get("/api/projects/{projectId}/participants/{id}/image", projectId, participant.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().contentType(DEFAULT_IMAGE_CONTENT_TYPE))
+            .andExpect(content().bytes(DEFAULT_IMAGE));
+
+        // Get the image again, with its ETag
+        restParticipantMockMvc.perform(get("/api/projects/{projectId}/participants/{id}/image", projectId, participant.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        // Get a range of the image
+        restParticipantMockMvc.perform(get("/api/projects/{projectId}/participants/{id}/image", projectId, participant.getId())
+            .header(HttpHeaders.RANGE, "bytes=0-0"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-0/" + DEFAULT_IMAGE.length));
+    }
+
+    @Test
+    @Transactional
+    public void getNonExistingParticipantImage() throws Exception {
+        // Initialize the database
+        participantRepository.saveAndFlush(participant);
+
+        // Get the image of a participant without one
+        restParticipantMockMvc.perform(get("/api/projects/{projectId}/participants/{id}/image", projectId, participant.getId()))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     @Transactional
     public void updateNonExistingParticipant() throws Exception {
@@ -942,6 +1080,43 @@ public class ParticipantResourceIT {
         assertThat(participantList).hasSize(databaseSizeBeforeDelete - 1);
     }
 
+    @Test
+    @Transactional
+    public void countParticipantsAfterCreateAndDelete() throws Exception {
+        long countBefore = participantRepository.countByProjectId(projectId);
+        long labelCountBefore = participantRepository.count(projectId, Collections.singletonList(labelId));
+
+        // Create the Participant, with the label
+        ParticipantDTO participantDTO = participantMapper.toDto(participant);
+        restParticipantMockMvc.perform(post("/api/projects/{projectId}/participants", projectId)
+            .contentType(TestUtil.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(participantDTO)))
+            .andExpect(status().isCreated());
+        List<Participant> participantList = participantRepository.findAll();
+        Long id = participantList.get(participantList.size() - 1).getId();
+
+        // Check the counts, with and without the label
+        restParticipantMockMvc.perform(get("/api/projects/{projectId}/participants/count", projectId))
+            .andExpect(status().isOk())
+            .andExpect(content().string(String.valueOf(countBefore + 1)));
+        restParticipantMockMvc.perform(get("/api/projects/{projectId}/participants/count?labels=" + labelId, projectId))
+            .andExpect(status().isOk())
+            .andExpect(content().string(String.valueOf(labelCountBefore + 1)));
+
+        // Delete the participant
+        restParticipantMockMvc.perform(delete("/api/projects/{projectId}/participants/{id}", projectId, id)
+            .accept(TestUtil.APPLICATION_JSON))
+            .andExpect(status().isNoContent());
+
+        // Check the counts are back
+        restParticipantMockMvc.perform(get("/api/projects/{projectId}/participants/count", projectId))
+            .andExpect(status().isOk())
+            .andExpect(content().string(String.valueOf(countBefore)));
+        restParticipantMockMvc.perform(get("/api/projects/{projectId}/participants/count?labels=" + labelId, projectId))
+            .andExpect(status().isOk())
+            .andExpect(content().string(String.valueOf(labelCountBefore)));
+    }
+
     @Test
     @Transactional
     public void importParticipantsCsv() throws Exception {
@@ -1100,4 +1275,31 @@ public class ParticipantResourceIT {
             .andExpect(jsonPath("$.data.[*].additionalInfo").value(containsInAnyOrder(CSV_PARTICIPANT_2_ADDITIONAL_INFO, CSV_PARTICIPANT_3_ADDITIONAL_INFO, CSV_PARTICIPANT_4_ADDITIONAL_INFO)))
             .andExpect(jsonPath("$.data.[*].labels.length()").value(containsInAnyOrder(1, 0, 1)));
     }
+
+    @Test
+    @Transactional
+    public void importParticipantsCsvWithoutData() throws Exception {
+        int databaseSizeBeforeImport = participantRepository.findAll().size();
+
+        // read file
+        byte[] content = TestUtil.readFileFromResourcesFolder("data/participants/participants.csv");
+        MockMultipartFile file = new MockMultipartFile("file", "participants.csv", null, content);
+
+        // Import the participants' CSV without returning them
+        restParticipantMockMvc
+            .perform(
+                MockMvcRequestBuilders
+                    .multipart("/api/projects/{projectId}/participants/import", projectId)
+                    .file(file)
+                    .queryParam("include-data", "false")
+            )
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.total").value(4))
+            .andExpect(jsonPath("$.invalid").value(0))
+            .andExpect(jsonPath("$.data").doesNotExist());
+
+        // Validate the participants were saved
+        assertThat(participantRepository.findAll()).hasSize(databaseSizeBeforeImport + 4);
+    }
 }
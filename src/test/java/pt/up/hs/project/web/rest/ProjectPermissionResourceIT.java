@@ -6,7 +6,9 @@ import pt.up.hs.project.domain.Permission;
 import pt.up.hs.project.domain.ProjectPermission;
 import pt.up.hs.project.domain.Project;
 import pt.up.hs.project.repository.ProjectPermissionRepository;
+import pt.up.hs.project.security.PermissionsConstants;
 import pt.up.hs.project.service.ProjectPermissionService;
+import pt.up.hs.project.service.dto.BulkProjectPermissionDTO;
 import pt.up.hs.project.service.dto.ProjectPermissionDTO;
 import pt.up.hs.project.service.mapper.ProjectPermissionMapper;
 import pt.up.hs.project.web.rest.errors.ExceptionTranslator;
@@ -24,13 +26,16 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.Validator;
+import org.springframework.web.context.WebApplicationContext;
 
 import javax.persistence.EntityManager;
+import java.util.Collections;
 import java.util.List;
 
 import static pt.up.hs.project.web.rest.ProjectResourceIT.TEST_USER_LOGIN;
 import static pt.up.hs.project.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -73,6 +78,9 @@ public class ProjectPermissionResourceIT {
     @Autowired
     private Validator validator;
 
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
     private MockMvc restProjectPermissionMockMvc;
 
     private ProjectPermission projectPermission;
@@ -259,6 +267,62 @@ public class ProjectPermissionResourceIT {
             .andExpect(jsonPath("$.[*].permissions.[*]").value(hasItem(projectPermission.getId().getPermission().getName())));
     }
 
+    @Test
+    @Transactional
+    public void getUserConnections() throws Exception {
+        // Initialize the database
+        projectPermissionRepository.saveAndFlush(projectPermission);
+        Project project = projectPermission.getProject();
+        Permission permission = projectPermission.getPermission();
+        projectPermissionRepository.saveAndFlush(
+            new ProjectPermission().user(UPDATED_USER).project(project).permission(permission)
+        );
+        // a member of a project which the user is not in
+        Project otherProject = ProjectResourceIT.createEntity(em);
+        em.persist(otherProject);
+        projectPermissionRepository.saveAndFlush(
+            new ProjectPermission().user("stranger").project(otherProject).permission(permission)
+        );
+
+        // Get the connections of the user
+        restProjectPermissionMockMvc.perform(get("/api/permissions/{user}/connections", DEFAULT_USER))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").value(containsInAnyOrder(UPDATED_USER)));
+    }
+
+    @Test
+    @Transactional
+    public void nextRequestSeesPermissionChanges() throws Exception {
+        // Go through the secured resources, so that permissions are checked
+        MockMvc restProjectMockMvc = MockMvcBuilders
+            .webAppContextSetup(webApplicationContext)
+            .build();
+
+        // Initialize the database, with a project the user has no permissions in
+        Project project = ProjectResourceIT.createEntity(em);
+        em.persist(project);
+        em.flush();
+        BulkProjectPermissionDTO read = new BulkProjectPermissionDTO(
+            TEST_USER_LOGIN, project.getId(), Collections.singletonList(PermissionsConstants.READ)
+        );
+
+        // Check (and cache) the permissions of the user
+        restProjectMockMvc.perform(get("/api/projects/{id}", project.getId()))
+            .andExpect(status().isForbidden());
+
+        // Grant the permission
+        projectPermissionService.create(project.getId(), TEST_USER_LOGIN, read);
+        restProjectMockMvc.perform(get("/api/projects/{id}", project.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(project.getId().intValue()));
+
+        // Revoke the permission
+        projectPermissionService.delete(project.getId(), TEST_USER_LOGIN, read);
+        restProjectMockMvc.perform(get("/api/projects/{id}", project.getId()))
+            .andExpect(status().isForbidden());
+    }
+
 
     // @Test
     @Transactional
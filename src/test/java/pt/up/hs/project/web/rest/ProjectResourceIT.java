@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.security.core.Authentication;
@@ -37,7 +38,9 @@ import java.time.Instant;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static pt.up.hs.project.web.rest.ProjectResourceIT.TEST_USER_LOGIN;
@@ -333,6 +336,133 @@ public class ProjectResourceIT {
             .andExpect(jsonPath("$.createdDate").exists());
     }
 
+    @Test
+    @Transactional
+    public void getAllProjectsNotModifiedUntilChanged() throws Exception {
+        // Initialize the database
+        project = projectMapper.toEntity(projectService.save(projectMapper.toDto(project)));
+
+        // Get all the projectList, with its tag
+        String etag = restProjectMockMvc.perform(get("/api/projects"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Get it again with the tag
+        restProjectMockMvc.perform(get("/api/projects").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Update the project
+        updateName(UPDATED_NAME);
+
+        // Get it again with the old tag, which no longer matches
+        restProjectMockMvc.perform(get("/api/projects").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(UPDATED_NAME)));
+    }
+
+    @Test
+    @Transactional
+    public void getProjectNotModifiedUntilChanged() throws Exception {
+        // Initialize the database
+        project = projectMapper.toEntity(projectService.save(projectMapper.toDto(project)));
+
+        // Get the project, with its tag
+        String etag = restProjectMockMvc.perform(get("/api/projects/{id}", project.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Get it again with the tag
+        restProjectMockMvc.perform(get("/api/projects/{id}", project.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Update the project
+        updateName(UPDATED_NAME);
+
+        // Get it again with the old tag, which no longer matches
+        restProjectMockMvc.perform(get("/api/projects/{id}", project.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME));
+    }
+
+    private void updateName(String name) throws Exception {
+        Project updatedProject = projectRepository.findById(project.getId()).get();
+        em.detach(updatedProject);
+        ProjectDTO projectDTO = projectMapper.toDto(updatedProject.name(name));
+        restProjectMockMvc.perform(put("/api/projects")
+            .contentType(TestUtil.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(projectDTO)))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @Transactional
+    public void getAllProjectsByStatus() throws Exception {
+        // Initialize the database
+        project = projectMapper.toEntity(projectService.save(projectMapper.toDto(project)));
+
+        defaultProjectShouldBeFound("status=" + DEFAULT_STATUS);
+        defaultProjectShouldBeFound("status=" + DEFAULT_STATUS + "&status=" + UPDATED_STATUS);
+        defaultProjectShouldNotBeFound("status=" + UPDATED_STATUS);
+    }
+
+    @Test
+    @Transactional
+    public void searchAllProjects() throws Exception {
+        // Initialize the database
+        project = projectMapper.toEntity(projectService.save(projectMapper.toDto(project)));
+
+        defaultProjectShouldBeFound("search=" + DEFAULT_NAME.toLowerCase());
+        defaultProjectShouldBeFound("search=" + DEFAULT_DESCRIPTION.substring(2, 6));
+        defaultProjectShouldBeFound("search=" + DEFAULT_NAME + "&status=" + DEFAULT_STATUS);
+        defaultProjectShouldNotBeFound("search=" + UPDATED_NAME);
+        defaultProjectShouldNotBeFound("search=" + DEFAULT_NAME + "&status=" + UPDATED_STATUS);
+    }
+
+    @Test
+    @Transactional
+    public void searchAllProjectsByRelevance() throws Exception {
+        // Initialize the database
+        Long descriptionMatch = saveProject("zyxw other", "about qwerty").getId();
+        Long substringMatch = saveProject("zyxw qwerty", null).getId();
+        Long prefixMatch = saveProject("qwerty two", null).getId();
+        Long exactMatch = saveProject("qwerty", null).getId();
+        saveProject("zyxw none", null);
+
+        // Search the projects, most relevant first
+        restProjectMockMvc.perform(get("/api/projects?search=QWERTY"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(
+                exactMatch.intValue(), prefixMatch.intValue(), substringMatch.intValue(), descriptionMatch.intValue()
+            )));
+
+        // The requested order replaces the relevance
+        restProjectMockMvc.perform(get("/api/projects?search=qwerty&sort=id,asc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(
+                descriptionMatch.intValue(), substringMatch.intValue(), prefixMatch.intValue(), exactMatch.intValue()
+            )));
+        restProjectMockMvc.perform(get("/api/projects?search=qwerty&sort=name,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(
+                substringMatch.intValue(), descriptionMatch.intValue(), exactMatch.intValue(), prefixMatch.intValue()
+            )));
+    }
+
+    private ProjectDTO saveProject(String name, String description) {
+        Project newProject = createEntity(em)
+            .name(name)
+            .description(description);
+        return projectService.save(projectMapper.toDto(newProject));
+    }
+
     /**
      * Executes the search, and checks that the default entity is returned.
      */
@@ -1,5 +1,6 @@
 package pt.up.hs.project.web.rest;
 
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -8,8 +9,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -24,15 +27,18 @@ import pt.up.hs.project.domain.Task;
 import pt.up.hs.project.repository.TaskRepository;
 import pt.up.hs.project.service.LabelService;
 import pt.up.hs.project.service.TaskService;
+import pt.up.hs.project.service.cache.ProjectVersions;
 import pt.up.hs.project.service.dto.TaskDTO;
 import pt.up.hs.project.service.mapper.TaskMapper;
 import pt.up.hs.project.web.rest.errors.ExceptionTranslator;
+import pt.up.hs.project.web.rest.util.CursorPaginationUtil;
 
 import javax.persistence.EntityManager;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -96,6 +102,9 @@ public class TaskResourceIT {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private ProjectVersions projectVersions;
+
     @Autowired
     private LabelService labelService;
 
@@ -123,7 +132,7 @@ public class TaskResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final TaskResource taskResource = new TaskResource(taskService);
+        final TaskResource taskResource = new TaskResource(taskService, projectVersions);
         this.restTaskMockMvc = MockMvcBuilders.standaloneSetup(taskResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -303,6 +312,59 @@ public class TaskResourceIT {
             .andExpect(jsonPath("$.[*].createdDate").exists());
     }
 
+    @Test
+    @Transactional
+    public void getAllTasksWithCursor() throws Exception {
+        // Initialize the database, with repeated names so that pages are
+        // split between tasks with the same name
+        List<Task> tasks = new ArrayList<>();
+        for (String name: new String[] { "CCCCCCCCCC", "AAAAAAAAAA", "BBBBBBBBBB", "AAAAAAAAAA", "CCCCCCCCCC" }) {
+            tasks.add(taskRepository.saveAndFlush(createEntity(projectId, new Long[] { labelId }).name(name)));
+        }
+
+        // Walk the pages sorted by name
+        List<Integer> byName = tasks.stream()
+            .sorted(Comparator.comparing(Task::getName).thenComparing(Task::getId))
+            .map(t -> t.getId().intValue())
+            .collect(Collectors.toList());
+        assertThat(walkCursors("name,asc")).containsExactlyElementsOf(byName);
+
+        // Walk the pages sorted by name, descending
+        Collections.reverse(byName);
+        assertThat(walkCursors("name,desc")).containsExactlyElementsOf(byName);
+
+        // Walk the pages sorted by id, descending
+        List<Integer> byIdDesc = tasks.stream()
+            .map(t -> t.getId().intValue())
+            .sorted(Comparator.reverseOrder())
+            .collect(Collectors.toList());
+        assertThat(walkCursors("id,desc")).containsExactlyElementsOf(byIdDesc);
+
+        // Reject sorting by a property without an index
+        restTaskMockMvc.perform(
+            get("/api/projects/{projectId}/tasks?cursor=&sort=description,asc", projectId))
+            .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Get the ids of the tasks in pages of two, following the next cursor
+     * until the last page.
+     */
+    private List<Integer> walkCursors(String sort) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = "";
+        do {
+            MockHttpServletResponse response = restTaskMockMvc.perform(
+                get("/api/projects/{projectId}/tasks?size=2&sort={sort}&cursor={cursor}", projectId, sort, cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(lessThanOrEqualTo(2))))
+                .andReturn().getResponse();
+            ids.addAll(JsonPath.read(response.getContentAsString(), "$.[*].id"));
+            cursor = response.getHeader(CursorPaginationUtil.HEADER_NEXT_CURSOR);
+        } while (cursor != null);
+        return ids;
+    }
+
     @Test
     @Transactional
     public void getAllTasksBasic() throws Exception {
@@ -318,8 +380,38 @@ public class TaskResourceIT {
             .andExpect(jsonPath("$.[*].labelIds.[*]").value(hasItem(labelId.intValue())));
     }
 
+    @Test
+    @Transactional
+    public void getAllTasksBasicNotModifiedUntilChanged() throws Exception {
+        // Get the basic taskList, with its tag
+        String etag = restTaskMockMvc.perform(get("/api/projects/{projectId}/tasks/basic", projectId))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Get it again with the tag
+        restTaskMockMvc.perform(get("/api/projects/{projectId}/tasks/basic", projectId)
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Create the Task
+        TaskDTO taskDTO = taskMapper.toDto(task);
+        restTaskMockMvc.perform(post("/api/projects/{projectId}/tasks", projectId)
+            .contentType(TestUtil.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(taskDTO)))
+            .andExpect(status().isCreated());
+
+        // Get it again with the old tag, which no longer matches
+        restTaskMockMvc.perform(get("/api/projects/{projectId}/tasks/basic", projectId)
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
+    }
+
     public void getAllTasksWithEagerRelationshipsIsEnabled() throws Exception {
-        TaskResource taskResource = new TaskResource(taskServiceMock);
+        TaskResource taskResource = new TaskResource(taskServiceMock, projectVersions);
         when(
             taskServiceMock
                 .findAllWithEagerRelationships(projectId, null, null, any())
@@ -340,7 +432,7 @@ public class TaskResourceIT {
     }
 
     public void getAllTasksWithEagerRelationshipsIsNotEnabled() throws Exception {
-        TaskResource taskResource = new TaskResource(taskServiceMock);
+        TaskResource taskResource = new TaskResource(taskServiceMock, projectVersions);
             when(
                 taskServiceMock
                     .findAllWithEagerRelationships(projectId, null, null, any())